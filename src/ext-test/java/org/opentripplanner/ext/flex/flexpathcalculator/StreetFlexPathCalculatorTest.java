@@ -0,0 +1,168 @@
+package org.opentripplanner.ext.flex.flexpathcalculator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.google.common.cache.CacheStats;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+class StreetFlexPathCalculatorTest {
+
+  private static final int GRID_SIZE = 5;
+  private static final double STEP_DEGREES = 0.001;
+  private static final Duration MAX_FLEX_TRIP_DURATION = Duration.ofMinutes(45);
+
+  private final List<Vertex> vertices = new ArrayList<>();
+  private final StreetVertex[][] grid = new StreetVertex[GRID_SIZE][GRID_SIZE];
+  private final FlexPathCache cache = new FlexPathCache(1000);
+
+  /** A grid of streets with different speeds, the vertices are indexed like in the graph. */
+  StreetFlexPathCalculatorTest() {
+    for (int row = 0; row < GRID_SIZE; ++row) {
+      for (int col = 0; col < GRID_SIZE; ++col) {
+        var v = StreetModelForTest.intersectionVertex(
+          "V" + row + "_" + col,
+          60.0 + row * STEP_DEGREES,
+          10.0 + col * STEP_DEGREES
+        );
+        v.setIndex(vertices.size());
+        vertices.add(v);
+        grid[row][col] = v;
+        if (row > 0) {
+          street(grid[row - 1][col], v, 10 + col);
+        }
+        if (col > 0) {
+          street(grid[row][col - 1], v, 10 + 2 * row);
+        }
+      }
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = { false, true })
+  void sameResultAsTheShortestPathTree(boolean reverseDirection) {
+    var expected = new StreetFlexPathCalculator(reverseDirection, MAX_FLEX_TRIP_DURATION);
+    var subject = calculator(reverseDirection);
+
+    for (Vertex from : vertices) {
+      for (Vertex to : vertices) {
+        var path = expected.calculateFlexPath(from, to, 0, 1);
+        var cached = subject.calculateFlexPath(from, to, 0, 1);
+        assertNotNull(path);
+        assertNotNull(cached);
+        assertEquals(path.durationSeconds, cached.durationSeconds, from + " -> " + to);
+        assertEquals(path.distanceMeters, cached.distanceMeters, from + " -> " + to);
+        assertEquals(path.getGeometry(), cached.getGeometry(), from + " -> " + to);
+      }
+    }
+  }
+
+  @Test
+  void tablesAreSharedByTheRequests() {
+    var from = grid[0][0];
+    var to = grid[GRID_SIZE - 1][GRID_SIZE - 1];
+
+    calculator(false).calculateFlexPath(from, to, 0, 1);
+    calculator(false).calculateFlexPath(from, grid[1][1], 0, 1);
+    calculator(true).calculateFlexPath(from, to, 0, 1);
+
+    CacheStats stats = cache.getCache().stats();
+    assertEquals(1, stats.hitCount());
+    assertEquals(2, stats.missCount());
+  }
+
+  @Test
+  void temporaryVerticesAreNotCached() {
+    var temporary = StreetModelForTest.intersectionVertex("T", 60.0005, 10.0);
+    street(grid[0][0], temporary, 10);
+    street(temporary, grid[1][0], 10);
+
+    assertNotNull(calculator(false).calculateFlexPath(temporary, grid[2][2], 0, 1));
+    assertNotNull(calculator(false).calculateFlexPath(grid[0][0], temporary, 0, 1));
+    assertEquals(0, cache.getCache().size());
+  }
+
+  @Test
+  void maxFlexTripDuration() {
+    var calculator = new StreetFlexPathCalculator(false, Duration.ofSeconds(30), cache);
+    assertNull(calculator.calculateFlexPath(grid[0][0], grid[GRID_SIZE - 1][0], 0, 1));
+  }
+
+  @Test
+  void invalidateIfGraphChanged() {
+    var graph = new Graph();
+    cache.invalidateIfGraphChanged(graph);
+    calculator(false).calculateFlexPath(grid[0][0], grid[1][1], 0, 1);
+
+    cache.invalidateIfGraphChanged(graph);
+    assertEquals(1, cache.getCache().size());
+
+    cache.invalidateIfGraphChanged(new Graph());
+    assertEquals(0, cache.getCache().size());
+  }
+
+  @Test
+  void tableCreatedBeforeTheGraphChangedIsNotReturned() {
+    var origin = grid[0][0];
+    var oldTable = table(origin);
+    var newTable = table(origin);
+    cache.invalidateIfGraphChanged(new Graph());
+
+    // Another request changes the graph while this request creates the table
+    var graph = new Graph();
+    var result = cache.get(
+      origin,
+      false,
+      MAX_FLEX_TRIP_DURATION,
+      () -> {
+        cache.invalidateIfGraphChanged(graph);
+        return oldTable;
+      }
+    );
+    assertSame(oldTable, result);
+
+    assertSame(newTable, cache.get(origin, false, MAX_FLEX_TRIP_DURATION, () -> newTable));
+  }
+
+  /** A table for the origin, created without using the cache under test. */
+  private static TravelTimeTable table(Vertex origin) {
+    var tables = new FlexPathCache(1000);
+    new StreetFlexPathCalculator(false, MAX_FLEX_TRIP_DURATION, tables)
+      .calculateFlexPath(origin, origin, 0, 1);
+    return tables.get(
+      origin,
+      false,
+      MAX_FLEX_TRIP_DURATION,
+      () -> {
+        throw new IllegalStateException("Not cached");
+      }
+    );
+  }
+
+  private StreetFlexPathCalculator calculator(boolean reverseDirection) {
+    return new StreetFlexPathCalculator(reverseDirection, MAX_FLEX_TRIP_DURATION, cache);
+  }
+
+  private static void street(StreetVertex a, StreetVertex b, float carSpeed) {
+    StreetModelForTest
+      .streetEdgeBuilder(a, b, 111, StreetTraversalPermission.ALL)
+      .withCarSpeed(carSpeed)
+      .buildAndConnect();
+    StreetModelForTest
+      .streetEdgeBuilder(b, a, 111, StreetTraversalPermission.ALL)
+      .withCarSpeed(carSpeed)
+      .buildAndConnect();
+  }
+}
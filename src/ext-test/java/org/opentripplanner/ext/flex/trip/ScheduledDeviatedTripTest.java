@@ -21,6 +21,7 @@ import org.opentripplanner.ext.fares.DecorateWithFare;
 import org.opentripplanner.ext.flex.FlexIntegrationTestData;
 import org.opentripplanner.ext.flex.FlexParameters;
 import org.opentripplanner.ext.flex.FlexRouter;
+import org.opentripplanner.ext.flex.flexpathcalculator.FlexPathCache;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.geometry.EncodedPolyline;
 import org.opentripplanner.framework.i18n.I18NString;
@@ -103,6 +104,7 @@ class ScheduledDeviatedTripTest {
       graph,
       new DefaultTransitService(transitModel),
       FlexParameters.defaultValues(),
+      new FlexPathCache(0),
       OffsetDateTime.parse("2021-11-12T10:15:24-05:00").toInstant(),
       null,
       1,
@@ -0,0 +1,67 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.api.response.StopArrivals;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.site.StopLocation;
+
+class TravelTimeGeoJsonWriterTest {
+
+  private static final TransitModelForTest TEST_MODEL = TransitModelForTest.of();
+  private static final List<StopLocation> STOPS = List.of(
+    TEST_MODEL.stop("A", 60.0, 10.0).build(),
+    TEST_MODEL.stop("B", 60.1, 10.1).build(),
+    TEST_MODEL.stop("C", 60.2, 10.2).build()
+  );
+
+  @Test
+  void writeReachedStopsAsPoints() throws IOException {
+    var travelTimes = new TravelTimePercentiles(STOPS.size(), 3600);
+    travelTimes.iterationComplete(100, arrivals(true, false, true));
+    travelTimes.iterationComplete(0, arrivals(true, false, false));
+
+    var out = new ByteArrayOutputStream();
+    TravelTimeGeoJsonWriter.write(out, STOPS::get, travelTimes, new int[] { 50, 100 });
+    var json = out.toString(StandardCharsets.UTF_8);
+
+    assertEquals(2, json.split("\"Feature\"").length - 1, json);
+    assertTrue(json.contains("\"stopId\":\"F:A\""), json);
+    assertFalse(json.contains("\"stopId\":\"F:B\""), json);
+    assertTrue(json.contains("\"stopId\":\"F:C\""), json);
+    assertTrue(json.contains("\"p50\":500"), json);
+    assertTrue(json.contains("\"p100\":600"), json);
+  }
+
+  /** Stops reached 600 seconds after the origin departure-time 0 */
+  private static StopArrivals arrivals(boolean... reached) {
+    return new StopArrivals() {
+      @Override
+      public boolean reached(int stopIndex) {
+        return reached[stopIndex];
+      }
+
+      @Override
+      public int bestArrivalTime(int stopIndex) {
+        return 600;
+      }
+
+      @Override
+      public boolean reachedByTransit(int stopIndex) {
+        return reached(stopIndex);
+      }
+
+      @Override
+      public int bestTransitArrivalTime(int stopIndex) {
+        return 600;
+      }
+    };
+  }
+}
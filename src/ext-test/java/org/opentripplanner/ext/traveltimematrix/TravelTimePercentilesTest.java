@@ -0,0 +1,77 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.api.response.StopArrivals;
+
+class TravelTimePercentilesTest {
+
+  private static final int NOT_REACHED = -999;
+  private static final int STOP_A = 0;
+  private static final int STOP_B = 1;
+  private static final int STOP_C = 2;
+  private static final int[] PERCENTILES = { 1, 25, 50, 100 };
+  private static final int UNREACHED = TravelTimePercentiles.UNREACHED;
+
+  private final TravelTimePercentiles subject = new TravelTimePercentiles(3, 600);
+
+  @Test
+  void percentiles() {
+    // Iterations are performed from the latest departure-time to the earliest
+    subject.iterationComplete(400, arrivals(1000, NOT_REACHED, NOT_REACHED));
+    subject.iterationComplete(300, arrivals(500, 1000, NOT_REACHED));
+    subject.iterationComplete(200, arrivals(500, 700, NOT_REACHED));
+    subject.iterationComplete(100, arrivals(500, 700, NOT_REACHED));
+
+    // Travel-times: 600, 200, 300, 400
+    assertArrayEquals(new int[] { 200, 200, 300, 600 }, subject.percentiles(STOP_A, PERCENTILES));
+    // Travel-times: not reached, 700(longer than max travel-time), 500, 600
+    assertArrayEquals(
+      new int[] { 500, 500, 600, UNREACHED },
+      subject.percentiles(STOP_B, PERCENTILES)
+    );
+    assertArrayEquals(
+      new int[] { UNREACHED, UNREACHED, UNREACHED, UNREACHED },
+      subject.percentiles(STOP_C, PERCENTILES)
+    );
+  }
+
+  @Test
+  void forEachReachedStop() {
+    subject.iterationComplete(100, arrivals(200, 800, 300));
+
+    List<Integer> stops = new ArrayList<>();
+    subject.forEachReachedStop(stops::add);
+
+    // Stop B is reached, but not within the max travel-time
+    assertEquals(List.of(STOP_A, STOP_C), stops);
+  }
+
+  private static StopArrivals arrivals(int... times) {
+    return new StopArrivals() {
+      @Override
+      public boolean reached(int stopIndex) {
+        return times[stopIndex] != NOT_REACHED;
+      }
+
+      @Override
+      public int bestArrivalTime(int stopIndex) {
+        return times[stopIndex];
+      }
+
+      @Override
+      public boolean reachedByTransit(int stopIndex) {
+        return reached(stopIndex);
+      }
+
+      @Override
+      public int bestTransitArrivalTime(int stopIndex) {
+        return times[stopIndex];
+      }
+    };
+  }
+}
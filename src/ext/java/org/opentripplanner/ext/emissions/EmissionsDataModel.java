@@ -4,6 +4,7 @@ import jakarta.inject.Inject;
 import java.io.Serializable;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 
 /**
@@ -22,6 +23,14 @@ public class EmissionsDataModel implements Serializable {
     this.carAvgCo2PerMeter = carAvgCo2PerMeter;
   }
 
+  /**
+   * Create a data model which is loaded on first access, used for the data saved with the graph.
+   * The loader is called each time the data is accessed, and should cache the data model.
+   */
+  public static EmissionsDataModel lazy(Supplier<EmissionsDataModel> loader) {
+    return new LazyEmissionsDataModel(loader);
+  }
+
   public void setCo2Emissions(Map<FeedScopedId, Double> co2Emissions) {
     this.co2Emissions = co2Emissions;
   }
@@ -37,4 +46,33 @@ public class EmissionsDataModel implements Serializable {
   public Optional<Double> getCO2EmissionsById(FeedScopedId feedScopedRouteId) {
     return Optional.ofNullable(this.co2Emissions.get(feedScopedRouteId));
   }
+
+  private static class LazyEmissionsDataModel extends EmissionsDataModel {
+
+    private final Supplier<EmissionsDataModel> loader;
+
+    private LazyEmissionsDataModel(Supplier<EmissionsDataModel> loader) {
+      this.loader = loader;
+    }
+
+    @Override
+    public void setCo2Emissions(Map<FeedScopedId, Double> co2Emissions) {
+      loader.get().setCo2Emissions(co2Emissions);
+    }
+
+    @Override
+    public void setCarAvgCo2PerMeter(double carAvgCo2PerMeter) {
+      loader.get().setCarAvgCo2PerMeter(carAvgCo2PerMeter);
+    }
+
+    @Override
+    public Optional<Double> getCarAvgCo2PerMeter() {
+      return loader.get().getCarAvgCo2PerMeter();
+    }
+
+    @Override
+    public Optional<Double> getCO2EmissionsById(FeedScopedId feedScopedRouteId) {
+      return loader.get().getCO2EmissionsById(feedScopedRouteId);
+    }
+  }
 }
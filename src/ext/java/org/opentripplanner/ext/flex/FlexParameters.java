@@ -27,6 +27,11 @@ public interface FlexParameters {
    */
   Duration maxEgressWalkDuration();
 
+  /**
+   * See {@link org.opentripplanner.standalone.config.sandbox.FlexConfig}
+   */
+  long streetPathCacheMaxSize();
+
   /**
    * This defines the default values. This will be used by the OTP configuration and by tests,
    * avoid using this directly.
@@ -52,6 +57,11 @@ public interface FlexParameters {
       public Duration maxEgressWalkDuration() {
         return Duration.ofMinutes(45);
       }
+
+      @Override
+      public long streetPathCacheMaxSize() {
+        return 0;
+      }
     };
   }
 }
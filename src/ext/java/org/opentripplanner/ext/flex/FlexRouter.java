@@ -10,6 +10,7 @@ import java.util.List;
 import javax.annotation.Nullable;
 import org.opentripplanner.astar.model.GraphPath;
 import org.opentripplanner.ext.flex.flexpathcalculator.DirectFlexPathCalculator;
+import org.opentripplanner.ext.flex.flexpathcalculator.FlexPathCache;
 import org.opentripplanner.ext.flex.flexpathcalculator.FlexPathCalculator;
 import org.opentripplanner.ext.flex.flexpathcalculator.StreetFlexPathCalculator;
 import org.opentripplanner.ext.flex.template.DirectFlexPath;
@@ -57,6 +58,7 @@ public class FlexRouter {
     Graph graph,
     TransitService transitService,
     FlexParameters flexParameters,
+    FlexPathCache flexPathCache,
     Instant requestedTime,
     @Nullable Instant requestedBookingTime,
     int additionalPastSearchDays,
@@ -79,10 +81,11 @@ public class FlexRouter {
       );
 
     if (graph.hasStreets) {
+      flexPathCache.invalidateIfGraphChanged(graph);
       this.accessFlexPathCalculator =
-        new StreetFlexPathCalculator(false, flexParameters.maxFlexTripDuration());
+        new StreetFlexPathCalculator(false, flexParameters.maxFlexTripDuration(), flexPathCache);
       this.egressFlexPathCalculator =
-        new StreetFlexPathCalculator(true, flexParameters.maxFlexTripDuration());
+        new StreetFlexPathCalculator(true, flexParameters.maxFlexTripDuration(), flexPathCache);
     } else {
       // this is only really useful in tests. in real world scenarios you're unlikely to get useful
       // results if you don't have streets
@@ -0,0 +1,129 @@
+package org.opentripplanner.ext.flex.flexpathcalculator;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.opentripplanner.ext.flex.FlexParameters;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * Caches the driving durations from the flex stops, so the flex searches of different requests do
+ * not repeat the one-to-many street search from the same stop. The cache is shared by the flex
+ * access, egress and direct searches of all requests.
+ * <p>
+ * Each entry is a {@link TravelTimeTable} for one origin vertex and search direction. The size of
+ * the cache is limited by the total number of path elements in the tables, the least recently used
+ * tables are dropped first. Only vertices which are part of the graph are cached, not the
+ * temporary vertices of a request.
+ * <p>
+ * All entries are dropped when the graph is replaced, or edges are linked into or removed from the
+ * street graph by realtime updates. Vehicle rental updates do not drop the entries, the rental
+ * links are not used when driving, see
+ * {@link org.opentripplanner.routing.graph.index.EdgeSpatialIndex}. The entries are keyed by the
+ * generation of the graph they are created for, so a table created by a request which started
+ * before the entries were dropped is never returned for the new graph.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public class FlexPathCache {
+
+  @Nullable
+  private final Cache<CacheKey, TravelTimeTable> cache;
+
+  private Graph graph;
+  private long realTimeEdgeVersion;
+
+  /** Incremented each time the entries are dropped, read by requests without locking. */
+  private volatile int generation;
+
+  /**
+   * @param maximumSize the maximum number of path elements to keep, 0 disables the cache.
+   */
+  public FlexPathCache(long maximumSize) {
+    this.cache =
+      maximumSize > 0
+        ? CacheBuilder
+          .newBuilder()
+          .maximumWeight(maximumSize)
+          .<CacheKey, TravelTimeTable>weigher((key, table) -> table.size())
+          .recordStats()
+          .build()
+        : null;
+  }
+
+  public static FlexPathCache of(FlexParameters flexParameters) {
+    return new FlexPathCache(flexParameters.streetPathCacheMaxSize());
+  }
+
+  /**
+   * The underlying cache, used to report the hit and miss metrics, or {@code null} if the cache
+   * is disabled.
+   */
+  @Nullable
+  public Cache<?, ?> getCache() {
+    return cache;
+  }
+
+  boolean isEnabled() {
+    return cache != null;
+  }
+
+  /**
+   * Drop all cached entries if the graph is not the same as the last time this method was called,
+   * or the street graph is changed by realtime updates. Call this before using the cache in a
+   * request.
+   */
+  public synchronized void invalidateIfGraphChanged(Graph graph) {
+    if (cache == null) {
+      return;
+    }
+    var streetIndex = graph.getStreetIndex();
+    long version = streetIndex == null ? 0 : streetIndex.getRealTimeEdgeVersion();
+    if (graph != this.graph || version != realTimeEdgeVersion) {
+      ++generation;
+      cache.invalidateAll();
+      this.graph = graph;
+      this.realTimeEdgeVersion = version;
+    }
+  }
+
+  /**
+   * Return the table for the origin, from the cache if it is created before. If the entries are
+   * dropped while the table is created, the table is still stored, but under the old generation,
+   * and is evicted like any other unused entry.
+   *
+   * @param search the one-to-many search creating the table, only called if it is not cached
+   */
+  TravelTimeTable get(
+    Vertex origin,
+    boolean reverseDirection,
+    Duration maxFlexTripDuration,
+    Supplier<TravelTimeTable> search
+  ) {
+    if (cache == null) {
+      return search.get();
+    }
+    var key = new CacheKey(generation, origin.getIndex(), reverseDirection, maxFlexTripDuration);
+    try {
+      return cache.get(key, search::get);
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      // Let timeouts from the search through unchanged
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new RuntimeException("Failed to get item from flex path cache", e);
+    }
+  }
+
+  private record CacheKey(
+    int generation,
+    int vertexIndex,
+    boolean reverseDirection,
+    Duration maxFlexTripDuration
+  ) {}
+}
@@ -5,12 +5,15 @@ import java.util.HashMap;
 import java.util.Map;
 import org.opentripplanner.astar.model.GraphPath;
 import org.opentripplanner.astar.model.ShortestPathTree;
+import org.opentripplanner.astar.spi.SkipEdgeStrategy;
+import org.opentripplanner.astar.strategy.ComposingSkipEdgeStrategy;
 import org.opentripplanner.astar.strategy.DurationSkipEdgeStrategy;
 import org.opentripplanner.framework.geometry.GeometryUtils;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.api.request.request.StreetRequest;
 import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.TemporaryEdge;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.search.StreetSearchBuilder;
 import org.opentripplanner.street.search.state.State;
@@ -29,16 +32,32 @@ import org.opentripplanner.street.search.strategy.DominanceFunctions;
  * configured so that the caching is done with either the origin or destination vertex as the key.
  * The one-to-many search will then either be done in the forward or the reverse direction depending
  * on this configuration.
+ * <p>
+ * If the {@link FlexPathCache} is enabled, the durations from vertices which are part of the graph
+ * are also cached across requests. Only the durations, distances and edges of the fastest paths are
+ * kept, see {@link TravelTimeTable}. The durations of arrive-by searches are taken from the reverse
+ * search, they are not re-calculated driving forward.
  */
 public class StreetFlexPathCalculator implements FlexPathCalculator {
 
   private final Map<Vertex, ShortestPathTree<State, Edge, Vertex>> cache = new HashMap<>();
+  private final Map<Vertex, TravelTimeTable> tables = new HashMap<>();
   private final boolean reverseDirection;
   private final Duration maxFlexTripDuration;
+  private final FlexPathCache sharedCache;
 
-  public StreetFlexPathCalculator(boolean reverseDirection, Duration maxFlexTripDuration) {
+  public StreetFlexPathCalculator(
+    boolean reverseDirection,
+    Duration maxFlexTripDuration,
+    FlexPathCache sharedCache
+  ) {
     this.reverseDirection = reverseDirection;
     this.maxFlexTripDuration = maxFlexTripDuration;
+    this.sharedCache = sharedCache;
+  }
+
+  public StreetFlexPathCalculator(boolean reverseDirection, Duration maxFlexTripDuration) {
+    this(reverseDirection, maxFlexTripDuration, new FlexPathCache(0));
   }
 
   @Override
@@ -53,11 +72,30 @@ public class StreetFlexPathCalculator implements FlexPathCalculator {
     Vertex originVertex = reverseDirection ? tov : fromv;
     Vertex destinationVertex = reverseDirection ? fromv : tov;
 
+    if (
+      sharedCache.isEnabled() &&
+      originVertex.getIndex() != Vertex.NO_INDEX &&
+      destinationVertex.getIndex() != Vertex.NO_INDEX
+    ) {
+      return tables
+        .computeIfAbsent(
+          originVertex,
+          v ->
+            sharedCache.get(
+              v,
+              reverseDirection,
+              maxFlexTripDuration,
+              () -> TravelTimeTable.of(routeToMany(v, true), reverseDirection)
+            )
+        )
+        .flexPath(destinationVertex);
+    }
+
     ShortestPathTree<State, Edge, Vertex> shortestPathTree;
     if (cache.containsKey(originVertex)) {
       shortestPathTree = cache.get(originVertex);
     } else {
-      shortestPathTree = routeToMany(originVertex);
+      shortestPathTree = routeToMany(originVertex, false);
       cache.put(originVertex, shortestPathTree);
     }
 
@@ -79,13 +117,31 @@ public class StreetFlexPathCalculator implements FlexPathCalculator {
     );
   }
 
-  private ShortestPathTree<State, Edge, Vertex> routeToMany(Vertex vertex) {
+  /**
+   * @param skipTemporaryEdges skip the temporary edges, added to the graph by the requests running
+   *                           at the same time, when the result is shared with other requests.
+   */
+  private ShortestPathTree<State, Edge, Vertex> routeToMany(
+    Vertex vertex,
+    boolean skipTemporaryEdges
+  ) {
     RouteRequest routingRequest = new RouteRequest();
     routingRequest.setArriveBy(reverseDirection);
 
+    SkipEdgeStrategy<State, Edge> skipEdgeStrategy = new DurationSkipEdgeStrategy<>(
+      maxFlexTripDuration
+    );
+    if (skipTemporaryEdges) {
+      skipEdgeStrategy =
+        new ComposingSkipEdgeStrategy<>(
+          skipEdgeStrategy,
+          (current, edge) -> edge instanceof TemporaryEdge
+        );
+    }
+
     return StreetSearchBuilder
       .of()
-      .setSkipEdgeStrategy(new DurationSkipEdgeStrategy<>(maxFlexTripDuration))
+      .setSkipEdgeStrategy(skipEdgeStrategy)
       .setDominanceFunction(new DominanceFunctions.EarliestArrival())
       .setRequest(routingRequest)
       .setStreetRequest(new StreetRequest(StreetMode.CAR))
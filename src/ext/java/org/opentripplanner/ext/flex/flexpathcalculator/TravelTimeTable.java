@@ -0,0 +1,159 @@
+package org.opentripplanner.ext.flex.flexpathcalculator;
+
+import gnu.trove.list.array.TDoubleArrayList;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.opentripplanner.astar.model.ShortestPathTree;
+import org.opentripplanner.framework.geometry.GeometryUtils;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * The driving durations and distances from one origin vertex to all vertices reached by a
+ * one-to-many search, extracted from the {@link ShortestPathTree}. Only the back edge and the
+ * previous path element are kept for each state on the fastest paths, the states themselves are
+ * dropped. This is a lot smaller than the tree, so the table can be kept after the request is
+ * done, see {@link FlexPathCache}.
+ * <p>
+ * The vertices are looked up by the {@link Vertex#getIndex()}, vertices without an index, like the
+ * temporary vertices of a request, are not included.
+ * <p>
+ * THIS CLASS IS IMMUTABLE AND THREAD-SAFE.
+ */
+class TravelTimeTable {
+
+  private static final int NOT_FOUND = -1;
+
+  private final boolean reverseDirection;
+  private final TIntIntMap elementByVertexIndex;
+  private final int[] durationSeconds;
+  private final double[] distanceMeters;
+  private final int[] previous;
+  private final Edge[] backEdges;
+
+  private TravelTimeTable(
+    boolean reverseDirection,
+    TIntIntMap elementByVertexIndex,
+    int[] durationSeconds,
+    double[] distanceMeters,
+    int[] previous,
+    Edge[] backEdges
+  ) {
+    this.reverseDirection = reverseDirection;
+    this.elementByVertexIndex = elementByVertexIndex;
+    this.durationSeconds = durationSeconds;
+    this.distanceMeters = distanceMeters;
+    this.previous = previous;
+    this.backEdges = backEdges;
+  }
+
+  /**
+   * @param reverseDirection {@code true} if the tree is the result of an arrive-by search, the
+   *                         paths then lead to the origin of the search.
+   */
+  static TravelTimeTable of(ShortestPathTree<State, Edge, Vertex> tree, boolean reverseDirection) {
+    var elementByVertexIndex = new TIntIntHashMap(
+      tree.getVertexCount(),
+      0.5f,
+      NOT_FOUND,
+      NOT_FOUND
+    );
+    Map<State, Integer> elementByState = new IdentityHashMap<>();
+    List<State> states = new ArrayList<>();
+    var duration = new TIntArrayList();
+    var distance = new TDoubleArrayList();
+    var previous = new TIntArrayList();
+
+    for (Vertex vertex : tree.getVertices()) {
+      State best;
+      if (vertex.getIndex() == Vertex.NO_INDEX || (best = tree.getState(vertex)) == null) {
+        continue;
+      }
+      // Add the states of the path not already in the table, from the end of the path
+      int first = states.size();
+      Integer element = null;
+      for (State s = best; s != null; s = s.getBackState()) {
+        element = elementByState.get(s);
+        if (element != null) {
+          break;
+        }
+        elementByState.put(s, states.size());
+        states.add(s);
+        duration.add((int) s.getElapsedTimeSeconds());
+        distance.add(0);
+        previous.add(states.size());
+      }
+      int last = states.size() - 1;
+      if (last >= first) {
+        previous.set(last, element == null ? NOT_FOUND : element);
+        // The distances are summed from the start of the path
+        double meters = element == null ? 0 : distance.get(element);
+        for (int i = last; i >= first; --i) {
+          var backEdge = states.get(i).getBackEdge();
+          if (backEdge != null && previous.get(i) != NOT_FOUND) {
+            meters += backEdge.getDistanceMeters();
+          }
+          distance.set(i, meters);
+        }
+      }
+      elementByVertexIndex.put(vertex.getIndex(), elementByState.get(best));
+    }
+
+    int size = states.size();
+    var backEdges = new Edge[size];
+    for (int i = 0; i < size; ++i) {
+      backEdges[i] = previous.get(i) == NOT_FOUND ? null : states.get(i).getBackEdge();
+    }
+    return new TravelTimeTable(
+      reverseDirection,
+      elementByVertexIndex,
+      duration.toArray(),
+      distance.toArray(),
+      previous.toArray(),
+      backEdges
+    );
+  }
+
+  /**
+   * The path between the origin of the search and the vertex, or {@code null} if the vertex is not
+   * reached.
+   */
+  @Nullable
+  FlexPath flexPath(Vertex vertex) {
+    int element = elementByVertexIndex.get(vertex.getIndex());
+    if (element == NOT_FOUND) {
+      return null;
+    }
+    return new FlexPath(
+      (int) distanceMeters[element],
+      durationSeconds[element],
+      () -> GeometryUtils.concatenateLineStrings(edges(element), Edge::getGeometry)
+    );
+  }
+
+  /** The number of path elements in the table, used to limit the size of the cache. */
+  int size() {
+    return backEdges.length;
+  }
+
+  /** The edges of the path in the order they are driven. */
+  private List<Edge> edges(int element) {
+    List<Edge> edges = new ArrayList<>();
+    for (int i = element; previous[i] != NOT_FOUND; i = previous[i]) {
+      edges.add(backEdges[i]);
+    }
+    // An arrive-by search leads from the vertex to the origin of the search
+    if (!reverseDirection) {
+      Collections.reverse(edges);
+    }
+    return edges;
+  }
+}
@@ -0,0 +1,30 @@
+package org.opentripplanner.ext.stopconsolidation.internal;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import org.opentripplanner.ext.stopconsolidation.StopConsolidationRepository;
+import org.opentripplanner.ext.stopconsolidation.model.ConsolidatedStopGroup;
+
+/**
+ * A repository which is loaded on first access, used for the repository saved with the graph. The
+ * loader is called each time the repository is accessed, and should cache the repository.
+ */
+public class LazyStopConsolidationRepository implements StopConsolidationRepository {
+
+  private final Supplier<StopConsolidationRepository> loader;
+
+  public LazyStopConsolidationRepository(Supplier<StopConsolidationRepository> loader) {
+    this.loader = loader;
+  }
+
+  @Override
+  public void addGroups(Collection<ConsolidatedStopGroup> group) {
+    loader.get().addGroups(group);
+  }
+
+  @Override
+  public List<ConsolidatedStopGroup> groups() {
+    return loader.get().groups();
+  }
+}
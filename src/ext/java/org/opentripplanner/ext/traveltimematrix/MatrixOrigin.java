@@ -0,0 +1,36 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.opentripplanner.framework.geometry.WgsCoordinate;
+
+/**
+ * An origin in the travel-time matrix, the id is used to identify the origin in the result.
+ */
+record MatrixOrigin(String id, WgsCoordinate coordinate) {
+  /**
+   * Parse a list of origins, one origin per line: {@code id,latitude,longitude}. Empty lines are
+   * ignored.
+   */
+  static List<MatrixOrigin> parseCsv(String text) {
+    var list = new ArrayList<MatrixOrigin>();
+    var lines = text.lines().map(String::trim).filter(it -> !it.isEmpty()).toList();
+
+    for (String line : lines) {
+      String[] fields = line.split(",");
+      if (fields.length != 3) {
+        throw new IllegalArgumentException("Expected 'id,latitude,longitude', but was: " + line);
+      }
+      list.add(
+        new MatrixOrigin(
+          fields[0].trim(),
+          new WgsCoordinate(
+            Double.parseDouble(fields[1].trim()),
+            Double.parseDouble(fields[2].trim())
+          )
+        )
+      );
+    }
+    return list;
+  }
+}
@@ -0,0 +1,51 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.IntFunction;
+import org.geojson.Feature;
+import org.geojson.FeatureCollection;
+import org.geojson.Point;
+import org.opentripplanner.transit.model.site.StopLocation;
+
+/**
+ * Write the travel-times from one origin to all reached stops as GeoJSON points. Each feature
+ * has the stop id, the stop name and one property for each travel-time percentile in seconds,
+ * the percentile is {@code null} if not reached.
+ */
+class TravelTimeGeoJsonWriter {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper()
+    .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+  static void write(
+    OutputStream out,
+    IntFunction<StopLocation> stopByIndex,
+    TravelTimePercentiles travelTimes,
+    int[] percentiles
+  ) throws IOException {
+    var featureCollection = new FeatureCollection();
+
+    travelTimes.forEachReachedStop(index -> {
+      var stop = stopByIndex.apply(index);
+      var feature = new Feature();
+      feature.setGeometry(new Point(stop.getLon(), stop.getLat()));
+      feature.setProperty("stopId", stop.getId().toString());
+      feature.setProperty("name", stop.getName() == null ? null : stop.getName().toString());
+
+      int[] values = travelTimes.percentiles(index, percentiles);
+      for (int i = 0; i < percentiles.length; ++i) {
+        int travelTime = values[i];
+        feature.setProperty(
+          "p" + percentiles[i],
+          travelTime == TravelTimePercentiles.UNREACHED ? null : travelTime
+        );
+      }
+      featureCollection.add(feature);
+    });
+
+    MAPPER.writeValue(out, featureCollection);
+  }
+}
@@ -0,0 +1,59 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import java.time.Duration;
+
+/**
+ * Limits for the travel-time matrix API. For further documentation on these parameters, look at
+ * the {@link org.opentripplanner.standalone.config.sandbox.TravelTimeMatrixConfig} class which
+ * implements this interface.
+ */
+public interface TravelTimeMatrixParameters {
+  /**
+   * See {@link org.opentripplanner.standalone.config.sandbox.TravelTimeMatrixConfig}
+   */
+  int maxOrigins();
+
+  /**
+   * See {@link org.opentripplanner.standalone.config.sandbox.TravelTimeMatrixConfig}
+   */
+  Duration maxSearchWindow();
+
+  /**
+   * See {@link org.opentripplanner.standalone.config.sandbox.TravelTimeMatrixConfig}
+   */
+  Duration maxTravelTime();
+
+  /**
+   * The maximum processing time for one request, this is the {@code server.apiProcessingTimeout}.
+   * Zero or negative if there is no timeout.
+   */
+  Duration processingTimeout();
+
+  /**
+   * This defines the default values. This will be used by the OTP configuration and by tests,
+   * avoid using this directly.
+   */
+  static TravelTimeMatrixParameters defaultValues() {
+    return new TravelTimeMatrixParameters() {
+      @Override
+      public int maxOrigins() {
+        return 1000;
+      }
+
+      @Override
+      public Duration maxSearchWindow() {
+        return Duration.ofHours(2);
+      }
+
+      @Override
+      public Duration maxTravelTime() {
+        return Duration.ofHours(2);
+      }
+
+      @Override
+      public Duration processingTimeout() {
+        return Duration.ofSeconds(-1);
+      }
+    };
+  }
+}
@@ -0,0 +1,171 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+
+/**
+ * Compute the travel-time from a batch of origins to all stops. The origins are posted as CSV, one
+ * origin per line: {@code id,latitude,longitude}. The result is streamed back as CSV, with the
+ * travel-time percentiles in seconds for each origin and reached stop.
+ * <p>
+ * The isochrone endpoint computes the travel-time from one origin to all stops, the result is
+ * returned as GeoJSON points.
+ * <p>
+ * The number of origins, the search-window and the max travel-time are limited by the
+ * {@link TravelTimeMatrixParameters}, larger requests are rejected.
+ */
+@Path("/traveltime")
+public class TravelTimeMatrixResource {
+
+  private final OtpServerRequestContext serverContext;
+  private final TravelTimeMatrixParameters parameters;
+
+  public TravelTimeMatrixResource(@Context OtpServerRequestContext serverContext) {
+    this.serverContext = serverContext;
+    this.parameters = serverContext.travelTimeMatrixParameters();
+  }
+
+  @POST
+  @Path("/matrix")
+  @Consumes(MediaType.TEXT_PLAIN)
+  @Produces("text/csv")
+  public StreamingOutput matrix(
+    String origins,
+    @QueryParam("time") String time,
+    @QueryParam("window") @DefaultValue("PT1H") String window,
+    @QueryParam("maxTravelTime") @DefaultValue("PT1H") String maxTravelTime,
+    @QueryParam("percentiles") @DefaultValue("5,25,50,75,95") String percentiles
+  ) {
+    var request = routeRequest(time, window);
+    var service = new TravelTimeMatrixService(
+      serverContext,
+      request,
+      parseDuration("maxTravelTime", maxTravelTime, parameters.maxTravelTime()),
+      parsePercentiles(percentiles)
+    );
+    List<MatrixOrigin> originList = parseOrigins(origins);
+    if (originList.size() > parameters.maxOrigins()) {
+      throw new BadRequestException(
+        "Too many origins: " + originList.size() + ", the maximum is " + parameters.maxOrigins()
+      );
+    }
+
+    return output -> {
+      var out = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+      service.route(originList, out);
+      out.flush();
+    };
+  }
+
+  @GET
+  @Path("/isochrone")
+  @Produces(MediaType.APPLICATION_JSON)
+  public StreamingOutput isochrone(
+    @QueryParam("location") String location,
+    @QueryParam("time") String time,
+    @QueryParam("window") @DefaultValue("PT1H") String window,
+    @QueryParam("maxTravelTime") @DefaultValue("PT1H") String maxTravelTime,
+    @QueryParam("percentiles") @DefaultValue("5,25,50,75,95") String percentiles
+  ) {
+    var request = routeRequest(time, window);
+    var service = new TravelTimeMatrixService(
+      serverContext,
+      request,
+      parseDuration("maxTravelTime", maxTravelTime, parameters.maxTravelTime()),
+      parsePercentiles(percentiles)
+    );
+    var origin = parseLocation(location);
+
+    return output -> service.routeOneToAll(origin, output);
+  }
+
+  private RouteRequest routeRequest(String time, String window) {
+    var request = serverContext.defaultRouteRequest();
+    request.setDateTime(time == null ? Instant.now() : parseTime(time));
+    try {
+      request.setSearchWindow(parseDuration("window", window, parameters.maxSearchWindow()));
+    } catch (IllegalArgumentException e) {
+      // The search-window exceeds the transit max search-window
+      throw new BadRequestException("Invalid 'window': " + e.getMessage());
+    }
+    return request;
+  }
+
+  private static List<MatrixOrigin> parseOrigins(String origins) {
+    try {
+      var list = MatrixOrigin.parseCsv(origins == null ? "" : origins);
+      if (list.isEmpty()) {
+        throw new BadRequestException("At least one origin is required.");
+      }
+      return list;
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException("Invalid origins: " + e.getMessage());
+    }
+  }
+
+  private static MatrixOrigin parseLocation(String location) {
+    if (location == null) {
+      throw new BadRequestException("The 'location' is required: latitude,longitude");
+    }
+    return parseOrigins("origin," + location).get(0);
+  }
+
+  private static Instant parseTime(String time) {
+    try {
+      return OffsetDateTime.parse(time).toInstant();
+    } catch (DateTimeParseException e) {
+      throw new BadRequestException("Invalid 'time', expected ISO-8601 date-time: " + time);
+    }
+  }
+
+  private static Duration parseDuration(String name, String value, Duration max) {
+    try {
+      var duration = Duration.parse(value);
+      if (duration.isNegative() || duration.isZero()) {
+        throw new BadRequestException("The '" + name + "' must be positive: " + value);
+      }
+      if (duration.compareTo(max) > 0) {
+        throw new BadRequestException("The '" + name + "' must not exceed " + max + ": " + value);
+      }
+      return duration;
+    } catch (DateTimeParseException e) {
+      throw new BadRequestException("Invalid '" + name + "', expected ISO-8601 duration: " + value);
+    }
+  }
+
+  private static int[] parsePercentiles(String percentiles) {
+    try {
+      var result = Arrays
+        .stream(percentiles.split(","))
+        .map(String::trim)
+        .mapToInt(Integer::parseInt)
+        .toArray();
+      if (Arrays.stream(result).anyMatch(p -> p < 1 || p > 100)) {
+        throw new BadRequestException("The percentiles must be in the range [1, 100].");
+      }
+      return result;
+    } catch (NumberFormatException e) {
+      throw new BadRequestException("Invalid 'percentiles': " + percentiles);
+    }
+  }
+}
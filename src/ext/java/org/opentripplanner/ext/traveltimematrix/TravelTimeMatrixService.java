@@ -0,0 +1,359 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.framework.time.ServiceDateUtils;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.AdditionalSearchDays;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressRouter;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.AccessEgressMapper;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRoutingRequestTransitData;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RouteRequestTransitDataProviderFilter;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.error.RoutingValidationException;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+import org.opentripplanner.street.search.TemporaryVerticesContainer;
+import org.opentripplanner.transit.model.network.grouppriority.TransitGroupPriorityService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compute the travel-time from one or many origins to all stops. The transit data is created once
+ * and shared by all origins. For each origin the access is computed using a street search, and
+ * then a {@link RaptorProfile#BEST_TIME} range search is performed. The travel-time percentiles
+ * over all departure-times in the search-window are written to the result as CSV, one row per
+ * origin and reached stop. The travel-times from one origin can also be written as GeoJSON, to
+ * draw isochrones.
+ * <p>
+ * The Raptor searches are run in parallel on the Raptor thread-pool if it is enabled, the access
+ * is computed in the calling thread. The result is written in the same order as the origins. The
+ * processing timeout is applied to the whole batch of origins.
+ */
+public class TravelTimeMatrixService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TravelTimeMatrixService.class);
+
+  /** Limit the number of origins waiting to be written, to limit the memory used. */
+  private static final int MAX_ORIGINS_IN_PROGRESS = 32;
+
+  private final OtpServerRequestContext serverContext;
+  private final RouteRequest request;
+  private final Duration maxTravelTime;
+  private final int[] percentiles;
+  private final Duration processingTimeout;
+
+  public TravelTimeMatrixService(
+    OtpServerRequestContext serverContext,
+    RouteRequest request,
+    Duration maxTravelTime,
+    int[] percentiles
+  ) {
+    this.serverContext = serverContext;
+    this.request = request;
+    Objects.requireNonNull(request.searchWindow(), "The search-window is required.");
+    this.maxTravelTime = maxTravelTime;
+    this.percentiles = percentiles;
+    this.processingTimeout = serverContext.travelTimeMatrixParameters().processingTimeout();
+  }
+
+  /**
+   * Route from each origin, and write the travel-time percentiles for each reached stop to the
+   * given writer.
+   */
+  public void route(List<MatrixOrigin> origins, Writer out) {
+    var deadline = Deadline.of(processingTimeout);
+    var transitSearch = createTransitSearch();
+    var transitLayer = transitSearch.transitLayer();
+    var raptorConfig = serverContext.raptorConfig();
+
+    writeHeader(out);
+
+    Deque<OriginResult> inProgress = new ArrayDeque<>();
+    try {
+      for (MatrixOrigin origin : origins) {
+        deadline.check();
+        var accessPaths = findAccessPaths(origin);
+        if (accessPaths.isEmpty()) {
+          LOG.debug("No stops found in range of origin: {}", origin);
+          continue;
+        }
+        var result = new TravelTimePercentiles(
+          transitLayer.getStopCount(),
+          (int) maxTravelTime.toSeconds()
+        );
+        Runnable search = () -> route(transitSearch, accessPaths, result);
+
+        inProgress.add(new OriginResult(origin, result, submit(raptorConfig, search)));
+
+        if (inProgress.size() >= MAX_ORIGINS_IN_PROGRESS) {
+          write(out, transitLayer, inProgress.removeFirst(), deadline);
+        }
+      }
+      while (!inProgress.isEmpty()) {
+        write(out, transitLayer, inProgress.removeFirst(), deadline);
+      }
+    } finally {
+      // Stop the searches still running if the request failed
+      inProgress.forEach(OriginResult::cancel);
+    }
+  }
+
+  /**
+   * Route from one origin to all stops, and write the travel-time percentiles for each reached
+   * stop to the given output stream as GeoJSON points. The feature collection is empty if no stops
+   * are found in range of the origin.
+   */
+  void routeOneToAll(MatrixOrigin origin, OutputStream out) throws IOException {
+    var accessPaths = findAccessPaths(origin);
+    var transitSearch = createTransitSearch();
+    var result = new TravelTimePercentiles(
+      transitSearch.transitLayer().getStopCount(),
+      (int) maxTravelTime.toSeconds()
+    );
+    if (!accessPaths.isEmpty()) {
+      route(transitSearch, accessPaths, result);
+    }
+    var stops = transitSearch.transitLayer();
+    TravelTimeGeoJsonWriter.write(out, stops::getStopByIndex, result, percentiles);
+  }
+
+  private TransitSearch createTransitSearch() {
+    var zoneId = serverContext.transitService().getTimeZone();
+    var transitSearchTimeZero = ServiceDateUtils.asStartOfService(request.dateTime(), zoneId);
+    var transitLayer = request.preferences().transit().ignoreRealtimeUpdates()
+      ? serverContext.transitService().getTransitLayer()
+      : serverContext.transitService().getRealtimeTransitLayer();
+    int earliestDepartureTime = ServiceDateUtils.secondsSinceStartOfTime(
+      transitSearchTimeZero,
+      request.dateTime()
+    );
+    return new TransitSearch(
+      transitLayer,
+      createTransitData(transitLayer, transitSearchTimeZero),
+      earliestDepartureTime
+    );
+  }
+
+  private void route(
+    TransitSearch transitSearch,
+    Collection<? extends RaptorAccessEgress> accessPaths,
+    TravelTimePercentiles result
+  ) {
+    var raptorRequest = createRaptorRequest(transitSearch.earliestDepartureTime(), accessPaths);
+    new RaptorService<>(serverContext.raptorConfig())
+      .routeStopArrivals(raptorRequest, transitSearch.transitData(), result);
+  }
+
+  private RaptorRoutingRequestTransitData createTransitData(
+    TransitLayer transitLayer,
+    ZonedDateTime transitSearchTimeZero
+  ) {
+    var additionalSearchDays = new AdditionalSearchDays(
+      false,
+      ZonedDateTime.ofInstant(request.dateTime(), transitSearchTimeZero.getZone()),
+      request.searchWindow(),
+      request.searchWindow(),
+      maxTravelTime
+    );
+    return new RaptorRoutingRequestTransitData(
+      transitLayer,
+      TransitGroupPriorityService.empty(),
+      transitSearchTimeZero,
+      additionalSearchDays.additionalSearchDaysInPast(),
+      additionalSearchDays.additionalSearchDaysInFuture(),
+      new RouteRequestTransitDataProviderFilter(request),
+      request
+    );
+  }
+
+  private Collection<? extends RaptorAccessEgress> findAccessPaths(MatrixOrigin origin) {
+    var accessRequest = request.clone();
+    accessRequest.setFrom(
+      new GenericLocation(origin.coordinate().latitude(), origin.coordinate().longitude())
+    );
+    var streetRequest = accessRequest.journey().access();
+    var accessEgressPreferences = accessRequest.preferences().street().accessEgress();
+
+    try (
+      var temporaryVertices = new TemporaryVerticesContainer(
+        serverContext.graph(),
+        accessRequest,
+        streetRequest.mode(),
+        streetRequest.mode()
+      )
+    ) {
+      var nearbyStops = AccessEgressRouter.streetSearch(
+        accessRequest,
+        temporaryVertices,
+        streetRequest,
+        serverContext.dataOverlayContext(accessRequest),
+        false,
+        accessEgressPreferences.maxDuration().valueOf(streetRequest.mode()),
+        accessEgressPreferences.maxStopCount()
+      );
+      return AccessEgressMapper.mapNearbyStops(nearbyStops, false);
+    } catch (RoutingValidationException e) {
+      LOG.debug("Origin {} is not linked to the street network: {}", origin, e.getMessage());
+      return List.of();
+    }
+  }
+
+  private RaptorRequest<TripSchedule> createRaptorRequest(
+    int earliestDepartureTime,
+    Collection<? extends RaptorAccessEgress> accessPaths
+  ) {
+    var builder = new RaptorRequestBuilder<TripSchedule>();
+    var searchParams = builder
+      .profile(RaptorProfile.BEST_TIME)
+      .searchParams()
+      .earliestDepartureTime(earliestDepartureTime)
+      .searchWindow(request.searchWindow())
+      .latestArrivalTime(
+        earliestDepartureTime + (int) request.searchWindow().plus(maxTravelTime).toSeconds()
+      )
+      .addAccessPaths(accessPaths)
+      .allowEmptyEgressPaths(true);
+
+    var transfer = request.preferences().transfer();
+    if (transfer.maxTransfers() != null) {
+      searchParams.maxNumberOfTransfers(transfer.maxTransfers());
+    }
+    return builder.build();
+  }
+
+  private static Future<?> submit(RaptorConfig<?> config, Runnable search) {
+    if (config.isMultiThreaded()) {
+      return config.threadPool().submit(search);
+    }
+    search.run();
+    return null;
+  }
+
+  private void writeHeader(Writer out) {
+    var header = Arrays
+      .stream(percentiles)
+      .mapToObj(p -> "p" + p)
+      .collect(Collectors.joining(",", "origin,stop,", "\n"));
+    write(out, header);
+  }
+
+  private void write(
+    Writer out,
+    TransitLayer transitLayer,
+    OriginResult result,
+    Deadline deadline
+  ) {
+    result.await(deadline);
+    var buf = new StringBuilder();
+    result.travelTimes.forEachReachedStop(stop -> {
+      buf.append(result.origin.id()).append(',');
+      buf.append(transitLayer.getStopByIndex(stop).getId());
+      for (int travelTime : result.travelTimes.percentiles(stop, percentiles)) {
+        buf.append(',');
+        if (travelTime != TravelTimePercentiles.UNREACHED) {
+          buf.append(travelTime);
+        }
+      }
+      buf.append('\n');
+    });
+    write(out, buf.toString());
+  }
+
+  private static void write(Writer out, String text) {
+    try {
+      out.write(text);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * The transit data shared by all origins.
+   */
+  private record TransitSearch(
+    TransitLayer transitLayer,
+    RaptorRoutingRequestTransitData transitData,
+    int earliestDepartureTime
+  ) {}
+
+  private record OriginResult(
+    MatrixOrigin origin,
+    TravelTimePercentiles travelTimes,
+    Future<?> search
+  ) {
+    void await(Deadline deadline) {
+      if (search == null) {
+        return;
+      }
+      try {
+        search.get(deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+      } catch (TimeoutException e) {
+        throw new OTPRequestTimeoutException();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new OTPRequestTimeoutException();
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException re) {
+          throw re;
+        }
+        throw new IllegalStateException(
+          "Failed to compute the travel-times from origin " + origin.id() + ": " + e.getMessage(),
+          e
+        );
+      }
+    }
+
+    void cancel() {
+      if (search != null) {
+        search.cancel(true);
+      }
+    }
+  }
+
+  /**
+   * The time the batch must be completed by, {@code Long.MAX_VALUE} if there is no timeout.
+   */
+  private record Deadline(long timeMillis) {
+    static Deadline of(Duration timeout) {
+      return new Deadline(
+        timeout.isPositive() ? System.currentTimeMillis() + timeout.toMillis() : Long.MAX_VALUE
+      );
+    }
+
+    void check() {
+      if (remainingMillis() <= 0) {
+        throw new OTPRequestTimeoutException();
+      }
+    }
+
+    long remainingMillis() {
+      return timeMillis == Long.MAX_VALUE
+        ? Long.MAX_VALUE
+        : timeMillis - System.currentTimeMillis();
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package org.opentripplanner.ext.traveltimematrix;
+
+import gnu.trove.list.array.TIntArrayList;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import org.opentripplanner.raptor.api.response.IterationStopArrivalsListener;
+import org.opentripplanner.raptor.api.response.StopArrivals;
+
+/**
+ * Collect the travel-time from the origin to each stop for every Range Raptor iteration, and
+ * compute the travel-time percentiles over all iterations. A stop not reached within the max
+ * travel-time in an iteration counts as unreached - so if a stop is reached in less than half of
+ * the iterations, the 50th percentile is unreached.
+ * <p>
+ * Only stops reached in at least one iteration take up memory.
+ */
+class TravelTimePercentiles implements IterationStopArrivalsListener {
+
+  static final int UNREACHED = -1;
+
+  private final int maxTravelTime;
+  private final TIntArrayList[] travelTimes;
+  private int nIterations = 0;
+
+  TravelTimePercentiles(int nStops, int maxTravelTime) {
+    this.maxTravelTime = maxTravelTime;
+    this.travelTimes = new TIntArrayList[nStops];
+  }
+
+  @Override
+  public void iterationComplete(int iterationDepartureTime, StopArrivals arrivals) {
+    ++nIterations;
+    for (int stop = 0; stop < travelTimes.length; ++stop) {
+      if (!arrivals.reached(stop)) {
+        continue;
+      }
+      int travelTime = arrivals.bestArrivalTime(stop) - iterationDepartureTime;
+      if (travelTime <= maxTravelTime) {
+        if (travelTimes[stop] == null) {
+          travelTimes[stop] = new TIntArrayList();
+        }
+        travelTimes[stop].add(travelTime);
+      }
+    }
+  }
+
+  void forEachReachedStop(IntConsumer body) {
+    for (int stop = 0; stop < travelTimes.length; ++stop) {
+      if (travelTimes[stop] != null) {
+        body.accept(stop);
+      }
+    }
+  }
+
+  /**
+   * Return the travel-time percentiles for the given stop using the nearest-rank method. The
+   * percentiles are in the range [1, 100]. The travel-time is {@link #UNREACHED} if the stop is
+   * not reached often enough.
+   */
+  int[] percentiles(int stop, int[] percentiles) {
+    var result = new int[percentiles.length];
+    var times = travelTimes[stop];
+    if (times == null) {
+      Arrays.fill(result, UNREACHED);
+      return result;
+    }
+    times.sort();
+    for (int i = 0; i < percentiles.length; ++i) {
+      int rank = (int) Math.ceil(percentiles[i] * nIterations / 100.0);
+      int index = Math.max(rank, 1) - 1;
+      result[i] = index < times.size() ? times.get(index) : UNREACHED;
+    }
+    return result;
+  }
+}
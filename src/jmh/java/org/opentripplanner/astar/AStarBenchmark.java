@@ -0,0 +1,137 @@
+package org.opentripplanner.astar;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.astar.model.BinHeap;
+import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.astar.model.PairingHeap;
+import org.opentripplanner.astar.model.RadixHeap;
+import org.opentripplanner.astar.model.ShortestPathTree;
+import org.opentripplanner.astar.spi.AStarPriorityQueue;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.EuclideanRemainingWeightHeuristic;
+
+/**
+ * Benchmark a walk search with the {@link AStar} on a synthetic street grid. All streets are
+ * two-way, and the search is from one corner of the grid to the opposite corner.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AStarBenchmark {
+
+  /** The distance between two intersections in the grid, about 100 meters. */
+  private static final double STEP_DEGREES = 0.001;
+
+  @Param({ "30", "100" })
+  public int gridSize;
+
+  @Param({ "BinHeap", "RadixHeap", "PairingHeap" })
+  public String queueType;
+
+  private Supplier<AStarPriorityQueue<State>> queueFactory;
+
+  private RouteRequest request;
+  private Vertex from;
+  private Vertex to;
+
+  @Setup
+  public void setup() {
+    var graph = new Graph();
+    var grid = new StreetVertex[gridSize][gridSize];
+
+    for (int row = 0; row < gridSize; ++row) {
+      for (int col = 0; col < gridSize; ++col) {
+        var v = StreetModelForTest.intersectionVertex(
+          "V" + row + "_" + col,
+          60.0 + row * STEP_DEGREES,
+          10.0 + col * STEP_DEGREES
+        );
+        graph.addVertex(v);
+        grid[row][col] = v;
+        if (row > 0) {
+          twoWayStreet(grid[row - 1][col], v);
+        }
+        if (col > 0) {
+          twoWayStreet(grid[row][col - 1], v);
+        }
+      }
+    }
+    queueFactory =
+      switch (queueType) {
+        case "BinHeap" -> BinHeap::new;
+        case "RadixHeap" -> RadixHeap::new;
+        case "PairingHeap" -> PairingHeap::new;
+        default -> throw new IllegalArgumentException(queueType);
+      };
+    request = new RouteRequest();
+    from = grid[0][0];
+    to = grid[gridSize - 1][gridSize - 1];
+  }
+
+  /**
+   * A search from one corner without a target and a heuristic, like the access and egress
+   * searches.
+   */
+  @Benchmark
+  public ShortestPathTree<State, Edge, Vertex> walkWithoutTarget() {
+    return StreetSearchBuilder
+      .of()
+      .setPriorityQueueFactory(queueFactory)
+      .setRequest(request)
+      .setFrom(from)
+      .getShortestPathTree();
+  }
+
+  @Benchmark
+  public GraphPath<State, Edge, Vertex> walk() {
+    return StreetSearchBuilder
+      .of()
+      .setHeuristic(new EuclideanRemainingWeightHeuristic())
+      .setPriorityQueueFactory(queueFactory)
+      .setRequest(request)
+      .setFrom(from)
+      .setTo(to)
+      .getShortestPathTree()
+      .getPath(to);
+  }
+
+  @Benchmark
+  public List<GraphPath<State, Edge, Vertex>> walkBidirectional() {
+    return StreetSearchBuilder
+      .of()
+      .setHeuristic(new EuclideanRemainingWeightHeuristic())
+      .setBidirectional(new EuclideanRemainingWeightHeuristic())
+      .setPriorityQueueFactory(queueFactory)
+      .setRequest(request)
+      .setFrom(from)
+      .setTo(to)
+      .getPathsToTarget();
+  }
+
+  private static void twoWayStreet(StreetVertex a, StreetVertex b) {
+    StreetModelForTest.streetEdge(a, b);
+    StreetModelForTest.streetEdge(b, a);
+  }
+}
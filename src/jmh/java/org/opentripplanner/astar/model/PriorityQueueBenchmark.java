@@ -0,0 +1,73 @@
+package org.opentripplanner.astar.model;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.opentripplanner.astar.spi.AStarPriorityQueue;
+
+/**
+ * Benchmark the priority queues used in the A* search. The access pattern is similar to the A*
+ * search: elements are inserted with a priority a little higher than the last extracted element,
+ * and the queue size stays roughly the same.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriorityQueueBenchmark {
+
+  private static final int N_OPERATIONS = 100_000;
+
+  /** The number of elements in the queue. */
+  @Param({ "100", "10000" })
+  public int queueSize;
+
+  @Param({ "BinHeap", "RadixHeap", "PairingHeap" })
+  public String queueType;
+
+  private final double[] increments = new double[N_OPERATIONS];
+  private AStarPriorityQueue<Integer> heap;
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    for (int i = 0; i < N_OPERATIONS; ++i) {
+      increments[i] = random.nextDouble() * 100.0;
+    }
+    heap =
+      switch (queueType) {
+        case "BinHeap" -> new BinHeap<>(queueSize);
+        case "RadixHeap" -> new RadixHeap<>();
+        case "PairingHeap" -> new PairingHeap<>();
+        default -> throw new IllegalArgumentException(queueType);
+      };
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(N_OPERATIONS)
+  public void insertAndExtractMin(Blackhole bh) {
+    heap.reset();
+    for (int i = 0; i < queueSize; ++i) {
+      heap.insert(i, increments[i]);
+    }
+    for (int i = 0; i < N_OPERATIONS; ++i) {
+      double min = heap.peek_min_key();
+      bh.consume(heap.extract_min());
+      heap.insert(i, min + increments[i]);
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package org.opentripplanner.raptor;
+
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.response.RaptorResponse;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+
+/**
+ * Benchmark the Range Raptor worker, using the standard and the multi-criteria profile, on a
+ * synthetic grid network. The network has one route for each row and each column in the grid, and
+ * the routes intersect at every stop. The search is from one corner of the grid to the opposite
+ * corner.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RaptorWorkerBenchmark {
+
+  private static final int TRIP_START = 6 * 3600;
+  private static final int HOP_DURATION = 120;
+  private static final int HEADWAY = 600;
+  private static final int N_TRIPS = 60;
+  private static final int WALK = 120;
+
+  @Param({ "STANDARD", "MULTI_CRITERIA" })
+  public RaptorProfile profile;
+
+  @Param({ "20" })
+  public int gridSize;
+
+  private RaptorService<TestTripSchedule> service;
+  private TestTransitData data;
+  private RaptorRequest<TestTripSchedule> request;
+
+  @Setup
+  public void setup() {
+    service = new RaptorService<>(RaptorConfig.defaultConfigForTest());
+    data = createGridNetwork(gridSize);
+
+    var builder = new RaptorRequestBuilder<TestTripSchedule>();
+    builder
+      .profile(profile)
+      .searchParams()
+      .earliestDepartureTime(TRIP_START)
+      .searchWindow(Duration.ofHours(1))
+      .addAccessPaths(TestAccessEgress.walk(stop(0, 0), WALK))
+      .addEgressPaths(TestAccessEgress.walk(stop(gridSize - 1, gridSize - 1), WALK));
+    request = builder.build();
+  }
+
+  @Benchmark
+  public RaptorResponse<TestTripSchedule> search() {
+    return service.route(request, data);
+  }
+
+  /**
+   * Stop index 0 is not used, the first stop in the grid has index 1.
+   */
+  private int stop(int row, int col) {
+    return 1 + row * gridSize + col;
+  }
+
+  private TestTransitData createGridNetwork(int size) {
+    var data = new TestTransitData();
+    for (int i = 0; i < size; ++i) {
+      var rowStops = new int[size];
+      var colStops = new int[size];
+      for (int j = 0; j < size; ++j) {
+        rowStops[j] = stop(i, j);
+        colStops[j] = stop(j, i);
+      }
+      data.withRoute(route(pattern("R" + i, rowStops)).withTimetable(timetable(size, i)));
+      data.withRoute(route(pattern("C" + i, colStops)).withTimetable(timetable(size, i)));
+    }
+    return data;
+  }
+
+  /**
+   * Create {@link #N_TRIPS} trips, the departures of each route are offset a little to avoid that
+   * all routes depart at the same time.
+   */
+  private static TestTripSchedule.Builder[] timetable(int nStops, int routeOffset) {
+    var times = new int[nStops];
+    for (int i = 0; i < nStops; ++i) {
+      times[i] = TRIP_START + routeOffset * 60 + i * HOP_DURATION;
+    }
+    return schedule().times(times).repeat(N_TRIPS, HEADWAY);
+  }
+}
@@ -0,0 +1,65 @@
+package org.opentripplanner.raptor.util.paretoset;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark adding elements to a {@link ParetoSet}. The elements have three criteria, similar to
+ * the stop arrivals in the multi-criteria Range Raptor search: arrival-time, number-of-transfers
+ * and generalized-cost. The criteria values are random, but the same for each run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParetoSetBenchmark {
+
+  private static final int N_ELEMENTS = 1000;
+
+  private static final ParetoComparator<Vector> COMPARATOR = (l, r) ->
+    l.v1 < r.v1 || l.v2 < r.v2 || l.v3 < r.v3;
+
+  /**
+   * The range of the generalized-cost. A large range produces a large pareto-set, since the
+   * cost is less correlated with the arrival-time.
+   */
+  @Param({ "100", "10000" })
+  public int costRange;
+
+  private final Vector[] elements = new Vector[N_ELEMENTS];
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    for (int i = 0; i < N_ELEMENTS; ++i) {
+      int arrivalTime = random.nextInt(3600);
+      int transfers = random.nextInt(6);
+      int cost = arrivalTime + random.nextInt(costRange);
+      elements[i] = new Vector("V" + i, arrivalTime, transfers, cost);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(N_ELEMENTS)
+  public ParetoSet<Vector> add() {
+    var set = new ParetoSet<>(COMPARATOR);
+    for (Vector it : elements) {
+      set.add(it);
+    }
+    return set;
+  }
+}
@@ -0,0 +1,94 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
+
+/**
+ * Benchmark the {@link TripScheduleBoardSearch} and the {@link TripScheduleAlightSearch}. Each
+ * invocation search for a trip at every stop in the pattern, for a fixed set of board/alight
+ * times spread over the service period. The number of trips decide if the binary search is used,
+ * see {@link TripScheduleSearchFactory}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TripScheduleSearchBenchmark {
+
+  private static final int N_STOPS = 20;
+  private static final int N_SEARCH_TIMES = 64;
+  private static final int N_OPERATIONS = N_STOPS * N_SEARCH_TIMES;
+  private static final int FIRST_DEPARTURE = 5 * 3600;
+  private static final int HOP_DURATION = 90;
+  private static final int HEADWAY = 300;
+
+  @Param({ "10", "50", "200", "1000" })
+  public int nTrips;
+
+  private RaptorTripScheduleSearch<TestTripSchedule> boardSearch;
+  private RaptorTripScheduleSearch<TestTripSchedule> alightSearch;
+  private final int[] searchTimes = new int[N_SEARCH_TIMES];
+
+  @Setup
+  public void setup() {
+    var stops = new int[N_STOPS];
+    var times = new int[N_STOPS];
+    for (int i = 0; i < N_STOPS; ++i) {
+      stops[i] = i + 1;
+      times[i] = FIRST_DEPARTURE + i * HOP_DURATION;
+    }
+    var route = route(pattern("R1", stops))
+      .withTimetable(schedule().times(times).repeat(nTrips, HEADWAY));
+
+    boardSearch = route.tripSearch(SearchDirection.FORWARD);
+    alightSearch = route.tripSearch(SearchDirection.REVERSE);
+
+    // Spread the search times from before the first trip to after the last trip
+    int period = nTrips * HEADWAY + N_STOPS * HOP_DURATION;
+    int start = FIRST_DEPARTURE - HEADWAY;
+    for (int i = 0; i < N_SEARCH_TIMES; ++i) {
+      searchTimes[i] = start + (int) (((long) i * (period + 2 * HEADWAY)) / N_SEARCH_TIMES);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(N_OPERATIONS)
+  public void boardSearch(Blackhole bh) {
+    for (int time : searchTimes) {
+      for (int stopPos = 0; stopPos < N_STOPS; ++stopPos) {
+        bh.consume(boardSearch.search(time, stopPos).tripIndex());
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(N_OPERATIONS)
+  public void alightSearch(Blackhole bh) {
+    for (int time : searchTimes) {
+      for (int stopPos = 0; stopPos < N_STOPS; ++stopPos) {
+        bh.consume(alightSearch.search(time, stopPos).tripIndex());
+      }
+    }
+  }
+}
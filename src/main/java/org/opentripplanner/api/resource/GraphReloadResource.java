@@ -0,0 +1,54 @@
+package org.opentripplanner.api.resource;
+
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.opentripplanner.standalone.api.GraphReloadService;
+
+/**
+ * Load a new graph while the server is running, see {@link GraphReloadService}. The graph is
+ * loaded in the background, the progress is logged. The request must have the graph reload token
+ * in the server configuration as a bearer token.
+ */
+@Path("/graph/reload")
+@Produces(MediaType.TEXT_PLAIN)
+public class GraphReloadResource {
+
+  private static final String BEARER_PREFIX = "Bearer ";
+
+  private final GraphReloadService graphReloadService;
+
+  public GraphReloadResource(@Context GraphReloadService graphReloadService) {
+    this.graphReloadService = graphReloadService;
+  }
+
+  @POST
+  public Response reload(@HeaderParam(HttpHeaders.AUTHORIZATION) String authorization) {
+    if (!graphReloadService.isValidToken(bearerToken(authorization))) {
+      return Response
+        .status(Response.Status.UNAUTHORIZED)
+        .header(HttpHeaders.WWW_AUTHENTICATE, "Bearer")
+        .entity("A valid graph reload token is required.\n")
+        .build();
+    }
+    if (!graphReloadService.reload()) {
+      return Response
+        .status(Response.Status.CONFLICT)
+        .entity("The graph is already being reloaded.\n")
+        .build();
+    }
+    return Response.status(Response.Status.ACCEPTED).entity("Reloading the graph.\n").build();
+  }
+
+  private static String bearerToken(String authorization) {
+    if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+      return null;
+    }
+    return authorization.substring(BEARER_PREFIX.length()).trim();
+  }
+}
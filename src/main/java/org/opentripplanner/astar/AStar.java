@@ -8,13 +8,12 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
-import org.opentripplanner.astar.model.BinHeap;
 import org.opentripplanner.astar.model.GraphPath;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.AStarEdge;
+import org.opentripplanner.astar.spi.AStarPriorityQueue;
 import org.opentripplanner.astar.spi.AStarState;
 import org.opentripplanner.astar.spi.AStarVertex;
-import org.opentripplanner.astar.spi.DominanceFunction;
 import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
 import org.opentripplanner.astar.spi.SearchTerminationStrategy;
 import org.opentripplanner.astar.spi.SkipEdgeStrategy;
@@ -48,7 +47,7 @@ public class AStar<
   private final Duration timeout;
 
   private final ShortestPathTree<State, Edge, Vertex> spt;
-  private final BinHeap<State> pq;
+  private final AStarPriorityQueue<State> pq;
   private final List<State> targetAcceptedStates;
 
   private State u;
@@ -62,7 +61,8 @@ public class AStar<
     Set<Vertex> fromVertices,
     Set<Vertex> toVertices,
     SearchTerminationStrategy<State> terminationStrategy,
-    DominanceFunction<State> dominanceFunction,
+    ShortestPathTree<State, Edge, Vertex> spt,
+    AStarPriorityQueue<State> pq,
     @Nonnull Duration timeout,
     Collection<State> initialStates
   ) {
@@ -75,10 +75,9 @@ public class AStar<
     this.terminationStrategy = terminationStrategy;
     this.timeout = Objects.requireNonNull(timeout);
 
-    this.spt = new ShortestPathTree<>(dominanceFunction);
+    this.spt = spt;
 
-    // Initialized with a reasonable size, see #4445
-    this.pq = new BinHeap<>(1000);
+    this.pq = pq;
     this.nVisited = 0;
     this.targetAcceptedStates = new ArrayList<>();
 
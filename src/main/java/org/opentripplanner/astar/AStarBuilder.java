@@ -6,10 +6,15 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opentripplanner.astar.model.BinHeap;
 import org.opentripplanner.astar.model.GraphPath;
 import org.opentripplanner.astar.model.ShortestPathTree;
+import org.opentripplanner.astar.model.ShortestPathTreePool;
 import org.opentripplanner.astar.spi.AStarEdge;
+import org.opentripplanner.astar.spi.AStarPriorityQueue;
 import org.opentripplanner.astar.spi.AStarState;
 import org.opentripplanner.astar.spi.AStarVertex;
 import org.opentripplanner.astar.spi.DominanceFunction;
@@ -34,6 +39,9 @@ public abstract class AStarBuilder<
   private Set<Vertex> toVertices;
   private SearchTerminationStrategy<State> terminationStrategy;
   private DominanceFunction<State> dominanceFunction;
+  private ShortestPathTreePool<State, Edge, Vertex> shortestPathTreePool;
+  private Supplier<AStarPriorityQueue<State>> priorityQueueFactory;
+  private RemainingWeightHeuristic<State> reverseHeuristic;
   private Edge originBackEdge;
   private Collection<State> initialStates;
 
@@ -77,6 +85,10 @@ public abstract class AStarBuilder<
     return builder;
   }
 
+  protected Set<Vertex> fromVertices() {
+    return fromVertices;
+  }
+
   public Builder setTo(Set<Vertex> toVertices) {
     this.toVertices = toVertices;
     return builder;
@@ -87,6 +99,10 @@ public abstract class AStarBuilder<
     return builder;
   }
 
+  protected Set<Vertex> toVertices() {
+    return toVertices;
+  }
+
   public Builder setTerminationStrategy(SearchTerminationStrategy<State> terminationStrategy) {
     this.terminationStrategy = terminationStrategy;
     return builder;
@@ -98,6 +114,45 @@ public abstract class AStarBuilder<
     return builder;
   }
 
+  /**
+   * Take the shortest path tree of the search from the given pool, instead of creating a new one.
+   * The tree is returned to the pool by {@link #getPathsToTarget()}. The tree returned by
+   * {@link #getShortestPathTree()} must be returned to the pool by the caller, with
+   * {@link ShortestPathTreePool#release(ShortestPathTree)}.
+   */
+  public Builder setShortestPathTreePool(
+    @Nullable ShortestPathTreePool<State, Edge, Vertex> shortestPathTreePool
+  ) {
+    this.shortestPathTreePool = shortestPathTreePool;
+    return builder;
+  }
+
+  /**
+   * Create the priority queue of the search, the default is a {@link BinHeap}. A
+   * {@link org.opentripplanner.astar.model.RadixHeap} is faster for searches without a heuristic,
+   * but requires that the priority of new states is never lower than the last extracted state.
+   */
+  public Builder setPriorityQueueFactory(Supplier<AStarPriorityQueue<State>> factory) {
+    this.priorityQueueFactory = factory;
+    return builder;
+  }
+
+  /**
+   * Search from both the origin and the destination when finding the path to the target, see
+   * {@link BidirectionalAStar}. This is only used for one-to-one searches which are not customized
+   * with a visitor, termination strategy or initial states, otherwise a regular search is done. A
+   * regular search is also done if the paths found by the two searches can not be joined.
+   *
+   * @param reverseHeuristic the heuristic of the search from the destination, this is initialized
+   *                         with the origin as destination, so it must not be the same instance
+   *                         as the forward heuristic. Use {@link RemainingWeightHeuristic#TRIVIAL}
+   *                         for no heuristic.
+   */
+  public Builder setBidirectional(RemainingWeightHeuristic<State> reverseHeuristic) {
+    this.reverseHeuristic = reverseHeuristic;
+    return builder;
+  }
+
   @Nonnull
   protected abstract Duration streetRoutingTimeout();
 
@@ -111,15 +166,60 @@ public abstract class AStarBuilder<
     return builder;
   }
 
+  /**
+   * Return {@code true} if the search is customized with a traverse visitor, a termination
+   * strategy, an origin back edge or initial states.
+   */
+  protected boolean isCustomized() {
+    return (
+      traverseVisitor != null ||
+      terminationStrategy != null ||
+      originBackEdge != null ||
+      initialStates != null
+    );
+  }
+
   public ShortestPathTree<State, Edge, Vertex> getShortestPathTree() {
-    return build().getShortestPathTree();
+    var spt = createShortestPathTree();
+    try {
+      return build(spt).getShortestPathTree();
+    } catch (RuntimeException e) {
+      releaseShortestPathTree(spt);
+      throw e;
+    }
   }
 
   public List<GraphPath<State, Edge, Vertex>> getPathsToTarget() {
-    return build().getPathsToTarget();
+    if (reverseHeuristic != null && isBidirectionalSearchSupported()) {
+      var paths = buildBidirectional().getPathsToTarget();
+      if (paths != null) {
+        return paths;
+      }
+    }
+    var spt = createShortestPathTree();
+    try {
+      return build(spt).getPathsToTarget();
+    } finally {
+      releaseShortestPathTree(spt);
+    }
+  }
+
+  private ShortestPathTree<State, Edge, Vertex> createShortestPathTree() {
+    var dominanceFunction = Optional
+      .ofNullable(this.dominanceFunction)
+      .orElseGet(this::createDefaultDominanceFunction);
+    return shortestPathTreePool != null
+      ? shortestPathTreePool.borrow(dominanceFunction)
+      : new ShortestPathTree<>(dominanceFunction);
   }
 
-  private AStar<State, Edge, Vertex> build() {
+  private void releaseShortestPathTree(ShortestPathTree<State, Edge, Vertex> spt) {
+    if (shortestPathTreePool != null) {
+      shortestPathTreePool.release(spt);
+    }
+  }
+
+  private AStar<State, Edge, Vertex> build(ShortestPathTree<State, Edge, Vertex> spt) {
     final Set<Vertex> origin = arriveBy ? toVertices : fromVertices;
     final Set<Vertex> destination = arriveBy ? fromVertices : toVertices;
 
@@ -128,7 +228,7 @@ public abstract class AStarBuilder<
     if (this.initialStates != null) {
       initialStates = this.initialStates;
     } else {
-      initialStates = createInitialStates(origin);
+      initialStates = createInitialStates(origin, arriveBy);
 
       if (originBackEdge != null) {
         for (var state : initialStates) {
@@ -148,13 +248,60 @@ public abstract class AStarBuilder<
       origin,
       destination,
       terminationStrategy,
-      Optional.ofNullable(dominanceFunction).orElseGet(this::createDefaultDominanceFunction),
+      spt,
+      createPriorityQueue(),
       streetRoutingTimeout(),
       initialStates
     );
   }
 
-  protected abstract Collection<State> createInitialStates(Set<Vertex> originVertices);
+  private boolean isBidirectionalSearchSupported() {
+    return (
+      !isCustomized() &&
+      fromVertices != null &&
+      toVertices != null &&
+      !fromVertices.isEmpty() &&
+      !toVertices.isEmpty()
+    );
+  }
+
+  private BidirectionalAStar<State, Edge, Vertex> buildBidirectional() {
+    final Set<Vertex> origin = arriveBy ? toVertices : fromVertices;
+    final Set<Vertex> destination = arriveBy ? fromVertices : toVertices;
+
+    Collection<State> forwardStates = createInitialStates(origin, arriveBy);
+    Collection<State> reverseStates = createInitialStates(destination, !arriveBy);
+    prepareInitialStates(forwardStates);
+    prepareInitialStates(reverseStates);
+    initializeHeuristic(heuristic, origin, destination, arriveBy);
+    initializeHeuristic(reverseHeuristic, destination, origin, !arriveBy);
+
+    return new BidirectionalAStar<>(
+      heuristic,
+      reverseHeuristic,
+      skipEdgeStrategy,
+      arriveBy,
+      Optional.ofNullable(dominanceFunction).orElseGet(this::createDefaultDominanceFunction),
+      createPriorityQueue(),
+      createPriorityQueue(),
+      streetRoutingTimeout(),
+      forwardStates,
+      reverseStates
+    );
+  }
+
+  private AStarPriorityQueue<State> createPriorityQueue() {
+    if (priorityQueueFactory != null) {
+      return priorityQueueFactory.get();
+    }
+    // Initialized with a reasonable size, see #4445
+    return new BinHeap<>(1000);
+  }
+
+  protected abstract Collection<State> createInitialStates(
+    Set<Vertex> originVertices,
+    boolean arriveBy
+  );
 
   protected abstract void prepareInitialStates(Collection<State> initialStates);
 
@@ -0,0 +1,295 @@
+package org.opentripplanner.astar;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.astar.model.ShortestPathTree;
+import org.opentripplanner.astar.spi.AStarEdge;
+import org.opentripplanner.astar.spi.AStarPriorityQueue;
+import org.opentripplanner.astar.spi.AStarState;
+import org.opentripplanner.astar.spi.AStarVertex;
+import org.opentripplanner.astar.spi.DominanceFunction;
+import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
+import org.opentripplanner.astar.spi.SkipEdgeStrategy;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.framework.time.DateUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Find the shortest path between an origin and a destination by running two A* searches at the
+ * same time: one from the origin in the direction of the search, and one from the destination in
+ * the opposite direction. The search with the smallest queue is expanded first. Each time a state
+ * is added to one of the trees, the states of the other tree at the same vertex are checked, and
+ * the pair with the lowest weight is kept as the best meeting point. The weight of a meeting point
+ * includes the turn at the meeting vertex, see {@link #meetingWeight}.
+ * <p>
+ * Both searches use the average of the two heuristics as potential, the forward search uses
+ * {@code (hf - hr) / 2} and the reverse search {@code (hr - hf) / 2}, where {@code hf} estimates
+ * the weight to the destination and {@code hr} the weight to the origin. The potentials of the two
+ * searches cancel out, so the search can terminate when the sum of the lowest keys in the two
+ * queues is not lower than the best meeting weight, like a bidirectional Dijkstra search. This
+ * requires consistent heuristics, which is the case for the euclidean heuristics used for street
+ * searches. With trivial heuristics this is a plain bidirectional Dijkstra search.
+ * <p>
+ * The weight of a path is not always the weight of the meeting point, for example the time
+ * dependent costs of the second half are computed from the wrong time. So the path is created by
+ * traversing the edges of the second half from the state of the first half, and the path is only
+ * returned if all edges can be traversed. The path may therefore differ slightly from the path
+ * found by a regular search. If this fails for all meeting points found, the caller should fall
+ * back to a regular search. This also means that the edges must not depend on the time or state
+ * of the opposite search, so this is only suitable for single-mode street searches.
+ */
+class BidirectionalAStar<
+  State extends AStarState<State, Edge, Vertex>,
+  Edge extends AStarEdge<State, Edge, Vertex>,
+  Vertex extends AStarVertex<State, Edge, Vertex>
+> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BidirectionalAStar.class);
+
+  private final SkipEdgeStrategy<State, Edge> skipEdgeStrategy;
+  private final Duration timeout;
+  private final Direction forward;
+  private final Direction reverse;
+
+  /** The meeting points found, each with a lower weight than the previous one. */
+  private final List<MeetingPoint> meetingPoints = new ArrayList<>();
+  private double bestMeetingWeight = Double.POSITIVE_INFINITY;
+
+  private int nVisited = 0;
+
+  /**
+   * @param forwardHeuristic the heuristic of the search from the origin, initialized with the
+   *                         destination
+   * @param reverseHeuristic the heuristic of the search from the destination, initialized with the
+   *                         origin
+   * @param arriveBy         the direction of the forward search, the reverse search is in the
+   *                         opposite direction
+   */
+  BidirectionalAStar(
+    RemainingWeightHeuristic<State> forwardHeuristic,
+    RemainingWeightHeuristic<State> reverseHeuristic,
+    SkipEdgeStrategy<State, Edge> skipEdgeStrategy,
+    boolean arriveBy,
+    DominanceFunction<State> dominanceFunction,
+    AStarPriorityQueue<State> forwardQueue,
+    AStarPriorityQueue<State> reverseQueue,
+    @Nonnull Duration timeout,
+    Collection<State> forwardInitialStates,
+    Collection<State> reverseInitialStates
+  ) {
+    this.skipEdgeStrategy = skipEdgeStrategy;
+    this.timeout = Objects.requireNonNull(timeout);
+    this.forward = new Direction(forwardHeuristic, arriveBy, dominanceFunction, forwardQueue);
+    this.reverse = new Direction(reverseHeuristic, !arriveBy, dominanceFunction, reverseQueue);
+    this.forward.other = reverse;
+    this.reverse.other = forward;
+
+    forward.init(forwardInitialStates);
+    reverse.init(reverseInitialStates);
+  }
+
+  /**
+   * Return the best path found, an empty list if no path is found, or {@code null} if none of the
+   * meeting points found result in a valid path.
+   */
+  @Nullable
+  List<GraphPath<State, Edge, Vertex>> getPathsToTarget() {
+    runSearch();
+
+    if (meetingPoints.isEmpty()) {
+      return new ArrayList<>();
+    }
+    // The weight of the joined path may differ from the sum of the two halves, so all meeting
+    // points are joined and the best path is returned
+    State best = null;
+    for (MeetingPoint meetingPoint : meetingPoints) {
+      State state = joinPaths(meetingPoint.forwardState, meetingPoint.reverseState);
+      if (state != null && (best == null || state.getWeight() < best.getWeight())) {
+        best = state;
+      }
+    }
+    return best == null ? null : new ArrayList<>(List.of(new GraphPath<>(best)));
+  }
+
+  private void runSearch() {
+    OTPRequestTimeoutException.checkForTimeout();
+    long abortTime = DateUtils.absoluteTimeout(timeout);
+
+    while (!forward.pq.empty() && !reverse.pq.empty()) {
+      if (nVisited % 100 == 0 && System.currentTimeMillis() > abortTime) {
+        LOG.warn("Search timeout, {} vertices visited.", nVisited);
+        break;
+      }
+      double keys = forward.pq.peek_min_key() + reverse.pq.peek_min_key();
+      if (keys >= bestMeetingWeight - forward.potentialOffset - reverse.potentialOffset) {
+        break;
+      }
+      if (forward.pq.size() <= reverse.pq.size()) {
+        forward.iterate();
+      } else {
+        reverse.iterate();
+      }
+    }
+    LOG.debug("total vertices visited {}", nVisited);
+  }
+
+  /**
+   * Traverse the edges of the reverse path from the forward state. Return {@code null} if one of
+   * the edges can not be traversed or should be skipped, or the final state is not final.
+   */
+  @Nullable
+  private State joinPaths(State forwardState, State reverseState) {
+    State state = forwardState;
+    for (State s = reverseState; s.getBackState() != null; s = s.getBackState()) {
+      Edge edge = s.getBackEdge();
+      if (skipEdgeStrategy != null && skipEdgeStrategy.shouldSkipEdge(state, edge)) {
+        return null;
+      }
+      State next = null;
+      for (State candidate : edge.traverse(state)) {
+        if (next == null || candidate.getWeight() < next.getWeight()) {
+          next = candidate;
+        }
+      }
+      if (next == null) {
+        return null;
+      }
+      state = next;
+    }
+    return state.isFinal() ? state : null;
+  }
+
+  private void checkMeetingPoint(State forwardState, State reverseState) {
+    double weight = meetingWeight(forwardState, reverseState);
+    if (weight < bestMeetingWeight) {
+      bestMeetingWeight = weight;
+      meetingPoints.add(new MeetingPoint(forwardState, reverseState));
+    }
+  }
+
+  /**
+   * The weight of the path through the meeting point. The first edge of the reverse path is
+   * traversed from the forward state, so the turn cost at the meeting vertex is included, and the
+   * weight is infinite if the turn is not allowed. The rest of the reverse path is added.
+   */
+  private double meetingWeight(State forwardState, State reverseState) {
+    State reverseBackState = reverseState.getBackState();
+    if (reverseBackState == null) {
+      return forwardState.getWeight() + reverseState.getWeight();
+    }
+    double weight = Double.POSITIVE_INFINITY;
+    for (State state : reverseState.getBackEdge().traverse(forwardState)) {
+      weight = Math.min(weight, state.getWeight() + reverseBackState.getWeight());
+    }
+    return weight;
+  }
+
+  private class MeetingPoint {
+
+    private final State forwardState;
+    private final State reverseState;
+
+    private MeetingPoint(State forwardState, State reverseState) {
+      this.forwardState = forwardState;
+      this.reverseState = reverseState;
+    }
+  }
+
+  /** One of the two searches. */
+  private class Direction {
+
+    private final RemainingWeightHeuristic<State> heuristic;
+    private final boolean arriveBy;
+    private final ShortestPathTree<State, Edge, Vertex> spt;
+    private final AStarPriorityQueue<State> pq;
+    private Direction other;
+
+    /**
+     * The potential of the initial states, this is subtracted from the keys so they are not
+     * negative.
+     */
+    private double potentialOffset = 0;
+
+    private Direction(
+      RemainingWeightHeuristic<State> heuristic,
+      boolean arriveBy,
+      DominanceFunction<State> dominanceFunction,
+      AStarPriorityQueue<State> pq
+    ) {
+      this.heuristic = heuristic;
+      this.arriveBy = arriveBy;
+      this.spt = new ShortestPathTree<>(dominanceFunction);
+      this.pq = pq;
+    }
+
+    private void init(Collection<State> initialStates) {
+      potentialOffset = Double.POSITIVE_INFINITY;
+      for (State state : initialStates) {
+        potentialOffset = Math.min(potentialOffset, potential(state));
+      }
+      for (State state : initialStates) {
+        add(state, key(state));
+      }
+    }
+
+    private void iterate() {
+      State u = pq.extract_min();
+      if (!spt.visit(u)) {
+        return;
+      }
+      ++nVisited;
+
+      Vertex vertex = u.getVertex();
+      Collection<Edge> edges = arriveBy ? vertex.getIncoming() : vertex.getOutgoing();
+      for (Edge edge : edges) {
+        if (skipEdgeStrategy != null && skipEdgeStrategy.shouldSkipEdge(u, edge)) {
+          continue;
+        }
+        for (State v : edge.traverse(u)) {
+          double key = key(v);
+          if (Double.isNaN(key) || Double.isInfinite(key)) {
+            continue;
+          }
+          add(v, key);
+        }
+      }
+    }
+
+    private double potential(State state) {
+      return (
+        (heuristic.estimateRemainingWeight(state) -
+          other.heuristic.estimateRemainingWeight(state)) /
+        2
+      );
+    }
+
+    private double key(State state) {
+      return state.getWeight() + potential(state) - potentialOffset;
+    }
+
+    private void add(State state, double key) {
+      if (!spt.add(state)) {
+        return;
+      }
+      pq.insert(state, key);
+
+      List<State> otherStates = other.spt.getStates(state.getVertex());
+      if (otherStates != null) {
+        for (State otherState : otherStates) {
+          if (this == forward) {
+            checkMeetingPoint(state, otherState);
+          } else {
+            checkMeetingPoint(otherState, state);
+          }
+        }
+      }
+    }
+  }
+}
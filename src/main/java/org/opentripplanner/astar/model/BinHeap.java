@@ -1,8 +1,9 @@
 package org.opentripplanner.astar.model;
 
 import java.util.Arrays;
+import org.opentripplanner.astar.spi.AStarPriorityQueue;
 
-public class BinHeap<T> {
+public class BinHeap<T> implements AStarPriorityQueue<T> {
 
   private static final double GROW_FACTOR = 2.0;
 
@@ -25,14 +26,17 @@ public class BinHeap<T> {
     prio[0] = Double.NEGATIVE_INFINITY; // set sentinel
   }
 
+  @Override
   public int size() {
     return size;
   }
 
+  @Override
   public boolean empty() {
     return size <= 0;
   }
 
+  @Override
   public double peek_min_key() {
     if (size > 0) return prio[1]; else throw new IllegalStateException(
       "An empty queue does not have a minimum key."
@@ -79,11 +83,13 @@ public class BinHeap<T> {
     prio[i] = p;
   }
 
+  @Override
   public void reset() {
     // empties the queue in one operation
     size = 0;
   }
 
+  @Override
   public void insert(T e, double p) {
     int i;
     size += 1;
@@ -96,6 +102,7 @@ public class BinHeap<T> {
     prio[i] = p;
   }
 
+  @Override
   public T extract_min() {
     int i, child;
     T minElem = elem[1];
@@ -0,0 +1,119 @@
+package org.opentripplanner.astar.model;
+
+import org.opentripplanner.astar.spi.AStarPriorityQueue;
+
+/**
+ * A pairing heap, a heap-ordered multi-way tree. Inserting is constant time and extracting the
+ * minimum is amortized logarithmic time. Unlike the {@link RadixHeap} there are no restrictions on
+ * the priorities, but each element is wrapped in a node object.
+ */
+public class PairingHeap<T> implements AStarPriorityQueue<T> {
+
+  private Node<T> root = null;
+  private int size = 0;
+
+  @Override
+  public void insert(T element, double priority) {
+    root = meld(root, new Node<>(element, priority));
+    ++size;
+  }
+
+  @Override
+  public T extract_min() {
+    if (root == null) {
+      return null;
+    }
+    T element = root.element;
+    root = mergePairs(root.child);
+    --size;
+    return element;
+  }
+
+  @Override
+  public double peek_min_key() {
+    if (root == null) {
+      throw new IllegalStateException("An empty queue does not have a minimum key.");
+    }
+    return root.priority;
+  }
+
+  @Override
+  public boolean empty() {
+    return root == null;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public void reset() {
+    root = null;
+    size = 0;
+  }
+
+  /** Make the root with the higher priority the first child of the other. */
+  private static <T> Node<T> meld(Node<T> a, Node<T> b) {
+    if (a == null) {
+      return b;
+    }
+    if (b == null) {
+      return a;
+    }
+    if (b.priority < a.priority) {
+      Node<T> tmp = a;
+      a = b;
+      b = tmp;
+    }
+    b.sibling = a.child;
+    a.child = b;
+    return a;
+  }
+
+  /**
+   * The standard two-pass merge of the children of the removed root: meld the children in pairs
+   * from left to right, then meld the pairs from right to left. This is done iteratively, to avoid
+   * a deep recursion when the root has many children.
+   */
+  private static <T> Node<T> mergePairs(Node<T> first) {
+    Node<T> pairs = null;
+    while (first != null) {
+      Node<T> a = first;
+      Node<T> b = a.sibling;
+      if (b == null) {
+        a.sibling = pairs;
+        pairs = a;
+        break;
+      }
+      first = b.sibling;
+      a.sibling = null;
+      b.sibling = null;
+      Node<T> pair = meld(a, b);
+      pair.sibling = pairs;
+      pairs = pair;
+    }
+
+    Node<T> result = null;
+    while (pairs != null) {
+      Node<T> next = pairs.sibling;
+      pairs.sibling = null;
+      result = meld(result, pairs);
+      pairs = next;
+    }
+    return result;
+  }
+
+  private static final class Node<T> {
+
+    private final T element;
+    private final double priority;
+    private Node<T> child;
+    private Node<T> sibling;
+
+    private Node(T element, double priority) {
+      this.element = element;
+      this.priority = priority;
+    }
+  }
+}
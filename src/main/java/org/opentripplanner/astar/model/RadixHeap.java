@@ -0,0 +1,136 @@
+package org.opentripplanner.astar.model;
+
+import java.util.Arrays;
+import org.opentripplanner.astar.spi.AStarPriorityQueue;
+
+/**
+ * A radix heap, a monotone priority queue. The elements are kept in buckets by the highest bit
+ * where the priority differs from the last extracted minimum, so inserting is constant time and
+ * each element is moved at most once per bit when extracting. This is faster than a binary heap
+ * for searches where the priority of new elements is never lower than the last extracted
+ * priority, like a search without a heuristic, or with a consistent heuristic.
+ * <p>
+ * The bits of a non-negative double sort in the same order as the value, so the double
+ * priorities are used directly as keys. An element inserted with a lower priority than the last
+ * extracted minimum is given the last minimum as priority. Negative priorities are treated as
+ * zero.
+ */
+public class RadixHeap<T> implements AStarPriorityQueue<T> {
+
+  private static final int N_BUCKETS = Long.SIZE + 1;
+  private static final int INITIAL_BUCKET_CAPACITY = 16;
+
+  private final Object[][] elements = new Object[N_BUCKETS][];
+  private final long[][] keys = new long[N_BUCKETS][];
+  private final int[] bucketSizes = new int[N_BUCKETS];
+
+  /** The key of the last extracted minimum, all keys in the heap are greater or equal. */
+  private long last = 0;
+  private int size = 0;
+
+  public RadixHeap() {
+    for (int i = 0; i < N_BUCKETS; ++i) {
+      elements[i] = new Object[INITIAL_BUCKET_CAPACITY];
+      keys[i] = new long[INITIAL_BUCKET_CAPACITY];
+    }
+  }
+
+  @Override
+  public void insert(T element, double priority) {
+    long key = priority > 0 ? Double.doubleToRawLongBits(priority) : 0;
+    if (key < last) {
+      key = last;
+    }
+    add(bucket(key), element, key);
+    ++size;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T extract_min() {
+    if (size == 0) {
+      return null;
+    }
+    pull();
+    int i = --bucketSizes[0];
+    T element = (T) elements[0][i];
+    elements[0][i] = null;
+    --size;
+    return element;
+  }
+
+  @Override
+  public double peek_min_key() {
+    if (size == 0) {
+      throw new IllegalStateException("An empty queue does not have a minimum key.");
+    }
+    pull();
+    return Double.longBitsToDouble(last);
+  }
+
+  @Override
+  public boolean empty() {
+    return size == 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public void reset() {
+    for (int i = 0; i < N_BUCKETS; ++i) {
+      Arrays.fill(elements[i], 0, bucketSizes[i], null);
+      bucketSizes[i] = 0;
+    }
+    last = 0;
+    size = 0;
+  }
+
+  private int bucket(long key) {
+    return Long.SIZE - Long.numberOfLeadingZeros(key ^ last);
+  }
+
+  private void add(int bucket, Object element, long key) {
+    int i = bucketSizes[bucket];
+    if (i == elements[bucket].length) {
+      elements[bucket] = Arrays.copyOf(elements[bucket], i * 2);
+      keys[bucket] = Arrays.copyOf(keys[bucket], i * 2);
+    }
+    elements[bucket][i] = element;
+    keys[bucket][i] = key;
+    bucketSizes[bucket] = i + 1;
+  }
+
+  /**
+   * Make sure the elements with the minimum key are in bucket 0, by redistributing the first
+   * non-empty bucket using its minimum key as the new last key. The heap must not be empty.
+   */
+  private void pull() {
+    if (bucketSizes[0] > 0) {
+      return;
+    }
+    int b = 1;
+    while (bucketSizes[b] == 0) {
+      ++b;
+    }
+    int n = bucketSizes[b];
+    long[] bucketKeys = keys[b];
+    Object[] bucketElements = elements[b];
+
+    long min = bucketKeys[0];
+    for (int i = 1; i < n; ++i) {
+      min = Math.min(min, bucketKeys[i]);
+    }
+    last = min;
+
+    // All elements move to a lower bucket, since they share the bits above bucket b with the
+    // new last key
+    bucketSizes[b] = 0;
+    for (int i = 0; i < n; ++i) {
+      add(bucket(bucketKeys[i]), bucketElements[i], bucketKeys[i]);
+      bucketElements[i] = null;
+    }
+  }
+}
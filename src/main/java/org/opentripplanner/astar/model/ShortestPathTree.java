@@ -3,6 +3,7 @@ package org.opentripplanner.astar.model;
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Multiset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.IdentityHashMap;
@@ -33,6 +34,14 @@ import org.slf4j.LoggerFactory;
  * when walking. The turn restriction handling is done in the base dominance function
  * implementation, and applies to all subclasses. It essentially splits each vertex into N vertices
  * depending on the incoming edge being taken.
+ * <p>
+ * The states are stored by vertex in an identity map, or if the tree is created with
+ * {@link #arrayBacked(DominanceFunction, int)}, in an array indexed by
+ * {@link AStarVertex#getIndex()}. Vertices without an index, like temporary vertices, are stored
+ * in the map also in the array backed tree. Most vertices only have one state, so a single state
+ * is stored without wrapping it in a list. The array backed tree is intended to be reused by
+ * calling {@link #reset()}, the array is only cleared, not reallocated. See
+ * {@link ShortestPathTreePool}.
  */
 public class ShortestPathTree<
   State extends AStarState<State, Edge, Vertex>,
@@ -42,9 +51,23 @@ public class ShortestPathTree<
 
   private static final Logger LOG = LoggerFactory.getLogger(ShortestPathTree.class);
 
-  public final DominanceFunction<State> dominanceFunction;
+  private DominanceFunction<State> dominanceFunction;
 
-  private final Map<Vertex, List<State>> stateSets;
+  /**
+   * The states of each vertex without an index, or all vertices if the tree is not array backed.
+   * The value is a single state, or a list of states if the vertex has more than one state.
+   */
+  private final Map<Vertex, Object> stateSets;
+
+  /**
+   * The states by vertex index, or {@code null} if the tree is not array backed. The element is
+   * {@code null}, a single state or a list of states.
+   */
+  private Object[] stateSetsByIndex;
+
+  /** The indexes used in {@link #stateSetsByIndex}, the first {@code nIndexesUsed} are valid. */
+  private int[] indexesUsed;
+  private int nIndexesUsed = 0;
 
   /** Indicates that the search timed out or was otherwise aborted. */
   private boolean aborted = false;
@@ -55,6 +78,55 @@ public class ShortestPathTree<
     stateSets = new IdentityHashMap<>(10_000);
   }
 
+  private ShortestPathTree(DominanceFunction<State> dominanceFunction, int initialCapacity) {
+    this.dominanceFunction = dominanceFunction;
+    this.stateSets = new IdentityHashMap<>();
+    this.stateSetsByIndex = new Object[initialCapacity];
+    this.indexesUsed = new int[1000];
+  }
+
+  /**
+   * Create a tree storing the states in an array indexed by the vertex index. The array grows as
+   * needed, so the initial capacity may be smaller than the number of vertices in the graph.
+   */
+  public static <
+    State extends AStarState<State, Edge, Vertex>,
+    Edge extends AStarEdge<State, Edge, Vertex>,
+    Vertex extends AStarVertex<State, Edge, Vertex>
+  > ShortestPathTree<State, Edge, Vertex> arrayBacked(
+    DominanceFunction<State> dominanceFunction,
+    int initialCapacity
+  ) {
+    return new ShortestPathTree<>(dominanceFunction, initialCapacity);
+  }
+
+  /**
+   * Remove all states from the tree, so it can be used in a new search. The array of an array
+   * backed tree is kept.
+   */
+  public void reset() {
+    if (stateSetsByIndex != null) {
+      if (nIndexesUsed > stateSetsByIndex.length / 8) {
+        Arrays.fill(stateSetsByIndex, null);
+      } else {
+        for (int i = 0; i < nIndexesUsed; ++i) {
+          stateSetsByIndex[indexesUsed[i]] = null;
+        }
+      }
+      nIndexesUsed = 0;
+    }
+    stateSets.clear();
+    aborted = false;
+  }
+
+  /**
+   * Remove all states from the tree, and use the given dominance function in the next search.
+   */
+  public void reset(DominanceFunction<State> dominanceFunction) {
+    reset();
+    this.dominanceFunction = dominanceFunction;
+  }
+
   /** @return a list of GraphPaths, sometimes empty but never null. */
   public List<GraphPath<State, Edge, Vertex>> getPaths(Vertex dest) {
     List<? extends State> stateList = getStates(dest);
@@ -85,24 +157,25 @@ public class ShortestPathTree<
     Multiset<Integer> histogram = HashMultiset.create();
     int statesCount = 0;
     int maxSize = 0;
-    for (Map.Entry<Vertex, List<State>> kv : stateSets.entrySet()) {
-      List<State> states = kv.getValue();
+    int vertexCount = 0;
+    for (List<State> states : allStateSets()) {
       int size = states.size();
       histogram.add(size);
       statesCount += size;
+      ++vertexCount;
       if (size > maxSize) {
         maxSize = size;
       }
     }
     LOG.info(
       "SPT: vertices: " +
-      stateSets.size() +
+      vertexCount +
       " states: total: " +
       statesCount +
       " per vertex max: " +
       maxSize +
       " avg: " +
-      (statesCount * 1.0 / stateSets.size())
+      (statesCount * 1.0 / vertexCount)
     );
     List<Integer> nStates = new ArrayList<>(histogram.elementSet());
     Collections.sort(nStates);
@@ -112,7 +185,15 @@ public class ShortestPathTree<
   }
 
   public Set<Vertex> getVertices() {
-    return stateSets.keySet();
+    if (stateSetsByIndex == null) {
+      return stateSets.keySet();
+    }
+    Set<Vertex> vertices = Collections.newSetFromMap(new IdentityHashMap<>());
+    vertices.addAll(stateSets.keySet());
+    for (List<State> states : allStateSets()) {
+      vertices.add(states.get(0).getVertex());
+    }
+    return vertices;
   }
 
   /**
@@ -127,16 +208,36 @@ public class ShortestPathTree<
    */
   public boolean add(State newState) {
     Vertex vertex = newState.getVertex();
-    List<State> states = stateSets.get(vertex);
+    Object stateSet = stateSet(vertex);
 
     // if the vertex has no states, add one and return
-    if (states == null) {
-      states = new ArrayList<>();
-      stateSets.put(vertex, states);
-      states.add(newState);
+    if (stateSet == null) {
+      setStateSet(vertex, newState, true);
+      return true;
+    }
+
+    if (!(stateSet instanceof List)) {
+      @SuppressWarnings("unchecked")
+      State oldState = (State) stateSet;
+      // order is important, because in the case of a tie
+      // we want to reject the new state
+      if (dominanceFunction.betterOrEqualAndComparable(oldState, newState)) {
+        return false;
+      }
+      if (dominanceFunction.betterOrEqualAndComparable(newState, oldState)) {
+        setStateSet(vertex, newState, false);
+      } else {
+        List<State> states = new ArrayList<>(2);
+        states.add(oldState);
+        states.add(newState);
+        setStateSet(vertex, states, false);
+      }
       return true;
     }
 
+    @SuppressWarnings("unchecked")
+    List<State> states = (List<State>) stateSet;
+
     // if the vertex has any states that dominate the new state, don't add the state
     // if the new state dominates any old states, remove them
     Iterator<State> it = states.iterator();
@@ -164,7 +265,7 @@ public class ShortestPathTree<
    * @return a 'best' state at that vertex
    */
   public State getState(Vertex dest) {
-    Collection<State> states = stateSets.get(dest);
+    Collection<State> states = getStates(dest);
     if (states == null) {
       return null;
     }
@@ -188,12 +289,21 @@ public class ShortestPathTree<
    * @return a collection of 'interesting' states at that vertex
    */
   public List<State> getStates(Vertex dest) {
-    return stateSets.get(dest);
+    return asList(stateSet(dest));
   }
 
   /** @return number of vertices referenced in this SPT */
   public int getVertexCount() {
-    return stateSets.keySet().size();
+    if (stateSetsByIndex == null) {
+      return stateSets.size();
+    }
+    int count = stateSets.size();
+    for (int i = 0; i < nIndexesUsed; ++i) {
+      if (stateSetsByIndex[indexesUsed[i]] != null) {
+        ++count;
+      }
+    }
+    return count;
   }
 
   /**
@@ -221,20 +331,24 @@ public class ShortestPathTree<
    * @return - whether this state is still considered worth visiting.
    */
   public boolean visit(State state) {
-    boolean ret = false;
-    for (State s : stateSets.get(state.getVertex())) {
-      if (s == state) {
-        ret = true;
-        break;
+    Object stateSet = stateSet(state.getVertex());
+    if (stateSet == state) {
+      return true;
+    }
+    if (stateSet instanceof List<?> states) {
+      for (Object s : states) {
+        if (s == state) {
+          return true;
+        }
       }
     }
-    return ret;
+    return false;
   }
 
   /** @return every state in this tree */
   public Collection<State> getAllStates() {
     ArrayList<State> allStates = new ArrayList<>();
-    for (List<State> stateSet : stateSets.values()) {
+    for (List<State> stateSet : allStateSets()) {
       allStates.addAll(stateSet);
     }
     return allStates;
@@ -245,6 +359,61 @@ public class ShortestPathTree<
   }
 
   public String toString() {
-    return "ShortestPathTree(" + this.stateSets.size() + " vertices)";
+    return "ShortestPathTree(" + getVertexCount() + " vertices)";
+  }
+
+  private Object stateSet(Vertex vertex) {
+    int index = vertex.getIndex();
+    if (stateSetsByIndex == null || index == AStarVertex.NO_INDEX) {
+      return stateSets.get(vertex);
+    }
+    return index < stateSetsByIndex.length ? stateSetsByIndex[index] : null;
+  }
+
+  /**
+   * @param newVertex {@code true} if the vertex has no states in the tree
+   */
+  private void setStateSet(Vertex vertex, Object stateSet, boolean newVertex) {
+    int index = vertex.getIndex();
+    if (stateSetsByIndex == null || index == AStarVertex.NO_INDEX) {
+      stateSets.put(vertex, stateSet);
+      return;
+    }
+    if (index >= stateSetsByIndex.length) {
+      stateSetsByIndex =
+        Arrays.copyOf(stateSetsByIndex, Math.max(index + 1, stateSetsByIndex.length * 2));
+    }
+    if (newVertex) {
+      if (nIndexesUsed == indexesUsed.length) {
+        indexesUsed = Arrays.copyOf(indexesUsed, nIndexesUsed * 2);
+      }
+      indexesUsed[nIndexesUsed++] = index;
+    }
+    stateSetsByIndex[index] = stateSet;
+  }
+
+  private List<List<State>> allStateSets() {
+    List<List<State>> result = new ArrayList<>();
+    for (Object stateSet : stateSets.values()) {
+      result.add(asList(stateSet));
+    }
+    for (int i = 0; i < nIndexesUsed; ++i) {
+      Object stateSet = stateSetsByIndex[indexesUsed[i]];
+      if (stateSet != null) {
+        result.add(asList(stateSet));
+      }
+    }
+    return result;
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<State> asList(Object stateSet) {
+    if (stateSet == null) {
+      return null;
+    }
+    if (stateSet instanceof List) {
+      return (List<State>) stateSet;
+    }
+    return Collections.singletonList((State) stateSet);
   }
 }
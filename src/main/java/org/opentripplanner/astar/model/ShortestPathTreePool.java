@@ -0,0 +1,69 @@
+package org.opentripplanner.astar.model;
+
+import java.lang.ref.SoftReference;
+import java.util.concurrent.ArrayBlockingQueue;
+import org.opentripplanner.astar.spi.AStarEdge;
+import org.opentripplanner.astar.spi.AStarState;
+import org.opentripplanner.astar.spi.AStarVertex;
+import org.opentripplanner.astar.spi.DominanceFunction;
+
+/**
+ * A pool of {@link ShortestPathTree#arrayBacked array backed} shortest path trees, shared by the
+ * threads doing street searches. A tree is taken from the pool for one search and returned when
+ * the result is extracted, so the trees are not tied to a thread and idle threads do not keep a
+ * tree.
+ * <p>
+ * The trees are reset when they are returned, so the pool does not keep the states of old
+ * searches. At most {@code maxSize} trees are kept, and they are softly referenced, so the garbage
+ * collector may drop them if memory is low.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public class ShortestPathTreePool<
+  State extends AStarState<State, Edge, Vertex>,
+  Edge extends AStarEdge<State, Edge, Vertex>,
+  Vertex extends AStarVertex<State, Edge, Vertex>
+> {
+
+  private final int initialCapacity;
+  private final ArrayBlockingQueue<SoftReference<ShortestPathTree<State, Edge, Vertex>>> trees;
+
+  /**
+   * @param initialCapacity the initial capacity of new trees, normally the number of vertices
+   * @param maxSize         the maximum number of trees to keep in the pool
+   */
+  public ShortestPathTreePool(int initialCapacity, int maxSize) {
+    this.initialCapacity = initialCapacity;
+    this.trees = new ArrayBlockingQueue<>(maxSize);
+  }
+
+  /**
+   * Take an empty tree from the pool, or create a new tree if the pool is empty. Return the tree
+   * with {@link #release(ShortestPathTree)} when it is no longer used.
+   */
+  public ShortestPathTree<State, Edge, Vertex> borrow(DominanceFunction<State> dominanceFunction) {
+    SoftReference<ShortestPathTree<State, Edge, Vertex>> ref;
+    while ((ref = trees.poll()) != null) {
+      var tree = ref.get();
+      if (tree != null) {
+        tree.reset(dominanceFunction);
+        return tree;
+      }
+    }
+    return ShortestPathTree.arrayBacked(dominanceFunction, initialCapacity);
+  }
+
+  /**
+   * Return a tree to the pool, the tree is reset and must not be used after this. The tree is
+   * dropped if the pool is full.
+   */
+  public void release(ShortestPathTree<State, Edge, Vertex> tree) {
+    tree.reset();
+    trees.offer(new SoftReference<>(tree));
+  }
+
+  /** The number of trees in the pool, including trees dropped by the garbage collector. */
+  int size() {
+    return trees.size();
+  }
+}
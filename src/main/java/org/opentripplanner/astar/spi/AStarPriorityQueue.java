@@ -0,0 +1,31 @@
+package org.opentripplanner.astar.spi;
+
+/**
+ * The priority queue used by the A* search to order the states by their estimated total weight.
+ * The default implementation is a binary heap, other implementations may be faster for some
+ * searches, see the implementations in the {@code astar.model} package.
+ * <p>
+ * The method names follow the original binary heap implementation.
+ */
+public interface AStarPriorityQueue<T> {
+  /** Add an element with the given priority, the lowest priority is extracted first. */
+  void insert(T element, double priority);
+
+  /**
+   * Remove and return the element with the lowest priority, or {@code null} if the queue is empty.
+   */
+  T extract_min();
+
+  /**
+   * Return the lowest priority in the queue.
+   * @throws IllegalStateException if the queue is empty
+   */
+  double peek_min_key();
+
+  boolean empty();
+
+  int size();
+
+  /** Remove all elements from the queue. */
+  void reset();
+}
@@ -7,6 +7,9 @@ public interface AStarVertex<
   Edge extends AStarEdge<State, Edge, Vertex>,
   Vertex extends AStarVertex<State, Edge, Vertex>
 > {
+  /** The index of a vertex which is not indexed, see {@link #getIndex()}. */
+  int NO_INDEX = -1;
+
   /**
    * Get a collection containing all the edges leading from this vertex to other vertices. There is
    * probably some overhead to creating the wrapper ArrayList objects, but this allows filtering and
@@ -16,4 +19,13 @@ public interface AStarVertex<
 
   /** Get a collection containing all the edges leading from other vertices to this vertex. */
   Collection<Edge> getIncoming();
+
+  /**
+   * A dense index of the vertex in the graph, in the range {@code [0, number of vertices)}, or
+   * {@link #NO_INDEX} if the vertex is not indexed. The index is used by the search to store
+   * states in arrays instead of maps.
+   */
+  default int getIndex() {
+    return NO_INDEX;
+  }
 }
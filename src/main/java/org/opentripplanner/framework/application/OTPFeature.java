@@ -15,13 +15,34 @@ import org.slf4j.LoggerFactory;
  */
 public enum OTPFeature {
   APIBikeRental(true, false, "Enable the bike rental endpoint."),
+  APIGraphReload(
+    false,
+    false,
+    "Enable the endpoint `POST /otp/graph/reload` to load a new graph without restarting the " +
+    "server. The request must have the token set in `server.graphReloadToken`."
+  ),
   APIServerInfo(true, false, "Enable the server info endpoint."),
   APIUpdaterStatus(true, false, "Enable endpoint for graph updaters status."),
+  BidirectionalStreetSearch(
+    false,
+    false,
+    "Search from both the origin and the destination when finding direct walk, bike and car paths. This reduces the number of states visited for long direct trips."
+  ),
+  CompactStreetGraph(
+    false,
+    false,
+    "Create a compact, array based copy of the street graph at startup and use it to find direct walk paths. This uses more memory, but speeds up the direct walk search."
+  ),
   ConsiderPatternsForDirectTransfers(
     true,
     false,
     "Enable limiting transfers so that there is only a single transfer to each pattern."
   ),
+  ContractionHierarchy(
+    false,
+    false,
+    "Build a contraction hierarchy of the car network when the graph is built, and use it to find direct car paths. This makes the graph larger and the graph build slower, but speeds up the direct car search."
+  ),
   DebugUi(
     true,
     false,
@@ -38,6 +59,11 @@ public enum OTPFeature {
     false,
     "Does vehicleRentalStation query also allow ids that are not feed scoped."
   ),
+  LandmarkHeuristic(
+    false,
+    false,
+    "Compute the travel time between all street vertices and a few landmarks when the graph is built, and use it to estimate the remaining time of direct car and bike searches. This makes the graph larger, but reduces the number of states visited."
+  ),
   /**
    * If this feature flag is switched on, then the minimum transfer time is not the minimum transfer
    * time, but the definitive transfer time. Use this to override what we think the transfer will
@@ -112,6 +138,7 @@ public enum OTPFeature {
   SandboxAPIGeocoder(false, true, "Enable the Geocoder API."),
   SandboxAPIMapboxVectorTilesApi(false, true, "Enable Mapbox vector tiles API."),
   SandboxAPIParkAndRideApi(false, true, "Enable park-and-ride endpoint."),
+  SandboxAPITravelTimeMatrix(false, true, "Enable the travel-time matrix and isochrone API."),
   TransferAnalyzer(false, true, "Analyze transfers during graph build.");
 
   private static final Object TEST_LOCK = new Object();
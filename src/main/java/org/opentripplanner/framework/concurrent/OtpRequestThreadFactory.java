@@ -33,6 +33,18 @@ public class OtpRequestThreadFactory implements ThreadFactory {
     return new OtpRequestThreadFactory(defaultFactory);
   }
 
+  /**
+   * Propagate the log information of the calling thread to a task run by a thread pool. The
+   * threads of a pool are reused by many requests, so the log information must be passed on with
+   * each task, not when the thread is created.
+   */
+  public static Runnable decorate(Runnable task) {
+    if (LogMDCSupport.isRequestTracingInLoggingEnabled()) {
+      return new LogMDCRunnableDecorator(task);
+    }
+    return task;
+  }
+
   @Override
   public Thread newThread(@Nonnull Runnable r) {
     if (LogMDCSupport.isRequestTracingInLoggingEnabled()) {
@@ -98,6 +98,10 @@ public final class CompactElevationProfile implements Serializable {
     return new PackedCoordinateSequence.Double(c, 2);
   }
 
+  public static double distanceBetweenSamplesM() {
+    return distanceBetweenSamplesM;
+  }
+
   public static void setDistanceBetweenSamplesM(double distance) {
     distanceBetweenSamplesM = distance;
   }
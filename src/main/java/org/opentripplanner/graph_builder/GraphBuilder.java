@@ -163,6 +163,14 @@ public class GraphBuilder implements Runnable {
       graphBuilder.addModule(factory.graphCoherencyCheckerModule());
     }
 
+    if ((loadStreetGraph || hasOsm) && OTPFeature.LandmarkHeuristic.isOn()) {
+      graphBuilder.addModule(factory.landmarkModule());
+    }
+
+    if ((loadStreetGraph || hasOsm) && OTPFeature.ContractionHierarchy.isOn()) {
+      graphBuilder.addModule(factory.contractionHierarchyModule());
+    }
+
     if (OTPFeature.Co2Emissions.isOn()) {
       graphBuilder.addModule(factory.emissionsModule());
     }
@@ -7,6 +7,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import org.slf4j.Logger;
@@ -61,7 +62,16 @@ public class DataImportIssueSummary implements Serializable {
     return new DataImportIssueSummary(List.of());
   }
 
+  /**
+   * Create a summary which is loaded on first access, used for the summary saved with the graph.
+   * The loader is called each time the summary is accessed, and should cache the summary.
+   */
+  public static DataImportIssueSummary lazy(Supplier<DataImportIssueSummary> loader) {
+    return new LazySummary(loader);
+  }
+
   public void logSummary() {
+    var summary = asMap();
     int maxLength = summary.keySet().stream().mapToInt(String::length).max().orElse(10);
     final String FMT = "  - %-" + maxLength + "s  %,7d";
 
@@ -78,4 +88,20 @@ public class DataImportIssueSummary implements Serializable {
   public Map<String, Long> asMap() {
     return summary;
   }
+
+  private static class LazySummary extends DataImportIssueSummary {
+
+    private final Supplier<DataImportIssueSummary> loader;
+
+    private LazySummary(Supplier<DataImportIssueSummary> loader) {
+      super(Map.of());
+      this.loader = loader;
+    }
+
+    @Nonnull
+    @Override
+    public Map<String, Long> asMap() {
+      return loader.get().asMap();
+    }
+  }
 }
@@ -0,0 +1,33 @@
+package org.opentripplanner.graph_builder.module;
+
+import jakarta.inject.Inject;
+import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.search.ch.ContractionHierarchy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Build the {@link ContractionHierarchy} of the car network, used to find direct car paths. This
+ * must run after all permanent vertices and edges are added to the graph.
+ */
+public class ContractionHierarchyModule implements GraphBuilderModule {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ContractionHierarchyModule.class);
+
+  private final Graph graph;
+
+  @Inject
+  public ContractionHierarchyModule(Graph graph) {
+    this.graph = graph;
+  }
+
+  @Override
+  public void buildGraph() {
+    LOG.info("Building contraction hierarchy...");
+    graph.indexVertices();
+    var hierarchy = ContractionHierarchy.of(graph.getVertices());
+    graph.setContractionHierarchy(hierarchy);
+    LOG.info("Building contraction hierarchy complete. {}", hierarchy);
+  }
+}
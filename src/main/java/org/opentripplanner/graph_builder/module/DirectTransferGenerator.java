@@ -193,7 +193,8 @@ public class DirectTransferGenerator implements GraphBuilderModule {
       finder = new StraightLineNearbyStopFinder(transitService, radiusByDuration);
     } else {
       LOG.info("Creating direct transfer edges between stops using the street network from OSM...");
-      finder = new StreetNearbyStopFinder(radiusByDuration, 0, null);
+      finder =
+        new StreetNearbyStopFinder(radiusByDuration, 0, null, graph.getShortestPathTreePool());
     }
 
     if (OTPFeature.ConsiderPatternsForDirectTransfers.isOn()) {
@@ -0,0 +1,39 @@
+package org.opentripplanner.graph_builder.module;
+
+import jakarta.inject.Inject;
+import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.search.landmark.LandmarkTables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Select the landmarks and compute the {@link LandmarkTables} used to estimate the remaining
+ * weight of direct car and bike searches. This must run after all permanent vertices and edges
+ * are added to the graph.
+ */
+public class LandmarkModule implements GraphBuilderModule {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LandmarkModule.class);
+
+  /**
+   * More landmarks give better bounds, but each landmark adds 8 bytes per vertex to the graph.
+   */
+  private static final int NUMBER_OF_LANDMARKS = 8;
+
+  private final Graph graph;
+
+  @Inject
+  public LandmarkModule(Graph graph) {
+    this.graph = graph;
+  }
+
+  @Override
+  public void buildGraph() {
+    LOG.info("Computing landmark tables...");
+    graph.indexVertices();
+    var tables = LandmarkTables.of(graph.getVertices(), NUMBER_OF_LANDMARKS);
+    graph.setLandmarkTables(tables);
+    LOG.info("Computing landmark tables complete. {}", tables);
+  }
+}
@@ -9,7 +9,10 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
+import javax.annotation.Nullable;
+import org.opentripplanner.astar.model.RadixHeap;
 import org.opentripplanner.astar.model.ShortestPathTree;
+import org.opentripplanner.astar.model.ShortestPathTreePool;
 import org.opentripplanner.astar.spi.SkipEdgeStrategy;
 import org.opentripplanner.astar.strategy.ComposingSkipEdgeStrategy;
 import org.opentripplanner.astar.strategy.DurationSkipEdgeStrategy;
@@ -20,6 +23,7 @@ import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graphfinder.NearbyStop;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.edge.StreetEdge;
@@ -41,6 +45,10 @@ public class StreetNearbyStopFinder implements NearbyStopFinder {
   private final int maxStopCount;
   private final DataOverlayContext dataOverlayContext;
 
+  /** The pool of reused shortest path trees, {@code null} if a new tree is used in each search. */
+  @Nullable
+  private final ShortestPathTreePool<State, Edge, Vertex> shortestPathTreePool;
+
   /**
    * Construct a NearbyStopFinder for the given graph and search radius.
    */
@@ -48,10 +56,25 @@ public class StreetNearbyStopFinder implements NearbyStopFinder {
     Duration durationLimit,
     int maxStopCount,
     DataOverlayContext dataOverlayContext
+  ) {
+    this(durationLimit, maxStopCount, dataOverlayContext, null);
+  }
+
+  /**
+   * @param shortestPathTreePool the pool to take the shortest path tree of each search from, see
+   *                             {@link Graph#getShortestPathTreePool()}. This avoids allocating a
+   *                             new tree for each search. If {@code null} a new tree is used.
+   */
+  public StreetNearbyStopFinder(
+    Duration durationLimit,
+    int maxStopCount,
+    DataOverlayContext dataOverlayContext,
+    @Nullable ShortestPathTreePool<State, Edge, Vertex> shortestPathTreePool
   ) {
     this.dataOverlayContext = dataOverlayContext;
     this.durationLimit = durationLimit;
     this.maxStopCount = maxStopCount;
+    this.shortestPathTreePool = shortestPathTreePool;
   }
 
   /**
@@ -101,6 +124,9 @@ public class StreetNearbyStopFinder implements NearbyStopFinder {
       .of()
       .setSkipEdgeStrategy(getSkipEdgeStrategy())
       .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setShortestPathTreePool(shortestPathTreePool)
+      // The search has no heuristic, so the weights are extracted in increasing order
+      .setPriorityQueueFactory(RadixHeap::new)
       .setRequest(request)
       .setArriveBy(reverseDirection)
       .setStreetRequest(streetRequest)
@@ -114,7 +140,11 @@ public class StreetNearbyStopFinder implements NearbyStopFinder {
 
     if (spt != null) {
       // TODO use GenericAStar and a traverseVisitor? Add an earliestArrival switch to genericAStar?
-      for (State state : spt.getAllStates()) {
+      Collection<State> states = spt.getAllStates();
+      if (shortestPathTreePool != null) {
+        shortestPathTreePool.release(spt);
+      }
+      for (State state : states) {
         Vertex targetVertex = state.getVertex();
         if (originVertices.contains(targetVertex)) continue;
         if (targetVertex instanceof TransitStopVertex tsv && state.isFinal()) {
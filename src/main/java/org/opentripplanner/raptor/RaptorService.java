@@ -2,7 +2,10 @@ package org.opentripplanner.raptor;
 
 import java.util.stream.Collectors;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
 import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.response.IterationStopArrivalsListener;
 import org.opentripplanner.raptor.api.response.RaptorResponse;
 import org.opentripplanner.raptor.configure.RaptorConfig;
 import org.opentripplanner.raptor.service.DefaultStopArrivals;
@@ -32,17 +35,51 @@ public class RaptorService<T extends RaptorTripSchedule> {
     RaptorTransitDataProvider<T> transitData
   ) {
     logRequest(request);
-    RaptorResponse<T> response;
-
-    if (request.isDynamicSearch()) {
-      response = new RangeRaptorDynamicSearch<>(config, transitData, request).route();
-    } else {
-      response = routeUsingStdWorker(transitData, request);
-    }
+    RaptorResponse<T> response = config.withWorkerStateArena(
+      request.performanceTimers(),
+      () ->
+        request.isDynamicSearch()
+          ? new RangeRaptorDynamicSearch<>(config, transitData, request).route()
+          : routeUsingStdWorker(transitData, request)
+    );
     logResponse(transitData, response);
     return response;
   }
 
+  /**
+   * Run a forward {@link RaptorProfile#STANDARD} or {@link RaptorProfile#BEST_TIME} search and
+   * notify the listener with the stop arrivals after each Range Raptor iteration. The
+   * search-window must be set, it is not resolved dynamically. The paths are not returned, so the
+   * request may use {@code allowEmptyEgressPaths}.
+   * <p>
+   * This is used to compute travel-time statistics from the origin to every stop, for each
+   * departure-time in the search-window, with one search.
+   */
+  public void routeStopArrivals(
+    RaptorRequest<T> request,
+    RaptorTransitDataProvider<T> transitData,
+    IterationStopArrivalsListener listener
+  ) {
+    if (!request.profile().isOneOf(RaptorProfile.STANDARD, RaptorProfile.BEST_TIME)) {
+      throw new IllegalArgumentException("Profile not supported: " + request.profile());
+    }
+    if (request.searchDirection() != SearchDirection.FORWARD) {
+      throw new IllegalArgumentException("Only the forward search is supported.");
+    }
+    if (!request.searchParams().isSearchWindowSet()) {
+      throw new IllegalArgumentException("The search-window is required.");
+    }
+    logRequest(request);
+    config
+      .createStdWorker(
+        transitData,
+        request,
+        (result, departureTime) ->
+          listener.iterationComplete(departureTime, new DefaultStopArrivals(result))
+      )
+      .route();
+  }
+
   /**
    * TODO Add back the possibility to compare heuristics using a test - like the SpeedTest,
    *      but maybe better to make a separate test.
@@ -50,6 +50,13 @@ public interface RaptorTimers {
    */
   void findTransfersForRound(Runnable body);
 
+  /**
+   * This is called when a routing request is complete, with the estimated number of bytes of
+   * worker state reused, instead of allocated. Only called if reuse of the worker state is
+   * enabled, the default implementation does nothing.
+   */
+  default void workerStateBytesReused(long bytes) {}
+
   /**
    * Create a new instance with a new name prefix. Useful when creating a new request for heuristic.
    */
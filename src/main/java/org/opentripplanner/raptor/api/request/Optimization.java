@@ -9,7 +9,9 @@ import java.util.Collection;
 public enum Optimization {
   /**
    * Run part of the search in parallel. This uses more resources and may degrade the overall
-   * performance, but each individual travel search should be faster.
+   * performance, but each individual travel search should be faster. The forward and reverse
+   * heuristic searches run in parallel, and the search-window of the main search is split in
+   * slices searched in parallel if {@link RaptorTuningParameters#searchWindowSlices()} is set.
    * <p>
    * This only apply to: multi-criteria search.
    */
@@ -26,6 +26,7 @@ public class SearchParams {
   private final boolean constrainedTransfers;
   private final Collection<RaptorAccessEgress> accessPaths;
   private final Collection<RaptorAccessEgress> egressPaths;
+  private final boolean allowEmptyEgressPaths;
 
   /**
    * Default values are defined in the default constructor.
@@ -41,6 +42,7 @@ public class SearchParams {
     constrainedTransfers = false;
     accessPaths = List.of();
     egressPaths = List.of();
+    allowEmptyEgressPaths = false;
   }
 
   SearchParams(SearchParamsBuilder<?> builder) {
@@ -54,6 +56,7 @@ public class SearchParams {
     this.constrainedTransfers = builder.constrainedTransfers();
     this.accessPaths = List.copyOf(builder.accessPaths());
     this.egressPaths = List.copyOf(builder.egressPaths());
+    this.allowEmptyEgressPaths = builder.allowEmptyEgressPaths();
   }
 
   /**
@@ -189,12 +192,22 @@ public class SearchParams {
    * NOTE! The {@link RaptorTransfer#stop()} is the stop where the egress path start, NOT the
    * destination - think of it as a reversed path.
    * <p/>
-   * Required, at least one egress path must exist.
+   * Required, at least one egress path must exist, unless {@link #allowEmptyEgressPaths()} is
+   * enabled.
    */
   public Collection<RaptorAccessEgress> egressPaths() {
     return egressPaths;
   }
 
+  /**
+   * If enabled, the check for egress paths is skipped. This is used when the stop arrivals are the
+   * result of the search, not the paths. Without egress paths the destination is never reached,
+   * and no paths are returned.
+   */
+  public boolean allowEmptyEgressPaths() {
+    return allowEmptyEgressPaths;
+  }
+
   /**
    * Get the maximum duration of any access or egress path in seconds.
    */
@@ -214,7 +227,8 @@ public class SearchParams {
       preferLateArrival,
       numberOfAdditionalTransfers,
       accessPaths,
-      egressPaths
+      egressPaths,
+      allowEmptyEgressPaths
     );
   }
 
@@ -234,7 +248,8 @@ public class SearchParams {
       preferLateArrival == that.preferLateArrival &&
       numberOfAdditionalTransfers == that.numberOfAdditionalTransfers &&
       accessPaths.equals(that.accessPaths) &&
-      egressPaths.equals(that.egressPaths)
+      egressPaths.equals(that.egressPaths) &&
+      allowEmptyEgressPaths == that.allowEmptyEgressPaths
     );
   }
 
@@ -254,6 +269,7 @@ public class SearchParams {
       )
       .addCollection("accessPaths", accessPaths, 5, RaptorAccessEgress::defaultToString)
       .addCollection("egressPaths", egressPaths, 5, RaptorAccessEgress::defaultToString)
+      .addBoolIfTrue("allowEmptyEgressPaths", allowEmptyEgressPaths)
       .toString();
   }
 
@@ -269,7 +285,10 @@ public class SearchParams {
       "'earliestDepartureTime' or 'latestArrivalTime' is required."
     );
     assertProperty(!accessPaths.isEmpty(), "At least one 'accessPath' is required.");
-    assertProperty(!egressPaths.isEmpty(), "At least one 'egressPath' is required.");
+    assertProperty(
+      allowEmptyEgressPaths || !egressPaths.isEmpty(),
+      "At least one 'egressPath' is required."
+    );
     assertProperty(
       !(preferLateArrival && !isLatestArrivalTimeSet()),
       "The 'latestArrivalTime' is required when 'departAsLateAsPossible' is set."
@@ -29,6 +29,7 @@ public class SearchParamsBuilder<T extends RaptorTripSchedule> {
   private int maxNumberOfTransfers;
   private boolean timetable;
   private boolean constrainedTransfers;
+  private boolean allowEmptyEgressPaths;
 
   public SearchParamsBuilder(RaptorRequestBuilder<T> parent, SearchParams defaults) {
     this.parent = parent;
@@ -42,6 +43,7 @@ public class SearchParamsBuilder<T extends RaptorTripSchedule> {
     this.constrainedTransfers = defaults.constrainedTransfers();
     this.accessPaths.addAll(defaults.accessPaths());
     this.egressPaths.addAll(defaults.egressPaths());
+    this.allowEmptyEgressPaths = defaults.allowEmptyEgressPaths();
   }
 
   public int earliestDepartureTime() {
@@ -160,6 +162,15 @@ public class SearchParamsBuilder<T extends RaptorTripSchedule> {
     return addEgressPaths(Arrays.asList(egressPaths));
   }
 
+  public boolean allowEmptyEgressPaths() {
+    return allowEmptyEgressPaths;
+  }
+
+  public SearchParamsBuilder<T> allowEmptyEgressPaths(boolean allowEmptyEgressPaths) {
+    this.allowEmptyEgressPaths = allowEmptyEgressPaths;
+    return this;
+  }
+
   public RaptorRequest<T> build() {
     return parent.build();
   }
@@ -180,6 +191,7 @@ public class SearchParamsBuilder<T extends RaptorTripSchedule> {
       .addNum("numberOfAdditionalTransfers", numberOfAdditionalTransfers)
       .addCollection("accessPaths", accessPaths, 5)
       .addCollection("egressPaths", egressPaths, 5)
+      .addBoolIfTrue("allowEmptyEgressPaths", allowEmptyEgressPaths)
       .toString();
   }
 }
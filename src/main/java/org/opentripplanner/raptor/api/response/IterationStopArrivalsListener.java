@@ -0,0 +1,19 @@
+package org.opentripplanner.raptor.api.response;
+
+/**
+ * Listen to the stop arrivals of each Range Raptor iteration. In a forward search the iterations
+ * are performed from the end of the search-window towards the beginning, and the arrivals of an
+ * iteration are the best arrivals for any departure at or after the iteration departure-time.
+ * <p>
+ * The stop arrivals are a view of the search state, and only valid during the call - the
+ * listener must copy the values it needs.
+ */
+@FunctionalInterface
+public interface IterationStopArrivalsListener {
+  /**
+   * @param iterationDepartureTime the departure-time of the iteration, the unit is seconds since
+   *                               the transit search-time-zero.
+   * @param arrivals               the stop arrivals after the iteration is complete.
+   */
+  void iterationComplete(int iterationDepartureTime, StopArrivals arrivals);
+}
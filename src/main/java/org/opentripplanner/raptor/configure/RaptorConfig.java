@@ -3,8 +3,11 @@ package org.opentripplanner.raptor.configure;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.IntPredicate;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.concurrent.OtpRequestThreadFactory;
+import org.opentripplanner.raptor.api.debug.RaptorTimers;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.request.RaptorRequest;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
@@ -18,6 +21,9 @@ import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerState;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RoutingStrategy;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.configure.McRangeRaptorConfig;
 import org.opentripplanner.raptor.rangeraptor.standard.configure.StdRangeRaptorConfig;
+import org.opentripplanner.raptor.rangeraptor.standard.heuristics.CachedHeuristicSearch;
+import org.opentripplanner.raptor.rangeraptor.standard.heuristics.HeuristicsCache;
+import org.opentripplanner.raptor.rangeraptor.support.WorkerStateArena;
 import org.opentripplanner.raptor.rangeraptor.transit.RaptorSearchWindowCalculator;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
 
@@ -34,12 +40,28 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
   private final ExecutorService threadPool;
   private final RaptorTuningParameters tuningParameters;
 
+  /** The worker state arena of each thread, {@code null} if the worker state is not reused. */
+  @Nullable
+  private final ThreadLocal<WorkerStateArena> workerStateArenas;
+
+  /** The heuristics cached across requests, {@code null} if the cache is disabled. */
+  @Nullable
+  private final HeuristicsCache heuristicsCache;
+
   /** The service is not final, because it depends on the request. */
   private PassThroughPointsService passThroughPointsService = null;
 
   public RaptorConfig(RaptorTuningParameters tuningParameters) {
     this.tuningParameters = tuningParameters;
     this.threadPool = createNewThreadPool(tuningParameters.searchThreadPoolSize());
+    this.workerStateArenas =
+      tuningParameters.reuseWorkerState()
+        ? ThreadLocal.withInitial(WorkerStateArena::create)
+        : null;
+    this.heuristicsCache =
+      tuningParameters.heuristicsCacheMaxSize() > 0
+        ? new HeuristicsCache(tuningParameters.heuristicsCacheMaxSize())
+        : null;
   }
 
   public static <T extends RaptorTripSchedule> RaptorConfig<T> defaultConfigForTest() {
@@ -47,9 +69,7 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
   }
 
   public SearchContext<T> context(RaptorTransitDataProvider<T> transit, RaptorRequest<T> request) {
-    // The passThroughPointsService is needed to create the context, so we initialize it here.
-    this.passThroughPointsService = createPassThroughPointsService(request);
-    return new SearchContext<>(request, tuningParameters, transit, acceptC2AtDestination());
+    return context(transit, request, false);
   }
 
   public RaptorWorker<T> createStdWorker(
@@ -61,6 +81,28 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     return createWorker(context, stdConfig.state(), stdConfig.strategy());
   }
 
+  /**
+   * Create a standard worker, the given consumer is notified with the result and the iteration
+   * departure-time each time an iteration is complete. The result is a view of the worker state.
+   */
+  public RaptorWorker<T> createStdWorker(
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> request,
+    ObjIntConsumer<RaptorWorkerResult<T>> iterationComplete
+  ) {
+    var context = context(transitData, request);
+    var stdConfig = new StdRangeRaptorConfig<>(context);
+    var state = stdConfig.state();
+    var iterationDepartureTime = new int[1];
+    // Subscribe before the worker is created, the subscriptions are closed when it is created
+    var lifeCycle = context.lifeCycle();
+    lifeCycle.onSetupIteration(time -> iterationDepartureTime[0] = time);
+    lifeCycle.onIterationComplete(() ->
+      iterationComplete.accept(state.results(), iterationDepartureTime[0])
+    );
+    return createWorker(context, state, stdConfig.strategy());
+  }
+
   public RaptorWorker<T> createMcWorker(
     RaptorTransitDataProvider<T> transitData,
     RaptorRequest<T> request,
@@ -78,11 +120,37 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     RaptorTransitDataProvider<T> transitData,
     RaptorRequest<T> request
   ) {
-    var context = context(transitData, request);
+    // The heuristic result is only used during the routing request, so all state is reused
+    var context = context(transitData, request, true);
     var stdConfig = new StdRangeRaptorConfig<>(context);
     return createWorker(context, stdConfig.state(), stdConfig.strategy());
   }
 
+  /**
+   * Create a heuristic search using the heuristics cache. The search is only performed if the
+   * result is not cached with the given key. The key must identify the transit data and all search
+   * parameters the result depends on. The result is shared with requests to other origins(reverse
+   * search), so the search must not be limited by the origin - if the destination is reached is
+   * computed for each request.
+   */
+  public RaptorWorker<T> createCachedHeuristicSearch(
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> request,
+    Object cacheKey
+  ) {
+    if (heuristicsCache == null) {
+      return createHeuristicSearch(transitData, request);
+    }
+    var context = context(transitData, request);
+    return new CachedHeuristicSearch<>(
+      heuristicsCache,
+      cacheKey,
+      context.nStops(),
+      context.egressPaths(),
+      () -> createHeuristicSearch(transitData, request)
+    );
+  }
+
   public Heuristics createHeuristic(
     RaptorTransitDataProvider<T> transitData,
     RaptorRequest<T> request,
@@ -92,6 +160,36 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     return new StdRangeRaptorConfig<>(context).createHeuristics(results);
   }
 
+  /**
+   * Run the given routing request with the worker state arena of the current thread. The workers
+   * created by this thread, while the request is running, reuse the stop-indexed arrays allocated
+   * by earlier requests. The estimated number of bytes reused is reported to the given timers.
+   * If reuse of the worker state is disabled, or the thread is already running a request, the
+   * request is run without the arena.
+   */
+  public <R> R withWorkerStateArena(RaptorTimers timers, Supplier<R> routingRequest) {
+    if (workerStateArenas == null) {
+      return routingRequest.get();
+    }
+    var arena = workerStateArenas.get();
+    if (arena.isOpen()) {
+      return routingRequest.get();
+    }
+    arena.open();
+    try {
+      R result = routingRequest.get();
+      timers.workerStateBytesReused(arena.release());
+      return result;
+    } finally {
+      // If the request failed, the arrays are dropped - they might still be used by another thread
+      arena.close();
+    }
+  }
+
+  public boolean isHeuristicsCacheEnabled() {
+    return heuristicsCache != null;
+  }
+
   public boolean isMultiThreaded() {
     return threadPool != null;
   }
@@ -100,6 +198,18 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     return threadPool;
   }
 
+  /**
+   * The max number of slices to split the search-window of the main search into, when the slices
+   * can be searched in parallel. The value is 1 if the search is single-threaded.
+   */
+  public int searchWindowSlices() {
+    return isMultiThreaded() ? Math.max(1, tuningParameters.searchWindowSlices()) : 1;
+  }
+
+  public int iterationDepartureStepInSeconds() {
+    return tuningParameters.iterationDepartureStepInSeconds();
+  }
+
   public void shutdown() {
     if (threadPool != null) {
       threadPool.shutdown();
@@ -112,6 +222,36 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
 
   /* private factory methods */
 
+  private SearchContext<T> context(
+    RaptorTransitDataProvider<T> transit,
+    RaptorRequest<T> request,
+    boolean reuseResultState
+  ) {
+    // The passThroughPointsService is needed to create the context, so we initialize it here.
+    this.passThroughPointsService = createPassThroughPointsService(request);
+    var arena = workerStateArena();
+    return new SearchContext<>(
+      request,
+      tuningParameters,
+      transit,
+      acceptC2AtDestination(),
+      arena,
+      reuseResultState ? arena : WorkerStateArena.ALLOCATE
+    );
+  }
+
+  /**
+   * Return the arena of the current thread if it is open, the state of searches created in other
+   * threads(thread-pool) or outside a routing request is not reused.
+   */
+  private WorkerStateArena workerStateArena() {
+    if (workerStateArenas == null) {
+      return WorkerStateArena.ALLOCATE;
+    }
+    var arena = workerStateArenas.get();
+    return arena.isOpen() ? arena : WorkerStateArena.ALLOCATE;
+  }
+
   private static PassThroughPointsService createPassThroughPointsService(RaptorRequest<?> request) {
     return McRangeRaptorConfig.passThroughPointsService(request.multiCriteria());
   }
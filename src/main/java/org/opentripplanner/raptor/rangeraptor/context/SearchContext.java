@@ -31,6 +31,7 @@ import org.opentripplanner.raptor.rangeraptor.internalapi.WorkerLifeCycle;
 import org.opentripplanner.raptor.rangeraptor.lifecycle.LifeCycleEventPublisher;
 import org.opentripplanner.raptor.rangeraptor.lifecycle.LifeCycleSubscriptions;
 import org.opentripplanner.raptor.rangeraptor.support.TimeBasedBoardingSupport;
+import org.opentripplanner.raptor.rangeraptor.support.WorkerStateArena;
 import org.opentripplanner.raptor.rangeraptor.transit.AccessPaths;
 import org.opentripplanner.raptor.rangeraptor.transit.EgressPaths;
 import org.opentripplanner.raptor.rangeraptor.transit.ForwardRaptorTransitCalculator;
@@ -67,6 +68,8 @@ public class SearchContext<T extends RaptorTripSchedule> {
   private final EgressPaths egressPaths;
   private final AccessPaths accessPaths;
   private final LifeCycleSubscriptions lifeCycleSubscriptions = new LifeCycleSubscriptions();
+  private final WorkerStateArena workerStateArena;
+  private final WorkerStateArena resultStateArena;
 
   @Nullable
   private final IntPredicate acceptC2AtDestination;
@@ -77,12 +80,16 @@ public class SearchContext<T extends RaptorTripSchedule> {
   /**
    * @param acceptC2AtDestination Currently only the pass-through has a constraint on the c2 value
    *                             for accepting it at the destination, if not this is {@code null}.
+   * @param workerStateArena      Used to allocate the state only used during the search.
+   * @param resultStateArena      Used to allocate the state which is part of the search result.
    */
   public SearchContext(
     RaptorRequest<T> request,
     RaptorTuningParameters tuningParameters,
     RaptorTransitDataProvider<T> transit,
-    @Nullable IntPredicate acceptC2AtDestination
+    @Nullable IntPredicate acceptC2AtDestination,
+    WorkerStateArena workerStateArena,
+    WorkerStateArena resultStateArena
   ) {
     this.request = request;
     this.tuningParameters = tuningParameters;
@@ -98,6 +105,8 @@ public class SearchContext<T extends RaptorTripSchedule> {
       );
     this.debugFactory = new DebugHandlerFactory<>(debugRequest(request), lifeCycle());
     this.acceptC2AtDestination = acceptC2AtDestination;
+    this.workerStateArena = workerStateArena;
+    this.resultStateArena = resultStateArena;
   }
 
   public AccessPaths accessPaths() {
@@ -193,6 +202,28 @@ public class SearchContext<T extends RaptorTripSchedule> {
     return tuningParameters.maxNumberOfTransfers() + 1;
   }
 
+  /** See {@link RaptorTuningParameters#compactStopArrivals()}. */
+  public boolean compactStopArrivals() {
+    return tuningParameters.compactStopArrivals();
+  }
+
+  /**
+   * Use this arena to allocate stop-indexed state which is only used during the search, and not
+   * read after the worker {@code route()} method returns.
+   */
+  public WorkerStateArena workerStateArena() {
+    return workerStateArena;
+  }
+
+  /**
+   * Use this arena to allocate stop-indexed state which is part of the worker result. The result
+   * may be read after the search is complete, so this state is only reused if the result is not
+   * used outside the routing request - like the heuristic searches.
+   */
+  public WorkerStateArena resultStateArena() {
+    return resultStateArena;
+  }
+
   public RoundProvider roundProvider() {
     return roundTracker;
   }
@@ -0,0 +1,19 @@
+package org.opentripplanner.raptor.rangeraptor.internalapi;
+
+import java.util.Collection;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
+
+/**
+ * A worker result which keeps the paths in a pareto-set, so the paths found by other searches for
+ * the same request can be merged into it. This is implemented by the multi-criteria search.
+ */
+public interface MergeablePathsWorkerResult<T extends RaptorTripSchedule>
+  extends RaptorWorkerResult<T> {
+  /**
+   * Add the paths found by another search for the same request to this result. The paths are
+   * added to the pareto-set of paths in this result, so only the optimal paths are kept. This is
+   * used to merge the results of searches over different parts of the search-window.
+   */
+  void mergePaths(Collection<RaptorPath<T>> paths);
+}
@@ -0,0 +1,442 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.view.ArrivalView;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.McStopArrival;
+import org.opentripplanner.raptor.rangeraptor.path.DestinationArrivalPaths;
+import org.opentripplanner.raptor.util.paretoset.ParetoSet;
+import org.opentripplanner.raptor.util.paretoset.ParetoSetEventListener;
+import org.opentripplanner.raptor.util.paretoset.ParetoSetEventListenerComposite;
+
+/**
+ * A pareto optimal set of stop arrivals for a given stop, where the criteria are stored in
+ * primitive arrays - one array for each criteria. The criteria are: arrival-time, pareto-round,
+ * c1 and, optionally, arrived-on-board. This is the same as the criteria used by the
+ * {@link StopArrivalParetoSet} when c2 is not used and c1 is not relaxed.
+ * <p>
+ * The dominance check is done without accessing the stop arrival objects, and the candidates
+ * added from {@link McStopArrivalCandidates} are only created if they are accepted. The
+ * algorithm is the same as in the {@link ParetoSet}, and the order of the elements is the same
+ * too - this is important for the result to be exactly the same as with the
+ * {@link StopArrivalParetoSet}.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+final class CompactStopArrivalParetoSet<T extends RaptorTripSchedule>
+  implements StopArrivalSet<T> {
+
+  private static final int INITIAL_CAPACITY = 16;
+  private static final int REJECTED = -1;
+
+  private final boolean compareArrivedOnBoard;
+
+  @Nullable
+  private final ParetoSetEventListener<ArrivalView<T>> eventListener;
+
+  private int[] arrivalTimes = new int[INITIAL_CAPACITY];
+  private int[] paretoRounds = new int[INITIAL_CAPACITY];
+  private int[] c1s = new int[INITIAL_CAPACITY];
+  private boolean[] arrivedOnBoard = new boolean[INITIAL_CAPACITY];
+  private McStopArrival<T>[] arrivals = newArrivalArray(INITIAL_CAPACITY);
+
+  private int size = 0;
+  private int marker = 0;
+
+  /**
+   * One element probably dominate most of the new elements, see {@link ParetoSet}.
+   */
+  private McStopArrival<T> goodElement = null;
+
+  /**
+   * The element found to dominate the last rejected element, used to notify the listener.
+   */
+  private McStopArrival<T> rejectedBy = null;
+
+  private CompactStopArrivalParetoSet(
+    boolean compareArrivedOnBoard,
+    @Nullable ParetoSetEventListener<ArrivalView<T>> eventListener
+  ) {
+    this.compareArrivedOnBoard = compareArrivedOnBoard;
+    this.eventListener = eventListener;
+  }
+
+  /**
+   * Create a stop arrivals set and attach an optional {@code paretoSetEventListener} (debug
+   * handler).
+   *
+   * @param compareArrivedOnBoard Include arrived-on-board in the pareto comparison, see
+   *                              {@code ArrivalParetoSetComparatorFactory}.
+   */
+  static <T extends RaptorTripSchedule> CompactStopArrivalParetoSet<T> createStopArrivalSet(
+    boolean compareArrivedOnBoard,
+    @Nullable ParetoSetEventListener<ArrivalView<T>> paretoSetEventListener
+  ) {
+    return new CompactStopArrivalParetoSet<>(compareArrivedOnBoard, paretoSetEventListener);
+  }
+
+  /**
+   * Create a new set with arrived-on-board included in the pareto comparison, and attach a
+   * {@link CalculateTransferToDestination} listener which will create new destination arrivals
+   * for each accepted egress stop arrival.
+   */
+  static <T extends RaptorTripSchedule> CompactStopArrivalParetoSet<T> createEgressStopArrivalSet(
+    List<RaptorAccessEgress> egressPaths,
+    DestinationArrivalPaths<T> destinationArrivals,
+    @Nullable ParetoSetEventListener<ArrivalView<T>> paretoSetEventListener
+  ) {
+    ParetoSetEventListener<ArrivalView<T>> listener;
+
+    listener = new CalculateTransferToDestination<>(egressPaths, destinationArrivals);
+
+    if (paretoSetEventListener != null) {
+      listener = new ParetoSetEventListenerComposite<>(paretoSetEventListener, listener);
+    }
+    return new CompactStopArrivalParetoSet<>(true, listener);
+  }
+
+  @Override
+  public boolean add(McStopArrival<T> arrival) {
+    int index = findIndex(
+      arrival.arrivalTime(),
+      arrival.paretoRound(),
+      arrival.c1(),
+      arrival.arrivedOnBoard()
+    );
+    if (index == REJECTED) {
+      notifyElementRejected(arrival);
+      return false;
+    }
+    insert(arrival, index);
+    return true;
+  }
+
+  @Override
+  public boolean add(
+    McStopArrivalCandidates<T> candidates,
+    int candidateIndex,
+    Predicate<McStopArrival<T>> rejectFilter
+  ) {
+    int index = findIndex(
+      candidates.arrivalTime(candidateIndex),
+      candidates.paretoRound(candidateIndex),
+      candidates.c1(candidateIndex),
+      candidates.arrivedOnBoard(candidateIndex)
+    );
+    if (index == REJECTED) {
+      if (eventListener != null) {
+        notifyElementRejected(candidates.createStopArrival(candidateIndex));
+      }
+      return false;
+    }
+    var arrival = candidates.createStopArrival(candidateIndex);
+    if (rejectFilter.test(arrival)) {
+      return false;
+    }
+    insert(arrival, index);
+    return true;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Stream<McStopArrival<T>> stream() {
+    return Arrays.stream(arrivals, 0, size);
+  }
+
+  @Override
+  public boolean hasElementsAfterMarker() {
+    return marker != size;
+  }
+
+  @Override
+  public Iterable<McStopArrival<T>> elementsAfterMarker() {
+    final int startInclusive = marker;
+    // Same as the ParetoSet tail iterator, the iterator is NOT thread-safe and reflects the
+    // current elements in the set
+    return () ->
+      new Iterator<>() {
+        int i = startInclusive;
+
+        @Override
+        public boolean hasNext() {
+          return i < size;
+        }
+
+        @Override
+        public McStopArrival<T> next() {
+          return arrivals[i++];
+        }
+      };
+  }
+
+  @Override
+  public void markAtEndOfSet() {
+    marker = size;
+  }
+
+  @Override
+  public int internalArrayLength() {
+    return arrivals.length;
+  }
+
+  @Override
+  public String toString() {
+    return stream().map(Object::toString).collect(Collectors.joining(", ", "{", "}"));
+  }
+
+  /* private methods */
+
+  /**
+   * Find the index to insert a new element with the given criteria.
+   *
+   * @return {@link #REJECTED} if the element is not pareto optimal, {@code size} if the element
+   * should be appended to the set or the index of the first element dominated by the new element.
+   */
+  private int findIndex(int arrivalTime, int paretoRound, int c1, boolean onBoard) {
+    if (size == 0) {
+      return 0;
+    }
+
+    if (
+      goodElement != null &&
+      dominates(
+        goodElement.arrivalTime(),
+        goodElement.paretoRound(),
+        goodElement.c1(),
+        goodElement.arrivedOnBoard(),
+        arrivalTime,
+        paretoRound,
+        c1,
+        onBoard
+      )
+    ) {
+      rejectedBy = goodElement;
+      return REJECTED;
+    }
+
+    boolean mutualDominanceExist = false;
+    boolean equivalentVectorExist = false;
+
+    for (int i = 0; i < size; ++i) {
+      boolean leftDominance = dominanceExist(
+        arrivalTime,
+        paretoRound,
+        c1,
+        onBoard,
+        arrivalTimes[i],
+        paretoRounds[i],
+        c1s[i],
+        arrivedOnBoard[i]
+      );
+      boolean rightDominance = dominanceExist(
+        arrivalTimes[i],
+        paretoRounds[i],
+        c1s[i],
+        arrivedOnBoard[i],
+        arrivalTime,
+        paretoRound,
+        c1,
+        onBoard
+      );
+
+      if (leftDominance && rightDominance) {
+        mutualDominanceExist = true;
+      } else if (leftDominance) {
+        return i;
+      } else if (rightDominance) {
+        goodElement = arrivals[i];
+        rejectedBy = arrivals[i];
+        return REJECTED;
+      } else {
+        equivalentVectorExist = true;
+      }
+    }
+
+    if (mutualDominanceExist && !equivalentVectorExist) {
+      return size;
+    }
+    // No dominance found, the new element is equivalent with all elements in the set
+    rejectedBy = arrivals[0];
+    return REJECTED;
+  }
+
+  /**
+   * Insert the new element at the given index, and remove all elements dominated by the new
+   * element starting from the index. The element at the index is dropped, unless the index is
+   * {@code size}.
+   */
+  private void insert(McStopArrival<T> newValue, int index) {
+    if (index == size) {
+      if (size == arrivals.length) {
+        grow();
+      }
+      notifyElementAccepted(newValue);
+      set(size++, newValue);
+      return;
+    }
+
+    // Let 'i' be the current element index for removal
+    int i = index;
+    // Let 'j' be the next element to compare
+    int j = index + 1;
+
+    notifyElementDropped(arrivals[i], newValue);
+
+    while (j < size) {
+      notifyElementMoved(j, i);
+      // Move next element(j) forward if it is not dominated by the new value
+      if (!dominates(newValue, j)) {
+        arrivalTimes[i] = arrivalTimes[j];
+        paretoRounds[i] = paretoRounds[j];
+        c1s[i] = c1s[j];
+        arrivedOnBoard[i] = arrivedOnBoard[j];
+        arrivals[i] = arrivals[j];
+        ++i;
+      } else {
+        notifyElementDropped(arrivals[j], newValue);
+      }
+      // Goto the next element
+      ++j;
+    }
+    notifyElementMoved(j, i);
+    notifyElementAccepted(newValue);
+    set(i, newValue);
+    // Release the dropped elements
+    Arrays.fill(arrivals, i + 1, size, null);
+    size = i + 1;
+  }
+
+  private void set(int index, McStopArrival<T> value) {
+    arrivalTimes[index] = value.arrivalTime();
+    paretoRounds[index] = value.paretoRound();
+    c1s[index] = value.c1();
+    arrivedOnBoard[index] = value.arrivedOnBoard();
+    arrivals[index] = value;
+  }
+
+  /**
+   * The left element dominates the right element in at least one criteria.
+   */
+  private boolean dominanceExist(
+    int leftArrivalTime,
+    int leftParetoRound,
+    int leftC1,
+    boolean leftOnBoard,
+    int rightArrivalTime,
+    int rightParetoRound,
+    int rightC1,
+    boolean rightOnBoard
+  ) {
+    return (
+      leftArrivalTime < rightArrivalTime ||
+      leftParetoRound < rightParetoRound ||
+      leftC1 < rightC1 ||
+      (compareArrivedOnBoard && leftOnBoard && !rightOnBoard)
+    );
+  }
+
+  /**
+   * The left element dominates the right element, and the right element does not dominate the
+   * left element in any criteria.
+   */
+  private boolean dominates(
+    int leftArrivalTime,
+    int leftParetoRound,
+    int leftC1,
+    boolean leftOnBoard,
+    int rightArrivalTime,
+    int rightParetoRound,
+    int rightC1,
+    boolean rightOnBoard
+  ) {
+    return (
+      dominanceExist(
+        leftArrivalTime,
+        leftParetoRound,
+        leftC1,
+        leftOnBoard,
+        rightArrivalTime,
+        rightParetoRound,
+        rightC1,
+        rightOnBoard
+      ) &&
+      !dominanceExist(
+        rightArrivalTime,
+        rightParetoRound,
+        rightC1,
+        rightOnBoard,
+        leftArrivalTime,
+        leftParetoRound,
+        leftC1,
+        leftOnBoard
+      )
+    );
+  }
+
+  private boolean dominates(McStopArrival<T> left, int rightIndex) {
+    return dominates(
+      left.arrivalTime(),
+      left.paretoRound(),
+      left.c1(),
+      left.arrivedOnBoard(),
+      arrivalTimes[rightIndex],
+      paretoRounds[rightIndex],
+      c1s[rightIndex],
+      arrivedOnBoard[rightIndex]
+    );
+  }
+
+  private void notifyElementMoved(int fromIndex, int toIndex) {
+    if (fromIndex == marker) {
+      marker = toIndex;
+    }
+  }
+
+  private void notifyElementAccepted(McStopArrival<T> newElement) {
+    if (eventListener != null) {
+      eventListener.notifyElementAccepted(newElement);
+    }
+  }
+
+  private void notifyElementDropped(McStopArrival<T> element, McStopArrival<T> droppedBy) {
+    if (eventListener != null) {
+      eventListener.notifyElementDropped(element, droppedBy);
+    }
+  }
+
+  private void notifyElementRejected(McStopArrival<T> element) {
+    if (eventListener != null) {
+      eventListener.notifyElementRejected(element, rejectedBy);
+    }
+  }
+
+  private void grow() {
+    int capacity = arrivals.length * 2;
+    arrivalTimes = Arrays.copyOf(arrivalTimes, capacity);
+    paretoRounds = Arrays.copyOf(paretoRounds, capacity);
+    c1s = Arrays.copyOf(c1s, capacity);
+    arrivedOnBoard = Arrays.copyOf(arrivedOnBoard, capacity);
+    arrivals = Arrays.copyOf(arrivals, capacity);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T extends RaptorTripSchedule> McStopArrival<T>[] newArrivalArray(int size) {
+    return (McStopArrival<T>[]) new McStopArrival[size];
+  }
+}
@@ -16,7 +16,7 @@ class DebugStopArrivalsStatistics {
     this.debugLogger = debugLogger;
   }
 
-  void debugStatInfo(StopArrivalParetoSet<?>[] stops) {
+  void debugStatInfo(StopArrivalSet<?>[] stops) {
     if (!debugLogger.isEnabled()) {
       return;
     }
@@ -26,7 +26,7 @@ class DebugStopArrivalsStatistics {
     long numOfStops = 0;
     int max = 0;
 
-    for (StopArrivalParetoSet<?> stop : stops) {
+    for (StopArrivalSet<?> stop : stops) {
       if (stop != null) {
         ++numOfStops;
         total += stop.size();
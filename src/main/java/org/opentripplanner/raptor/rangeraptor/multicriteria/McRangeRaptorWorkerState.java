@@ -3,6 +3,8 @@ package org.opentripplanner.raptor.rangeraptor.multicriteria;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
 import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
 import org.opentripplanner.raptor.api.model.RaptorTransfer;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
@@ -36,6 +38,15 @@ public final class McRangeRaptorWorkerState<T extends RaptorTripSchedule>
   private final HeuristicsProvider<T> heuristics;
   private final McStopArrivalFactory<T> stopArrivalFactory;
   private final List<McStopArrival<T>> arrivalsCache = new ArrayList<>();
+
+  /**
+   * Used instead of the {@link #arrivalsCache} if the stop arrivals are compact, see
+   * {@link McStopArrivals#isCompact()}.
+   */
+  @Nullable
+  private final McStopArrivalCandidates<T> candidates;
+
+  private final Predicate<McStopArrival<T>> rejectByHeuristics;
   private final RaptorCostCalculator<T> calculatorGeneralizedCost;
   private final RaptorTransitCalculator<T> transitCalculator;
 
@@ -58,6 +69,9 @@ public final class McRangeRaptorWorkerState<T extends RaptorTripSchedule>
     this.stopArrivalFactory = stopArrivalFactory;
     this.calculatorGeneralizedCost = calculatorGeneralizedCost;
     this.transitCalculator = transitCalculator;
+    this.candidates =
+      arrivals.isCompact() ? new McStopArrivalCandidates<>(stopArrivalFactory) : null;
+    this.rejectByHeuristics = heuristics::rejectDestinationArrivalBasedOnHeuristic;
 
     // Attach to the RR life cycle
     lifeCycle.onSetupIteration(ignore -> setupIteration());
@@ -136,6 +150,11 @@ public final class McRangeRaptorWorkerState<T extends RaptorTripSchedule>
 
     final int c1 = calculateC1(ride, alightStop, alightTime, alightSlack);
 
+    if (candidates != null) {
+      candidates.addTransit(ride, alightStop, stopArrivalTime, c1);
+      return;
+    }
+
     var transitState = stopArrivalFactory.createTransitStopArrival(
       ride,
       alightStop,
@@ -151,6 +170,9 @@ public final class McRangeRaptorWorkerState<T extends RaptorTripSchedule>
   /** This method is called by the Worker life cycle */
   private void setupIteration() {
     arrivalsCache.clear();
+    if (candidates != null) {
+      candidates.clear();
+    }
     // clear all touched stops to avoid constant re-exploration
     arrivals.clearTouchedStopsAndSetStopMarkers();
   }
@@ -175,13 +197,25 @@ public final class McRangeRaptorWorkerState<T extends RaptorTripSchedule>
     for (McStopArrival<T> it : fromArrivals) {
       int arrivalTime = it.arrivalTime() + transferTimeInSeconds;
 
-      if (!exceedsTimeLimit(arrivalTime)) {
+      if (exceedsTimeLimit(arrivalTime)) {
+        continue;
+      }
+      if (candidates != null) {
+        candidates.addTransfer(it, transfer, arrivalTime);
+      } else {
         arrivalsCache.add(stopArrivalFactory.createTransferStopArrival(it, transfer, arrivalTime));
       }
     }
   }
 
   private void commitCachedArrivals() {
+    if (candidates != null) {
+      for (int i = 0; i < candidates.size(); ++i) {
+        arrivals.addStopArrival(candidates, i, rejectByHeuristics);
+      }
+      candidates.clear();
+      return;
+    }
     for (McStopArrival<T> arrival : arrivalsCache) {
       addStopArrival(arrival);
     }
@@ -3,11 +3,12 @@ package org.opentripplanner.raptor.rangeraptor.multicriteria;
 import java.util.Collection;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.path.RaptorPath;
-import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerResult;
+import org.opentripplanner.raptor.rangeraptor.internalapi.MergeablePathsWorkerResult;
 import org.opentripplanner.raptor.rangeraptor.internalapi.SingleCriteriaStopArrivals;
 import org.opentripplanner.raptor.rangeraptor.path.DestinationArrivalPaths;
 
-public class McRaptorWorkerResult<T extends RaptorTripSchedule> implements RaptorWorkerResult<T> {
+public class McRaptorWorkerResult<T extends RaptorTripSchedule>
+  implements MergeablePathsWorkerResult<T> {
 
   private final McStopArrivals<T> stopArrivals;
   private final DestinationArrivalPaths<T> paths;
@@ -71,4 +72,9 @@ public class McRaptorWorkerResult<T extends RaptorTripSchedule> implements Rapto
   public boolean isDestinationReached() {
     return !paths.isEmpty();
   }
+
+  @Override
+  public void mergePaths(Collection<RaptorPath<T>> paths) {
+    this.paths.addAll(paths);
+  }
 }
@@ -0,0 +1,160 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria;
+
+import static org.opentripplanner.raptor.api.model.PathLegType.TRANSIT;
+
+import java.util.Arrays;
+import org.opentripplanner.raptor.api.model.RaptorTransfer;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.view.PatternRideView;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.McStopArrival;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.McStopArrivalFactory;
+
+/**
+ * The stop arrivals found by transit or transfer in the current round, before they are added to
+ * the stop arrival sets. The values used to compare stop arrivals are kept in primitive arrays,
+ * one array for each value. The stop arrival object is created when the candidate is added to a
+ * set, and only if the set accepts it - see {@link CompactStopArrivalParetoSet}. Most candidates
+ * are rejected, so this avoids creating most of the stop arrivals.
+ * <p>
+ * The arrays are reused for each round, and only grow when needed.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+final class McStopArrivalCandidates<T extends RaptorTripSchedule> {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final McStopArrivalFactory<T> stopArrivalFactory;
+
+  private int size = 0;
+  private int[] stops = new int[INITIAL_CAPACITY];
+  private int[] arrivalTimes = new int[INITIAL_CAPACITY];
+  private int[] paretoRounds = new int[INITIAL_CAPACITY];
+  private int[] c1s = new int[INITIAL_CAPACITY];
+
+  /**
+   * The pattern-ride for transit arrivals, and the transfer for transfer arrivals.
+   */
+  private Object[] rideOrTransfer = new Object[INITIAL_CAPACITY];
+
+  /**
+   * The previous stop arrival, only set for transfer arrivals. For transit arrivals the previous
+   * stop arrival is kept by the ride.
+   */
+  private McStopArrival<T>[] transferFrom = newArrivalArray(INITIAL_CAPACITY);
+
+  McStopArrivalCandidates(McStopArrivalFactory<T> stopArrivalFactory) {
+    this.stopArrivalFactory = stopArrivalFactory;
+  }
+
+  void addTransit(
+    PatternRideView<T, McStopArrival<T>> ride,
+    int alightStop,
+    int stopArrivalTime,
+    int c1
+  ) {
+    var prev = ride.prevArrival();
+    // This must match the pareto-round set by the transit stop arrival constructors
+    int paretoRound = prev.paretoRound() + (prev.arrivedBy(TRANSIT) ? 2 : 1);
+    add(alightStop, stopArrivalTime, paretoRound, c1, ride, null);
+  }
+
+  void addTransfer(McStopArrival<T> previous, RaptorTransfer transfer, int arrivalTime) {
+    add(
+      transfer.stop(),
+      arrivalTime,
+      previous.paretoRound() + 1,
+      previous.c1() + transfer.c1(),
+      transfer,
+      previous
+    );
+  }
+
+  int size() {
+    return size;
+  }
+
+  void clear() {
+    // Release the references, so the stop arrivals can be garbage collected
+    Arrays.fill(rideOrTransfer, 0, size, null);
+    Arrays.fill(transferFrom, 0, size, null);
+    size = 0;
+  }
+
+  int stop(int index) {
+    return stops[index];
+  }
+
+  int arrivalTime(int index) {
+    return arrivalTimes[index];
+  }
+
+  int paretoRound(int index) {
+    return paretoRounds[index];
+  }
+
+  int c1(int index) {
+    return c1s[index];
+  }
+
+  /**
+   * Transit arrivals arrive on-board, while transfer arrivals do not.
+   */
+  boolean arrivedOnBoard(int index) {
+    return transferFrom[index] == null;
+  }
+
+  @SuppressWarnings("unchecked")
+  McStopArrival<T> createStopArrival(int index) {
+    if (arrivedOnBoard(index)) {
+      return stopArrivalFactory.createTransitStopArrival(
+        (PatternRideView<T, McStopArrival<T>>) rideOrTransfer[index],
+        stops[index],
+        arrivalTimes[index],
+        c1s[index]
+      );
+    }
+    return stopArrivalFactory.createTransferStopArrival(
+      transferFrom[index],
+      (RaptorTransfer) rideOrTransfer[index],
+      arrivalTimes[index]
+    );
+  }
+
+  /* private methods */
+
+  private void add(
+    int stop,
+    int arrivalTime,
+    int paretoRound,
+    int c1,
+    Object rideOrTransfer,
+    McStopArrival<T> transferFrom
+  ) {
+    if (size == stops.length) {
+      grow();
+    }
+    this.stops[size] = stop;
+    this.arrivalTimes[size] = arrivalTime;
+    this.paretoRounds[size] = paretoRound;
+    this.c1s[size] = c1;
+    this.rideOrTransfer[size] = rideOrTransfer;
+    this.transferFrom[size] = transferFrom;
+    ++size;
+  }
+
+  private void grow() {
+    int capacity = stops.length * 2;
+    stops = Arrays.copyOf(stops, capacity);
+    arrivalTimes = Arrays.copyOf(arrivalTimes, capacity);
+    paretoRounds = Arrays.copyOf(paretoRounds, capacity);
+    c1s = Arrays.copyOf(c1s, capacity);
+    rideOrTransfer = Arrays.copyOf(rideOrTransfer, capacity);
+    transferFrom = Arrays.copyOf(transferFrom, capacity);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T extends RaptorTripSchedule> McStopArrival<T>[] newArrivalArray(int size) {
+    return (McStopArrival<T>[]) new McStopArrival[size];
+  }
+}
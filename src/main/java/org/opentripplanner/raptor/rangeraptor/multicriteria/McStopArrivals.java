@@ -5,12 +5,14 @@ import static org.opentripplanner.raptor.api.model.PathLegType.TRANSIT;
 import java.util.BitSet;
 import java.util.Collections;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.rangeraptor.debug.DebugHandlerFactory;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.ArrivalParetoSetComparatorFactory;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.McStopArrival;
 import org.opentripplanner.raptor.rangeraptor.path.DestinationArrivalPaths;
+import org.opentripplanner.raptor.rangeraptor.support.WorkerStateArena;
 import org.opentripplanner.raptor.rangeraptor.transit.AccessPaths;
 import org.opentripplanner.raptor.rangeraptor.transit.EgressPaths;
 import org.opentripplanner.raptor.spi.IntIterator;
@@ -25,8 +27,9 @@ import org.opentripplanner.raptor.util.BitSetIterator;
  */
 public final class McStopArrivals<T extends RaptorTripSchedule> {
 
-  private final StopArrivalParetoSet<T>[] arrivals;
+  private final StopArrivalSet<T>[] arrivals;
   private final BitSet touchedStops;
+  private final boolean compact;
 
   private final ArrivalParetoSetComparatorFactory<McStopArrival<T>> comparatorFactory;
   private final DebugHandlerFactory<T> debugHandlerFactory;
@@ -35,6 +38,10 @@ public final class McStopArrivals<T extends RaptorTripSchedule> {
   /**
    * Set the time at a transit index iff it is optimal. This sets both the best time and the
    * transfer time
+   *
+   * @param compact Use the {@link CompactStopArrivalParetoSet}, this requires the comparator
+   *                factory to compare arrival-time, pareto-round, c1 and arrived-on-board only.
+   * @param stateArena Used to allocate the touched stops, only used during the search.
    */
   public McStopArrivals(
     int nStops,
@@ -42,12 +49,15 @@ public final class McStopArrivals<T extends RaptorTripSchedule> {
     AccessPaths accessPaths,
     DestinationArrivalPaths<T> paths,
     ArrivalParetoSetComparatorFactory<McStopArrival<T>> comparatorFactory,
-    DebugHandlerFactory<T> debugHandlerFactory
+    DebugHandlerFactory<T> debugHandlerFactory,
+    boolean compact,
+    WorkerStateArena stateArena
   ) {
     this.comparatorFactory = comparatorFactory;
+    this.compact = compact;
     //noinspection unchecked
-    this.arrivals = (StopArrivalParetoSet<T>[]) new StopArrivalParetoSet[nStops];
-    this.touchedStops = new BitSet(nStops);
+    this.arrivals = (StopArrivalSet<T>[]) new StopArrivalSet[nStops];
+    this.touchedStops = stateArena.bitSet(nStops);
     this.debugHandlerFactory = debugHandlerFactory;
     this.debugStats = new DebugStopArrivalsStatistics(debugHandlerFactory.debugLogger());
 
@@ -96,12 +106,36 @@ public final class McStopArrivals<T extends RaptorTripSchedule> {
     }
   }
 
+  /**
+   * Add the candidate with the given index, if it is accepted by the stop arrival set and not
+   * rejected by the given {@code rejectFilter}. The {@link CompactStopArrivalParetoSet} only
+   * creates the stop arrival if it is accepted.
+   */
+  void addStopArrival(
+    McStopArrivalCandidates<T> candidates,
+    int index,
+    Predicate<McStopArrival<T>> rejectFilter
+  ) {
+    int stop = candidates.stop(index);
+    boolean added = findOrCreateSet(stop).add(candidates, index, rejectFilter);
+    if (added) {
+      touchedStops.set(stop);
+    }
+  }
+
+  /**
+   * Return {@code true} if the stop arrivals are kept in {@link CompactStopArrivalParetoSet}s.
+   */
+  boolean isCompact() {
+    return compact;
+  }
+
   void debugStateInfo() {
     debugStats.debugStatInfo(arrivals);
   }
 
   public boolean hasArrivalsAfterMarker(int stop) {
-    StopArrivalParetoSet<T> it = arrivals[stop];
+    StopArrivalSet<T> it = arrivals[stop];
     if (it == null) {
       return false;
     }
@@ -110,7 +144,7 @@ public final class McStopArrivals<T extends RaptorTripSchedule> {
 
   /** List all transits arrived this round. */
   Iterable<McStopArrival<T>> listArrivalsAfterMarker(final int stop) {
-    StopArrivalParetoSet<T> it = arrivals[stop];
+    StopArrivalSet<T> it = arrivals[stop];
     if (it == null) {
       // Avoid creating new objects in a tight loop
       return Collections::emptyIterator;
@@ -128,13 +162,18 @@ public final class McStopArrivals<T extends RaptorTripSchedule> {
 
   /* private methods */
 
-  private StopArrivalParetoSet<T> findOrCreateSet(final int stop) {
+  private StopArrivalSet<T> findOrCreateSet(final int stop) {
     if (arrivals[stop] == null) {
       arrivals[stop] =
-        StopArrivalParetoSet.createStopArrivalSet(
-          comparatorFactory.compareArrivalTimeRoundAndCost(),
-          debugHandlerFactory.paretoSetStopArrivalListener(stop)
-        );
+        compact
+          ? CompactStopArrivalParetoSet.createStopArrivalSet(
+            false,
+            debugHandlerFactory.paretoSetStopArrivalListener(stop)
+          )
+          : StopArrivalParetoSet.createStopArrivalSet(
+            comparatorFactory.compareArrivalTimeRoundAndCost(),
+            debugHandlerFactory.paretoSetStopArrivalListener(stop)
+          );
     }
     return arrivals[stop];
   }
@@ -145,10 +184,15 @@ public final class McStopArrivals<T extends RaptorTripSchedule> {
       for (var access : accessPaths.arrivedOnBoardByNumOfRides(nRides)) {
         int stop = access.stop();
         arrivals[stop] =
-          StopArrivalParetoSet.createStopArrivalSet(
-            comparatorFactory.compareArrivalTimeRoundCostAndOnBoardArrival(),
-            debugHandlerFactory.paretoSetStopArrivalListener(stop)
-          );
+          compact
+            ? CompactStopArrivalParetoSet.createStopArrivalSet(
+              true,
+              debugHandlerFactory.paretoSetStopArrivalListener(stop)
+            )
+            : StopArrivalParetoSet.createStopArrivalSet(
+              comparatorFactory.compareArrivalTimeRoundCostAndOnBoardArrival(),
+              debugHandlerFactory.paretoSetStopArrivalListener(stop)
+            );
       }
     }
   }
@@ -166,12 +210,18 @@ public final class McStopArrivals<T extends RaptorTripSchedule> {
       .forEachEntry((stop, list) -> {
         // The factory is creating the actual "glue"
         this.arrivals[stop] =
-          StopArrivalParetoSet.createEgressStopArrivalSet(
-            comparatorFactory.compareArrivalTimeRoundCostAndOnBoardArrival(),
-            list,
-            paths,
-            debugHandlerFactory.paretoSetStopArrivalListener(stop)
-          );
+          compact
+            ? CompactStopArrivalParetoSet.createEgressStopArrivalSet(
+              list,
+              paths,
+              debugHandlerFactory.paretoSetStopArrivalListener(stop)
+            )
+            : StopArrivalParetoSet.createEgressStopArrivalSet(
+              comparatorFactory.compareArrivalTimeRoundCostAndOnBoardArrival(),
+              list,
+              paths,
+              debugHandlerFactory.paretoSetStopArrivalListener(stop)
+            );
         return true;
       });
   }
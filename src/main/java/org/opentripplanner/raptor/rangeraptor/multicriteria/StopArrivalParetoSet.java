@@ -1,6 +1,8 @@
 package org.opentripplanner.raptor.rangeraptor.multicriteria;
 
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 import javax.annotation.Nullable;
 import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
@@ -18,7 +20,8 @@ import org.opentripplanner.raptor.util.paretoset.ParetoSetWithMarker;
  * @param <T> The TripSchedule type defined by the user of the raptor API.
  */
 class StopArrivalParetoSet<T extends RaptorTripSchedule>
-  extends ParetoSetWithMarker<McStopArrival<T>> {
+  extends ParetoSetWithMarker<McStopArrival<T>>
+  implements StopArrivalSet<T> {
 
   /**
    * Use the factory methods in this class to create a new instance.
@@ -62,4 +65,19 @@ class StopArrivalParetoSet<T extends RaptorTripSchedule>
 
     return new StopArrivalParetoSet<>(comparator, listener);
   }
+
+  @Override
+  public boolean add(
+    McStopArrivalCandidates<T> candidates,
+    int index,
+    Predicate<McStopArrival<T>> rejectFilter
+  ) {
+    var arrival = candidates.createStopArrival(index);
+    return !rejectFilter.test(arrival) && add(arrival);
+  }
+
+  @Override
+  public Stream<McStopArrival<T>> stream() {
+    return super.stream();
+  }
 }
@@ -0,0 +1,57 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria;
+
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.McStopArrival;
+
+/**
+ * The pareto optimal set of stop arrivals for a given stop, with a marker to list the arrivals
+ * added since the last round. There are two implementations: the {@link StopArrivalParetoSet}
+ * and the {@link CompactStopArrivalParetoSet}.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+interface StopArrivalSet<T extends RaptorTripSchedule> {
+  /**
+   * Add the arrival to the set if it is pareto optimal.
+   *
+   * @return {@code true} if the arrival is accepted.
+   */
+  boolean add(McStopArrival<T> arrival);
+
+  /**
+   * Add the candidate with the given index to the set if it is pareto optimal, and it is not
+   * rejected by the given {@code rejectFilter}.
+   *
+   * @return {@code true} if the arrival is accepted.
+   */
+  boolean add(
+    McStopArrivalCandidates<T> candidates,
+    int index,
+    Predicate<McStopArrival<T>> rejectFilter
+  );
+
+  boolean isEmpty();
+
+  int size();
+
+  Stream<McStopArrival<T>> stream();
+
+  boolean hasElementsAfterMarker();
+
+  /**
+   * List all elements added after the marker.
+   */
+  Iterable<McStopArrival<T>> elementsAfterMarker();
+
+  /**
+   * Move the marker after the last element in the set.
+   */
+  void markAtEndOfSet();
+
+  /**
+   * The capacity of the set, used for logging and tuning purposes.
+   */
+  int internalArrayLength();
+}
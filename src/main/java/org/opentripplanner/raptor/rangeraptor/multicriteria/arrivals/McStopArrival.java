@@ -81,7 +81,7 @@ public abstract class McStopArrival<T extends RaptorTripSchedule> implements Arr
     return (paretoRound + 1) / 2;
   }
 
-  protected final int paretoRound() {
+  public final int paretoRound() {
     return paretoRound;
   }
 
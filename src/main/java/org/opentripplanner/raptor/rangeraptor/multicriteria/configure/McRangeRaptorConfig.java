@@ -133,7 +133,9 @@ public class McRangeRaptorConfig<T extends RaptorTripSchedule> {
       context.accessPaths(),
       createDestinationArrivalPaths(),
       createFactoryParetoComparator(),
-      context.debugFactory()
+      context.debugFactory(),
+      useCompactStopArrivals(),
+      context.workerStateArena()
     );
   }
 
@@ -168,6 +170,13 @@ public class McRangeRaptorConfig<T extends RaptorTripSchedule> {
     return ArrivalParetoSetComparatorFactory.factory(mcRequest().relaxC1(), dominanceFunctionC2());
   }
 
+  /**
+   * The compact stop arrivals only support comparing arrival-time, number-of-transfers and c1.
+   */
+  private boolean useCompactStopArrivals() {
+    return context.compactStopArrivals() && !includeC2() && mcRequest().relaxC1().isNormal();
+  }
+
   private MultiCriteriaRequest<T> mcRequest() {
     return context.multiCriteria();
   }
@@ -139,6 +139,14 @@ public class DestinationArrivalPaths<T extends RaptorTripSchedule> {
     return paths;
   }
 
+  /**
+   * Add paths found by another search to the set of paths. The paths are not validated, only
+   * the pareto-optimal paths are kept.
+   */
+  public void addAll(Collection<RaptorPath<T>> other) {
+    paths.addAll(other);
+  }
+
   public void debugReject(ArrivalView<T> stopArrival, RaptorAccessEgress egress, String reason) {
     if (isDebugOn()) {
       var destinationArrival = createDestinationArrivalView(stopArrival, egress);
@@ -1,12 +1,11 @@
 package org.opentripplanner.raptor.rangeraptor.standard.besttimes;
 
-import static org.opentripplanner.framework.lang.IntUtils.intArray;
-
 import java.util.BitSet;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.raptor.rangeraptor.internalapi.SingleCriteriaStopArrivals;
 import org.opentripplanner.raptor.rangeraptor.internalapi.WorkerLifeCycle;
 import org.opentripplanner.raptor.rangeraptor.support.IntArraySingleCriteriaArrivals;
+import org.opentripplanner.raptor.rangeraptor.support.WorkerStateArena;
 import org.opentripplanner.raptor.rangeraptor.transit.TransitCalculator;
 import org.opentripplanner.raptor.util.BitSetIterator;
 
@@ -42,14 +41,24 @@ public final class BestTimes {
   /** Stops touched by in LAST round. */
   private BitSet reachedLastRound;
 
-  public BestTimes(int nStops, TransitCalculator<?> calculator, WorkerLifeCycle lifeCycle) {
+  /**
+   * @param stateArena  Used to allocate the "reached" bit sets, only used during the search.
+   * @param resultArena Used to allocate the best times, these are part of the search result.
+   */
+  public BestTimes(
+    int nStops,
+    TransitCalculator<?> calculator,
+    WorkerLifeCycle lifeCycle,
+    WorkerStateArena stateArena,
+    WorkerStateArena resultArena
+  ) {
     this.calculator = calculator;
-    this.times = intArray(nStops, calculator.unreachedTime());
-    this.reachedCurrentRound = new BitSet(nStops);
-    this.reachedLastRound = new BitSet(nStops);
+    this.times = resultArena.intArray(nStops, calculator.unreachedTime());
+    this.reachedCurrentRound = stateArena.bitSet(nStops);
+    this.reachedLastRound = stateArena.bitSet(nStops);
 
-    this.transitArrivalTimes = intArray(nStops, calculator.unreachedTime());
-    this.reachedByTransitCurrentRound = new BitSet(nStops);
+    this.transitArrivalTimes = resultArena.intArray(nStops, calculator.unreachedTime());
+    this.reachedByTransitCurrentRound = stateArena.bitSet(nStops);
 
     // Attach to Worker life cycle
     lifeCycle.onSetupIteration(ignore -> setupIteration());
@@ -124,7 +124,14 @@ public class StdRangeRaptorConfig<T extends RaptorTripSchedule> {
    */
   private BestTimes resolveBestTimes() {
     if (bestTimes == null) {
-      bestTimes = new BestTimes(ctx.nStops(), ctx.calculator(), ctx.lifeCycle());
+      bestTimes =
+        new BestTimes(
+          ctx.nStops(),
+          ctx.calculator(),
+          ctx.lifeCycle(),
+          ctx.workerStateArena(),
+          ctx.resultStateArena()
+        );
     }
     return bestTimes;
   }
@@ -219,7 +226,12 @@ public class StdRangeRaptorConfig<T extends RaptorTripSchedule> {
       this.stopArrivals =
         withBestNumberOfTransfers(
           oneOf(
-            new StdStopArrivals<T>(ctx.nRounds(), ctx.nStops(), ctx.roundProvider()),
+            new StdStopArrivals<T>(
+              ctx.nRounds(),
+              ctx.nStops(),
+              ctx.roundProvider(),
+              ctx.resultStateArena()
+            ),
             StdStopArrivals.class
           )
         );
@@ -232,7 +244,7 @@ public class StdRangeRaptorConfig<T extends RaptorTripSchedule> {
    */
   private SimpleBestNumberOfTransfers createSimpleBestNumberOfTransfers() {
     return withBestNumberOfTransfers(
-      new SimpleBestNumberOfTransfers(ctx.nStops(), ctx.roundProvider())
+      new SimpleBestNumberOfTransfers(ctx.nStops(), ctx.roundProvider(), ctx.resultStateArena())
     );
   }
 
@@ -0,0 +1,96 @@
+package org.opentripplanner.raptor.rangeraptor.standard.heuristics;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorker;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerResult;
+import org.opentripplanner.raptor.rangeraptor.internalapi.SingleCriteriaStopArrivals;
+import org.opentripplanner.raptor.rangeraptor.transit.EgressPaths;
+
+/**
+ * A heuristic search using the {@link HeuristicsCache}. The search is only performed if the stop
+ * arrivals are not cached, the result is then added to the cache. The result does not contain any
+ * paths, only the stop arrivals are cached.
+ * <p>
+ * The cached stop arrivals are shared by requests with different egress paths, so if the
+ * destination is reached is computed for each request.
+ */
+public class CachedHeuristicSearch<T extends RaptorTripSchedule> implements RaptorWorker<T> {
+
+  private final HeuristicsCache cache;
+  private final Object key;
+  private final int nStops;
+  private final EgressPaths egressPaths;
+  private final Supplier<RaptorWorker<T>> searchFactory;
+
+  public CachedHeuristicSearch(
+    HeuristicsCache cache,
+    Object key,
+    int nStops,
+    EgressPaths egressPaths,
+    Supplier<RaptorWorker<T>> searchFactory
+  ) {
+    this.cache = cache;
+    this.key = key;
+    this.nStops = nStops;
+    this.egressPaths = egressPaths;
+    this.searchFactory = searchFactory;
+  }
+
+  @Override
+  public RaptorWorkerResult<T> route() {
+    var arrivals = cache.get(key);
+    if (arrivals == null) {
+      arrivals = cache.put(key, nStops, searchFactory.get().route());
+    }
+    return new Result<>(arrivals, isDestinationReached(arrivals));
+  }
+
+  /**
+   * Same rules as the destination check in the standard search, an egress path which start by
+   * walking can only be used if the stop is reached by transit.
+   */
+  private boolean isDestinationReached(HeuristicsCache.StopArrivals arrivals) {
+    for (RaptorAccessEgress it : egressPaths.listAll()) {
+      int stop = it.stop();
+      if (it.stopReachedOnBoard()) {
+        if (arrivals.bestOverallArrivals().isReached(stop)) {
+          return true;
+        }
+      } else if (arrivals.bestTransitArrivals().isReached(stop)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private record Result<T extends RaptorTripSchedule>(
+    HeuristicsCache.StopArrivals arrivals,
+    boolean isDestinationReached
+  )
+    implements RaptorWorkerResult<T> {
+    @Override
+    public Collection<RaptorPath<T>> extractPaths() {
+      return List.of();
+    }
+
+    @Override
+    public SingleCriteriaStopArrivals extractBestOverallArrivals() {
+      return arrivals.bestOverallArrivals();
+    }
+
+    @Override
+    public SingleCriteriaStopArrivals extractBestTransitArrivals() {
+      return arrivals.bestTransitArrivals();
+    }
+
+    @Override
+    public SingleCriteriaStopArrivals extractBestNumberOfTransfers() {
+      return arrivals.bestNumberOfTransfers();
+    }
+  }
+}
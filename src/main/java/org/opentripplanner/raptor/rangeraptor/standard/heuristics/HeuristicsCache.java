@@ -0,0 +1,97 @@
+package org.opentripplanner.raptor.rangeraptor.standard.heuristics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.raptor.api.model.RaptorConstants;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerResult;
+import org.opentripplanner.raptor.rangeraptor.internalapi.SingleCriteriaStopArrivals;
+import org.opentripplanner.raptor.rangeraptor.support.IntArraySingleCriteriaArrivals;
+import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+
+/**
+ * Cache the stop arrivals of heuristic searches across requests. The arrivals are copied before
+ * they are added to the cache, the worker state may be reused by the next search. Only the stop
+ * arrivals are cached, the paths are not.
+ * <p>
+ * The cache is a bounded LRU cache, the least recently used entry is removed when the cache is
+ * full. The caller is responsible for creating a key which includes everything the result of the
+ * search depends on, see {@link RaptorTransitDataProvider#heuristicsCacheKey()}.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public final class HeuristicsCache {
+
+  private static final int UNREACHED = RaptorConstants.NOT_SET;
+
+  private final int maximumSize;
+  private final Map<Object, StopArrivals> cache;
+
+  public HeuristicsCache(int maximumSize) {
+    this.maximumSize = maximumSize;
+    this.cache =
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, StopArrivals> eldest) {
+          return size() > HeuristicsCache.this.maximumSize;
+        }
+      };
+  }
+
+  /**
+   * Return the stop arrivals cached for the given key, or {@code null} if not cached.
+   */
+  @Nullable
+  public synchronized StopArrivals get(Object key) {
+    return cache.get(key);
+  }
+
+  /**
+   * Copy the stop arrivals of the given result, and add them to the cache.
+   *
+   * @return the copied stop arrivals.
+   */
+  public StopArrivals put(Object key, int nStops, RaptorWorkerResult<?> result) {
+    var arrivals = new StopArrivals(
+      copy(nStops, result.extractBestOverallArrivals()),
+      copy(nStops, result.extractBestTransitArrivals()),
+      copy(nStops, result.extractBestNumberOfTransfers())
+    );
+    synchronized (this) {
+      cache.put(key, arrivals);
+    }
+    return arrivals;
+  }
+
+  public synchronized int size() {
+    return cache.size();
+  }
+
+  @Override
+  public synchronized String toString() {
+    return ToStringBuilder
+      .of(HeuristicsCache.class)
+      .addNum("size", cache.size())
+      .addNum("maximumSize", maximumSize)
+      .toString();
+  }
+
+  private static SingleCriteriaStopArrivals copy(int nStops, SingleCriteriaStopArrivals arrivals) {
+    return IntArraySingleCriteriaArrivals.create(
+      nStops,
+      UNREACHED,
+      stop -> arrivals.isReached(stop) ? arrivals.value(stop) : UNREACHED
+    );
+  }
+
+  /**
+   * The best-overall arrival times, the best transit arrival times and the best number of
+   * transfers for each stop.
+   */
+  public record StopArrivals(
+    SingleCriteriaStopArrivals bestOverallArrivals,
+    SingleCriteriaStopArrivals bestTransitArrivals,
+    SingleCriteriaStopArrivals bestNumberOfTransfers
+  ) {}
+}
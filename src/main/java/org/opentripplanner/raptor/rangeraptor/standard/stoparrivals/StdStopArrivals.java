@@ -9,6 +9,7 @@ import org.opentripplanner.raptor.rangeraptor.internalapi.SingleCriteriaStopArri
 import org.opentripplanner.raptor.rangeraptor.standard.internalapi.BestNumberOfTransfers;
 import org.opentripplanner.raptor.rangeraptor.standard.internalapi.DestinationArrivalListener;
 import org.opentripplanner.raptor.rangeraptor.support.IntArraySingleCriteriaArrivals;
+import org.opentripplanner.raptor.rangeraptor.support.WorkerStateArena;
 import org.opentripplanner.raptor.rangeraptor.transit.EgressPaths;
 
 /**
@@ -20,10 +21,23 @@ public final class StdStopArrivals<T extends RaptorTripSchedule> implements Best
   private final StopArrivalState<T>[][] arrivals;
   private final RoundProvider roundProvider;
 
-  public StdStopArrivals(int nRounds, int nStops, RoundProvider roundProvider) {
+  /**
+   * @param resultArena Used to allocate the stop arrivals for each round, these are part of the
+   *                    search result.
+   */
+  public StdStopArrivals(
+    int nRounds,
+    int nStops,
+    RoundProvider roundProvider,
+    WorkerStateArena resultArena
+  ) {
     this.roundProvider = roundProvider;
     //noinspection unchecked
-    this.arrivals = (StopArrivalState<T>[][]) new StopArrivalState[nRounds][nStops];
+    this.arrivals = (StopArrivalState<T>[][]) new StopArrivalState[nRounds][];
+    for (int i = 0; i < nRounds; ++i) {
+      //noinspection unchecked
+      this.arrivals[i] = resultArena.objectArray(StopArrivalState.class, nStops);
+    }
   }
 
   /**
@@ -0,0 +1,192 @@
+package org.opentripplanner.raptor.rangeraptor.support;
+
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+
+/**
+ * The worker state arena provides the stop-indexed arrays used by the Range Raptor worker state.
+ * The arrays are sized to the number of stops, and a thread serving routing requests allocate the
+ * same arrays over and over again. Instead of allocating new arrays for each search, the arena
+ * lease out arrays returned by previous searches, and reset them before they are used again.
+ * <p>
+ * The arena is NOT thread-safe, it is owned by one thread. The arena is opened before the
+ * searches of a routing request are created, and closed when the routing request is complete.
+ * All arrays leased while the arena is open are returned when it is closed. The arrays must not
+ * be used after the arena is closed. If the routing request fails, the leased arrays are dropped,
+ * not returned, since a search running in another thread may still use them.
+ * <p>
+ * Use the {@link #ALLOCATE} instance when the arrays can not be reused, it allocates new arrays
+ * every time.
+ */
+public final class WorkerStateArena {
+
+  /**
+   * This arena does not reuse anything, it allocates new arrays for every call.
+   */
+  public static final WorkerStateArena ALLOCATE = new WorkerStateArena(false);
+
+  /**
+   * The size of a reference in bytes, assuming compressed object pointers. This is only used to
+   * estimate the number of bytes reused.
+   */
+  private static final int REFERENCE_BYTES = 4;
+
+  private final boolean reuse;
+
+  /** Arrays ready for reuse, grouped by component type. */
+  private final Map<Class<?>, Pool> pools = new HashMap<>();
+
+  /** Arrays leased out since the arena was opened. */
+  private final List<Lease> leased = new ArrayList<>();
+
+  private boolean open = false;
+  private long bytesReused = 0;
+
+  private WorkerStateArena(boolean reuse) {
+    this.reuse = reuse;
+  }
+
+  /**
+   * Create a new arena reusing arrays between routing requests.
+   */
+  public static WorkerStateArena create() {
+    return new WorkerStateArena(true);
+  }
+
+  /**
+   * Return an int array with all elements set to the given {@code initialValue}.
+   */
+  public int[] intArray(int size, int initialValue) {
+    int[] array = (int[]) lease(int.class, size, (long) size * Integer.BYTES);
+    if (array == null) {
+      array = new int[size];
+    }
+    Arrays.fill(array, initialValue);
+    return array;
+  }
+
+  /**
+   * Return an empty bit set with room for {@code nBits} bits.
+   */
+  public BitSet bitSet(int nBits) {
+    var bitSet = (BitSet) lease(BitSet.class, nBits, ((nBits + 63L) / 64) * Long.BYTES);
+    if (bitSet == null) {
+      bitSet = new BitSet(nBits);
+    }
+    return bitSet;
+  }
+
+  /**
+   * Return an array with the given component type, all elements are {@code null}.
+   */
+  @SuppressWarnings("unchecked")
+  public <E> E[] objectArray(Class<E> type, int size) {
+    var array = (E[]) lease(type, size, (long) size * REFERENCE_BYTES);
+    if (array == null) {
+      array = (E[]) Array.newInstance(type, size);
+    }
+    return array;
+  }
+
+  public boolean isOpen() {
+    return open;
+  }
+
+  /**
+   * Open the arena, arrays are only reused while the arena is open.
+   */
+  public void open() {
+    if (open) {
+      throw new IllegalStateException("The worker state arena is already open.");
+    }
+    this.open = true;
+    this.bytesReused = 0;
+  }
+
+  /**
+   * Return all leased arrays to the arena, and close it.
+   *
+   * @return the estimated number of bytes reused, instead of allocated, while the arena was open.
+   */
+  public long release() {
+    for (Lease it : leased) {
+      if (it.array instanceof Object[] array) {
+        // Release the references, so the old state can be garbage collected
+        Arrays.fill(array, null);
+      }
+      it.pool.free.add(it.array);
+    }
+    leased.clear();
+    open = false;
+    return bytesReused;
+  }
+
+  /**
+   * Drop all leased arrays, and close the arena. This is safe to call after {@link #release()}.
+   */
+  public void close() {
+    leased.clear();
+    open = false;
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(WorkerStateArena.class)
+      .addBoolIfTrue("reuse", reuse)
+      .addBoolIfTrue("open", open)
+      .addNum("leased", leased.size(), 0)
+      .addNum("bytesReused", bytesReused, 0L)
+      .toString();
+  }
+
+  /* private methods */
+
+  /**
+   * Lease an array from the pool, or create a new one if the pool is empty. The new array is
+   * returned to the pool when the arena is released. If the arena is not open, {@code null} is
+   * returned and the caller must allocate the array.
+   */
+  private Object lease(Class<?> type, int size, long bytes) {
+    if (!(reuse && open)) {
+      return null;
+    }
+    var pool = pools.get(type);
+
+    // The number of stops only change if a new graph is loaded, drop arrays with the old size
+    if (pool == null || pool.size != size) {
+      pool = new Pool(size);
+      pools.put(type, pool);
+    }
+    var array = pool.free.poll();
+    if (array == null) {
+      array = type == BitSet.class ? new BitSet(size) : Array.newInstance(type, size);
+    } else {
+      if (array instanceof BitSet bitSet) {
+        bitSet.clear();
+      }
+      bytesReused += bytes;
+    }
+    leased.add(new Lease(pool, array));
+    return array;
+  }
+
+  private record Lease(Pool pool, Object array) {}
+
+  private static final class Pool {
+
+    private final int size;
+    private final ArrayDeque<Object> free = new ArrayDeque<>();
+
+    private Pool(int size) {
+      this.size = size;
+    }
+  }
+}
@@ -4,6 +4,7 @@ import static org.opentripplanner.raptor.api.request.RaptorProfile.MIN_TRAVEL_DU
 
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.time.DurationUtils;
+import org.opentripplanner.raptor.api.model.RaptorConstants;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.model.SearchDirection;
 import org.opentripplanner.raptor.api.request.RaptorRequest;
@@ -27,6 +28,11 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
 
   private static final Logger LOG = LoggerFactory.getLogger(HeuristicSearchTask.class);
 
+  /**
+   * The search is limited by the max number of transfers, this is larger than any round limit.
+   */
+  private static final int NO_ADDITIONAL_TRANSFERS_LIMIT = 1000;
+
   private final SearchDirection direction;
   private final String name;
   private final RaptorConfig<T> config;
@@ -138,13 +144,41 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
 
       builder.searchParams().searchOneIterationOnly();
 
+      var cacheKey = isCacheable(request)
+        ? HeuristicsCacheKey.of(transitData, builder.build())
+        : null;
+
+      if (cacheKey != null) {
+        // The cached result is shared by requests with other origins and departure times, so
+        // the search must not stop when the origin is reached or exceeds the departure time
+        builder
+          .searchParams()
+          .earliestDepartureTime(RaptorConstants.TIME_NOT_SET)
+          .numberOfAdditionalTransfers(NO_ADDITIONAL_TRANSFERS_LIMIT);
+      }
+
       // Add this last, it depends on generating an alias from the set values
       builder.performanceTimers(
         request.performanceTimers().withNamePrefix(builder.generateAlias())
       );
 
       heuristicRequest = builder.build();
-      search = config.createHeuristicSearch(transitData, heuristicRequest);
+      search =
+        cacheKey == null
+          ? config.createHeuristicSearch(transitData, heuristicRequest)
+          : config.createCachedHeuristicSearch(transitData, heuristicRequest, cacheKey);
     }
   }
+
+  /**
+   * Only the reverse search of depart-after requests is cached. The latest-arrival-time of these
+   * requests is set to the end of the transit data, unless set in the request.
+   */
+  private boolean isCacheable(RaptorRequest<T> request) {
+    return (
+      config.isHeuristicsCacheEnabled() &&
+      direction.isInReverse() &&
+      request.searchParams().isEarliestDepartureTimeSet()
+    );
+  }
 }
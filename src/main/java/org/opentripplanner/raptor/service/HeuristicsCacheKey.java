@@ -0,0 +1,72 @@
+package org.opentripplanner.raptor.service;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.SearchParams;
+import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+
+/**
+ * The key used to cache the reverse heuristic search across requests. The reverse search start at
+ * the destination, so the key contains the egress paths, but not the access paths. The cached
+ * search is not limited by the earliest-departure-time, so it is not part of the key either.
+ *
+ * @param transitData see {@link RaptorTransitDataProvider#heuristicsCacheKey()}
+ */
+record HeuristicsCacheKey(
+  Object transitData,
+  int latestArrivalTime,
+  int maxNumberOfTransfers,
+  boolean constrainedTransfers,
+  Set<EgressKey> egressPaths
+) {
+  /**
+   * Create a key for the given reverse heuristic search. Returns {@code null} if the transit data
+   * can not be shared between requests, or if an egress path has opening hours.
+   */
+  @Nullable
+  static HeuristicsCacheKey of(
+    RaptorTransitDataProvider<?> transitData,
+    RaptorRequest<?> heuristicRequest
+  ) {
+    Object transitDataKey = transitData.heuristicsCacheKey();
+    SearchParams s = heuristicRequest.searchParams();
+
+    if (transitDataKey == null) {
+      return null;
+    }
+    if (s.egressPaths().stream().anyMatch(RaptorAccessEgress::hasOpeningHours)) {
+      return null;
+    }
+    return new HeuristicsCacheKey(
+      transitDataKey,
+      s.latestArrivalTime(),
+      s.maxNumberOfTransfers(),
+      heuristicRequest.useConstrainedTransfers(),
+      s.egressPaths().stream().map(EgressKey::new).collect(Collectors.toUnmodifiableSet())
+    );
+  }
+
+  /**
+   * The egress path properties used by the heuristic search.
+   */
+  private record EgressKey(
+    int stop,
+    int durationInSeconds,
+    int timePenalty,
+    int numberOfRides,
+    boolean stopReachedOnBoard
+  ) {
+    private EgressKey(RaptorAccessEgress egress) {
+      this(
+        egress.stop(),
+        egress.durationInSeconds(),
+        egress.timePenalty(),
+        egress.numberOfRides(),
+        egress.stopReachedOnBoard()
+      );
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package org.opentripplanner.raptor.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.SearchParams;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorker;
+import org.opentripplanner.raptor.rangeraptor.internalapi.MergeablePathsWorkerResult;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Run a multi-criteria Range Raptor search with the search-window split in slices of consecutive
+ * iterations. Each slice is searched by its own worker, and the slices are searched in parallel.
+ * <p>
+ * The Range Raptor iterations over the departure times reuse the state from the later iterations
+ * in the earlier ones. Splitting the search-window loses some of this reuse, each slice starts
+ * without the stop arrivals of the later slices. In a multi-criteria search these arrivals also
+ * take part in the pareto comparison, so the paths found are not guaranteed to be the same as
+ * for a search over the entire search-window.
+ * <p>
+ * Only the paths are merged. The paths from all slices are added to the pareto-set of paths of
+ * the first slice - the slice with the earliest departures - so the result only contains paths
+ * which are pareto-optimal among the paths found by all slices. All other state of the result,
+ * like the stop arrivals, is from the first slice only.
+ * <p>
+ * Only forward searches without time-penalty on the access is supported, see {@link
+ * #split(RaptorRequest, int, int)}.
+ */
+class ParallelRangeRaptorWorker<T extends RaptorTripSchedule> implements RaptorWorker<T> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ParallelRangeRaptorWorker.class);
+
+  /**
+   * Do not split the search-window in slices with less than this number of iterations. Small
+   * slices spend most of the time getting the state up to date, not reusing it.
+   */
+  static final int MIN_ITERATIONS_PER_SLICE = 10;
+
+  private final ExecutorService threadPool;
+  private final List<RaptorWorker<T>> workers;
+
+  /**
+   * @param workers One worker for each slice, the worker for the first slice(earliest departures)
+   *                must be first.
+   */
+  ParallelRangeRaptorWorker(ExecutorService threadPool, List<RaptorWorker<T>> workers) {
+    this.threadPool = threadPool;
+    this.workers = workers;
+  }
+
+  /**
+   * Split the request in one request for each slice of the search-window. The requests are
+   * ordered by departure time, the request with the earliest departures first. The original
+   * request is returned as the only element if the search-window is too small to be split, or if
+   * the request is not supported.
+   * <p>
+   * The iterations in each slice is exactly the same as the iterations in the search over the
+   * entire search-window.
+   */
+  static <T extends RaptorTripSchedule> List<RaptorRequest<T>> split(
+    RaptorRequest<T> request,
+    int maxSlices,
+    int iterationStep
+  ) {
+    SearchParams s = request.searchParams();
+
+    if (maxSlices < 2 || !isSupported(request)) {
+      return List.of(request);
+    }
+
+    int nIterations = s.searchWindowInSeconds() / iterationStep;
+    int nSlices = Math.min(maxSlices, nIterations / MIN_ITERATIONS_PER_SLICE);
+
+    if (nSlices < 2) {
+      return List.of(request);
+    }
+
+    // The first iteration(the earliest), is not necessarily at the earliest-departure-time,
+    // if the search-window is not a multiple of the iteration step.
+    int firstIterationTime =
+      s.earliestDepartureTime() + s.searchWindowInSeconds() - nIterations * iterationStep;
+
+    var requests = new ArrayList<RaptorRequest<T>>(nSlices);
+    for (int i = 0; i < nSlices; ++i) {
+      int start = (i * nIterations) / nSlices;
+      int end = ((i + 1) * nIterations) / nSlices;
+      requests.add(
+        request
+          .mutate()
+          .searchParams()
+          .earliestDepartureTime(firstIterationTime + start * iterationStep)
+          .searchWindowInSeconds((end - start) * iterationStep)
+          .build()
+      );
+    }
+    return requests;
+  }
+
+  @Override
+  public RaptorWorkerResult<T> route() {
+    var futures = new ArrayList<Future<RaptorWorkerResult<T>>>(workers.size() - 1);
+    try {
+      for (RaptorWorker<T> worker : workers.subList(1, workers.size())) {
+        futures.add(threadPool.submit(worker::route));
+      }
+      // Search the first slice in the current thread
+      var result = multiCriteriaResult(workers.get(0).route());
+
+      for (Future<RaptorWorkerResult<T>> future : futures) {
+        result.mergePaths(future.get().extractPaths());
+      }
+      LOG.debug("Route using RangeRaptor - {} slices searched in parallel.", workers.size());
+      return result;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OTPRequestTimeoutException();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new IllegalStateException(
+        "Failed to run the search-window slices in parallel. Details: " + e.getMessage(),
+        e
+      );
+    } finally {
+      // Propagate interruption to the running tasks, if the search failed. This has no
+      // effect if all tasks are complete.
+      futures.forEach(it -> it.cancel(true));
+    }
+  }
+
+  /**
+   * The slices are searched by multi-criteria workers, only the multi-criteria result keeps the
+   * pareto-set of paths the other slices are merged into.
+   */
+  private static <T extends RaptorTripSchedule> MergeablePathsWorkerResult<T> multiCriteriaResult(
+    RaptorWorkerResult<T> result
+  ) {
+    if (result instanceof MergeablePathsWorkerResult<T> mcResult) {
+      return mcResult;
+    }
+    throw new IllegalStateException(
+      "Only multi-criteria searches can be split in slices: " + result.getClass().getSimpleName()
+    );
+  }
+
+  /**
+   * The reverse search iterates in the opposite order, and access with time-penalty adds
+   * extra iterations in front of the search-window. These cases are not supported.
+   */
+  private static boolean isSupported(RaptorRequest<?> request) {
+    SearchParams s = request.searchParams();
+    return (
+      request.searchDirection().isForward() &&
+      s.isEarliestDepartureTimeSet() &&
+      s.isSearchWindowSet() &&
+      s.accessPaths().stream().noneMatch(RaptorAccessEgress::hasTimePenalty)
+    );
+  }
+}
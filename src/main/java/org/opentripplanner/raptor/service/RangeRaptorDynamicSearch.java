@@ -134,7 +134,7 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
 
     // Create worker
     if (request.profile().is(MULTI_CRITERIA)) {
-      raptorWorker = config.createMcWorker(transitData, request, getDestinationHeuristics());
+      raptorWorker = createMcWorker(request);
     } else {
       raptorWorker = config.createStdWorker(transitData, request);
     }
@@ -152,6 +152,31 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
     );
   }
 
+  /**
+   * Create a multi-criteria worker. If allowed, the search-window is split in slices searched in
+   * parallel.
+   */
+  private RaptorWorker<T> createMcWorker(RaptorRequest<T> request) {
+    var heuristics = getDestinationHeuristics();
+
+    if (config.searchWindowSlices() > 1 && request.runInParallel()) {
+      var requests = ParallelRangeRaptorWorker.split(
+        request,
+        config.searchWindowSlices(),
+        config.iterationDepartureStepInSeconds()
+      );
+      if (requests.size() > 1) {
+        // The workers are created in this thread, the config is not thread-safe
+        var workers = requests
+          .stream()
+          .map(it -> config.createMcWorker(transitData, it, heuristics))
+          .toList();
+        return new ParallelRangeRaptorWorker<>(config.threadPool(), workers);
+      }
+    }
+    return config.createMcWorker(transitData, request, heuristics);
+  }
+
   private boolean isItPossibleToRunHeuristicsInParallel() {
     SearchParams s = originalRequest.searchParams();
     return (
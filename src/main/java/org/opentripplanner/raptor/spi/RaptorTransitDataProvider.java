@@ -2,6 +2,7 @@ package org.opentripplanner.raptor.spi;
 
 import java.util.Iterator;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opentripplanner.raptor.api.model.RaptorTransfer;
 import org.opentripplanner.raptor.api.model.RaptorTransferConstraint;
 import org.opentripplanner.raptor.api.model.RaptorTripPattern;
@@ -150,4 +151,19 @@ public interface RaptorTransitDataProvider<T extends RaptorTripSchedule> {
    * REVERSE search.
    */
   RaptorConstrainedBoardingSearch<T> transferConstraintsReverseSearch(int routeIndex);
+
+  /**
+   * Raptor may cache the result of heuristic searches across requests. This method returns a key
+   * identifying the transit data - including the filters, transfers and slack used to create it.
+   * Two instances with equal keys must give the same result for the same Raptor search. The key
+   * must implement {@code equals()} and {@code hashCode()}, and should not reference large data
+   * structures, since it is kept in the cache. This is only called if the cache is enabled, so the
+   * key should be created when this method is called, not when the transit data is created.
+   * <p>
+   * Return {@code null}(default) if the transit data can not be shared with other requests.
+   */
+  @Nullable
+  default Object heuristicsCacheKey() {
+    return null;
+  }
 }
@@ -2,6 +2,7 @@ package org.opentripplanner.routing.algorithm.raptoradapter.router;
 
 import static org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressType.ACCESS;
 import static org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressType.EGRESS;
+import static org.opentripplanner.routing.framework.RoutingPhaseExecutor.phase;
 
 import java.time.Duration;
 import java.time.Instant;
@@ -9,8 +10,7 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import org.opentripplanner.ext.ridehailing.RideHailingAccessShifter;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.model.plan.Itinerary;
@@ -39,6 +39,8 @@ import org.opentripplanner.routing.api.response.RoutingError;
 import org.opentripplanner.routing.api.response.RoutingErrorCode;
 import org.opentripplanner.routing.error.RoutingValidationException;
 import org.opentripplanner.routing.framework.DebugTimingAggregator;
+import org.opentripplanner.routing.framework.RoutingPhaseExecutor;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.opentripplanner.street.search.TemporaryVerticesContainer;
 import org.opentripplanner.transit.model.network.grouppriority.TransitGroupPriorityService;
@@ -181,18 +183,14 @@ public class TransitRouter {
     final var egressList = new ArrayList<RoutingAccessEgress>();
 
     if (OTPFeature.ParallelRouting.isOn()) {
-      try {
-        // TODO: This is not using {@link OtpRequestThreadFactory} which mean we do not get
-        //       log-trace-parameters-propagation and graceful timeout handling here.
-        CompletableFuture
-          .allOf(
-            CompletableFuture.runAsync(() -> accessList.addAll(fetchAccess())),
-            CompletableFuture.runAsync(() -> egressList.addAll(fetchEgress()))
-          )
-          .join();
-      } catch (CompletionException e) {
-        RoutingValidationException.unwrapAndRethrowCompletionException(e);
-      }
+      var executor = new RoutingPhaseExecutor(
+        serverContext.meterRegistry(),
+        request.preferences().system().tags()
+      );
+      executor.runAll(
+        phase("access", () -> accessList.addAll(fetchAccess())),
+        phase("egress", () -> egressList.addAll(fetchEgress()))
+      );
     } else {
       accessList.addAll(fetchAccess());
       egressList.addAll(fetchEgress());
@@ -250,15 +248,32 @@ public class TransitRouter {
       .valueOf(streetRequest.mode());
     int stopCountLimit = accessRequest.preferences().street().accessEgress().maxStopCount();
 
-    var nearbyStops = AccessEgressRouter.streetSearch(
-      accessRequest,
-      temporaryVerticesContainer,
-      streetRequest,
-      serverContext.dataOverlayContext(accessRequest),
-      type.isEgress(),
-      durationLimit,
-      stopCountLimit
-    );
+    var dataOverlayContext = serverContext.dataOverlayContext(accessRequest);
+    Supplier<Collection<NearbyStop>> streetSearch = () ->
+      AccessEgressRouter.streetSearch(
+        accessRequest,
+        temporaryVerticesContainer,
+        streetRequest,
+        dataOverlayContext,
+        type.isEgress(),
+        durationLimit,
+        stopCountLimit
+      );
+
+    // The data overlay is not part of the cache key, so these searches are not cached
+    var nearbyStops = dataOverlayContext == null
+      ? serverContext
+        .nearbyStopsCache()
+        .findNearbyStops(
+          accessRequest,
+          streetRequest.mode(),
+          type,
+          durationLimit,
+          stopCountLimit,
+          serverContext.graph().getStreetIndex().getRealTimeEdgeVersion(),
+          streetSearch
+        )
+      : streetSearch.get();
 
     List<RoutingAccessEgress> results = new ArrayList<>(
       AccessEgressMapper.mapNearbyStops(nearbyStops, type.isEgress())
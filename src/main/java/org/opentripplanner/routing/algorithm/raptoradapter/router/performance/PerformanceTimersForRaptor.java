@@ -1,6 +1,8 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.router.performance;
 
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
 import io.micrometer.core.instrument.Timer;
 import java.util.Collection;
 import org.opentripplanner.raptor.api.debug.RaptorTimers;
@@ -13,6 +15,7 @@ public class PerformanceTimersForRaptor implements RaptorTimers {
   private final Timer timerRoute;
   private final Timer findTransitPerRound;
   private final Timer findTransfersPerRound;
+  private final DistributionSummary workerStateBytesReused;
   private final MeterRegistry registry;
   private final Collection<RoutingTag> routingTags;
 
@@ -29,6 +32,12 @@ public class PerformanceTimersForRaptor implements RaptorTimers {
       Timer.builder("raptor." + namePrefix + ".minute.transit").tags(tags).register(registry);
     findTransfersPerRound =
       Timer.builder("raptor." + namePrefix + ".minute.transfers").tags(tags).register(registry);
+    workerStateBytesReused =
+      DistributionSummary
+        .builder("raptor." + namePrefix + ".workerState.bytesReused")
+        .baseUnit(BaseUnits.BYTES)
+        .tags(tags)
+        .register(registry);
   }
 
   public Timer timerRoute() {
@@ -58,6 +67,11 @@ public class PerformanceTimersForRaptor implements RaptorTimers {
     findTransfersPerRound.record(body);
   }
 
+  @Override
+  public void workerStateBytesReused(long bytes) {
+    workerStateBytesReused.record(bytes);
+  }
+
   @Override
   public RaptorTimers withNamePrefix(String namePrefix) {
     return new PerformanceTimersForRaptor(namePrefix, routingTags, registry);
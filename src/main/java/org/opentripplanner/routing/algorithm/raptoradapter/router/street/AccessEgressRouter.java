@@ -40,7 +40,8 @@ public class AccessEgressRouter {
     var nearbyStopFinder = new StreetNearbyStopFinder(
       durationLimit,
       maxStopCount,
-      dataOverlayContext
+      dataOverlayContext,
+      verticesContainer.getGraph().getShortestPathTreePool()
     );
     Collection<NearbyStop> nearbyStopList = nearbyStopFinder.findNearbyStops(
       fromTarget ? verticesContainer.getToVertices() : verticesContainer.getFromVertices(),
@@ -3,6 +3,7 @@ package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
 import java.util.Collections;
 import java.util.List;
 import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
 import org.opentripplanner.model.plan.Itinerary;
@@ -44,7 +45,13 @@ public class DirectStreetRouter {
       GraphPathFinder gpFinder = new GraphPathFinder(
         serverContext.traverseVisitor(),
         serverContext.dataOverlayContext(request),
-        maxCarSpeed
+        maxCarSpeed,
+        serverContext.graph().getCompactStreetGraph(),
+        OTPFeature.LandmarkHeuristic.isOn() ? serverContext.graph().getLandmarkTables() : null,
+        OTPFeature.ContractionHierarchy.isOn()
+          ? serverContext.graph().getContractionHierarchy()
+          : null,
+        serverContext.graph().getShortestPathTreePool()
       );
       List<GraphPath<State, Edge, Vertex>> paths = gpFinder.graphPathFinderEntryPoint(
         directRequest,
@@ -61,6 +61,7 @@ public class FlexAccessEgressRouter {
       serverContext.graph(),
       transitService,
       config,
+      serverContext.flexPathCache(),
       request.dateTime(),
       request.bookingTime(),
       searchDays.additionalSearchDaysInPast(),
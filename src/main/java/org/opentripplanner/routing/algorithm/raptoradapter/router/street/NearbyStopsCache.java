@@ -0,0 +1,195 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.BikePreferences;
+import org.opentripplanner.routing.api.request.preference.CarPreferences;
+import org.opentripplanner.routing.api.request.preference.ScooterPreferences;
+import org.opentripplanner.routing.api.request.preference.StreetPreferences;
+import org.opentripplanner.routing.api.request.preference.WalkPreferences;
+import org.opentripplanner.routing.api.request.preference.WheelchairPreferences;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+
+/**
+ * Caches the stops found by the access and egress street searches, so requests from or to the
+ * same place do not repeat the search. The cache is shared by all requests.
+ * <p>
+ * The origin of the search is snapped to a grid of small cells, requests from the same cell with
+ * the same street mode, limits and street preferences share the result. The access/egress of these
+ * requests starts at the place of the request which added the entry, at most a few meters away.
+ * Only coordinate locations are cached, and only for the modes where the search does not depend on
+ * the realtime state of vehicle rental or parking.
+ * <p>
+ * The size of an entry is the number of stops found plus the number of edges in the paths to them,
+ * so a few long car searches do not keep more memory than many short walk searches.
+ * <p>
+ * The entries expire after the configured time to live. They are also dropped when realtime updates
+ * link edges, other than vehicle rental links, into the street graph or remove them, see
+ * {@link org.opentripplanner.routing.graph.index.EdgeSpatialIndex}.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public class NearbyStopsCache {
+
+  /** The size of a grid cell, about 5.5 meters north-south. */
+  static final double CELL_SIZE_DEGREES = 0.00005;
+
+  private static final Set<StreetMode> CACHED_MODES = EnumSet.of(
+    StreetMode.WALK,
+    StreetMode.BIKE,
+    StreetMode.CAR,
+    StreetMode.CAR_HAILING
+  );
+
+  @Nullable
+  private final Cache<CacheKey, List<NearbyStop>> cache;
+
+  /**
+   * @param maximumSize the maximum total size of the search results to keep, counted as the
+   *                    number of stops and path edges, 0 disables the cache.
+   */
+  public NearbyStopsCache(int maximumSize, Duration timeToLive) {
+    this.cache =
+      maximumSize > 0
+        ? CacheBuilder
+          .newBuilder()
+          .maximumWeight(maximumSize)
+          .weigher(NearbyStopsCache::size)
+          .expireAfterWrite(timeToLive)
+          .recordStats()
+          .build()
+        : null;
+  }
+
+  public static NearbyStopsCache of(TransitTuningParameters tuningParameters) {
+    return new NearbyStopsCache(
+      tuningParameters.nearbyStopsCacheMaxSize(),
+      tuningParameters.nearbyStopsCacheTimeToLive()
+    );
+  }
+
+  /**
+   * The underlying cache, used to report the hit and miss metrics, or {@code null} if the cache
+   * is disabled.
+   */
+  @Nullable
+  public Cache<?, ?> getCache() {
+    return cache;
+  }
+
+  /**
+   * Return the stops found by the search, from the cache if the same search is done before.
+   *
+   * @param realTimeEdgeVersion the version of the street edges added by realtime updates
+   * @param search              the street search, only called if the result is not cached
+   */
+  public Collection<NearbyStop> findNearbyStops(
+    RouteRequest request,
+    StreetMode mode,
+    AccessEgressType type,
+    Duration durationLimit,
+    int maxStopCount,
+    long realTimeEdgeVersion,
+    Supplier<Collection<NearbyStop>> search
+  ) {
+    var location = type.isAccess() ? request.from() : request.to();
+    if (cache == null || !isCacheable(location, mode)) {
+      return search.get();
+    }
+    var key = new CacheKey(
+      type,
+      mode,
+      cell(location.lat),
+      cell(location.lng),
+      location.label,
+      durationLimit,
+      maxStopCount,
+      realTimeEdgeVersion,
+      new StreetRelevantOptions(request)
+    );
+    try {
+      return cache.get(key, () -> List.copyOf(search.get()));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      // Let timeouts and validation errors from the search through unchanged
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new RuntimeException("Failed to get item from nearby stops cache", e);
+    }
+  }
+
+  private static boolean isCacheable(GenericLocation location, StreetMode mode) {
+    return (
+      location.stopId == null && location.getCoordinate() != null && CACHED_MODES.contains(mode)
+    );
+  }
+
+  /**
+   * The size of a cached search result, the number of stops plus the number of edges in the paths
+   * to them.
+   */
+  static int size(CacheKey key, List<NearbyStop> stops) {
+    int size = 1;
+    for (NearbyStop stop : stops) {
+      size += 1 + (stop.edges == null ? 0 : stop.edges.size());
+    }
+    return size;
+  }
+
+  static long cell(double degrees) {
+    return Math.round(degrees / CELL_SIZE_DEGREES);
+  }
+
+  /**
+   * The parameters of the search, the result is the same for equal keys.
+   */
+  record CacheKey(
+    AccessEgressType type,
+    StreetMode mode,
+    long latitudeCell,
+    long longitudeCell,
+    @Nullable String label,
+    Duration durationLimit,
+    int maxStopCount,
+    long realTimeEdgeVersion,
+    StreetRelevantOptions options
+  ) {}
+
+  /**
+   * The preferences which may influence the street search.
+   */
+  record StreetRelevantOptions(
+    boolean wheelchair,
+    WalkPreferences walk,
+    BikePreferences bike,
+    CarPreferences car,
+    ScooterPreferences scooter,
+    StreetPreferences street,
+    WheelchairPreferences wheelchairPreferences
+  ) {
+    StreetRelevantOptions(RouteRequest request) {
+      this(
+        request.wheelchair(),
+        request.preferences().walk(),
+        request.preferences().bike(),
+        request.preferences().car(),
+        request.preferences().scooter(),
+        request.preferences().street(),
+        request.wheelchair() ? request.preferences().wheelchair() : WheelchairPreferences.DEFAULT
+      );
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.TransitLayerMapper;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache.StreetRelevantOptions;
+
+/**
+ * The parts of the {@link TransitLayer} which are expensive to create, computed when the graph is
+ * built and saved with the transit model in the graph file. When the server starts, the
+ * {@link TransitLayerMapper} and the {@link RaptorRequestTransferCache} use these instead of
+ * computing them again.
+ * <p>
+ * The trip patterns for each date and the transfers only depend on the transit model. The transfer
+ * indexes also depend on the transfer cache requests in the router config. They are kept by the
+ * street parameters of the request, and an index is only used if the parameters of the request in
+ * the router config are the same when the server starts. If the router config is changed, the
+ * transfers are computed when the server starts, like before.
+ */
+public class PrecomputedTransitLayer implements Serializable {
+
+  private final Map<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate;
+  private final List<List<Transfer>> transfersByStopIndex;
+  private final Map<StreetRelevantOptions, RaptorTransferIndex> transferIndexes;
+
+  private PrecomputedTransitLayer(
+    Map<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate,
+    List<List<Transfer>> transfersByStopIndex,
+    Map<StreetRelevantOptions, RaptorTransferIndex> transferIndexes
+  ) {
+    this.tripPatternsRunningOnDate = tripPatternsRunningOnDate;
+    this.transfersByStopIndex = transfersByStopIndex;
+    this.transferIndexes = transferIndexes;
+  }
+
+  /**
+   * Keep the scheduled trip patterns, the transfers and the transfer indexes in the transfer cache
+   * of the given transit layer.
+   */
+  public static PrecomputedTransitLayer of(TransitLayer transitLayer) {
+    return new PrecomputedTransitLayer(
+      transitLayer.getTripPatternsRunningOnDate(),
+      transitLayer.getTransfersByStopIndex(),
+      transitLayer.getTransferCache().transferIndexesByRequest()
+    );
+  }
+
+  public Map<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate() {
+    return tripPatternsRunningOnDate;
+  }
+
+  public List<List<Transfer>> transfersByStopIndex() {
+    return transfersByStopIndex;
+  }
+
+  /**
+   * The transfer indexes, by the street parameters of the requests used to create them, see
+   * {@link RaptorRequestTransferCache#transferIndexesByRequest()}.
+   */
+  public Map<StreetRelevantOptions, RaptorTransferIndex> transferIndexes() {
+    return transferIndexes;
+  }
+}
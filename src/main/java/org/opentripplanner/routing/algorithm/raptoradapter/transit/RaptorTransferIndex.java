@@ -2,13 +2,14 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit;
 
 import static java.util.stream.Collectors.toMap;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
 import org.opentripplanner.raptor.api.model.RaptorTransfer;
 import org.opentripplanner.street.search.request.StreetSearchRequest;
 
-public class RaptorTransferIndex {
+public class RaptorTransferIndex implements Serializable {
 
   private final List<RaptorTransfer>[] forwardTransfers;
 
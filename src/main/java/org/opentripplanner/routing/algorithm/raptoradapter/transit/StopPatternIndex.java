@@ -0,0 +1,160 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import gnu.trove.list.array.TIntArrayList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import org.opentripplanner.transit.model.network.RoutingTripPattern;
+
+/**
+ * Index of all trip patterns visiting each stop. The index contains the pattern index of every
+ * pattern in the {@link TransitLayer}, regardless of the dates the pattern is running on. The
+ * patterns active in a request are a subset of these, so the index is used together with a
+ * per-request set of active patterns to find the routes for a set of stops in Raptor.
+ * <p>
+ * The index is built once for the scheduled {@link TransitLayer} and shared with the realtime
+ * copies. Patterns added by the realtime updater are added with {@link #withPatterns(Collection)},
+ * which creates a new index and leaves this one unchanged. Patterns are not removed by
+ * {@link #withPatterns(Collection)}, a pattern without any trips is not active in any request and
+ * is therefore skipped. To drop the patterns no longer in use, the index is created again when
+ * many patterns are added, see {@link #isRebuildNeeded()}.
+ * <p>
+ * THIS CLASS IS IMMUTABLE AND THREAD-SAFE.
+ */
+public class StopPatternIndex {
+
+  private static final int[] EMPTY = new int[0];
+
+  private static final StopPatternIndex EMPTY_INDEX = new StopPatternIndex(
+    new int[0][],
+    new BitSet(),
+    0
+  );
+
+  /**
+   * Create the index again when this number of patterns, or 10% of the patterns in the created
+   * index if that is more, are added.
+   */
+  static final int MIN_ADDED_PATTERNS_BEFORE_REBUILD = 100;
+
+  /**
+   * Pattern indexes by stop index. The arrays for stops not changed are shared with the index
+   * this index was created from.
+   */
+  private final int[][] patternsByStop;
+
+  private final BitSet indexedPatterns;
+
+  /** The number of patterns in the index when it was created. */
+  private final int numberOfCreatedPatterns;
+
+  private StopPatternIndex(
+    int[][] patternsByStop,
+    BitSet indexedPatterns,
+    int numberOfCreatedPatterns
+  ) {
+    this.patternsByStop = patternsByStop;
+    this.indexedPatterns = indexedPatterns;
+    this.numberOfCreatedPatterns = numberOfCreatedPatterns;
+  }
+
+  /**
+   * Create a new index for all patterns in the given lists of trip patterns for date.
+   */
+  public static StopPatternIndex create(
+    Collection<? extends Collection<TripPatternForDate>> tripPatternsByDate
+  ) {
+    var indexedPatterns = new BitSet();
+    var newPatterns = new ArrayList<RoutingTripPattern>();
+    for (var tripPatternsForDate : tripPatternsByDate) {
+      findNewPatterns(tripPatternsForDate, indexedPatterns, newPatterns);
+    }
+    return EMPTY_INDEX.addPatterns(indexedPatterns, newPatterns, newPatterns.size());
+  }
+
+  /**
+   * Return a new index with the patterns not already indexed added, or this index if all patterns
+   * exist in this index.
+   */
+  public StopPatternIndex withPatterns(Collection<TripPatternForDate> tripPatternsForDate) {
+    var indexed = (BitSet) indexedPatterns.clone();
+    var newPatterns = new ArrayList<RoutingTripPattern>();
+    findNewPatterns(tripPatternsForDate, indexed, newPatterns);
+    return newPatterns.isEmpty()
+      ? this
+      : addPatterns(indexed, newPatterns, numberOfCreatedPatterns);
+  }
+
+  /**
+   * Return {@code true} if so many patterns are added with {@link #withPatterns(Collection)} since
+   * the index was created, that it should be created again from the patterns in use.
+   */
+  public boolean isRebuildNeeded() {
+    int added = indexedPatterns.cardinality() - numberOfCreatedPatterns;
+    return added > Math.max(MIN_ADDED_PATTERNS_BEFORE_REBUILD, numberOfCreatedPatterns / 10);
+  }
+
+  /**
+   * The pattern indexes of all patterns visiting the given stop. Do not modify the returned array.
+   */
+  public int[] patternsForStop(int stopIndex) {
+    return stopIndex < patternsByStop.length ? patternsByStop[stopIndex] : EMPTY;
+  }
+
+  public boolean contains(int patternIndex) {
+    return indexedPatterns.get(patternIndex);
+  }
+
+  private static void findNewPatterns(
+    Collection<TripPatternForDate> tripPatternsForDate,
+    BitSet indexedPatterns,
+    List<RoutingTripPattern> newPatterns
+  ) {
+    for (TripPatternForDate it : tripPatternsForDate) {
+      var pattern = it.getTripPattern();
+      if (!indexedPatterns.get(pattern.patternIndex())) {
+        indexedPatterns.set(pattern.patternIndex());
+        newPatterns.add(pattern);
+      }
+    }
+  }
+
+  private StopPatternIndex addPatterns(
+    BitSet indexed,
+    List<RoutingTripPattern> newPatterns,
+    int numberOfCreatedPatterns
+  ) {
+    int stopCount = patternsByStop.length;
+    for (var pattern : newPatterns) {
+      for (int i = 0; i < pattern.numberOfStopsInPattern(); i++) {
+        stopCount = Math.max(stopCount, pattern.stopIndex(i) + 1);
+      }
+    }
+
+    var added = new TIntArrayList[stopCount];
+    for (var pattern : newPatterns) {
+      for (int i = 0; i < pattern.numberOfStopsInPattern(); i++) {
+        int stop = pattern.stopIndex(i);
+        if (added[stop] == null) {
+          added[stop] = new TIntArrayList();
+        }
+        added[stop].add(pattern.patternIndex());
+      }
+    }
+
+    int[][] result = Arrays.copyOf(patternsByStop, stopCount);
+    for (int stop = 0; stop < stopCount; stop++) {
+      int[] existing = stop < patternsByStop.length ? patternsByStop[stop] : EMPTY;
+      if (added[stop] == null) {
+        result[stop] = existing;
+      } else {
+        int[] patterns = Arrays.copyOf(existing, existing.length + added[stop].size());
+        added[stop].toArray(patterns, 0, existing.length, added[stop].size());
+        result[stop] = patterns;
+      }
+    }
+    return new StopPatternIndex(result, indexed, numberOfCreatedPatterns);
+  }
+}
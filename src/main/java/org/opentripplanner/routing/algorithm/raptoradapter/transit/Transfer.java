@@ -1,5 +1,6 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -17,7 +18,7 @@ import org.opentripplanner.street.search.state.StateEditor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class Transfer {
+public class Transfer implements Serializable {
 
   private static final Logger LOG = LoggerFactory.getLogger(Transfer.class);
   private static final Throttle THROTTLE_COST_EXCEEDED = Throttle.ofOneSecond();
@@ -7,12 +7,14 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.opentripplanner.model.transfer.TransferService;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.ConstrainedTransfersForPatterns;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TripPatternForDatesCache;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.transit.service.StopModel;
@@ -30,6 +32,14 @@ import org.opentripplanner.transit.service.StopModel;
  */
 public class TransitLayer {
 
+  private static final AtomicLong VERSION_COUNTER = new AtomicLong();
+
+  /**
+   * A unique version number for each instance. The realtime updater replaces the TransitLayer with
+   * a modified copy, so the version changes every time the realtime data is updated.
+   */
+  private final long version = VERSION_COUNTER.incrementAndGet();
+
   /**
    * Transit data required for routing, indexed by each local date(Graph TimeZone) it runs through.
    * A Trip "runs through" a date if any of its arrivals or departures is happening on that date.
@@ -38,6 +48,12 @@ public class TransitLayer {
    */
   private final HashMap<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate;
 
+  /**
+   * All trip patterns visiting each stop, shared with the copies of this TransitLayer. The index is
+   * replaced when patterns are added in realtime, see {@link #replaceTripPatternsForDate}.
+   */
+  private StopPatternIndex stopPatternIndex;
+
   /**
    * Index of outer list is from stop index, inner list index has no specific meaning. To stop index
    * is a field of the Transfer object.
@@ -55,6 +71,8 @@ public class TransitLayer {
 
   private final RaptorRequestTransferCache transferCache;
 
+  private final TripPatternForDatesCache tripPatternForDatesCache;
+
   private ConstrainedTransfersForPatterns constrainedTransfers;
 
   private final TransferIndexGenerator transferIndexGenerator;
@@ -65,16 +83,19 @@ public class TransitLayer {
   /**
    * Makes a shallow copy of the TransitLayer, except for the tripPatternsForDate, where a shallow
    * copy of the HashMap is made. This is sufficient, as the TransitLayerUpdater will replace entire
-   * keys and their values in the map.
+   * keys and their values in the map. The caches and the stop pattern index are shared with the
+   * original.
    */
   public TransitLayer(TransitLayer transitLayer) {
     this(
       transitLayer.tripPatternsRunningOnDate,
+      transitLayer.stopPatternIndex,
       transitLayer.transfersByStopIndex,
       transitLayer.transferService,
       transitLayer.stopModel,
       transitLayer.transitDataZoneId,
       transitLayer.transferCache,
+      transitLayer.tripPatternForDatesCache,
       transitLayer.constrainedTransfers,
       transitLayer.transferIndexGenerator,
       transitLayer.stopBoardAlightTransferCosts
@@ -88,21 +109,60 @@ public class TransitLayer {
     StopModel stopModel,
     ZoneId transitDataZoneId,
     RaptorRequestTransferCache transferCache,
+    TripPatternForDatesCache tripPatternForDatesCache,
+    ConstrainedTransfersForPatterns constrainedTransfers,
+    TransferIndexGenerator transferIndexGenerator,
+    @Nullable int[] stopBoardAlightTransferCosts
+  ) {
+    this(
+      tripPatternsRunningOnDate,
+      StopPatternIndex.create(tripPatternsRunningOnDate.values()),
+      transfersByStopIndex,
+      transferService,
+      stopModel,
+      transitDataZoneId,
+      transferCache,
+      tripPatternForDatesCache,
+      constrainedTransfers,
+      transferIndexGenerator,
+      stopBoardAlightTransferCosts
+    );
+  }
+
+  private TransitLayer(
+    Map<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate,
+    StopPatternIndex stopPatternIndex,
+    List<List<Transfer>> transfersByStopIndex,
+    TransferService transferService,
+    StopModel stopModel,
+    ZoneId transitDataZoneId,
+    RaptorRequestTransferCache transferCache,
+    TripPatternForDatesCache tripPatternForDatesCache,
     ConstrainedTransfersForPatterns constrainedTransfers,
     TransferIndexGenerator transferIndexGenerator,
     @Nullable int[] stopBoardAlightTransferCosts
   ) {
     this.tripPatternsRunningOnDate = new HashMap<>(tripPatternsRunningOnDate);
+    this.stopPatternIndex = stopPatternIndex;
     this.transfersByStopIndex = transfersByStopIndex;
     this.transferService = transferService;
     this.stopModel = stopModel;
     this.transitDataZoneId = transitDataZoneId;
     this.transferCache = transferCache;
+    this.tripPatternForDatesCache = tripPatternForDatesCache;
     this.constrainedTransfers = constrainedTransfers;
     this.transferIndexGenerator = transferIndexGenerator;
     this.stopBoardAlightTransferCosts = stopBoardAlightTransferCosts;
   }
 
+  /**
+   * See {@link #version}. This is used to version data derived from the TransitLayer and cached
+   * across requests.
+   */
+  public long getVersion() {
+    return version;
+  }
+
   @Nullable
   public StopLocation getStopByIndex(int stop) {
     return stop == -1 ? null : this.stopModel.stopByIndex(stop);
@@ -157,10 +217,29 @@ public class TransitLayer {
       .collect(Collectors.toList());
   }
 
+  /**
+   * All trip patterns visiting each stop, including patterns not running on any date in a
+   * request. Use it together with the patterns active in the request.
+   */
+  public StopPatternIndex getStopPatternIndex() {
+    return stopPatternIndex;
+  }
+
   public TransferService getTransferService() {
     return transferService;
   }
 
+  /**
+   * The scheduled trip patterns by running date, used to save the transit layer with the graph.
+   */
+  Map<LocalDate, List<TripPatternForDate>> getTripPatternsRunningOnDate() {
+    return tripPatternsRunningOnDate;
+  }
+
+  List<List<Transfer>> getTransfersByStopIndex() {
+    return transfersByStopIndex;
+  }
+
   public RaptorTransferIndex getRaptorTransfersForRequest(RouteRequest request) {
     return transferCache.get(transfersByStopIndex, request);
   }
@@ -173,6 +252,14 @@ public class TransitLayer {
     return transferCache;
   }
 
+  /**
+   * The cache of merged trip patterns is shared by all copies of the TransitLayer, see
+   * {@link TripPatternForDatesCache} for the details on how the entries are versioned.
+   */
+  public TripPatternForDatesCache getTripPatternForDatesCache() {
+    return tripPatternForDatesCache;
+  }
+
   @Nullable
   public ConstrainedTransfersForPatterns getConstrainedTransfers() {
     return constrainedTransfers;
@@ -193,13 +280,19 @@ public class TransitLayer {
 
   /**
    * Replaces all the TripPatternForDates for a single date. This is an atomic operation according
-   * to the HashMap implementation.
+   * to the HashMap implementation. Patterns added in realtime are added to a new copy of the
+   * stop pattern index, the index of the original TransitLayer is not changed. When many patterns
+   * are added, the index is created again from the patterns running on the dates in this layer, to
+   * drop the patterns replaced by realtime updates.
    */
   public void replaceTripPatternsForDate(
     LocalDate date,
     List<TripPatternForDate> tripPatternForDates
   ) {
     this.tripPatternsRunningOnDate.replace(date, tripPatternForDates);
+    var index = stopPatternIndex.withPatterns(tripPatternForDates);
+    this.stopPatternIndex =
+      index.isRebuildNeeded() ? StopPatternIndex.create(tripPatternsRunningOnDate.values()) : index;
   }
 
   public void setConstrainedTransfers(ConstrainedTransfersForPatterns constrainedTransfers) {
@@ -47,6 +47,21 @@ public interface TransitTuningParameters {
       return 5;
     }
 
+    @Override
+    public int tripPatternCacheMaxSize() {
+      return 5;
+    }
+
+    @Override
+    public int nearbyStopsCacheMaxSize() {
+      return 0;
+    }
+
+    @Override
+    public Duration nearbyStopsCacheTimeToLive() {
+      return Duration.ofMinutes(10);
+    }
+
     @Override
     public Duration maxSearchWindow() {
       return Duration.ofHours(24);
@@ -83,6 +98,26 @@ public interface TransitTuningParameters {
    */
   int transferCacheMaxSize();
 
+  /**
+   * The maximum number of merged trip pattern lists to cache. The trip patterns for the search
+   * days are merged for each transit search, requests with the same search-day range and the same
+   * transit filter can share the merged result. If too small, the average request may be slower
+   * due to the required re-calculating. If too large, more memory may be used than needed.
+   */
+  int tripPatternCacheMaxSize();
+
+  /**
+   * The maximum total size of the cached access and egress street search results, counted as the
+   * number of stops and path edges. Requests from the same place, with the same street mode and
+   * street preferences, share the stops found. Zero disables the cache.
+   */
+  int nearbyStopsCacheMaxSize();
+
+  /**
+   * How long the access and egress street search results are cached.
+   */
+  Duration nearbyStopsCacheTimeToLive();
+
   /**
    * The maximum search window that can be set through the searchWindow API parameter. Due to the
    * way timetable data are collected before a Raptor trip search, using a search window larger than
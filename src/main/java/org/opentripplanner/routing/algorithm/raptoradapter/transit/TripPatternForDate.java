@@ -1,5 +1,6 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit;
 
+import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -19,7 +20,8 @@ import org.slf4j.LoggerFactory;
  * A TripPattern with its TripSchedules filtered by validity on a particular date. This is to avoid
  * having to do any filtering by date during the search itself.
  */
-public class TripPatternForDate implements Comparable<TripPatternForDate> {
+public class TripPatternForDate
+  implements Comparable<TripPatternForDate>, Serializable {
 
   private static final Logger LOG = LoggerFactory.getLogger(TripPatternForDate.class);
 
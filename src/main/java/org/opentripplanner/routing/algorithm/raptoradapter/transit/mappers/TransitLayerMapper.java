@@ -16,6 +16,7 @@ import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.model.Timetable;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.RaptorTransferIndex;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.Transfer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
@@ -24,6 +25,8 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtr
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.cost.RaptorCostConverter;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache.StreetRelevantOptions;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TripPatternForDatesCache;
 import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.site.StopTransferPriority;
 import org.opentripplanner.transit.model.timetable.TripTimes;
@@ -49,10 +52,12 @@ public class TransitLayerMapper {
 
   private static final Logger LOG = LoggerFactory.getLogger(TransitLayerMapper.class);
 
+  private final TransitModel transitModel;
   private final TransitService transitService;
   private final StopModel stopModel;
 
   private TransitLayerMapper(TransitModel transitModel) {
+    this.transitModel = transitModel;
     this.transitService = new DefaultTransitService(transitModel);
     this.stopModel = transitModel.getStopModel();
   }
@@ -83,9 +88,17 @@ public class TransitLayerMapper {
 
     Collection<TripPattern> allTripPatterns = transitService.getAllTripPatterns();
 
-    tripPatternsByStopByDate = mapTripPatterns(allTripPatterns);
-
-    transferByStopIndex = mapTransfers(stopModel, transitService);
+    var precomputed = transitModel.getPrecomputedTransitLayer();
+    Map<StreetRelevantOptions, RaptorTransferIndex> precomputedTransferIndexes = Map.of();
+    if (precomputed != null) {
+      LOG.info("Using the trip patterns and transfers saved with the graph.");
+      tripPatternsByStopByDate = new HashMap<>(precomputed.tripPatternsRunningOnDate());
+      transferByStopIndex = precomputed.transfersByStopIndex();
+      precomputedTransferIndexes = precomputed.transferIndexes();
+    } else {
+      tripPatternsByStopByDate = mapTripPatterns(allTripPatterns);
+      transferByStopIndex = mapTransfers(stopModel, transitService);
+    }
 
     TransferIndexGenerator transferIndexGenerator = null;
     if (OTPFeature.TransferConstraints.isOn()) {
@@ -94,7 +107,13 @@ public class TransitLayerMapper {
       constrainedTransfers = transferIndexGenerator.generateTransfers();
     }
 
-    var transferCache = new RaptorRequestTransferCache(tuningParameters.transferCacheMaxSize());
+    var transferCache = new RaptorRequestTransferCache(
+      tuningParameters.transferCacheMaxSize(),
+      precomputedTransferIndexes
+    );
+    var tripPatternForDatesCache = new TripPatternForDatesCache(
+      tuningParameters.tripPatternCacheMaxSize()
+    );
 
     LOG.info("Mapping complete.");
 
@@ -105,6 +124,7 @@ public class TransitLayerMapper {
       stopModel,
       transitService.getTimeZone(),
       transferCache,
+      tripPatternForDatesCache,
       constrainedTransfers,
       transferIndexGenerator,
       createStopBoardAlightTransferCosts(stopModel, tuningParameters)
@@ -224,6 +224,12 @@ public class TransitLayerUpdater {
     // guarantee that the reference is set after all the fields have been updated.
     transitService.setRealtimeTransitLayer(realtimeTransitLayer);
 
+    // The merged trip patterns for the updated dates will never be used again, release them
+    var tripPatternForDatesCache = realtimeTransitLayer.getTripPatternForDatesCache();
+    if (tripPatternForDatesCache != null) {
+      tripPatternForDatesCache.invalidate(datesToBeUpdated);
+    }
+
     LOG.debug(
       "UPDATING {} tripPatterns took {} ms",
       updatedTimetables.size(),
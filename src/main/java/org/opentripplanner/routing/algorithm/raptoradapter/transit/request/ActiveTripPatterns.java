@@ -0,0 +1,54 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * The merged trip patterns active in a transit search, indexed by pattern index. This is created
+ * together with the list of patterns and cached with it in the {@link TripPatternForDatesCache},
+ * so requests sharing the same patterns also share the index.
+ * <p>
+ * THIS CLASS IS IMMUTABLE AND THREAD-SAFE.
+ */
+public class ActiveTripPatterns {
+
+  private final List<TripPatternForDates> patterns;
+  private final TripPatternForDates[] patternsByIndex;
+  private final BitSet activePatterns = new BitSet();
+
+  public ActiveTripPatterns(List<TripPatternForDates> patterns) {
+    this.patterns = Collections.unmodifiableList(patterns);
+
+    int size = 0;
+    for (var it : patterns) {
+      size = Math.max(size, it.patternIndex() + 1);
+    }
+    this.patternsByIndex = new TripPatternForDates[size];
+    for (var it : patterns) {
+      patternsByIndex[it.patternIndex()] = it;
+      activePatterns.set(it.patternIndex());
+    }
+  }
+
+  public List<TripPatternForDates> patterns() {
+    return patterns;
+  }
+
+  public boolean isActive(int patternIndex) {
+    return activePatterns.get(patternIndex);
+  }
+
+  /**
+   * Return the pattern for the given pattern index, or {@code null} if the pattern is not active.
+   */
+  @Nullable
+  public TripPatternForDates get(int patternIndex) {
+    return patternIndex < patternsByIndex.length ? patternsByIndex[patternIndex] : null;
+  }
+
+  public int size() {
+    return patterns.size();
+  }
+}
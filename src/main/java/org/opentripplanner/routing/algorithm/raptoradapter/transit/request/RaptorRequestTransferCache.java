@@ -3,8 +3,12 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import java.io.Serializable;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import javax.annotation.Nonnull;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
@@ -27,8 +31,29 @@ public class RaptorRequestTransferCache {
 
   private final LoadingCache<CacheKey, RaptorTransferIndex> transferCache;
 
+  /**
+   * Transfer indexes saved with the graph, by the street parameters of the request used to create
+   * them, see {@link #transferIndexesByRequest()}. An index is removed when it is added to the
+   * cache.
+   */
+  private final Map<StreetRelevantOptions, RaptorTransferIndex> precomputedTransferIndexes;
+
   public RaptorRequestTransferCache(int maximumSize) {
-    transferCache = CacheBuilder.newBuilder().maximumSize(maximumSize).build(cacheLoader());
+    this(maximumSize, Map.of());
+  }
+
+  /**
+   * @param precomputedTransferIndexes indexes created by
+   *                                   {@link #transferIndexesByRequest()} when the graph was built.
+   *                                   They must be created from the same transfers as used with
+   *                                   this cache.
+   */
+  public RaptorRequestTransferCache(
+    int maximumSize,
+    Map<StreetRelevantOptions, RaptorTransferIndex> precomputedTransferIndexes
+  ) {
+    this.transferCache = CacheBuilder.newBuilder().maximumSize(maximumSize).build(cacheLoader());
+    this.precomputedTransferIndexes = new ConcurrentHashMap<>(precomputedTransferIndexes);
   }
 
   public LoadingCache<CacheKey, RaptorTransferIndex> getTransferCache() {
@@ -37,12 +62,13 @@ public class RaptorRequestTransferCache {
 
   public void put(List<List<Transfer>> transfersByStopIndex, RouteRequest request) {
     final CacheKey cacheKey = new CacheKey(transfersByStopIndex, request);
-    final RaptorTransferIndex raptorTransferIndex = RaptorTransferIndex.create(
-      transfersByStopIndex,
-      cacheKey.request
-    );
-
-    LOG.info("Initializing cache with request: {}", cacheKey.options);
+    var raptorTransferIndex = precomputedTransferIndexes.remove(cacheKey.options);
+    if (raptorTransferIndex != null) {
+      LOG.info("Initializing cache with precomputed request: {}", cacheKey.options);
+    } else {
+      raptorTransferIndex = RaptorTransferIndex.create(transfersByStopIndex, cacheKey.request);
+      LOG.info("Initializing cache with request: {}", cacheKey.options);
+    }
     transferCache.put(cacheKey, raptorTransferIndex);
   }
 
@@ -54,11 +80,35 @@ public class RaptorRequestTransferCache {
     }
   }
 
+  /**
+   * The transfer indexes in the cache, by the street parameters of the request used to create
+   * them. The parameters are saved with the graph, and an index is only used again for a request
+   * with equal parameters.
+   */
+  public Map<StreetRelevantOptions, RaptorTransferIndex> transferIndexesByRequest() {
+    var result = new HashMap<StreetRelevantOptions, RaptorTransferIndex>();
+    transferCache.asMap().forEach((key, index) -> result.put(key.options, index));
+    return result;
+  }
+
+  /**
+   * Return the parameters of the request used to create the transfers. Requests with equal keys
+   * get the same transfers.
+   */
+  static StreetRelevantOptions transferRequestKey(RouteRequest request) {
+    var transferRequest = StreetSearchRequestMapper.mapToTransferRequest(request).build();
+    return new StreetRelevantOptions(transferRequest);
+  }
+
   private CacheLoader<CacheKey, RaptorTransferIndex> cacheLoader() {
     return new CacheLoader<>() {
       @Override
       @Nonnull
       public RaptorTransferIndex load(@Nonnull CacheKey cacheKey) {
+        var precomputed = precomputedTransferIndexes.remove(cacheKey.options);
+        if (precomputed != null) {
+          return precomputed;
+        }
         LOG.info("Adding runtime request to cache: {}", cacheKey.options);
         return RaptorTransferIndex.create(cacheKey.transfersByStopIndex, cacheKey.request);
       }
@@ -104,8 +154,10 @@ public class RaptorRequestTransferCache {
   /**
    * This contains an extract of the parameters which may influence transfers.
    * <p>
+   * The options are saved with the graph to find the precomputed transfer indexes, so changing the
+   * fields of this class requires a new graph serialization version id.
    */
-  private static class StreetRelevantOptions {
+  public static final class StreetRelevantOptions implements Serializable {
 
     private final StreetMode transferMode;
     private final boolean wheelchair;
@@ -114,7 +166,7 @@ public class RaptorRequestTransferCache {
     private final StreetPreferences street;
     private final WheelchairPreferences wheelchairPreferences;
 
-    public StreetRelevantOptions(StreetSearchRequest request) {
+    private StreetRelevantOptions(StreetSearchRequest request) {
       this.transferMode = request.mode();
       this.wheelchair = request.wheelchair();
 
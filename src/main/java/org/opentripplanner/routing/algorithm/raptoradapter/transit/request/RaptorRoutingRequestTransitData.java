@@ -1,9 +1,10 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.BitSet;
 import java.util.Iterator;
-import java.util.List;
+import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OTPFeature;
@@ -22,6 +23,7 @@ import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
 import org.opentripplanner.raptor.util.BitSetIterator;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.RaptorTransferIndex;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.SlackProvider;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.StopPatternIndex;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.ConstrainedBoardingSearch;
@@ -29,6 +31,8 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtr
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.cost.CostCalculatorFactory;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.GeneralizedCostParametersMapper;
 import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.framework.DurationForEnum;
+import org.opentripplanner.transit.model.basic.TransitMode;
 import org.opentripplanner.transit.model.network.RoutingTripPattern;
 import org.opentripplanner.transit.model.network.grouppriority.TransitGroupPriorityService;
 
@@ -44,14 +48,14 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
   private final TransferService transferService;
 
   /**
-   * Active route indices by stop index
+   * All trip patterns by stop index, including patterns not active in this request
    */
-  private final List<int[]> activeTripPatternsPerStop;
+  private final StopPatternIndex stopPatternIndex;
 
   /**
-   * Trip patterns by route index
+   * Active trip patterns by route index
    */
-  private final List<TripPatternForDates> patternIndex;
+  private final ActiveTripPatterns activeTripPatterns;
 
   /**
    * Transfers by stop index
@@ -70,6 +74,11 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
 
   private final int validTransitDataEndTime;
 
+  /**
+   * The key is only used if the heuristics cache is enabled, it is created when it is used.
+   */
+  private final Supplier<HeuristicsCacheKey> heuristicsCacheKey;
+
   public RaptorRoutingRequestTransitData(
     TransitLayer transitLayer,
     TransitGroupPriorityService transitGroupPriorityService,
@@ -90,18 +99,18 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
       transitLayer,
       transitSearchTimeZero
     );
-    List<TripPatternForDates> tripPatterns = transitDataCreator.createTripPatterns(
-      additionalPastSearchDays,
-      additionalFutureSearchDays,
-      filter,
-      transitGroupPriorityService
-    );
-    this.patternIndex = transitDataCreator.createPatternIndex(tripPatterns);
-    this.activeTripPatternsPerStop = transitDataCreator.createTripPatternsPerStop(tripPatterns);
+    this.activeTripPatterns =
+      transitDataCreator.createTripPatterns(
+        additionalPastSearchDays,
+        additionalFutureSearchDays,
+        filter,
+        transitGroupPriorityService
+      );
+    this.stopPatternIndex = transitLayer.getStopPatternIndex();
     this.transferIndex = transitLayer.getRaptorTransfersForRequest(request);
     this.constrainedTransfers = transitLayer.getConstrainedTransfers();
 
-    var mcCostParams = GeneralizedCostParametersMapper.map(request, patternIndex);
+    var mcCostParams = GeneralizedCostParametersMapper.map(request, activeTripPatterns.patterns());
 
     this.generalizedCostCalculator =
       CostCalculatorFactory.createCostCalculator(
@@ -127,6 +136,20 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
         this.transitSearchTimeZero,
         this.transitSearchTimeZero.plusDays(additionalFutureSearchDays + 1).toInstant()
       );
+
+    this.heuristicsCacheKey =
+      () ->
+        new HeuristicsCacheKey(
+          transitLayer.getVersion(),
+          transitSearchTimeZero,
+          additionalPastSearchDays,
+          additionalFutureSearchDays,
+          filter,
+          RaptorRequestTransferCache.transferRequestKey(request),
+          request.preferences().transfer().slack(),
+          request.preferences().transit().boardSlack(),
+          request.preferences().transit().alightSlack()
+        );
   }
 
   @Override
@@ -144,9 +167,11 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
     BitSet activeTripPatternsForGivenStops = new BitSet(RoutingTripPattern.indexCounter());
 
     while (stops.hasNext()) {
-      int[] patterns = activeTripPatternsPerStop.get(stops.next());
+      int[] patterns = stopPatternIndex.patternsForStop(stops.next());
       for (int i : patterns) {
-        activeTripPatternsForGivenStops.set(i);
+        if (activeTripPatterns.isActive(i)) {
+          activeTripPatternsForGivenStops.set(i);
+        }
       }
     }
 
@@ -155,7 +180,7 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
 
   @Override
   public RaptorRoute<TripSchedule> getRouteForIndex(int routeIndex) {
-    return patternIndex.get(routeIndex);
+    return activeTripPatterns.get(routeIndex);
   }
 
   @Override
@@ -244,4 +269,26 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
     }
     return new ConstrainedBoardingSearch(false, toStopTransfers, fromStopTransfers);
   }
+
+  @Override
+  public Object heuristicsCacheKey() {
+    return heuristicsCacheKey.get();
+  }
+
+  /**
+   * Two instances with the same key contain the same patterns, trips, transfers and slack. The
+   * version of the {@link TransitLayer} is used instead of the instance, to avoid keeping old
+   * versions in memory.
+   */
+  private record HeuristicsCacheKey(
+    long transitLayerVersion,
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter,
+    Object transferRequest,
+    Duration transferSlack,
+    DurationForEnum<TransitMode> boardSlack,
+    DurationForEnum<TransitMode> alightSlack
+  ) {}
 }
@@ -2,7 +2,6 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
 import static org.opentripplanner.framework.time.ServiceDateUtils.secondsSinceStartOfTime;
 
-import gnu.trove.list.array.TIntArrayList;
 import gnu.trove.map.TObjectIntMap;
 import gnu.trove.map.hash.TObjectIntHashMap;
 import java.time.LocalDate;
@@ -49,41 +48,6 @@ class RaptorRoutingRequestTransitDataCreator {
     this.transitSearchTimeZero = transitSearchTimeZero;
   }
 
-  public List<int[]> createTripPatternsPerStop(List<TripPatternForDates> tripPatternsForDate) {
-    // Create temporary array of TIntArrayLists
-    int stopCount = transitLayer.getStopCount();
-    TIntArrayList[] patternsForStop = new TIntArrayList[stopCount];
-    for (int i = 0; i < stopCount; i++) {
-      patternsForStop[i] = new TIntArrayList();
-    }
-
-    // Loop through all patterns, and mark all stops containing that pattern
-    for (TripPatternForDates tripPatternForDateList : tripPatternsForDate) {
-      final RoutingTripPattern tripPattern = tripPatternForDateList.getTripPattern();
-      final int patternIndex = tripPattern.patternIndex();
-      final int numberOfStopsInPattern = tripPattern.numberOfStopsInPattern();
-      for (int i = 0; i < numberOfStopsInPattern; i++) {
-        patternsForStop[tripPattern.stopIndex(i)].add(patternIndex);
-      }
-    }
-
-    // Create the final list with raw int arrays, in order to get the best iteration performance
-    List<int[]> result = new ArrayList<>(stopCount);
-    for (var patterns : patternsForStop) {
-      result.add(patterns.toArray());
-    }
-
-    return result;
-  }
-
-  public List<TripPatternForDates> createPatternIndex(List<TripPatternForDates> tripPatterns) {
-    TripPatternForDates[] result = new TripPatternForDates[RoutingTripPattern.indexCounter()];
-    for (var pattern : tripPatterns) {
-      result[pattern.getTripPattern().patternIndex()] = pattern;
-    }
-    return Arrays.asList(result);
-  }
-
   /**
    * This method merges several list of TripPatterns for several consecutive dates into a single
    * list of TripPatternsForDates. The purpose of doing this is so that TripSchedules for several
@@ -156,7 +120,41 @@ class RaptorRoutingRequestTransitDataCreator {
     return combinedList;
   }
 
-  List<TripPatternForDates> createTripPatterns(
+  ActiveTripPatterns createTripPatterns(
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter,
+    TransitGroupPriorityService transitGroupPriorityService
+  ) {
+    var cache = transitLayer.getTripPatternForDatesCache();
+
+    // The transit group priority ids are assigned per request, so the merged patterns can only be
+    // shared between requests when the transit group priority is not used.
+    if (cache == null || transitGroupPriorityService.isEnabled()) {
+      return createTripPatternsNoCache(
+        additionalPastSearchDays,
+        additionalFutureSearchDays,
+        filter,
+        transitGroupPriorityService
+      );
+    }
+    return cache.get(
+      transitLayer,
+      transitSearchTimeZero,
+      additionalPastSearchDays,
+      additionalFutureSearchDays,
+      filter,
+      () ->
+        createTripPatternsNoCache(
+          additionalPastSearchDays,
+          additionalFutureSearchDays,
+          filter,
+          transitGroupPriorityService
+        )
+    );
+  }
+
+  private ActiveTripPatterns createTripPatternsNoCache(
     int additionalPastSearchDays,
     int additionalFutureSearchDays,
     TransitDataProviderFilter filter,
@@ -168,7 +166,9 @@ class RaptorRoutingRequestTransitDataCreator {
       filter
     );
 
-    return merge(transitSearchTimeZero, tripPatternForDates, filter, transitGroupPriorityService);
+    return new ActiveTripPatterns(
+      merge(transitSearchTimeZero, tripPatternForDates, filter, transitGroupPriorityService)
+    );
   }
 
   private static List<TripPatternForDate> filterActiveTripPatterns(
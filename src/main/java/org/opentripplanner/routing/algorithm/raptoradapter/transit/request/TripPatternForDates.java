@@ -1,7 +1,6 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
 import java.util.BitSet;
-import java.util.function.IntUnaryOperator;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.raptor.api.model.RaptorTripPattern;
 import org.opentripplanner.raptor.api.model.SearchDirection;
@@ -55,6 +54,8 @@ public class TripPatternForDates
 
   private final Accessibility[] wheelchairBoardings;
 
+  private final TripScheduleWithOffset[] tripSchedules;
+
   // bit arrays with boarding/alighting information for all stops on trip pattern,
   // potentially filtered by wheelchair accessibility
   private final BitSet boardingPossible;
@@ -89,6 +90,7 @@ public class TripPatternForDates
     this.isFrequencyBased = hasFrequencies;
 
     wheelchairBoardings = new Accessibility[numberOfTripSchedules];
+    tripSchedules = new TripScheduleWithOffset[numberOfTripSchedules];
 
     final int nStops = tripPattern.numberOfStopsInPattern();
     this.arrivalTimes = new int[nStops * numberOfTripSchedules];
@@ -199,31 +201,37 @@ public class TripPatternForDates
     return TripScheduleSearchFactory.create(direction, this);
   }
 
+  /**
+   * The trip schedules are created the first time they are requested, and then reused. This
+   * avoids creating a new instance for each boarding in Raptor. The schedules are immutable, so
+   * if two threads race to create the same schedule, both instances are valid.
+   */
   @Override
   public TripSchedule getTripSchedule(int index) {
-    return new TripScheduleWithOffset(this, index);
+    var schedule = tripSchedules[index];
+    if (schedule == null) {
+      schedule = new TripScheduleWithOffset(this, index);
+      tripSchedules[index] = schedule;
+    }
+    return schedule;
   }
 
   @Override
-  public IntUnaryOperator getArrivalTimes(int stopPositionInPattern) {
-    final int base = stopPositionInPattern * numberOfTripSchedules;
-    return (int index) -> arrivalTimes[base + index];
+  public int[] arrivalTimes() {
+    return arrivalTimes;
   }
 
   @Override
-  public IntUnaryOperator getDepartureTimes(int stopPositionInPattern) {
-    final int base = stopPositionInPattern * numberOfTripSchedules;
-    return (int index) -> departureTimes[base + index];
+  public int[] departureTimes() {
+    return departureTimes;
   }
 
-  public IntUnaryOperator getArrivalTimesForTrip(int index) {
-    return (int stopPositionInPattern) ->
-      arrivalTimes[stopPositionInPattern * numberOfTripSchedules + index];
+  int arrivalTime(int stopPositionInPattern, int index) {
+    return arrivalTimes[stopPositionInPattern * numberOfTripSchedules + index];
   }
 
-  public IntUnaryOperator getDepartureTimesForTrip(int index) {
-    return (int stopPositionInPattern) ->
-      departureTimes[stopPositionInPattern * numberOfTripSchedules + index];
+  int departureTime(int stopPositionInPattern, int index) {
+    return departureTimes[stopPositionInPattern * numberOfTripSchedules + index];
   }
 
   @Override
@@ -0,0 +1,188 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import org.opentripplanner.framework.time.ServiceDateUtils;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache the merged {@link TripPatternForDates} across requests. Merging the
+ * {@link TripPatternForDate}s for the search-day range is done for every transit search, and
+ * produces the same result for all requests with the same search-day range and the same filter.
+ * The merged patterns are cached as {@link ActiveTripPatterns}, so the index of active patterns is
+ * shared too.
+ * <p>
+ * The cache key consists of:
+ * <ol>
+ *   <li>The search-day range - the transit search time-zero and the number of additional days
+ *   searched in the past and in the future.</li>
+ *   <li>The filter used to select patterns and trips, see {@link TransitDataProviderFilter}. The
+ *   filter implementation must implement {@code equals()} and {@code hashCode()} for requests to
+ *   share an entry.</li>
+ *   <li>A version of the transit data for each day in the range. The list of
+ *   {@link TripPatternForDate}s for a given date in the {@link TransitLayer} is never modified,
+ *   it is replaced by the {@code TransitLayerUpdater}. So, the identity of the list is used as the
+ *   version of the date.</li>
+ * </ol>
+ * Since the version is part of the key, an entry created from an old {@link TransitLayer} is never
+ * returned for a newer one. The {@code TransitLayerUpdater} invalidates the entries for the dates
+ * it updates, to release the memory as soon as possible.
+ * <p>
+ * The cache is shared between the scheduled and the realtime {@link TransitLayer} - they contain
+ * the same list instances for all dates not updated in realtime.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public class TripPatternForDatesCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TripPatternForDatesCache.class);
+
+  private final Cache<CacheKey, ActiveTripPatterns> cache;
+
+  public TripPatternForDatesCache(int maximumSize) {
+    this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+  }
+
+  /**
+   * Get the merged trip patterns from the cache, or create them using the given {@code factory}
+   * if they do not exist.
+   */
+  public ActiveTripPatterns get(
+    TransitLayer transitLayer,
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter,
+    Supplier<ActiveTripPatterns> factory
+  ) {
+    var key = new CacheKey(
+      transitLayer,
+      transitSearchTimeZero,
+      additionalPastSearchDays,
+      additionalFutureSearchDays,
+      filter
+    );
+    try {
+      return cache.get(
+        key,
+        () -> {
+          LOG.debug("Adding trip patterns to cache: {}", key);
+          return factory.get();
+        }
+      );
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to get item from trip pattern cache", e);
+    }
+  }
+
+  /**
+   * Remove all entries which include one of the given dates in the search-day range. This is
+   * called when the trip patterns running on the dates are replaced.
+   */
+  public void invalidate(Collection<LocalDate> dates) {
+    if (dates.isEmpty()) {
+      return;
+    }
+    cache.asMap().keySet().removeIf(key -> key.includesAny(dates));
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  private static final class CacheKey {
+
+    private final ZonedDateTime transitSearchTimeZero;
+    private final LocalDate firstDate;
+    private final LocalDate lastDate;
+    private final TransitDataProviderFilter filter;
+
+    /**
+     * The list of patterns for each date in the search-day range, compared by identity.
+     */
+    private final Object[] versions;
+    private final int hashCode;
+
+    private CacheKey(
+      TransitLayer transitLayer,
+      ZonedDateTime transitSearchTimeZero,
+      int additionalPastSearchDays,
+      int additionalFutureSearchDays,
+      TransitDataProviderFilter filter
+    ) {
+      var departureDate = ServiceDateUtils.asServiceDay(transitSearchTimeZero);
+      this.transitSearchTimeZero = transitSearchTimeZero;
+      this.firstDate = departureDate.minusDays(additionalPastSearchDays);
+      this.lastDate = departureDate.plusDays(additionalFutureSearchDays);
+      this.filter = filter;
+      this.versions = new Object[additionalPastSearchDays + additionalFutureSearchDays + 1];
+
+      int hash = Objects.hash(transitSearchTimeZero, firstDate, lastDate, filter);
+      for (int i = 0; i < versions.length; ++i) {
+        versions[i] = transitLayer.getTripPatternsForRunningDate(firstDate.plusDays(i));
+        hash = 31 * hash + System.identityHashCode(versions[i]);
+      }
+      this.hashCode = hash;
+    }
+
+    boolean includesAny(Collection<LocalDate> dates) {
+      for (LocalDate date : dates) {
+        if (!date.isBefore(firstDate) && !date.isAfter(lastDate)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      CacheKey that = (CacheKey) o;
+      if (
+        hashCode != that.hashCode ||
+        !transitSearchTimeZero.equals(that.transitSearchTimeZero) ||
+        !firstDate.equals(that.firstDate) ||
+        !lastDate.equals(that.lastDate) ||
+        !filter.equals(that.filter)
+      ) {
+        return false;
+      }
+      for (int i = 0; i < versions.length; ++i) {
+        if (versions[i] != that.versions[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public String toString() {
+      return ToStringBuilder
+        .of(CacheKey.class)
+        .addDate("firstDate", firstDate)
+        .addDate("lastDate", lastDate)
+        .addObj("filter", filter)
+        .toString();
+    }
+  }
+}
@@ -1,6 +1,5 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
-import java.util.function.IntUnaryOperator;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
@@ -29,11 +28,14 @@ public final class TripScheduleAlightSearch<T extends RaptorTripSchedule>
 
   private final TripSearchTimetable<T> timetable;
   private final int nTrips;
+  private final int[] arrivalTimes;
   private final int binarySearchThreshold;
 
   private int latestAlightTime;
   private int stopPositionInPattern;
-  private IntUnaryOperator arrivalTimes;
+
+  /** The index of the first trip arrival time at the current stop position */
+  private int timesOffset;
 
   private T candidateTrip;
   private int candidateTripIndex = RaptorConstants.NOT_FOUND;
@@ -45,6 +47,7 @@ public final class TripScheduleAlightSearch<T extends RaptorTripSchedule>
   TripScheduleAlightSearch(TripSearchTimetable<T> timetable, int binarySearchThreshold) {
     this.timetable = timetable;
     this.nTrips = timetable.numberOfTripSchedules();
+    this.arrivalTimes = timetable.arrivalTimes();
     this.binarySearchThreshold = binarySearchThreshold;
   }
 
@@ -62,7 +65,7 @@ public final class TripScheduleAlightSearch<T extends RaptorTripSchedule>
 
   @Override
   public int time() {
-    return candidateTrip.arrival(stopPositionInPattern);
+    return arrivalTimes[timesOffset + candidateTripIndex];
   }
 
   @Override
@@ -104,7 +107,7 @@ public final class TripScheduleAlightSearch<T extends RaptorTripSchedule>
   ) {
     this.latestAlightTime = latestAlightTime;
     this.stopPositionInPattern = stopPositionInPattern;
-    this.arrivalTimes = timetable.getArrivalTimes(stopPositionInPattern);
+    this.timesOffset = stopPositionInPattern * nTrips;
     this.candidateTrip = null;
     this.candidateTripIndex = RaptorConstants.NOT_FOUND;
 
@@ -165,7 +168,7 @@ public final class TripScheduleAlightSearch<T extends RaptorTripSchedule>
   @Nullable
   private RaptorBoardOrAlightEvent<T> findBoardingSearchForwardInTime(int tripIndexLowerBound) {
     for (int i = tripIndexLowerBound; i < nTrips; ++i) {
-      if (arrivalTimes.applyAsInt(i) <= latestAlightTime) {
+      if (arrivalTimes[timesOffset + i] <= latestAlightTime) {
         candidateTripIndex = i;
       } else {
         // this trip arrives too late. We can break out of the loop since
@@ -190,7 +193,7 @@ public final class TripScheduleAlightSearch<T extends RaptorTripSchedule>
     final int tripIndexUpperBound
   ) {
     for (int i = tripIndexUpperBound - 1; i >= 0; --i) {
-      if (arrivalTimes.applyAsInt(i) <= latestAlightTime) {
+      if (arrivalTimes[timesOffset + i] <= latestAlightTime) {
         candidateTrip = timetable.getTripSchedule(i);
         candidateTripIndex = i;
         return this;
@@ -216,7 +219,7 @@ public final class TripScheduleAlightSearch<T extends RaptorTripSchedule>
     while (upper - lower > binarySearchThreshold) {
       int m = (lower + upper) / 2;
 
-      if (arrivalTimes.applyAsInt(m) <= latestAlightTime) {
+      if (arrivalTimes[timesOffset + m] <= latestAlightTime) {
         lower = m;
       } else {
         upper = m;
@@ -1,6 +1,5 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
-import java.util.function.IntUnaryOperator;
 import javax.annotation.Nonnull;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.raptor.api.model.RaptorConstants;
@@ -27,11 +26,14 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
 
   private final TripSearchTimetable<T> timetable;
   private final int nTrips;
+  private final int[] departureTimes;
   private final int binarySearchThreshold;
 
   private int earliestBoardTime;
   private int stopPositionInPattern;
-  private IntUnaryOperator departureTimes;
+
+  /** The index of the first trip departure time at the current stop position */
+  private int timesOffset;
 
   private T candidateTrip;
   private int candidateTripIndex = RaptorConstants.NOT_FOUND;
@@ -43,6 +45,7 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
   TripScheduleBoardSearch(TripSearchTimetable<T> timetable, int binarySearchThreshold) {
     this.timetable = timetable;
     this.nTrips = timetable.numberOfTripSchedules();
+    this.departureTimes = timetable.departureTimes();
     this.binarySearchThreshold = binarySearchThreshold;
   }
 
@@ -60,7 +63,7 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
 
   @Override
   public int time() {
-    return candidateTrip.departure(stopPositionInPattern);
+    return departureTimes[timesOffset + candidateTripIndex];
   }
 
   @Override
@@ -104,7 +107,7 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
   ) {
     this.earliestBoardTime = earliestTime;
     this.stopPositionInPattern = stopPositionInPattern;
-    this.departureTimes = timetable.getDepartureTimes(stopPositionInPattern);
+    this.timesOffset = stopPositionInPattern * nTrips;
     this.candidateTrip = null;
     this.candidateTripIndex = RaptorConstants.NOT_FOUND;
 
@@ -168,7 +171,7 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
     int tripIndexUpperBound
   ) {
     for (int i = tripIndexUpperBound - 1; i >= 0; --i) {
-      if (departureTimes.applyAsInt(i) >= earliestBoardTime) {
+      if (departureTimes[timesOffset + i] >= earliestBoardTime) {
         candidateTripIndex = i;
       } else {
         // this trip arrives too early. We can break out of the loop since
@@ -193,7 +196,7 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
     final int tripIndexLowerBound
   ) {
     for (int i = tripIndexLowerBound; i < nTrips; ++i) {
-      if (departureTimes.applyAsInt(i) >= earliestBoardTime) {
+      if (departureTimes[timesOffset + i] >= earliestBoardTime) {
         candidateTrip = timetable.getTripSchedule(i);
         candidateTripIndex = i;
         return this;
@@ -217,7 +220,7 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
     while (upper - lower > binarySearchThreshold) {
       int m = (lower + upper) / 2;
 
-      if (departureTimes.applyAsInt(m) >= earliestBoardTime) {
+      if (departureTimes[timesOffset + m] >= earliestBoardTime) {
         upper = m;
       } else {
         lower = m;
@@ -1,7 +1,6 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
 import java.time.LocalDate;
-import java.util.function.IntUnaryOperator;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.raptor.api.model.RaptorTripPattern;
 import org.opentripplanner.raptor.spi.IntIterator;
@@ -15,31 +14,43 @@ import org.opentripplanner.transit.model.timetable.TripTimes;
  * This represents a single trip within a TripPattern, but with a time offset in seconds. This is
  * used to represent a trip on a subsequent service day than the first one in the date range used.
  * <p>
- * Use flyweight pattern, reusing TripPatternForDates data
+ * Use flyweight pattern, reusing TripPatternForDates data. The instances are cached and shared
+ * between requests by the {@link TripPatternForDates}, so this class must be immutable.
  */
 public final class TripScheduleWithOffset implements TripSchedule {
 
   private final TripPatternForDates pattern;
   private final int sortIndex;
   private final int tripIndexForDates;
-  private final IntUnaryOperator arrivalTimes;
-  private final IntUnaryOperator departureTimes;
-
-  // Computed when needed later for RaptorPathToItineraryMapper
-  private TripTimes tripTimes = null;
-  private LocalDate serviceDate = null;
-  private int secondsOffset;
+  private final TripTimes tripTimes;
+  private final LocalDate serviceDate;
+  private final int secondsOffset;
 
   TripScheduleWithOffset(TripPatternForDates pattern, int tripIndexForDates) {
     this.tripIndexForDates = tripIndexForDates;
     this.pattern = pattern;
 
-    // get arrival/departures lambda
-    this.arrivalTimes = pattern.getArrivalTimesForTrip(tripIndexForDates);
-    this.departureTimes = pattern.getDepartureTimesForTrip(tripIndexForDates);
-
     // Trip times are sorted based on the arrival times at stop 0,
-    this.sortIndex = arrivalTimes.applyAsInt(0);
+    this.sortIndex = pattern.arrivalTime(0, tripIndexForDates);
+
+    // Find the trip times and the service date. These are only used after the search, but they
+    // are resolved here, since the instance is shared between threads
+    int index = tripIndexForDates;
+    IntIterator indexIterator = pattern.tripPatternForDatesIndexIterator(true);
+    while (indexIterator.hasNext()) {
+      int i = indexIterator.next();
+      TripPatternForDate tripPatternForDate = pattern.tripPatternForDate(i);
+      int numSchedules = tripPatternForDate.numberOfTripSchedules();
+
+      if (index < numSchedules) {
+        this.tripTimes = tripPatternForDate.getTripTimes(index);
+        this.serviceDate = tripPatternForDate.getServiceDate();
+        this.secondsOffset = pattern.tripPatternForDateOffsets(i);
+        return;
+      }
+      index -= numSchedules;
+    }
+    throw new IndexOutOfBoundsException("Index out of bound: " + index);
   }
 
   @Override
@@ -49,12 +60,12 @@ public final class TripScheduleWithOffset implements TripSchedule {
 
   @Override
   public int arrival(int stopPosInPattern) {
-    return this.arrivalTimes.applyAsInt(stopPosInPattern);
+    return pattern.arrivalTime(stopPosInPattern, tripIndexForDates);
   }
 
   @Override
   public int departure(int stopPosInPattern) {
-    return this.departureTimes.applyAsInt(stopPosInPattern);
+    return pattern.departureTime(stopPosInPattern, tripIndexForDates);
   }
 
   @Override
@@ -72,14 +83,8 @@ public final class TripScheduleWithOffset implements TripSchedule {
     return pattern.wheelchairBoardingForTrip(tripIndexForDates);
   }
 
-  /*
-   * Following methods are only called in RaptorPathToItineraryMapper, instantiation or debug/tests, these are not optimised for performance
-   */
   @Override
   public TripTimes getOriginalTripTimes() {
-    if (tripTimes == null) {
-      this.findTripTimes();
-    }
     return this.tripTimes;
   }
 
@@ -90,16 +95,10 @@ public final class TripScheduleWithOffset implements TripSchedule {
 
   @Override
   public LocalDate getServiceDate() {
-    if (tripTimes == null) {
-      this.findTripTimes();
-    }
     return serviceDate;
   }
 
   public int getSecondsOffset() {
-    if (tripTimes == null) {
-      this.findTripTimes();
-    }
     return secondsOffset;
   }
 
@@ -113,23 +112,4 @@ public final class TripScheduleWithOffset implements TripSchedule {
       .addServiceTime("depart", secondsOffset + getOriginalTripTimes().getDepartureTime(0))
       .toString();
   }
-
-  private void findTripTimes() {
-    int index = tripIndexForDates;
-    IntIterator indexIterator = pattern.tripPatternForDatesIndexIterator(true);
-    while (indexIterator.hasNext()) {
-      int i = indexIterator.next();
-      TripPatternForDate tripPatternForDate = pattern.tripPatternForDate(i);
-      int numSchedules = tripPatternForDate.numberOfTripSchedules();
-
-      if (index < numSchedules) {
-        this.tripTimes = tripPatternForDate.getTripTimes(index);
-        this.serviceDate = tripPatternForDate.getServiceDate();
-        this.secondsOffset = pattern.tripPatternForDateOffsets(i);
-        return;
-      }
-      index -= numSchedules;
-    }
-    throw new IndexOutOfBoundsException("Index out of bound: " + index);
-  }
 }
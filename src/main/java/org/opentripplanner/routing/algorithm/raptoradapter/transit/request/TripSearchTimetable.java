@@ -1,6 +1,5 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
-import java.util.function.IntUnaryOperator;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.spi.RaptorTimeTable;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
@@ -14,16 +13,18 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
  */
 public interface TripSearchTimetable<T extends RaptorTripSchedule> extends RaptorTimeTable<T> {
   /**
-   * Get the arrival times of all trips at a specific stop index, sorted by time. The returned
-   * function takes the trip index in the TimeTable as input and returns the arrival time as
-   * seconds from midnight on the search date.
+   * The arrival times of all trips at all stops in a {@code nStops * numberOfTripSchedules()}
+   * sized array. The times are stored first by stop position and then by trip index, so with stops
+   * 1 and 2, and trips A and B, the order is [1A, 1B, 2A, 2B]. The trips are sorted by time at each
+   * stop. The time is seconds from midnight on the search date.
+   * <p>
+   * The array is returned to allow the trip search to scan the times without any indirection, it
+   * must not be modified.
    */
-  IntUnaryOperator getArrivalTimes(int stopPositionInPattern);
+  int[] arrivalTimes();
 
   /**
-   * Get the departure times of all trips at a specific stop index, sorted by time. The returned
-   * function takes the trip index in the TimeTable as input and returns the departure time as
-   * seconds from midnight on the search date.
+   * The departure times of all trips at all stops, see {@link #arrivalTimes()} for the layout.
    */
-  IntUnaryOperator getDepartureTimes(int stopPositionInPattern);
+  int[] departureTimes();
 }
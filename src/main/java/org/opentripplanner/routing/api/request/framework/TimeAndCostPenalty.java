@@ -1,5 +1,6 @@
 package org.opentripplanner.routing.api.request.framework;
 
+import java.io.Serializable;
 import java.time.Duration;
 import java.util.Objects;
 import org.opentripplanner.framework.model.Cost;
@@ -9,7 +10,8 @@ import org.opentripplanner.framework.model.Units;
 /**
  * The time and cost penalty is used to calculate an extra penalty on time and cost.
  */
-public record TimeAndCostPenalty(TimePenalty timePenalty, double costFactor) {
+public record TimeAndCostPenalty(TimePenalty timePenalty, double costFactor)
+  implements Serializable {
   public static final TimeAndCostPenalty ZERO = new TimeAndCostPenalty(TimePenalty.ZERO, 0.0);
 
   public TimeAndCostPenalty {
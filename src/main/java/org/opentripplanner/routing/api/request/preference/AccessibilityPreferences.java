@@ -1,5 +1,6 @@
 package org.opentripplanner.routing.api.request.preference;
 
+import java.io.Serializable;
 import java.util.Objects;
 import java.util.function.Consumer;
 import org.opentripplanner.framework.model.Cost;
@@ -11,7 +12,7 @@ import org.opentripplanner.framework.tostring.ToStringBuilder;
  * <p>
  * THIS CLASS IS IMMUTABLE AND THREAD-SAFE.
  */
-public final class AccessibilityPreferences {
+public final class AccessibilityPreferences implements Serializable {
 
   /**
    * Set the unknown cost to a very high number, so in case it is used accidentally it
@@ -0,0 +1,123 @@
+package org.opentripplanner.routing.framework;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.framework.concurrent.OtpRequestThreadFactory;
+import org.opentripplanner.routing.api.request.RoutingTag;
+import org.opentripplanner.routing.error.RoutingValidationException;
+
+/**
+ * Run the phases of a routing request, like the direct street, direct flex, access, egress and
+ * transit searches, in parallel. The phases are run by a thread pool shared by all requests, the
+ * log information of the request is passed on to the phases.
+ * <p>
+ * The calling thread waits for all phases to complete. If a phase fails, or the calling thread is
+ * interrupted because the request timed out, the other phases are cancelled and their threads are
+ * interrupted. The phases check for the interrupt with
+ * {@link OTPRequestTimeoutException#checkForTimeout()}, like the request thread does. A phase
+ * running other phases in parallel passes the cancellation on to these.
+ * <p>
+ * The time each phase waits in the queue before a thread picks it up is recorded in the
+ * {@link #ROUTING_PHASE_QUEUE} timer, tagged with the name of the phase.
+ * <p>
+ * This class has a request scope, one instance should only be used by one thread.
+ */
+public class RoutingPhaseExecutor {
+
+  public static final String ROUTING_PHASE_QUEUE = "routing.phaseQueue";
+  public static final String PHASE_TAG = "phase";
+
+  /**
+   * The pool grows with the number of concurrent requests. The phases are short-lived and a phase
+   * may wait for other phases to complete, so a bounded pool could deadlock.
+   */
+  private static final ExecutorService THREAD_POOL = Executors.newCachedThreadPool(
+    OtpRequestThreadFactory.of("routing-%d")
+  );
+
+  private final ExecutorService threadPool;
+  private final MeterRegistry registry;
+  private final Clock clock;
+  private final List<Tag> tags;
+
+  RoutingPhaseExecutor(
+    ExecutorService threadPool,
+    MeterRegistry registry,
+    Collection<RoutingTag> routingRequestTags
+  ) {
+    this.threadPool = threadPool;
+    this.registry = registry;
+    this.clock = registry.config().clock();
+    this.tags = MicrometerUtils.mapTimingTags(routingRequestTags);
+  }
+
+  public RoutingPhaseExecutor(MeterRegistry registry, Collection<RoutingTag> routingRequestTags) {
+    this(THREAD_POOL, registry, routingRequestTags);
+  }
+
+  public static Phase phase(String name, Runnable task) {
+    return new Phase(name, task);
+  }
+
+  /**
+   * Run the phases in parallel and wait for all of them to complete.
+   *
+   * @throws OTPRequestTimeoutException if the calling thread is interrupted, or a phase times out
+   * @throws RoutingValidationException if a phase fails the validation of the request
+   */
+  public void runAll(Phase... phases) {
+    var completionService = new ExecutorCompletionService<Void>(threadPool);
+    var futures = new ArrayList<Future<Void>>(phases.length);
+    try {
+      for (Phase phase : phases) {
+        futures.add(completionService.submit(queued(phase), null));
+      }
+      for (int i = 0; i < phases.length; ++i) {
+        completionService.take().get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OTPRequestTimeoutException();
+    } catch (ExecutionException e) {
+      RoutingValidationException.unwrapAndRethrowExecutionException(e);
+    } finally {
+      // Stop the phases still running if one of the phases failed or the request timed out
+      for (Future<Void> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  private Runnable queued(Phase phase) {
+    var timer = Timer
+      .builder(ROUTING_PHASE_QUEUE)
+      .tags(tags)
+      .tag(PHASE_TAG, phase.name())
+      .register(registry);
+    long submitted = clock.monotonicTime();
+    var task = OtpRequestThreadFactory.decorate(phase.task());
+
+    return () -> {
+      timer.record(clock.monotonicTime() - submitted, TimeUnit.NANOSECONDS);
+      OTPRequestTimeoutException.checkForTimeout();
+      task.run();
+    };
+  }
+
+  /**
+   * A named part of the routing request.
+   */
+  public record Phase(String name, Runnable task) {}
+}
@@ -15,6 +15,7 @@ import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.locationtech.jts.geom.Geometry;
+import org.opentripplanner.astar.model.ShortestPathTreePool;
 import org.opentripplanner.ext.dataoverlay.configuration.DataOverlayParameterBindings;
 import org.opentripplanner.framework.geometry.CompactElevationProfile;
 import org.opentripplanner.framework.geometry.GeometryUtils;
@@ -29,6 +30,11 @@ import org.opentripplanner.street.model.edge.StreetEdge;
 import org.opentripplanner.street.model.vertex.TransitStopVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.model.vertex.VertexLabel;
+import org.opentripplanner.street.search.compact.CompactStreetGraph;
+import org.opentripplanner.street.search.ch.ContractionHierarchy;
+import org.opentripplanner.street.search.landmark.LandmarkTables;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.LandmarkRemainingWeightHeuristic;
 import org.opentripplanner.transit.model.framework.Deduplicator;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.service.StopModel;
@@ -80,6 +86,20 @@ public class Graph implements Serializable {
 
   private transient StreetIndex streetIndex;
 
+  private transient CompactStreetGraph compactStreetGraph;
+
+  /** The reused shortest path trees of the street searches, created when the graph is indexed. */
+  @Nullable
+  private transient ShortestPathTreePool<State, Edge, Vertex> shortestPathTreePool;
+
+  /** Lower bounds of the travel time to and from a set of landmarks, computed at graph build. */
+  @Nullable
+  private LandmarkTables landmarkTables;
+
+  /** The contraction hierarchy of the car network, computed at graph build. */
+  @Nullable
+  private ContractionHierarchy contractionHierarchy;
+
   /** The convex hull of all the graph vertices. Generated at the time the Graph is built. */
   private Geometry convexHull = null;
 
@@ -287,10 +307,91 @@ public class Graph implements Serializable {
    */
   public void index(StopModel stopModel) {
     LOG.info("Index street model...");
+    indexVertices();
+    shortestPathTreePool =
+      new ShortestPathTreePool<>(countVertices(), Runtime.getRuntime().availableProcessors());
     streetIndex = new StreetIndex(this, stopModel);
     LOG.info("Index street model complete.");
   }
 
+  /**
+   * Assign an index to each vertex in the graph, see {@link Vertex#getIndex()}. Vertices added
+   * later, like temporary vertices, are not indexed.
+   * <p>
+   * The index is serialized with the vertex, and vertices which already have an index keep it, so
+   * data indexed by the vertex index at graph build, like the {@link LandmarkTables}, is still
+   * valid after the graph is loaded. New vertices are numbered after the highest existing index.
+   * The indexes are dense, unless vertices are removed after they are indexed.
+   */
+  public void indexVertices() {
+    int nextIndex = 0;
+    for (Vertex v : getVertices()) {
+      nextIndex = Math.max(nextIndex, v.getIndex() + 1);
+    }
+    for (Vertex v : getVertices()) {
+      if (v.getIndex() == Vertex.NO_INDEX) {
+        v.setIndex(nextIndex++);
+      }
+    }
+  }
+
+  /**
+   * Create a compact copy of the street graph, used to speed up the direct street search. This
+   * must be called after all permanent vertices and edges are added to the graph. Nothing is done
+   * if the compact street graph is already loaded with the graph, see
+   * {@link #setCompactStreetGraph(CompactStreetGraph)}.
+   */
+  public void indexCompactStreetGraph() {
+    if (compactStreetGraph != null) {
+      LOG.info("Compact street graph loaded with the graph. {}", compactStreetGraph);
+      return;
+    }
+    LOG.info("Index compact street graph...");
+    compactStreetGraph = CompactStreetGraph.of(getVertices());
+    LOG.info("Index compact street graph complete. {}", compactStreetGraph);
+  }
+
+  /**
+   * The compact street graph, or {@code null} if {@link #indexCompactStreetGraph()} is not called.
+   */
+  @Nullable
+  public CompactStreetGraph getCompactStreetGraph() {
+    return compactStreetGraph;
+  }
+
+  /**
+   * Set the compact street graph mapped from the file saved with the graph.
+   */
+  public void setCompactStreetGraph(CompactStreetGraph compactStreetGraph) {
+    this.compactStreetGraph = compactStreetGraph;
+  }
+
+  /**
+   * The landmark tables used by the {@link LandmarkRemainingWeightHeuristic}, or {@code null} if
+   * they are not computed when the graph is built.
+   */
+  @Nullable
+  public LandmarkTables getLandmarkTables() {
+    return landmarkTables;
+  }
+
+  public void setLandmarkTables(@Nullable LandmarkTables landmarkTables) {
+    this.landmarkTables = landmarkTables;
+  }
+
+  /**
+   * The contraction hierarchy used to find direct car paths, or {@code null} if it is not
+   * computed when the graph is built.
+   */
+  @Nullable
+  public ContractionHierarchy getContractionHierarchy() {
+    return contractionHierarchy;
+  }
+
+  public void setContractionHierarchy(@Nullable ContractionHierarchy contractionHierarchy) {
+    this.contractionHierarchy = contractionHierarchy;
+  }
+
   @Nullable
   public OpeningHoursCalendarService getOpeningHoursCalendarService() {
     return this.openingHoursCalendarService;
@@ -313,6 +414,15 @@ public class Graph implements Serializable {
     return this.streetIndex;
   }
 
+  /**
+   * The pool of array backed shortest path trees used by the street searches, or {@code null} if
+   * the graph is not indexed. The trees are indexed by {@link Vertex#getIndex()}.
+   */
+  @Nullable
+  public ShortestPathTreePool<State, Edge, Vertex> getShortestPathTreePool() {
+    return shortestPathTreePool;
+  }
+
   /**
    * Get VertexLinker, safe to use while routing, but do not use during graph build.
    * @see #getLinkerSafe(StopModel)
@@ -0,0 +1,294 @@
+package org.opentripplanner.routing.graph;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import org.opentripplanner.framework.application.OtpAppException;
+import org.opentripplanner.framework.text.FileSizeToTextConverter;
+import org.opentripplanner.framework.time.DurationUtils;
+import org.opentripplanner.routing.graph.kryosupport.KryoBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A section of the graph file, see {@link SerializedGraphObject}. Each section is serialized with
+ * its own Kryo instance, so a section can be deserialized on its own, when it is first used. Kryo
+ * only keeps the identity of objects within a section, so a section must not reference objects in
+ * another section. This is why the street graph and the transit model share one section, which is
+ * read and written by a single thread.
+ * <p>
+ * The graph file contains a table of contents, followed by the bytes of the sections in the same
+ * order. These sections are compressed, and the CRC-32 checksum of the compressed bytes is verified
+ * before a section is deserialized. The large street and transit section is not kept in memory, it
+ * is streamed uncompressed after the other sections, in chunks with a checksum for each chunk, see
+ * {@link #writeStreamed(OutputStream, String, Object)}.
+ */
+class GraphFileSection {
+
+  private static final Logger LOG = LoggerFactory.getLogger(GraphFileSection.class);
+
+  /** The size of the chunks of a streamed section. */
+  private static final int CHUNK_SIZE = 1 << 20;
+
+  private final String name;
+  private final byte[] bytes;
+  private final long checksum;
+
+  private GraphFileSection(String name, byte[] bytes, long checksum) {
+    this.name = name;
+    this.bytes = bytes;
+    this.checksum = checksum;
+  }
+
+  static GraphFileSection serialize(String name, Object value) {
+    long start = System.currentTimeMillis();
+    var buffer = new ByteArrayOutputStream();
+    var deflater = new Deflater(Deflater.BEST_SPEED);
+    try (var output = new Output(new DeflaterOutputStream(buffer, deflater))) {
+      KryoBuilder.create().writeClassAndObject(output, value);
+    } finally {
+      deflater.end();
+    }
+    var bytes = buffer.toByteArray();
+    var section = new GraphFileSection(name, bytes, checksum(bytes));
+    section.logTime("written", start);
+    return section;
+  }
+
+  String name() {
+    return name;
+  }
+
+  Object deserialize() {
+    long start = System.currentTimeMillis();
+    if (checksum(bytes) != checksum) {
+      throw new OtpAppException("The graph file section '%s' is corrupt.", name);
+    }
+    try (var input = new Input(new InflaterInputStream(new ByteArrayInputStream(bytes)))) {
+      var value = KryoBuilder.create().readClassAndObject(input);
+      logTime("read", start);
+      return value;
+    }
+  }
+
+  /**
+   * Write the table of contents and the bytes of the sections.
+   */
+  static void writeAll(DataOutputStream output, List<GraphFileSection> sections)
+    throws IOException {
+    output.writeInt(sections.size());
+    for (GraphFileSection it : sections) {
+      output.writeUTF(it.name);
+      output.writeInt(it.bytes.length);
+      output.writeLong(it.checksum);
+    }
+    for (GraphFileSection it : sections) {
+      output.write(it.bytes);
+    }
+  }
+
+  /**
+   * Read the sections written with {@link #writeAll(DataOutputStream, List)}, the sections are not
+   * deserialized.
+   */
+  static List<GraphFileSection> readAll(DataInputStream input) throws IOException {
+    int size = input.readInt();
+    var names = new String[size];
+    var lengths = new int[size];
+    var checksums = new long[size];
+    for (int i = 0; i < size; ++i) {
+      names[i] = input.readUTF();
+      lengths[i] = input.readInt();
+      checksums[i] = input.readLong();
+    }
+    var sections = new ArrayList<GraphFileSection>(size);
+    for (int i = 0; i < size; ++i) {
+      var bytes = new byte[lengths[i]];
+      input.readFully(bytes);
+      sections.add(new GraphFileSection(names[i], bytes, checksums[i]));
+    }
+    return sections;
+  }
+
+  /**
+   * Serialize a section directly to the output, without keeping it in memory. The section is not
+   * compressed, and must be the last section of the file.
+   */
+  static void writeStreamed(OutputStream output, String name, Object value) throws IOException {
+    long start = System.currentTimeMillis();
+    var chunks = new ChunkedOutputStream(output);
+    // Closing the Kryo output would close the file
+    var kryoOutput = new Output(chunks);
+    KryoBuilder.create().writeClassAndObject(kryoOutput, value);
+    kryoOutput.flush();
+    chunks.finish();
+    logTime(name, "written", chunks.size, start);
+  }
+
+  /**
+   * Read a section written with {@link #writeStreamed(OutputStream, String, Object)}.
+   */
+  static Object readStreamed(InputStream input, String name) {
+    long start = System.currentTimeMillis();
+    var chunks = new ChunkedInputStream(input, name);
+    var value = KryoBuilder.create().readClassAndObject(new Input(chunks));
+    logTime(name, "read", chunks.size, start);
+    return value;
+  }
+
+  private void logTime(String action, long start) {
+    logTime(name, action, bytes.length, start);
+  }
+
+  private static void logTime(String name, String action, long size, long start) {
+    LOG.info(
+      "Graph section '{}' {}: {} in {}",
+      name,
+      action,
+      FileSizeToTextConverter.fileSizeToString(size),
+      DurationUtils.msToSecondsStr(System.currentTimeMillis() - start)
+    );
+  }
+
+  private static long checksum(byte[] bytes) {
+    return checksum(bytes, bytes.length);
+  }
+
+  private static long checksum(byte[] bytes, int length) {
+    var crc = new CRC32();
+    crc.update(bytes, 0, length);
+    return crc.getValue();
+  }
+
+  /**
+   * Write the bytes in chunks: the length of the chunk, the bytes and the checksum. The stream is
+   * terminated by an empty chunk.
+   */
+  private static class ChunkedOutputStream extends OutputStream {
+
+    private final DataOutputStream output;
+    private final byte[] chunk = new byte[CHUNK_SIZE];
+    private int length = 0;
+    private long size = 0;
+
+    private ChunkedOutputStream(OutputStream output) {
+      this.output = new DataOutputStream(output);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      if (length == chunk.length) {
+        writeChunk();
+      }
+      chunk[length++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      while (len > 0) {
+        if (length == chunk.length) {
+          writeChunk();
+        }
+        int n = Math.min(len, chunk.length - length);
+        System.arraycopy(b, off, chunk, length, n);
+        length += n;
+        off += n;
+        len -= n;
+      }
+    }
+
+    void finish() throws IOException {
+      if (length > 0) {
+        writeChunk();
+      }
+      output.writeInt(0);
+      output.flush();
+    }
+
+    private void writeChunk() throws IOException {
+      output.writeInt(length);
+      output.write(chunk, 0, length);
+      output.writeLong(checksum(chunk, length));
+      size += length;
+      length = 0;
+    }
+  }
+
+  /**
+   * Read the chunks written by the {@link ChunkedOutputStream}, and verify the checksum of each
+   * chunk.
+   */
+  private static class ChunkedInputStream extends InputStream {
+
+    private final DataInputStream input;
+    private final String name;
+    private final byte[] chunk = new byte[CHUNK_SIZE];
+    private int length = 0;
+    private int position = 0;
+    private boolean end = false;
+    private long size = 0;
+
+    private ChunkedInputStream(InputStream input, String name) {
+      this.input = new DataInputStream(input);
+      this.name = name;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (!hasRemaining()) {
+        return -1;
+      }
+      return chunk[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      if (!hasRemaining()) {
+        return -1;
+      }
+      int n = Math.min(len, length - position);
+      System.arraycopy(chunk, position, b, off, n);
+      position += n;
+      return n;
+    }
+
+    private boolean hasRemaining() throws IOException {
+      if (position < length) {
+        return true;
+      }
+      if (end) {
+        return false;
+      }
+      length = input.readInt();
+      position = 0;
+      if (length == 0) {
+        end = true;
+        return false;
+      }
+      if (length < 0 || length > CHUNK_SIZE) {
+        throw new OtpAppException("The graph file section '%s' is corrupt.", name);
+      }
+      input.readFully(chunk, 0, length);
+      if (input.readLong() != checksum(chunk, length)) {
+        throw new OtpAppException("The graph file section '%s' is corrupt.", name);
+      }
+      size += length;
+      return true;
+    }
+  }
+}
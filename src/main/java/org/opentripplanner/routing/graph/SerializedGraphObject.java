@@ -2,10 +2,11 @@ package org.opentripplanner.routing.graph;
 
 import static org.opentripplanner.model.projectinfo.OtpProjectInfo.projectInfo;
 
-import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.KryoException;
-import com.esotericsoftware.kryo.io.Input;
-import com.esotericsoftware.kryo.io.Output;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -13,12 +14,23 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import javax.annotation.Nullable;
 import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.ext.emissions.EmissionsDataModel;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationRepository;
+import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.application.OtpAppException;
 import org.opentripplanner.framework.geometry.CompactElevationProfile;
 import org.opentripplanner.framework.lang.OtpNumberFormat;
@@ -26,13 +38,15 @@ import org.opentripplanner.framework.logging.ProgressTracker;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.model.projectinfo.GraphFileHeader;
 import org.opentripplanner.model.projectinfo.OtpProjectInfo;
-import org.opentripplanner.routing.graph.kryosupport.KryoBuilder;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.PrecomputedTransitLayer;
 import org.opentripplanner.service.worldenvelope.WorldEnvelopeRepository;
 import org.opentripplanner.standalone.config.BuildConfig;
 import org.opentripplanner.standalone.config.RouterConfig;
 import org.opentripplanner.street.model.StreetLimitationParameters;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.compact.CompactStreetGraph;
+import org.opentripplanner.street.search.compact.CompactStreetGraphFile;
 import org.opentripplanner.transit.model.basic.SubMode;
 import org.opentripplanner.transit.model.network.RoutingTripPattern;
 import org.opentripplanner.transit.service.TransitModel;
@@ -42,6 +56,14 @@ import org.slf4j.LoggerFactory;
 /**
  * This is the class that get serialized/deserialized into/from the file <em>graph.obj</em>.
  * <p>
+ * The file is split into sections, see {@link GraphFileSection}. The street graph and the transit
+ * model reference each other, and are serialized together in one section with a single Kryo
+ * stream. This section is by far the largest, so reading and writing the graph is still limited
+ * by a single thread. The split is a change of the file format, it does not make loading the
+ * graph faster. The other parts are small and independent, each is serialized in its own section.
+ * The configuration, the issue summary, the emissions and the stop consolidation are not used for
+ * routing, these sections are kept serialized and deserialized on first access.
+ * <p>
  * The Graph object does not contain a collection of edges. The set of edges is generated on demand
  * from the vertices. However, when serializing, we intentionally do not serialize the vertices'
  * edge lists to prevent excessive recursion. So we need to save the edges along with the graph. We
@@ -54,19 +76,31 @@ public class SerializedGraphObject implements Serializable {
 
   private static final Logger LOG = LoggerFactory.getLogger(SerializedGraphObject.class);
 
+  private static final String STREET_AND_TRANSIT = "streetAndTransit";
+  private static final String WORLD_ENVELOPE = "worldEnvelope";
+  private static final String BUILD_CONFIG = "buildConfig";
+  private static final String ROUTER_CONFIG = "routerConfig";
+  private static final String ISSUE_SUMMARY = "issueSummary";
+  private static final String EMISSIONS = "emissions";
+  private static final String STOP_CONSOLIDATION = "stopConsolidation";
+  private static final String STREET_LIMITATION = "streetLimitation";
+
   public final Graph graph;
   public final TransitModel transitModel;
   public final WorldEnvelopeRepository worldEnvelopeRepository;
-  private final Collection<Edge> edges;
+
+  /** The edges of a loaded graph are released when the edge lists are reconstructed. */
+  @Nullable
+  private Collection<Edge> edges;
 
   /**
    * The config JSON used to build this graph. Allows checking whether the configuration has
    * changed.
    */
-  public final BuildConfig buildConfig;
+  private final LazySection<BuildConfig> buildConfig;
 
   /** Embed a router configuration inside the graph, for starting up with a single file. */
-  public final RouterConfig routerConfig;
+  private final LazySection<RouterConfig> routerConfig;
 
   /**
    * All submodes are cached in a static collection inside SubMode,
@@ -74,10 +108,10 @@ public class SerializedGraphObject implements Serializable {
    */
   private final List<SubMode> allTransitSubModes;
 
-  public final DataImportIssueSummary issueSummary;
-  public final StopConsolidationRepository stopConsolidationRepository;
+  private final LazySection<DataImportIssueSummary> issueSummary;
+  private final LazySection<StopConsolidationRepository> stopConsolidationRepository;
   private final int routingTripPatternCounter;
-  public final EmissionsDataModel emissionsDataModel;
+  private final LazySection<EmissionsDataModel> emissionsDataModel;
   public final StreetLimitationParameters streetLimitationParameters;
 
   public SerializedGraphObject(
@@ -92,19 +126,39 @@ public class SerializedGraphObject implements Serializable {
     StreetLimitationParameters streetLimitationParameters
   ) {
     this.graph = graph;
-    this.edges = graph.getEdges();
+    this.edges = outgoingEdges(graph);
     this.transitModel = transitModel;
     this.worldEnvelopeRepository = worldEnvelopeRepository;
-    this.buildConfig = buildConfig;
-    this.routerConfig = routerConfig;
-    this.issueSummary = issueSummary;
-    this.emissionsDataModel = emissionsDataModel;
+    this.buildConfig = LazySection.loaded(buildConfig);
+    this.routerConfig = LazySection.loaded(routerConfig);
+    this.issueSummary = LazySection.loaded(issueSummary);
+    this.emissionsDataModel = LazySection.loaded(emissionsDataModel);
     this.allTransitSubModes = SubMode.listAllCachedSubModes();
     this.routingTripPatternCounter = RoutingTripPattern.indexCounter();
-    this.stopConsolidationRepository = stopConsolidationRepository;
+    this.stopConsolidationRepository = LazySection.loaded(stopConsolidationRepository);
     this.streetLimitationParameters = streetLimitationParameters;
   }
 
+  private SerializedGraphObject(
+    StreetAndTransitSection streetAndTransit,
+    WorldEnvelopeRepository worldEnvelopeRepository,
+    StreetLimitationParameters streetLimitationParameters,
+    Map<String, GraphFileSection> sections
+  ) {
+    this.graph = streetAndTransit.graph;
+    this.edges = streetAndTransit.edges;
+    this.transitModel = streetAndTransit.transitModel;
+    this.allTransitSubModes = streetAndTransit.allTransitSubModes;
+    this.routingTripPatternCounter = streetAndTransit.routingTripPatternCounter;
+    this.worldEnvelopeRepository = worldEnvelopeRepository;
+    this.streetLimitationParameters = streetLimitationParameters;
+    this.buildConfig = LazySection.of(section(sections, BUILD_CONFIG));
+    this.routerConfig = LazySection.of(section(sections, ROUTER_CONFIG));
+    this.issueSummary = LazySection.of(section(sections, ISSUE_SUMMARY));
+    this.emissionsDataModel = optionalSection(sections, EMISSIONS);
+    this.stopConsolidationRepository = optionalSection(sections, STOP_CONSOLIDATION);
+  }
+
   public static void verifyTheOutputGraphIsWritableIfDataSourceExist(DataSource graphOutput) {
     if (graphOutput != null) {
       // Abort building a graph if the file can not be saved
@@ -122,33 +176,181 @@ public class SerializedGraphObject implements Serializable {
   }
 
   public static SerializedGraphObject load(DataSource source) {
-    return load(source.asInputStream(), source.path());
+    var serObj = loadWithoutStaticState(source);
+    if (serObj != null) {
+      serObj.initStaticState();
+    }
+    return serObj;
+  }
+
+  /**
+   * Load a graph without changing the static state shared by all graphs, like the sub-mode cache.
+   * This is used to load a graph while another graph is in use. Call {@link #initStaticState()}
+   * before the graph is used, {@link #validateStaticState()} can be used to check that this will
+   * succeed.
+   * <p>
+   * The routing trip pattern index counter is raised to the counter of the loaded graph. The
+   * transit layer of the loaded graph is sized by the counter, so this must be done before the
+   * transit layer is created. The counter is never decreased, so the graph in use is not changed.
+   */
+  public static SerializedGraphObject loadWithoutStaticState(DataSource source) {
+    var serObj = load(source.asInputStream(), source.path());
+    if (serObj != null) {
+      serObj.mapCompactStreetGraph(localFile(source));
+      RoutingTripPattern.initIndexCounter(serObj.routingTripPatternCounter);
+    }
+    return serObj;
   }
 
   public static SerializedGraphObject load(File file) {
     try {
-      return load(new FileInputStream(file), file.getAbsolutePath());
+      var serObj = load(new FileInputStream(file), file.getAbsolutePath());
+      if (serObj != null) {
+        serObj.mapCompactStreetGraph(file.toPath());
+        serObj.initStaticState();
+      }
+      return serObj;
     } catch (FileNotFoundException e) {
       LOG.error("Graph file not found: " + file, e);
       throw new OtpAppException(e.getMessage());
     }
   }
 
+  /**
+   * The build config used to build this graph, deserialized on first access.
+   */
+  public BuildConfig buildConfig() {
+    return buildConfig.get();
+  }
+
+  /**
+   * The router config embedded in the graph, deserialized on first access.
+   */
+  public RouterConfig routerConfig() {
+    return routerConfig.get();
+  }
+
+  /**
+   * The summary of the issues found when the graph was built, deserialized on first access.
+   */
+  public DataImportIssueSummary issueSummary() {
+    return issueSummary.get();
+  }
+
+  /**
+   * Return a supplier deserializing the issue summary on first access. Unlike a reference to
+   * {@link #issueSummary()}, the supplier does not keep this object and the graph file sections
+   * in memory.
+   */
+  public Supplier<DataImportIssueSummary> issueSummaryLoader() {
+    return issueSummary;
+  }
+
+  /**
+   * The emissions saved with the graph, deserialized on first access.
+   */
+  @Nullable
+  public EmissionsDataModel emissionsDataModel() {
+    return emissionsDataModel.get();
+  }
+
+  /**
+   * Return a supplier deserializing the emissions on first access, see
+   * {@link #issueSummaryLoader()}.
+   */
+  public Supplier<EmissionsDataModel> emissionsDataModelLoader() {
+    return emissionsDataModel;
+  }
+
+  /**
+   * Check if emissions are saved with the graph, without deserializing them.
+   */
+  public boolean hasEmissionsDataModel() {
+    return !emissionsDataModel.isEmpty();
+  }
+
+  /**
+   * The stop consolidation saved with the graph, deserialized on first access.
+   */
+  @Nullable
+  public StopConsolidationRepository stopConsolidationRepository() {
+    return stopConsolidationRepository.get();
+  }
+
+  /**
+   * Return a supplier deserializing the stop consolidation on first access, see
+   * {@link #issueSummaryLoader()}.
+   */
+  public Supplier<StopConsolidationRepository> stopConsolidationRepositoryLoader() {
+    return stopConsolidationRepository;
+  }
+
+  /**
+   * Check if a stop consolidation is saved with the graph, without deserializing it.
+   */
+  public boolean hasStopConsolidationRepository() {
+    return !stopConsolidationRepository.isEmpty();
+  }
+
+  /**
+   * Set the static state shared by all graphs from this graph: the sub-mode cache, the routing
+   * trip pattern index counter and the distance between the elevation samples.
+   *
+   * @throws IllegalStateException if the sub-modes do not match the sub-modes in use
+   */
+  public void initStaticState() {
+    SubMode.deserializeSubModeCache(allTransitSubModes);
+    RoutingTripPattern.initIndexCounter(routingTripPatternCounter);
+    CompactElevationProfile.setDistanceBetweenSamplesM(graph.getDistanceBetweenElevationSamples());
+  }
+
+  /**
+   * Check that the static state can be set from this graph without changing the state used by the
+   * graph in use. The sub-modes must have the same index as the sub-modes in use, and the distance
+   * between the elevation samples must be the same.
+   *
+   * @throws IllegalStateException if the static state is not compatible with the graph in use
+   */
+  public void validateStaticState() {
+    SubMode.validateSubModeCache(allTransitSubModes);
+    double distance = graph.getDistanceBetweenElevationSamples();
+    if (distance != CompactElevationProfile.distanceBetweenSamplesM()) {
+      throw new IllegalStateException(
+        "The distance between the elevation samples " +
+        distance +
+        " does not match the distance in use " +
+        CompactElevationProfile.distanceBetweenSamplesM()
+      );
+    }
+  }
+
   /**
    * After deserialization, the vertices will all have null outgoing and incoming edge lists because
    * those edge lists are marked transient, to prevent excessive recursion depth while serializing.
    * This method will reconstruct all those edge lists after deserialization.
+   * <p>
+   * The edges are saved as a list ordered by the outgoing edges of each vertex, see
+   * {@link #edges()}, so the outgoing edges of a vertex are added in the same order as before the
+   * graph was saved. The order of the incoming edges is not kept, but it is the same each time the
+   * graph file is loaded. The outgoing and the incoming edge lists are reconstructed concurrently,
+   * each list is filled by one thread. The list of edges read from the graph file is released when
+   * this is done.
    */
   public void reconstructEdgeLists() {
+    var edges = edges();
     for (Vertex v : graph.getVertices()) {
       v.initEdgeLists();
     }
+    var outgoing = CompletableFuture.runAsync(() -> {
+      for (Edge e : edges) {
+        e.getFromVertex().addOutgoing(e);
+      }
+    });
     for (Edge e : edges) {
-      Vertex fromVertex = e.getFromVertex();
-      Vertex toVertex = e.getToVertex();
-      fromVertex.addOutgoing(e);
-      toVertex.addIncoming(e);
+      e.getToVertex().addIncoming(e);
     }
+    outgoing.join();
+    this.edges = null;
   }
 
   /**
@@ -156,7 +358,12 @@ public class SerializedGraphObject implements Serializable {
    */
   public void save(@Nullable DataSource target) {
     if (target != null) {
+      if (OTPFeature.CompactStreetGraph.isOn()) {
+        // The compact street graph file refers to the vertices by their index
+        graph.indexVertices();
+      }
       save(target.asOutputStream(), target.name(), target.size());
+      saveCompactStreetGraph(localFile(target));
     } else {
       LOG.info("Not saving graph to disk, as requested.");
     }
@@ -164,23 +371,56 @@ public class SerializedGraphObject implements Serializable {
 
   /* private methods */
 
+  /**
+   * The edges saved with the graph. When the edge lists are reconstructed, the edges are taken
+   * from the graph.
+   */
+  private Collection<Edge> edges() {
+    return edges != null ? edges : outgoingEdges(graph);
+  }
+
+  /**
+   * The edges of the graph, in the order of the outgoing edges of each vertex. The edges are saved
+   * as a list, so the order of the outgoing edges is kept when the graph is loaded, the compact
+   * street graph file depends on it.
+   */
+  private static List<Edge> outgoingEdges(Graph graph) {
+    var edges = new ArrayList<Edge>(graph.countEdges());
+    for (Vertex v : graph.getVertices()) {
+      edges.addAll(v.getOutgoing());
+    }
+    return edges;
+  }
+
   private static SerializedGraphObject load(InputStream inputStream, String sourceDescription) {
     // TODO store version information, halt load if versions mismatch
-    try (inputStream) {
+    try (var input = new DataInputStream(new BufferedInputStream(inputStream))) {
       LOG.info("Reading graph from '{}'", sourceDescription);
-      Input input = new Input(inputStream);
 
       validateGraphSerializationId(
-        input.readBytes(GraphFileHeader.headerLength()),
+        input.readNBytes(GraphFileHeader.headerLength()),
         sourceDescription
       );
 
-      Kryo kryo = KryoBuilder.create();
-      SerializedGraphObject serObj = (SerializedGraphObject) kryo.readClassAndObject(input);
-      SubMode.deserializeSubModeCache(serObj.allTransitSubModes);
-      RoutingTripPattern.initIndexCounter(serObj.routingTripPatternCounter);
-      CompactElevationProfile.setDistanceBetweenSamplesM(
-        serObj.graph.getDistanceBetweenElevationSamples()
+      Map<String, GraphFileSection> sections = new HashMap<>();
+      for (GraphFileSection section : GraphFileSection.readAll(input)) {
+        sections.put(section.name(), section);
+      }
+      // Deserialize the sections used for routing while the street and transit section is read
+      var worldEnvelope = deserializeAsync(sections, WORLD_ENVELOPE);
+      var streetLimitation = deserializeAsync(sections, STREET_LIMITATION);
+      var streetAndTransit = (StreetAndTransitSection) GraphFileSection.readStreamed(
+        input,
+        STREET_AND_TRANSIT
+      );
+      streetAndTransit.transitModel.setPrecomputedTransitLayer(
+        streetAndTransit.precomputedTransitLayer
+      );
+      var serObj = new SerializedGraphObject(
+        streetAndTransit,
+        join(worldEnvelope),
+        join(streetLimitation),
+        sections
       );
       LOG.debug("Graph read.");
       serObj.reconstructEdgeLists();
@@ -210,6 +450,120 @@ public class SerializedGraphObject implements Serializable {
     }
   }
 
+  /**
+   * The path of the data source if it is a file on the local file system, the compact street
+   * graph file can only be memory-mapped from a local file.
+   */
+  @Nullable
+  private static Path localFile(DataSource source) {
+    var uri = source.uri();
+    return "file".equals(uri.getScheme()) ? Path.of(uri) : null;
+  }
+
+  /**
+   * Write the columns of the compact street graph to a file next to the graph file, see
+   * {@link CompactStreetGraphFile}. The graph file is still valid if this fails, the compact street
+   * graph is then created when the server starts.
+   */
+  private void saveCompactStreetGraph(@Nullable Path graphFile) {
+    if (graphFile == null || !OTPFeature.CompactStreetGraph.isOn()) {
+      return;
+    }
+    var path = CompactStreetGraphFile.pathOf(graphFile);
+    try {
+      CompactStreetGraphFile.write(
+        CompactStreetGraph.of(graph.getVertices()),
+        path,
+        compactStreetGraphId()
+      );
+      LOG.info("Compact street graph written: {}", path);
+    } catch (IOException e) {
+      LOG.warn("Failed to write compact street graph: {}", path, e);
+    }
+  }
+
+  /**
+   * Map the compact street graph from the file next to the graph file, if it exists and is
+   * written for this graph.
+   */
+  private void mapCompactStreetGraph(@Nullable Path graphFile) {
+    if (graphFile == null || !OTPFeature.CompactStreetGraph.isOn()) {
+      return;
+    }
+    var path = CompactStreetGraphFile.pathOf(graphFile);
+    if (!Files.exists(path)) {
+      return;
+    }
+    try {
+      var compactStreetGraph = CompactStreetGraphFile.map(
+        path,
+        graph.getVertices(),
+        compactStreetGraphId()
+      );
+      if (compactStreetGraph == null) {
+        LOG.warn("The compact street graph {} does not match the graph, it is ignored.", path);
+        return;
+      }
+      graph.setCompactStreetGraph(compactStreetGraph);
+      LOG.info("Compact street graph mapped: {}", path);
+    } catch (IOException e) {
+      LOG.warn("Failed to map compact street graph: {}", path, e);
+    }
+  }
+
+  /**
+   * The id of the graph file written to the compact street graph file: the serialization version
+   * id of the graph file header and the build time of the graph.
+   */
+  private String compactStreetGraphId() {
+    return (
+      projectInfo().graphFileHeaderInfo.otpSerializationVersionId() +
+      ";" +
+      graph.buildTime.toEpochMilli()
+    );
+  }
+
+  private static GraphFileSection section(Map<String, GraphFileSection> sections, String name) {
+    var section = sections.get(name);
+    if (section == null) {
+      throw new OtpAppException("The graph file section '%s' is missing.", name);
+    }
+    return section;
+  }
+
+  /**
+   * A section which is not saved if the value is {@code null}.
+   */
+  private static <T> LazySection<T> optionalSection(
+    Map<String, GraphFileSection> sections,
+    String name
+  ) {
+    var section = sections.get(name);
+    return section == null ? LazySection.loaded(null) : LazySection.of(section);
+  }
+
+  private static CompletableFuture<Object> deserializeAsync(
+    Map<String, GraphFileSection> sections,
+    String name
+  ) {
+    return CompletableFuture.supplyAsync(section(sections, name)::deserialize);
+  }
+
+  /**
+   * Wait for a section to be deserialized.
+   */
+  @SuppressWarnings("unchecked")
+  private static <T> T join(CompletableFuture<Object> section) {
+    try {
+      return (T) section.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
   @SuppressWarnings("Convert2MethodRef")
   private static OutputStream wrapOutputStreamWithProgressTracker(
     OutputStream outputStream,
@@ -246,14 +600,132 @@ public class SerializedGraphObject implements Serializable {
   private void save(OutputStream outputStream, String graphName, long size) {
     LOG.info("Writing graph {}  ...", graphName);
     outputStream = wrapOutputStreamWithProgressTracker(outputStream, size);
-    Kryo kryo = KryoBuilder.create();
-    Output output = new Output(outputStream);
-    output.write(OtpProjectInfo.projectInfo().graphFileHeaderInfo.header());
-    kryo.writeClassAndObject(output, this);
-    output.close();
+    try (var output = new DataOutputStream(new BufferedOutputStream(outputStream))) {
+      output.write(OtpProjectInfo.projectInfo().graphFileHeaderInfo.header());
+      GraphFileSection.writeAll(output, serializeIndependentSections());
+      GraphFileSection.writeStreamed(
+        output,
+        STREET_AND_TRANSIT,
+        new StreetAndTransitSection(
+          graph,
+          transitModel,
+          edges(),
+          allTransitSubModes,
+          routingTripPatternCounter,
+          transitModel.getPrecomputedTransitLayer()
+        )
+      );
+    } catch (IOException e) {
+      throw new RuntimeException(
+        "Failed to write graph " + graphName + ": " + e.getLocalizedMessage(),
+        e
+      );
+    }
     LOG.info("Graph written: {}", graphName);
-    // Summarize serialized classes and associated serializers to stdout:
-    // ((InstanceCountingClassResolver) kryo.getClassResolver()).summarize();
+  }
+
+  /**
+   * Serialize the sections which are independent of the street graph and the transit model. These
+   * sections are small, serializing them concurrently saves little time compared to the street and
+   * transit section. The optional sections are not saved if the value is {@code null}.
+   */
+  private List<GraphFileSection> serializeIndependentSections() {
+    return Stream
+      .of(
+        serializeAsync(WORLD_ENVELOPE, worldEnvelopeRepository),
+        serializeAsync(BUILD_CONFIG, buildConfig()),
+        serializeAsync(ROUTER_CONFIG, routerConfig()),
+        serializeAsync(ISSUE_SUMMARY, issueSummary()),
+        serializeAsync(EMISSIONS, emissionsDataModel()),
+        serializeAsync(STOP_CONSOLIDATION, stopConsolidationRepository()),
+        serializeAsync(STREET_LIMITATION, streetLimitationParameters)
+      )
+      .map(CompletableFuture::join)
+      .filter(Objects::nonNull)
+      .toList();
+  }
+
+  private static CompletableFuture<GraphFileSection> serializeAsync(
+    String name,
+    @Nullable Object value
+  ) {
+    if (value == null) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return CompletableFuture.supplyAsync(() -> GraphFileSection.serialize(name, value));
+  }
+
+  /**
+   * A section which is deserialized on first access. The bytes of the section are released when
+   * it is deserialized.
+   */
+  private static class LazySection<T> implements Supplier<T> {
+
+    @Nullable
+    private GraphFileSection section;
+
+    @Nullable
+    private T value;
+
+    private LazySection(@Nullable GraphFileSection section, @Nullable T value) {
+      this.section = section;
+      this.value = value;
+    }
+
+    private static <T> LazySection<T> loaded(@Nullable T value) {
+      return new LazySection<>(null, value);
+    }
+
+    private static <T> LazySection<T> of(GraphFileSection section) {
+      return new LazySection<>(section, null);
+    }
+
+    private synchronized boolean isEmpty() {
+      return section == null && value == null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized T get() {
+      if (section != null) {
+        value = (T) section.deserialize();
+        section = null;
+      }
+      return value;
+    }
+  }
+
+  /**
+   * The street graph and the transit model reference each other, so they must be serialized in the
+   * same section.
+   */
+  private static class StreetAndTransitSection implements Serializable {
+
+    private final Graph graph;
+    private final TransitModel transitModel;
+    private final Collection<Edge> edges;
+    private final List<SubMode> allTransitSubModes;
+    private final int routingTripPatternCounter;
+
+    /** The transit layer references the transit model, so it is in the same section. */
+    @Nullable
+    private final PrecomputedTransitLayer precomputedTransitLayer;
+
+    private StreetAndTransitSection(
+      Graph graph,
+      TransitModel transitModel,
+      Collection<Edge> edges,
+      List<SubMode> allTransitSubModes,
+      int routingTripPatternCounter,
+      @Nullable PrecomputedTransitLayer precomputedTransitLayer
+    ) {
+      this.graph = graph;
+      this.transitModel = transitModel;
+      this.edges = edges;
+      this.allTransitSubModes = allTransitSubModes;
+      this.routingTripPatternCounter = routingTripPatternCounter;
+      this.precomputedTransitLayer = precomputedTransitLayer;
+    }
   }
 
   private static void logSerializationCompleteStatus(Graph graph, TransitModel transitModel) {
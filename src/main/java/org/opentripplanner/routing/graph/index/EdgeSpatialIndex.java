@@ -1,5 +1,6 @@
 package org.opentripplanner.routing.graph.index;
 
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.LineString;
@@ -29,6 +30,10 @@ import org.opentripplanner.street.model.edge.Edge;
  * edge then back again to where the realtime element was connected.
  * <p>
  * See #3351
+ * <p>
+ * The realtime version is incremented by the linker when the edges linked by a realtime update
+ * can change the result of a street search not renting a vehicle. Caches of street search results
+ * use it to drop results computed before the realtime edges changed.
  */
 public class EdgeSpatialIndex {
 
@@ -36,6 +41,8 @@ public class EdgeSpatialIndex {
 
   private final HashGridSpatialIndex<Edge> realTimeEdgeIndex = new HashGridSpatialIndex<>();
 
+  private final AtomicLong realTimeVersion = new AtomicLong();
+
   public void insert(LineString lineString, Object obj, Scope scope) {
     switch (scope) {
       case PERMANENT -> permanentEdgeIndex.insert(lineString, obj);
@@ -62,6 +69,20 @@ public class EdgeSpatialIndex {
     };
   }
 
+  /**
+   * The number of changes to the realtime edges, see the class documentation.
+   */
+  public long realTimeVersion() {
+    return realTimeVersion.get();
+  }
+
+  /**
+   * Mark the realtime edges as changed, called by the linker.
+   */
+  public void incrementRealTimeVersion() {
+    realTimeVersion.incrementAndGet();
+  }
+
   public void compact() {
     permanentEdgeIndex.compact();
   }
@@ -168,6 +168,14 @@ public class StreetIndex {
       .toList();
   }
 
+  /**
+   * The version of the edges linked into the street graph by realtime updates, it changes each
+   * time edges which can be used without renting a vehicle are added or removed.
+   */
+  public long getRealTimeEdgeVersion() {
+    return edgeSpatialIndex.realTimeVersion();
+  }
+
   /**
    * Gets a set of vertices corresponding to the location provided. It first tries to match one of
    * the stop or station types by id, and if not successful it uses the coordinates if provided.
@@ -4,6 +4,7 @@ import com.conveyal.kryo.TIntArrayListSerializer;
 import com.conveyal.kryo.TIntIntHashMapSerializer;
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.serializers.ExternalizableSerializer;
+import com.esotericsoftware.kryo.serializers.JavaSerializer;
 import com.esotericsoftware.kryo.util.DefaultInstantiatorStrategy;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.HashMultimap;
@@ -12,6 +13,7 @@ import de.javakaffee.kryoserializers.guava.HashMultimapSerializer;
 import gnu.trove.impl.hash.TPrimitiveHash;
 import gnu.trove.list.array.TIntArrayList;
 import gnu.trove.map.hash.TIntIntHashMap;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -66,6 +68,10 @@ public final class KryoBuilder {
     kryo.register(BuildConfig.class, new BuildConfigSerializer());
     kryo.register(AtomicInteger.class, new AtomicIntegerSerializer());
 
+    // The EnumMap key type is not restored by the Kryo field serializer. EnumMaps are used in the
+    // request preferences saved with the precomputed transfer indexes.
+    kryo.register(EnumMap.class, new JavaSerializer());
+
     UnmodifiableCollectionsSerializer.registerSerializers(kryo);
     // Instantiation strategy: how should Kryo make new instances of objects when they are deserialized?
     // The default strategy requires every class you serialize, even in your dependencies, to have a zero-arg
@@ -1,5 +1,6 @@
 package org.opentripplanner.routing.impl;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Iterator;
@@ -7,10 +8,13 @@ import java.util.List;
 import java.util.Set;
 import javax.annotation.Nullable;
 import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.astar.model.ShortestPathTreePool;
+import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
 import org.opentripplanner.astar.spi.TraverseVisitor;
 import org.opentripplanner.astar.strategy.DurationSkipEdgeStrategy;
 import org.opentripplanner.astar.strategy.PathComparator;
 import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
+import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.preference.StreetPreferences;
@@ -20,9 +24,13 @@ import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.search.StreetSearchBuilder;
 import org.opentripplanner.street.search.TemporaryVerticesContainer;
+import org.opentripplanner.street.search.ch.ContractionHierarchy;
+import org.opentripplanner.street.search.compact.CompactStreetGraph;
+import org.opentripplanner.street.search.landmark.LandmarkTables;
 import org.opentripplanner.street.search.state.State;
 import org.opentripplanner.street.search.strategy.DominanceFunctions;
 import org.opentripplanner.street.search.strategy.EuclideanRemainingWeightHeuristic;
+import org.opentripplanner.street.search.strategy.LandmarkRemainingWeightHeuristic;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,6 +67,18 @@ public class GraphPathFinder {
 
   private final float maxCarSpeed;
 
+  @Nullable
+  private final CompactStreetGraph compactStreetGraph;
+
+  @Nullable
+  private final LandmarkTables landmarkTables;
+
+  @Nullable
+  private final ContractionHierarchy contractionHierarchy;
+
+  @Nullable
+  private final ShortestPathTreePool<State, Edge, Vertex> shortestPathTreePool;
+
   public GraphPathFinder(@Nullable TraverseVisitor<State, Edge> traverseVisitor) {
     this(traverseVisitor, null, StreetConstants.DEFAULT_MAX_CAR_SPEED);
   }
@@ -67,10 +87,36 @@ public class GraphPathFinder {
     @Nullable TraverseVisitor<State, Edge> traverseVisitor,
     @Nullable DataOverlayContext dataOverlayContext,
     float maxCarSpeed
+  ) {
+    this(traverseVisitor, dataOverlayContext, maxCarSpeed, null, null, null, null);
+  }
+
+  /**
+   * @param compactStreetGraph if not null, the compact graph is used to find the path for
+   *                           one-to-one walk searches.
+   * @param landmarkTables     if not null, the landmark tables are used to estimate the remaining
+   *                           weight of car and bike searches.
+   * @param contractionHierarchy if not null, the hierarchy is used to find the path for
+   *                             one-to-one car searches.
+   * @param shortestPathTreePool if not null, the shortest path tree of the search is taken from
+   *                             the pool instead of allocating a new tree.
+   */
+  public GraphPathFinder(
+    @Nullable TraverseVisitor<State, Edge> traverseVisitor,
+    @Nullable DataOverlayContext dataOverlayContext,
+    float maxCarSpeed,
+    @Nullable CompactStreetGraph compactStreetGraph,
+    @Nullable LandmarkTables landmarkTables,
+    @Nullable ContractionHierarchy contractionHierarchy,
+    @Nullable ShortestPathTreePool<State, Edge, Vertex> shortestPathTreePool
   ) {
     this.traverseVisitor = traverseVisitor;
     this.dataOverlayContext = dataOverlayContext;
     this.maxCarSpeed = maxCarSpeed;
+    this.compactStreetGraph = compactStreetGraph;
+    this.landmarkTables = landmarkTables;
+    this.contractionHierarchy = contractionHierarchy;
+    this.shortestPathTreePool = shortestPathTreePool;
   }
 
   /**
@@ -83,23 +129,35 @@ public class GraphPathFinder {
     Set<Vertex> to
   ) {
     StreetPreferences preferences = request.preferences().street();
+    Duration maxDirectDuration = preferences
+      .maxDirectDuration()
+      .valueOf(request.journey().direct().mode());
 
     StreetSearchBuilder aStar = StreetSearchBuilder
       .of()
-      .setHeuristic(new EuclideanRemainingWeightHeuristic(maxCarSpeed))
-      .setSkipEdgeStrategy(
-        new DurationSkipEdgeStrategy(
-          preferences.maxDirectDuration().valueOf(request.journey().direct().mode())
-        )
-      )
+      .setHeuristic(createHeuristic())
+      .setSkipEdgeStrategy(new DurationSkipEdgeStrategy(maxDirectDuration))
       // FORCING the dominance function to weight only
       .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setShortestPathTreePool(shortestPathTreePool)
       .setRequest(request)
       .setStreetRequest(request.journey().direct())
       .setFrom(from)
       .setTo(to)
       .setDataOverlayContext(dataOverlayContext);
 
+    if (compactStreetGraph != null) {
+      aStar.setCompactStreetGraph(compactStreetGraph, maxDirectDuration);
+    }
+
+    if (contractionHierarchy != null) {
+      aStar.setContractionHierarchy(contractionHierarchy, maxDirectDuration);
+    }
+
+    if (OTPFeature.BidirectionalStreetSearch.isOn() && isSingleMode(request)) {
+      aStar.setBidirectional(createHeuristic());
+    }
+
     // If the search has a traverseVisitor(GraphVisualizer) attached to it, set it as a callback
     // for the AStar search
     if (traverseVisitor != null) {
@@ -171,4 +229,21 @@ public class GraphPathFinder {
 
     return paths;
   }
+
+  private RemainingWeightHeuristic<State> createHeuristic() {
+    return landmarkTables == null
+      ? new EuclideanRemainingWeightHeuristic(maxCarSpeed)
+      : new LandmarkRemainingWeightHeuristic(landmarkTables, maxCarSpeed);
+  }
+
+  /**
+   * The bidirectional search is only used for modes where the cost of an edge does not depend on
+   * the state of the other half of the path, like a rental or parked vehicle.
+   */
+  private static boolean isSingleMode(RouteRequest request) {
+    return switch (request.journey().direct().mode()) {
+      case WALK, BIKE, CAR -> true;
+      default -> false;
+    };
+  }
 }
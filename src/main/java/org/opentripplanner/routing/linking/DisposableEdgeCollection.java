@@ -33,6 +33,10 @@ public class DisposableEdgeCollection {
     this.edges.add(edge);
   }
 
+  Collection<Edge> edges() {
+    return edges;
+  }
+
   /**
    * Removes all the edges in this collection from the graph.
    */
@@ -41,6 +45,7 @@ public class DisposableEdgeCollection {
       for (Edge e : edges) {
         graph.getLinker().removeEdgeFromIndex(e, scope);
       }
+      graph.getLinker().realTimeEdgesChanged(edges);
     }
     Collection<Vertex> vertices = new ArrayList<>();
     for (Edge e : edges) {
@@ -20,12 +20,14 @@ import org.opentripplanner.framework.geometry.GeometryUtils;
 import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graph.index.EdgeSpatialIndex;
+import org.opentripplanner.service.vehiclerental.street.StreetVehicleRentalLink;
 import org.opentripplanner.street.model.edge.AreaEdge;
 import org.opentripplanner.street.model.edge.AreaEdgeBuilder;
 import org.opentripplanner.street.model.edge.AreaEdgeList;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.edge.NamedArea;
 import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.edge.TemporaryPartialStreetEdge;
 import org.opentripplanner.street.model.vertex.IntersectionVertex;
 import org.opentripplanner.street.model.vertex.SplitterVertex;
 import org.opentripplanner.street.model.vertex.StreetVertex;
@@ -219,9 +221,30 @@ public class VertexLinker {
       throw e;
     }
 
+    if (scope == Scope.REALTIME) {
+      realTimeEdgesChanged(tempEdges.edges());
+    }
     return tempEdges;
   }
 
+  /**
+   * Increment the realtime version of the edge index if the edges linked or unlinked by a realtime
+   * update can be used by a street search not renting a vehicle. The rental links can only be
+   * traversed when renting, and the partial street edges created to reach them are copies of
+   * existing street edges. Linking a rental vehicle therefore does not change the other searches,
+   * and the caches depending on the version are not flushed on every vehicle rental update.
+   */
+  void realTimeEdgesChanged(Collection<Edge> edges) {
+    boolean usedWithoutRenting = edges
+      .stream()
+      .anyMatch(e ->
+        !(e instanceof TemporaryPartialStreetEdge) && !(e instanceof StreetVehicleRentalLink)
+      );
+    if (usedWithoutRenting) {
+      edgeSpatialIndex.incrementRealTimeVersion();
+    }
+  }
+
   private Set<StreetVertex> linkToStreetEdges(
     Vertex vertex,
     TraverseModeSet traverseModes,
@@ -10,15 +10,13 @@ import org.opentripplanner.framework.application.ApplicationShutdownSupport;
 import org.opentripplanner.framework.application.OtpAppException;
 import org.opentripplanner.graph_builder.GraphBuilder;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
-import org.opentripplanner.raptor.configure.RaptorConfig;
 import org.opentripplanner.routing.graph.SerializedGraphObject;
 import org.opentripplanner.standalone.config.CommandLineParameters;
 import org.opentripplanner.standalone.config.ConfigModel;
 import org.opentripplanner.standalone.configure.ConstructApplication;
+import org.opentripplanner.standalone.configure.GraphReloader;
 import org.opentripplanner.standalone.configure.LoadApplication;
 import org.opentripplanner.standalone.server.GrizzlyServer;
-import org.opentripplanner.transit.service.TransitModel;
-import org.opentripplanner.updater.configure.UpdaterConfigurator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.bridge.SLF4JBridgeHandler;
@@ -126,7 +124,7 @@ public class OTPMain {
     if (cli.doLoadGraph() || cli.doLoadStreetGraph()) {
       SerializedGraphObject obj = SerializedGraphObject.load(loadApp.getInputGraphDataStore());
       app = loadApp.appConstruction(obj);
-      config.updateConfigFromSerializedGraph(obj.buildConfig, obj.routerConfig);
+      config.updateConfigFromSerializedGraph(obj::buildConfig, obj::routerConfig);
       graphAvailable = true;
     } else {
       app = loadApp.appConstruction();
@@ -146,6 +144,9 @@ public class OTPMain {
       } else {
         throw new IllegalStateException("An error occurred while building the graph.");
       }
+      if (config.buildConfig().precomputeTransitLayer) {
+        app.precomputeTransitLayer();
+      }
       // Store graph and config used to build it, also store router-config for easy deployment
       // with using the embedded router config.
       new SerializedGraphObject(
@@ -170,7 +171,7 @@ public class OTPMain {
     }
 
     if (cli.doServe()) {
-      startOtpWebServer(cli, app);
+      startOtpWebServer(cli, loadApp, app);
     } else {
       LOG.info("Done building graph. Exiting.");
     }
@@ -185,10 +186,13 @@ public class OTPMain {
     }
   }
 
-  private static void startOtpWebServer(CommandLineParameters params, ConstructApplication app) {
+  private static void startOtpWebServer(
+    CommandLineParameters params,
+    LoadApplication loadApp,
+    ConstructApplication app
+  ) {
     // Index graph for travel search
-    app.transitModel().index();
-    app.graph().index(app.transitModel().getStopModel());
+    app.indexGraphForTravelSearch();
 
     // publishing the config version info make it available to the APIs
     setOtpConfigVersionsOnServerInfo(app);
@@ -203,9 +207,10 @@ public class OTPMain {
     // This would also avoid the awkward call to set the router on the appConstruction after it's constructed.
     // However, currently the server runs in a blocking way and waits for shutdown, so has to run last.
     if (params.doServe()) {
-      GrizzlyServer grizzlyServer = app.createGrizzlyServer();
+      var graphReloader = new GraphReloader(loadApp, app);
+      GrizzlyServer grizzlyServer = app.createGrizzlyServer(graphReloader);
 
-      registerShutdownHookToGracefullyShutDownServer(app.transitModel(), app.raptorConfig());
+      registerShutdownHookToGracefullyShutDownServer(graphReloader);
 
       // Loop to restart server on uncaught fatal exceptions.
       while (true) {
@@ -226,21 +231,17 @@ public class OTPMain {
   /**
    * Shut down this server when evicted or (auto-)reloaded.
    * <ol>
-   *   <li>Stop any real-time updater threads.</li>
+   *   <li>Stop any real-time updater threads of the graph in use.</li>
    *   <li>Cleanup various stuff of some used libraries (org.geotools), which depend on the
    *   external client to call them for cleaning-up.</li>
    * </ol>
    */
-  private static void registerShutdownHookToGracefullyShutDownServer(
-    TransitModel transitModel,
-    RaptorConfig<?> raptorConfig
-  ) {
+  private static void registerShutdownHookToGracefullyShutDownServer(GraphReloader graphReloader) {
     ApplicationShutdownSupport.addShutdownHook(
       "server-shutdown",
       () -> {
         LOG.info("OTP shutdown started...");
-        UpdaterConfigurator.shutdownGraph(transitModel);
-        raptorConfig.shutdown();
+        graphReloader.application().shutdown();
         WeakCollectionCleaner.DEFAULT.exit();
         DeferredAuthorityFactory.exit();
         LOG.info("OTP shutdown: resources released...");
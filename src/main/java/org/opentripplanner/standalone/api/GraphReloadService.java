@@ -0,0 +1,22 @@
+package org.opentripplanner.standalone.api;
+
+import javax.annotation.Nullable;
+
+/**
+ * Load a new graph while the server is running. The graph is loaded from the same data source as
+ * when the server started, and replaces the graph in use when it is ready to serve requests.
+ */
+public interface GraphReloadService {
+  /**
+   * Start loading the graph in the background.
+   *
+   * @return {@code false} if a graph is already being loaded.
+   */
+  boolean reload();
+
+  /**
+   * Check the token of a reload request against the graph reload token in the server
+   * configuration. Returns {@code false} if no token is configured.
+   */
+  boolean isValidToken(@Nullable String token);
+}
@@ -8,6 +8,8 @@ import org.opentripplanner.astar.spi.TraverseVisitor;
 import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
 import org.opentripplanner.ext.emissions.EmissionsService;
 import org.opentripplanner.ext.flex.FlexParameters;
+import org.opentripplanner.ext.traveltimematrix.TravelTimeMatrixParameters;
+import org.opentripplanner.ext.flex.flexpathcalculator.FlexPathCache;
 import org.opentripplanner.ext.geocoder.LuceneIndex;
 import org.opentripplanner.ext.ridehailing.RideHailingService;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationService;
@@ -15,6 +17,7 @@ import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.inspector.raster.TileRendererManager;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.NearbyStopsCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.api.RoutingService;
@@ -106,6 +109,16 @@ public interface OtpServerRequestContext {
 
   StreetLimitationParametersService streetLimitationParametersService();
 
+  /**
+   * The stops found by the access and egress street searches, shared by all requests.
+   */
+  NearbyStopsCache nearbyStopsCache();
+
+  /**
+   * The driving durations from the flex stops, shared by all requests.
+   */
+  FlexPathCache flexPathCache();
+
   MeterRegistry meterRegistry();
 
   @Nullable
@@ -127,6 +140,8 @@ public interface OtpServerRequestContext {
 
   FlexParameters flexParameters();
 
+  TravelTimeMatrixParameters travelTimeMatrixParameters();
+
   VectorTileConfig vectorTileConfig();
 
   default DataOverlayContext dataOverlayContext(RouteRequest request) {
@@ -6,6 +6,7 @@ import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_1;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_5;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_6;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.MissingNode;
@@ -111,6 +112,8 @@ public class BuildConfig implements OtpDataStoreConfig {
 
   public final boolean embedRouterConfig;
 
+  public final boolean precomputeTransitLayer;
+
   public final boolean areaVisibility;
 
   public final boolean platformEntriesLinking;
@@ -247,6 +250,24 @@ public class BuildConfig implements OtpDataStoreConfig {
           "configured over the wire."
         )
         .asBoolean(true);
+    precomputeTransitLayer =
+      root
+        .of("precomputeTransitLayer")
+        .since(V2_6)
+        .summary("Create the transit data used by Raptor when the graph is built.")
+        .description(
+          """
+          The trip patterns running on each date, the transfers, and the transfers for each of the
+          `transferCacheRequests` in the router config are computed when the graph is built, and
+          saved in the graph file. This makes the graph file larger, but reduces the startup time
+          of the server.
+
+          The transfers of a request are only used if the request in the router config used when
+          the server starts is the same as when the graph was built, otherwise they are computed
+          when the server starts.
+          """
+        )
+        .asBoolean(false);
     includeEllipsoidToGeoidDifference =
       root
         .of("includeEllipsoidToGeoidDifference")
@@ -1,6 +1,7 @@
 package org.opentripplanner.standalone.config;
 
 import com.fasterxml.jackson.databind.node.MissingNode;
+import java.util.function.Supplier;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.application.OtpAppException;
 import org.opentripplanner.framework.application.OtpFileNames;
@@ -61,14 +62,21 @@ public class ConfigModel {
     this(loader.loadOtpConfig(), loader.loadBuildConfig(), loader.loadRouterConfig());
   }
 
-  public void updateConfigFromSerializedGraph(BuildConfig buildConfig, RouterConfig routerConfig) {
+  /**
+   * Use the configuration embedded in the graph if the configuration files are missing. The
+   * embedded configuration is only deserialized if it is used.
+   */
+  public void updateConfigFromSerializedGraph(
+    Supplier<BuildConfig> buildConfig,
+    Supplier<RouterConfig> routerConfig
+  ) {
     if (this.buildConfig.isDefault()) {
       LOG.info("Using the graph embedded JSON build configuration.");
-      this.buildConfig = buildConfig;
+      this.buildConfig = buildConfig.get();
     }
     if (this.routerConfig.isDefault()) {
       LOG.info("Using the graph embedded JSON router configuration.");
-      this.routerConfig = routerConfig;
+      this.routerConfig = routerConfig.get();
     }
     OtpConfigLoader.logConfigVersion(
       this.otpConfig.configVersion,
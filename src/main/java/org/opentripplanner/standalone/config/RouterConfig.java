@@ -9,6 +9,7 @@ import com.fasterxml.jackson.databind.node.MissingNode;
 import java.io.Serializable;
 import java.util.List;
 import org.opentripplanner.ext.flex.FlexParameters;
+import org.opentripplanner.ext.traveltimematrix.TravelTimeMatrixParameters;
 import org.opentripplanner.ext.ridehailing.RideHailingServiceParameters;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
@@ -18,6 +19,7 @@ import org.opentripplanner.standalone.config.routerconfig.TransitRoutingConfig;
 import org.opentripplanner.standalone.config.routerconfig.UpdatersConfig;
 import org.opentripplanner.standalone.config.routerconfig.VectorTileConfig;
 import org.opentripplanner.standalone.config.sandbox.FlexConfig;
+import org.opentripplanner.standalone.config.sandbox.TravelTimeMatrixConfig;
 import org.opentripplanner.standalone.config.sandbox.TransmodelAPIConfig;
 import org.opentripplanner.updater.UpdatersParameters;
 import org.slf4j.Logger;
@@ -47,6 +49,7 @@ public class RouterConfig implements Serializable {
   private final UpdatersParameters updatersParameters;
   private final RideHailingServicesConfig rideHailingConfig;
   private final FlexConfig flexConfig;
+  private final TravelTimeMatrixConfig travelTimeMatrixConfig;
   private final TransmodelAPIConfig transmodelApi;
   private final VectorTileConfig vectorTileConfig;
 
@@ -74,6 +77,8 @@ public class RouterConfig implements Serializable {
     this.rideHailingConfig = new RideHailingServicesConfig(root);
     this.vectorTileConfig = VectorTileConfig.mapVectorTilesParameters(root, "vectorTiles");
     this.flexConfig = new FlexConfig(root, "flex");
+    this.travelTimeMatrixConfig =
+      new TravelTimeMatrixConfig(root, "travelTimeMatrix", server.apiProcessingTimeout());
 
     if (logUnusedParams && LOG.isWarnEnabled()) {
       root.logAllWarnings(LOG::warn);
@@ -132,6 +137,10 @@ public class RouterConfig implements Serializable {
     return flexConfig;
   }
 
+  public TravelTimeMatrixParameters travelTimeMatrixParameters() {
+    return travelTimeMatrixConfig;
+  }
+
   public NodeAdapter asNodeAdapter() {
     return root;
   }
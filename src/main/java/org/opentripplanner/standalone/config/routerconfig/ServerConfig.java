@@ -1,9 +1,11 @@
 package org.opentripplanner.standalone.config.routerconfig;
 
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_4;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_6;
 
 import java.time.Duration;
 import java.util.List;
+import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OtpAppException;
 import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
 import org.opentripplanner.standalone.server.OTPWebApplicationParameters;
@@ -13,6 +15,7 @@ public class ServerConfig implements OTPWebApplicationParameters {
 
   private final Duration apiProcessingTimeout;
   private final List<RequestTraceParameter> traceParameters;
+  private final String graphReloadToken;
 
   public ServerConfig(String parameterName, NodeAdapter root) {
     NodeAdapter c = root
@@ -99,12 +102,32 @@ Only log4j and logback support this.
               .asBoolean(false)
           )
         );
+
+    this.graphReloadToken =
+      c
+        .of("graphReloadToken")
+        .since(V2_6)
+        .summary("The token required to reload the graph while the server is running.")
+        .description(
+          """
+The `APIGraphReload` feature enables the endpoint `POST /otp/graph/reload`. A request to the
+endpoint must have the header `Authorization: Bearer <token>`, where the token is this value. If
+the token is not set, all requests to reload the graph are rejected. Use an environment variable
+to avoid storing the token in the configuration file.
+"""
+        )
+        .asString(null);
   }
 
   public Duration apiProcessingTimeout() {
     return apiProcessingTimeout;
   }
 
+  @Nullable
+  public String graphReloadToken() {
+    return graphReloadToken;
+  }
+
   public void validate(Duration streetRoutingTimeout) {
     if (
       !apiProcessingTimeout.isNegative() &&
@@ -6,6 +6,7 @@ import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_3;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_4;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_6;
 
 import java.time.Duration;
 import java.util.List;
@@ -27,7 +28,14 @@ public final class TransitRoutingConfig implements RaptorTuningParameters, Trans
   private final int scheduledTripBinarySearchThreshold;
   private final int iterationDepartureStepInSeconds;
   private final int searchThreadPoolSize;
+  private final int searchWindowSlices;
+  private final boolean compactStopArrivals;
+  private final boolean reuseWorkerState;
+  private final int heuristicsCacheMaxSize;
   private final int transferCacheMaxSize;
+  private final int tripPatternCacheMaxSize;
+  private final int nearbyStopsCacheMaxSize;
+  private final Duration nearbyStopsCacheTimeToLive;
   private final List<RouteRequest> transferCacheRequests;
   private final List<Duration> pagingSearchWindowAdjustments;
 
@@ -113,6 +121,85 @@ no extra threads are started and the search is done in one thread.
 """
         )
         .asInt(dft.searchThreadPoolSize());
+    this.searchWindowSlices =
+      c
+        .of("searchWindowSlices")
+        .since(V2_6)
+        .summary(
+          "Split the search-window of the main transit search in slices and search them in parallel."
+        )
+        .description(
+          """
+The Range Raptor iterations over the search-window are done in one thread by default. If this
+parameter is greater than 1, the iterations are split in up to this number of slices of
+consecutive departure times, and the slices are searched in parallel using the
+`searchThreadPoolSize` thread pool. The paths found in each slice are merged into one pareto set.
+This reduces the response time for long search-windows, at the cost of more work in total, since
+the result from the later departures can not be reused in the earlier slices. Each slice contains
+at least 10 iterations.
+
+This only apply to the forward multi-criteria search, and only if the `searchThreadPoolSize` is
+greater than 0 and the `parallel` optimization is enabled. Searches with time-penalty on access
+are not split.
+"""
+        )
+        .asInt(dft.searchWindowSlices());
+    this.compactStopArrivals =
+      c
+        .of("compactStopArrivals")
+        .since(V2_6)
+        .summary("Store the multi-criteria stop arrivals using primitive arrays.")
+        .description(
+          """
+The multi-criteria search creates one object for each stop arrival found, and most of them are
+rejected by the pareto-set at the stop. If enabled, the arrival-time, the number-of-transfers
+and the generalized-cost of the arrivals are stored in primitive arrays, and an arrival is only
+created if it is accepted. The result is the same, but with less memory allocated.
+
+This does not apply to searches using the second criteria (c2), like searches with pass-through
+points or transit group priority, and searches relaxing the generalized-cost at the stops.
+"""
+        )
+        .asBoolean(dft.compactStopArrivals());
+    this.reuseWorkerState =
+      c
+        .of("reuseWorkerState")
+        .since(V2_6)
+        .summary("Reuse the stop-indexed arrays of the Raptor search state between requests.")
+        .description(
+          """
+Each Raptor search allocates arrays with one element for each stop, to keep track of the best
+arrival times, the number of transfers and the stops reached in each round. If enabled, each
+thread keeps the arrays after a routing request is complete, and reuses them in the next request
+instead of allocating new ones. This reduces the memory allocated per request, at the cost of
+keeping a set of arrays in memory for each thread serving requests.
+
+The state of the heuristic searches is fully reused. The result of the main search is returned to
+the caller, so only the state used during the search is reused. The estimated number of bytes
+reused is reported with the `raptor.<alias>.workerState.bytesReused` metric.
+"""
+        )
+        .asBoolean(dft.reuseWorkerState());
+    this.heuristicsCacheMaxSize =
+      c
+        .of("heuristicsCacheMaxSize")
+        .since(V2_6)
+        .summary("The maximum number of reverse heuristic search results to cache.")
+        .description(
+          """
+Before the main multi-criteria search, a reverse search from the destination is performed to
+calculate heuristics used to prune the main search. Requests to the same destination, with the
+same search-days, filters and transfer parameters, get the same heuristics from the reverse search,
+independent of the origin. If the size is greater than zero, the result of the reverse search is
+cached and reused by later requests. Each entry contains three integers for each stop.
+
+To be independent of the origin, the cached search is not stopped when the origin is reached, and
+it is not limited by the earliest-departure-time. The heuristics are still valid, but may be a bit
+more optimistic than the heuristics computed for the request alone. The cache is not used for
+arrive-by requests, and entries are invalidated when the realtime transit data is updated.
+"""
+        )
+        .asInt(dft.heuristicsCacheMaxSize());
     // Dynamic Search Window
     this.stopBoardAlightDuringTransferCost =
       c
@@ -159,6 +246,50 @@ Use values in a range from `0` to `100 000`. **All key/value pairs are required
         )
         .asInt(25);
 
+    this.tripPatternCacheMaxSize =
+      c
+        .of("tripPatternCacheMaxSize")
+        .since(V2_6)
+        .summary(
+          "The maximum number of search-day and filter combinations to cache merged trip patterns for."
+        )
+        .description(
+          """
+The trip patterns running on the search days are merged and filtered before each transit search.
+Requests with the same search days and the same transit filters share the result. The cached
+entries for a day are dropped when the day is updated by realtime data. If too low, requests may
+be slower. If too high, more memory may be used then required.
+"""
+        )
+        .asInt(10);
+
+    this.nearbyStopsCacheMaxSize =
+      c
+        .of("nearbyStopsCacheMaxSize")
+        .since(V2_6)
+        .summary(
+          "The maximum total size of the cached access and egress street search results."
+        )
+        .description(
+          """
+Requests from the same place, with the same street mode and the same street preferences, share the
+stops found by the access or egress street search. The place is snapped to a grid of about 5
+meters, so the access or egress may start a few meters from the requested place. Only requests from
+or to a coordinate using walk, bike, car or car-hailing are cached. The size of a search result is
+the number of stops found plus the number of street edges in the paths to them. The cached entries
+are dropped when realtime updates, other than vehicle rental updates, link new edges into the
+street graph. Set to 0 to disable the cache.
+"""
+        )
+        .asInt(0);
+
+    this.nearbyStopsCacheTimeToLive =
+      c
+        .of("nearbyStopsCacheTimeToLive")
+        .since(V2_6)
+        .summary("How long the stops found by an access or egress street search are cached.")
+        .asDuration(Duration.ofMinutes(10));
+
     this.transferCacheRequests =
       c
         .of("transferCacheRequests")
@@ -249,6 +380,26 @@ for more info."
     return searchThreadPoolSize;
   }
 
+  @Override
+  public int searchWindowSlices() {
+    return searchWindowSlices;
+  }
+
+  @Override
+  public boolean compactStopArrivals() {
+    return compactStopArrivals;
+  }
+
+  @Override
+  public boolean reuseWorkerState() {
+    return reuseWorkerState;
+  }
+
+  @Override
+  public int heuristicsCacheMaxSize() {
+    return heuristicsCacheMaxSize;
+  }
+
   @Override
   public DynamicSearchWindowCoefficients dynamicSearchWindowCoefficients() {
     return dynamicSearchWindowCoefficients;
@@ -269,6 +420,21 @@ for more info."
     return transferCacheMaxSize;
   }
 
+  @Override
+  public int tripPatternCacheMaxSize() {
+    return tripPatternCacheMaxSize;
+  }
+
+  @Override
+  public int nearbyStopsCacheMaxSize() {
+    return nearbyStopsCacheMaxSize;
+  }
+
+  @Override
+  public Duration nearbyStopsCacheTimeToLive() {
+    return nearbyStopsCacheTimeToLive;
+  }
+
   @Override
   public List<RouteRequest> transferCacheRequests() {
     return transferCacheRequests;
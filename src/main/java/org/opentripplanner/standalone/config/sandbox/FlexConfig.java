@@ -2,6 +2,7 @@ package org.opentripplanner.standalone.config.sandbox;
 
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_1;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_3;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_6;
 
 import java.time.Duration;
 import org.opentripplanner.ext.flex.FlexParameters;
@@ -26,12 +27,14 @@ public class FlexConfig implements FlexParameters {
   private final Duration maxFlexTripDuration;
   private final Duration maxAccessWalkDuration;
   private final Duration maxEgressWalkDuration;
+  private final long streetPathCacheMaxSize;
 
   private FlexConfig() {
     maxTransferDuration = Duration.ofMinutes(5);
     maxFlexTripDuration = Duration.ofMinutes(45);
     maxAccessWalkDuration = Duration.ofMinutes(45);
     maxEgressWalkDuration = Duration.ofMinutes(45);
+    streetPathCacheMaxSize = 0;
   }
 
   public FlexConfig(NodeAdapter root, String parameterName) {
@@ -92,6 +95,25 @@ public class FlexConfig implements FlexParameters {
         )
         .description(ACCESS_EGRESS_DESCRIPTION)
         .asDuration(DEFAULT.maxEgressWalkDuration());
+
+    streetPathCacheMaxSize =
+      json
+        .of("streetPathCacheMaxSize")
+        .since(V2_6)
+        .summary(
+          "The maximum size of the cache of driving times from flex stops."
+        )
+        .description(
+          """
+            The flex searches drive from each flex stop to all places reachable within
+            `maxFlexTripDuration`. If this is set, the driving times and paths from the stops are
+            kept and shared by the following requests. Each place reached by the search uses one
+            element, a table for one stop in a city may have several hundred thousand. The least
+            recently used tables are dropped when the limit is reached. All tables are dropped when
+            realtime updates change the street graph. Set to 0 to disable the cache.
+            """
+        )
+        .asLong(DEFAULT.streetPathCacheMaxSize());
   }
 
   public Duration maxFlexTripDuration() {
@@ -109,4 +131,8 @@ public class FlexConfig implements FlexParameters {
   public Duration maxEgressWalkDuration() {
     return maxEgressWalkDuration;
   }
+
+  public long streetPathCacheMaxSize() {
+    return streetPathCacheMaxSize;
+  }
 }
@@ -0,0 +1,80 @@
+package org.opentripplanner.standalone.config.sandbox;
+
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_6;
+
+import java.time.Duration;
+import org.opentripplanner.ext.traveltimematrix.TravelTimeMatrixParameters;
+import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
+
+/**
+ * @see TravelTimeMatrixParameters for documentation of parameters
+ */
+public class TravelTimeMatrixConfig implements TravelTimeMatrixParameters {
+
+  private static final TravelTimeMatrixParameters DEFAULT =
+    TravelTimeMatrixParameters.defaultValues();
+
+  private final int maxOrigins;
+  private final Duration maxSearchWindow;
+  private final Duration maxTravelTime;
+  private final Duration processingTimeout;
+
+  public TravelTimeMatrixConfig(
+    NodeAdapter root,
+    String parameterName,
+    Duration apiProcessingTimeout
+  ) {
+    var c = root
+      .of(parameterName)
+      .since(V2_6)
+      .summary("Limits for the travel-time matrix API.")
+      .description(
+        "Requests exceeding these limits are rejected. The `server.apiProcessingTimeout` is " +
+        "applied to the whole batch of origins."
+      )
+      .asObject();
+
+    this.maxOrigins =
+      c
+        .of("maxOrigins")
+        .since(V2_6)
+        .summary("The maximum number of origins in one matrix request.")
+        .asInt(DEFAULT.maxOrigins());
+    this.maxSearchWindow =
+      c
+        .of("maxSearchWindow")
+        .since(V2_6)
+        .summary("The maximum search-window of a travel-time request.")
+        .description(
+          "A Range Raptor iteration is run for each minute in the search-window, for each origin."
+        )
+        .asDuration(DEFAULT.maxSearchWindow());
+    this.maxTravelTime =
+      c
+        .of("maxTravelTime")
+        .since(V2_6)
+        .summary("The maximum `maxTravelTime` of a travel-time request.")
+        .asDuration(DEFAULT.maxTravelTime());
+    this.processingTimeout = apiProcessingTimeout;
+  }
+
+  @Override
+  public int maxOrigins() {
+    return maxOrigins;
+  }
+
+  @Override
+  public Duration maxSearchWindow() {
+    return maxSearchWindow;
+  }
+
+  @Override
+  public Duration maxTravelTime() {
+    return maxTravelTime;
+  }
+
+  @Override
+  public Duration processingTimeout() {
+    return processingTimeout;
+  }
+}
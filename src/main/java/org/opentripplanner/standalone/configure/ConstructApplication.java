@@ -13,6 +13,7 @@ import org.opentripplanner.graph_builder.GraphBuilder;
 import org.opentripplanner.graph_builder.GraphBuilderDataSources;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.PrecomputedTransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
@@ -29,6 +30,7 @@ import org.opentripplanner.standalone.config.ConfigModel;
 import org.opentripplanner.standalone.config.OtpConfig;
 import org.opentripplanner.standalone.config.RouterConfig;
 import org.opentripplanner.standalone.server.GrizzlyServer;
+import org.opentripplanner.standalone.server.MetricsLogging;
 import org.opentripplanner.standalone.server.OTPWebApplication;
 import org.opentripplanner.street.model.StreetLimitationParameters;
 import org.opentripplanner.street.model.elevation.ElevationUtils;
@@ -106,16 +108,36 @@ public class ConstructApplication {
 
   /**
    * Create a new Grizzly server - call this method once, the new instance is created every time
-   * this method is called.
+   * this method is called. The server context of each request is created by the given graph
+   * reloader, using the application in use when the request is received.
    */
-  public GrizzlyServer createGrizzlyServer() {
+  public GrizzlyServer createGrizzlyServer(GraphReloader graphReloader) {
     return new GrizzlyServer(
       cli,
-      createApplication(),
+      createApplication(graphReloader),
       routerConfig().server().apiProcessingTimeout()
     );
   }
 
+  /**
+   * Index the graph and the transit model for travel search.
+   */
+  public void indexGraphForTravelSearch() {
+    transitModel().index();
+    graph().index(transitModel().getStopModel());
+    if (OTPFeature.CompactStreetGraph.isOn()) {
+      graph().indexCompactStreetGraph();
+    }
+  }
+
+  /**
+   * Stop the updaters and release the Raptor threads.
+   */
+  public void shutdown() {
+    UpdaterConfigurator.shutdownGraph(transitModel());
+    raptorConfig().shutdown();
+  }
+
   /**
    * Create the default graph builder.
    */
@@ -146,27 +168,35 @@ public class ConstructApplication {
     return graphBuilderDataSources.getOutputGraph();
   }
 
-  private Application createApplication() {
+  private Application createApplication(GraphReloader graphReloader) {
     LOG.info("Wiring up and configuring server.");
     setupTransitRoutingServer();
-    return new OTPWebApplication(routerConfig().server(), this::createServerContext);
+    return new OTPWebApplication(
+      routerConfig().server(),
+      graphReloader::createServerContext,
+      graphReloader
+    );
+  }
+
+  /**
+   * Create the transit layer, the updaters and the other services used to serve requests.
+   */
+  void setupTransitRoutingServer() {
+    setupTransitRoutingServerWithoutUpdaters();
+    startUpdaters();
+    metricsLogging().bindJvmMetrics();
+    metricsLogging().bindGraphMetrics();
   }
 
-  private void setupTransitRoutingServer() {
+  /**
+   * Create the transit layer and the other services used to serve requests, without starting the
+   * updaters. This is used for a graph loaded while another graph is in use.
+   */
+  void setupTransitRoutingServerWithoutUpdaters() {
     enableRequestTraceLogging();
-    createMetricsLogging();
 
     creatTransitLayerForRaptor(transitModel(), routerConfig().transitTuningConfig());
 
-    /* Create updater modules from JSON config. */
-    UpdaterConfigurator.configure(
-      graph(),
-      realtimeVehicleRepository(),
-      vehicleRentalRepository(),
-      transitModel(),
-      routerConfig().updaterConfig()
-    );
-
     initEllipsoidToGeoidDifference();
 
     initializeTransferCache(routerConfig().transitTuningConfig(), transitModel());
@@ -186,6 +216,19 @@ public class ConstructApplication {
     }
   }
 
+  /**
+   * Create the updater modules from the JSON config and start them.
+   */
+  void startUpdaters() {
+    UpdaterConfigurator.configure(
+      graph(),
+      realtimeVehicleRepository(),
+      vehicleRentalRepository(),
+      transitModel(),
+      routerConfig().updaterConfig()
+    );
+  }
+
   private void initEllipsoidToGeoidDifference() {
     try {
       var c = factory.worldEnvelopeService().envelope().orElseThrow().center();
@@ -216,6 +259,21 @@ public class ConstructApplication {
     );
   }
 
+  /**
+   * Create the transit data used by Raptor, and keep the expensive parts in the transit model, so
+   * they are saved with the graph, see {@link PrecomputedTransitLayer}.
+   */
+  public void precomputeTransitLayer() {
+    if (!transitModel().hasTransit()) {
+      return;
+    }
+    transitModel().index();
+    creatTransitLayerForRaptor(transitModel(), routerConfig().transitTuningConfig());
+    initializeTransferCache(routerConfig().transitTuningConfig(), transitModel());
+    transitModel()
+      .setPrecomputedTransitLayer(PrecomputedTransitLayer.of(transitModel().getTransitLayer()));
+  }
+
   public static void initializeTransferCache(
     TransitTuningParameters transitTuningConfig,
     TransitModel transitModel
@@ -289,7 +347,7 @@ public class ConstructApplication {
     return factory.graphVisualizer();
   }
 
-  private OtpServerRequestContext createServerContext() {
+  OtpServerRequestContext createServerContext() {
     return factory.createServerContext();
   }
 
@@ -299,8 +357,11 @@ public class ConstructApplication {
     }
   }
 
-  private void createMetricsLogging() {
-    factory.metricsLogging();
+  /**
+   * The metrics of this graph are bound when the graph is used to serve requests.
+   */
+  MetricsLogging metricsLogging() {
+    return factory.metricsLogging();
   }
 
   public EmissionsDataModel emissionsDataModel() {
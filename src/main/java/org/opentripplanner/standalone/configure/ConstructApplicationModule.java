@@ -2,16 +2,19 @@ package org.opentripplanner.standalone.configure;
 
 import dagger.Module;
 import dagger.Provides;
+import jakarta.inject.Singleton;
 import io.micrometer.core.instrument.Metrics;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.opentripplanner.astar.spi.TraverseVisitor;
 import org.opentripplanner.ext.emissions.EmissionsService;
+import org.opentripplanner.ext.flex.flexpathcalculator.FlexPathCache;
 import org.opentripplanner.ext.geocoder.LuceneIndex;
 import org.opentripplanner.ext.interactivelauncher.api.LauncherRequestDecorator;
 import org.opentripplanner.ext.ridehailing.RideHailingService;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationService;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.NearbyStopsCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleService;
@@ -39,6 +42,8 @@ public class ConstructApplicationModule {
     List<RideHailingService> rideHailingServices,
     @Nullable StopConsolidationService stopConsolidationService,
     StreetLimitationParametersService streetLimitationParametersService,
+    NearbyStopsCache nearbyStopsCache,
+    FlexPathCache flexPathCache,
     @Nullable TraverseVisitor<?, ?> traverseVisitor,
     EmissionsService emissionsService,
     LauncherRequestDecorator launcherRequestDecorator,
@@ -59,14 +64,29 @@ public class ConstructApplicationModule {
       vehicleRentalService,
       emissionsService,
       routerConfig.flexParameters(),
+      routerConfig.travelTimeMatrixParameters(),
       rideHailingServices,
       stopConsolidationService,
       streetLimitationParametersService,
+      nearbyStopsCache,
+      flexPathCache,
       traverseVisitor,
       luceneIndex
     );
   }
 
+  @Provides
+  @Singleton
+  NearbyStopsCache nearbyStopsCache(RouterConfig routerConfig) {
+    return NearbyStopsCache.of(routerConfig.transitTuningConfig());
+  }
+
+  @Provides
+  @Singleton
+  FlexPathCache flexPathCache(RouterConfig routerConfig) {
+    return FlexPathCache.of(routerConfig.flexParameters());
+  }
+
   @Provides
   @Nullable
   TraverseVisitor<?, ?> traverseVisitor(@Nullable GraphVisualizer graphVisualizer) {
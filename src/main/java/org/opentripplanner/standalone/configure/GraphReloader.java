@@ -0,0 +1,186 @@
+package org.opentripplanner.standalone.configure;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.time.DurationUtils;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.error.RoutingValidationException;
+import org.opentripplanner.routing.graph.SerializedGraphObject;
+import org.opentripplanner.standalone.api.GraphReloadService;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+import org.opentripplanner.transit.model.site.RegularStop;
+import org.opentripplanner.updater.configure.UpdaterConfigurator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Load a new graph while the server is running, and swap it with the graph used to serve requests.
+ * <p>
+ * The graph is loaded in the background, from the same data source as when the server started.
+ * The transit layer and the street index of the new graph are created, and a few trips are routed
+ * on the new graph before it is used. Then the new graph is used to create the server context of
+ * new requests, while the requests in progress finish on the old graph. The updaters of the old
+ * graph are stopped and the updaters of the new graph are started, and the metrics of the old
+ * graph are replaced by the metrics of the new graph. The Raptor threads of the old graph are
+ * released when the requests in progress have timed out.
+ * <p>
+ * The static state shared by all graphs, like the sub-mode cache, is not changed until the new
+ * graph is used. The updaters of the new graph may change this state, so they are not started
+ * before. The new graph is rejected if its static state is not compatible with the graph in use.
+ * Only the routing trip pattern index counter is raised when the new graph is loaded, the transit
+ * layer of the new graph needs it, and it is never decreased.
+ * <p>
+ * The configuration is not reloaded, the new graph is used with the configuration loaded when the
+ * server started.
+ */
+public class GraphReloader implements GraphReloadService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(GraphReloader.class);
+
+  /** How long the old graph is kept for the requests in progress, if they have no timeout. */
+  private static final Duration KEEP_OLD_GRAPH = Duration.ofMinutes(1);
+
+  private static final int N_WARM_UP_TRIPS = 4;
+
+  private final LoadApplication loadApplication;
+  private final AtomicReference<ConstructApplication> application;
+  private final AtomicBoolean reloading = new AtomicBoolean(false);
+
+  public GraphReloader(LoadApplication loadApplication, ConstructApplication application) {
+    this.loadApplication = loadApplication;
+    this.application = new AtomicReference<>(application);
+  }
+
+  /**
+   * The application used to serve new requests.
+   */
+  public ConstructApplication application() {
+    return application.get();
+  }
+
+  public OtpServerRequestContext createServerContext() {
+    return application.get().createServerContext();
+  }
+
+  @Override
+  public boolean isValidToken(@Nullable String token) {
+    String expected = application.get().routerConfig().server().graphReloadToken();
+    if (expected == null || token == null) {
+      return false;
+    }
+    return MessageDigest.isEqual(
+      expected.getBytes(StandardCharsets.UTF_8),
+      token.getBytes(StandardCharsets.UTF_8)
+    );
+  }
+
+  @Override
+  public boolean reload() {
+    if (!reloading.compareAndSet(false, true)) {
+      LOG.warn("The graph is already being reloaded.");
+      return false;
+    }
+    var thread = new Thread(this::reloadGraph, "graph-reload");
+    thread.setDaemon(true);
+    thread.start();
+    return true;
+  }
+
+  private void reloadGraph() {
+    long start = System.currentTimeMillis();
+    ConstructApplication newApplication = null;
+    try {
+      LOG.info("Reloading graph...");
+      var serializedGraph = SerializedGraphObject.loadWithoutStaticState(
+        loadApplication.getInputGraphDataStore()
+      );
+      if (serializedGraph == null) {
+        LOG.error("Failed to reload graph, the graph in use is kept.");
+        return;
+      }
+      serializedGraph.validateStaticState();
+      newApplication = loadApplication.appConstruction(serializedGraph);
+      newApplication.indexGraphForTravelSearch();
+      newApplication.setupTransitRoutingServerWithoutUpdaters();
+      warmUp(newApplication);
+
+      // The sub-modes may have been changed by the updaters of the graph in use, this fails
+      // without changing the static state if the sub-modes are no longer compatible
+      serializedGraph.initStaticState();
+      var oldApplication = application.getAndSet(newApplication);
+      UpdaterConfigurator.shutdownGraph(oldApplication.transitModel());
+      oldApplication.metricsLogging().removeGraphMetrics();
+      newApplication.startUpdaters();
+      newApplication.metricsLogging().bindGraphMetrics();
+      LOG.info(
+        "Graph reloaded in {}, new requests use the new graph.",
+        DurationUtils.msToSecondsStr(System.currentTimeMillis() - start)
+      );
+      releaseOldGraph(oldApplication);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      LOG.warn("Graph reload interrupted, the graph in use is kept.");
+      shutdownIfNotUsed(newApplication);
+    } catch (RuntimeException e) {
+      LOG.error("Failed to reload graph, the graph in use is kept: {}", e.getMessage(), e);
+      shutdownIfNotUsed(newApplication);
+    } finally {
+      reloading.set(false);
+    }
+  }
+
+  /**
+   * Route a few trips between stops of the new graph, to fill the caches used by the routing
+   * before the new graph is used.
+   */
+  private static void warmUp(ConstructApplication application) {
+    var serverContext = application.createServerContext();
+    List<RegularStop> stops = List.copyOf(serverContext.transitService().listRegularStops());
+    if (stops.size() < 2) {
+      return;
+    }
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < N_WARM_UP_TRIPS; ++i) {
+      int from = i * stops.size() / N_WARM_UP_TRIPS;
+      int to = (from + stops.size() / 2) % stops.size();
+      var request = serverContext.defaultRouteRequest().clone();
+      request.setFrom(location(stops.get(from)));
+      request.setTo(location(stops.get(to)));
+      try {
+        serverContext.routingService().route(request);
+      } catch (RoutingValidationException e) {
+        LOG.debug("Warm-up trip not routed: {}", e.getMessage());
+      }
+    }
+    LOG.info(
+      "New graph warmed up in {}",
+      DurationUtils.msToSecondsStr(System.currentTimeMillis() - start)
+    );
+  }
+
+  private static GenericLocation location(RegularStop stop) {
+    return new GenericLocation(null, stop.getId(), stop.getLat(), stop.getLon());
+  }
+
+  /**
+   * Release the Raptor threads of the old graph when the requests in progress are done.
+   */
+  private static void releaseOldGraph(ConstructApplication application)
+    throws InterruptedException {
+    var timeout = application.routerConfig().server().apiProcessingTimeout();
+    Thread.sleep((timeout.isPositive() ? timeout : KEEP_OLD_GRAPH).toMillis());
+    application.raptorConfig().shutdown();
+    LOG.info("Old graph released.");
+  }
+
+  private void shutdownIfNotUsed(ConstructApplication newApplication) {
+    if (newApplication != null && newApplication != application.get()) {
+      newApplication.shutdown();
+    }
+  }
+}
@@ -4,6 +4,7 @@ import javax.annotation.Nullable;
 import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.ext.emissions.EmissionsDataModel;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationRepository;
+import org.opentripplanner.ext.stopconsolidation.internal.LazyStopConsolidationRepository;
 import org.opentripplanner.graph_builder.GraphBuilderDataSources;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.routing.graph.Graph;
@@ -50,15 +51,32 @@ public class LoadApplication {
       : factory.datastore().getStreetGraph();
   }
 
-  /** Construct application from serialized graph */
+  /**
+   * Construct application from serialized graph. When a graph is loaded to serve requests, the
+   * parts which are not used for routing are deserialized on first access. A street graph is used
+   * to build a new graph, and these parts are saved again with the new graph.
+   */
   public ConstructApplication appConstruction(SerializedGraphObject obj) {
+    if (cli.doLoadStreetGraph()) {
+      return createAppConstruction(
+        obj.graph,
+        obj.transitModel,
+        obj.worldEnvelopeRepository,
+        obj.issueSummary(),
+        obj.emissionsDataModel(),
+        obj.stopConsolidationRepository(),
+        obj.streetLimitationParameters
+      );
+    }
     return createAppConstruction(
       obj.graph,
       obj.transitModel,
       obj.worldEnvelopeRepository,
-      obj.issueSummary,
-      obj.emissionsDataModel,
-      obj.stopConsolidationRepository,
+      DataImportIssueSummary.lazy(obj.issueSummaryLoader()),
+      obj.hasEmissionsDataModel() ? EmissionsDataModel.lazy(obj.emissionsDataModelLoader()) : null,
+      obj.hasStopConsolidationRepository()
+        ? new LazyStopConsolidationRepository(obj.stopConsolidationRepositoryLoader())
+        : null,
       obj.streetLimitationParameters
     );
   }
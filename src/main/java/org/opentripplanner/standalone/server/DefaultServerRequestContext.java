@@ -7,12 +7,15 @@ import javax.annotation.Nullable;
 import org.opentripplanner.astar.spi.TraverseVisitor;
 import org.opentripplanner.ext.emissions.EmissionsService;
 import org.opentripplanner.ext.flex.FlexParameters;
+import org.opentripplanner.ext.traveltimematrix.TravelTimeMatrixParameters;
+import org.opentripplanner.ext.flex.flexpathcalculator.FlexPathCache;
 import org.opentripplanner.ext.geocoder.LuceneIndex;
 import org.opentripplanner.ext.ridehailing.RideHailingService;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationService;
 import org.opentripplanner.inspector.raster.TileRendererManager;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.NearbyStopsCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.api.RoutingService;
@@ -43,6 +46,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
   private final TileRendererManager tileRendererManager;
   private final VectorTileConfig vectorTileConfig;
   private final FlexParameters flexParameters;
+  private final TravelTimeMatrixParameters travelTimeMatrixParameters;
   private final TraverseVisitor traverseVisitor;
   private final WorldEnvelopeService worldEnvelopeService;
   private final RealtimeVehicleService realtimeVehicleService;
@@ -50,6 +54,8 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
   private final EmissionsService emissionsService;
   private final StopConsolidationService stopConsolidationService;
   private final StreetLimitationParametersService streetLimitationParametersService;
+  private final NearbyStopsCache nearbyStopsCache;
+  private final FlexPathCache flexPathCache;
   private final LuceneIndex luceneIndex;
 
   /**
@@ -71,7 +77,10 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     List<RideHailingService> rideHailingServices,
     StopConsolidationService stopConsolidationService,
     StreetLimitationParametersService streetLimitationParametersService,
+    NearbyStopsCache nearbyStopsCache,
+    FlexPathCache flexPathCache,
     FlexParameters flexParameters,
+    TravelTimeMatrixParameters travelTimeMatrixParameters,
     TraverseVisitor traverseVisitor,
     @Nullable LuceneIndex luceneIndex
   ) {
@@ -84,6 +93,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     this.vectorTileConfig = vectorTileConfig;
     this.vehicleRentalService = vehicleRentalService;
     this.flexParameters = flexParameters;
+    this.travelTimeMatrixParameters = travelTimeMatrixParameters;
     this.traverseVisitor = traverseVisitor;
     this.routeRequestDefaults = routeRequestDefaults;
     this.worldEnvelopeService = worldEnvelopeService;
@@ -92,6 +102,8 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     this.emissionsService = emissionsService;
     this.stopConsolidationService = stopConsolidationService;
     this.streetLimitationParametersService = streetLimitationParametersService;
+    this.nearbyStopsCache = nearbyStopsCache;
+    this.flexPathCache = flexPathCache;
     this.luceneIndex = luceneIndex;
   }
 
@@ -111,9 +123,12 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     VehicleRentalService vehicleRentalService,
     @Nullable EmissionsService emissionsService,
     FlexParameters flexParameters,
+    TravelTimeMatrixParameters travelTimeMatrixParameters,
     List<RideHailingService> rideHailingServices,
     @Nullable StopConsolidationService stopConsolidationService,
     StreetLimitationParametersService streetLimitationParametersService,
+    NearbyStopsCache nearbyStopsCache,
+    FlexPathCache flexPathCache,
     @Nullable TraverseVisitor traverseVisitor,
     @Nullable LuceneIndex luceneIndex
   ) {
@@ -133,7 +148,10 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
       rideHailingServices,
       stopConsolidationService,
       streetLimitationParametersService,
+      nearbyStopsCache,
+      flexPathCache,
       flexParameters,
+      travelTimeMatrixParameters,
       traverseVisitor,
       luceneIndex
     );
@@ -216,6 +234,16 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     return streetLimitationParametersService;
   }
 
+  @Override
+  public NearbyStopsCache nearbyStopsCache() {
+    return nearbyStopsCache;
+  }
+
+  @Override
+  public FlexPathCache flexPathCache() {
+    return flexPathCache;
+  }
+
   @Override
   public MeterRegistry meterRegistry() {
     return meterRegistry;
@@ -236,6 +264,11 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     return flexParameters;
   }
 
+  @Override
+  public TravelTimeMatrixParameters travelTimeMatrixParameters() {
+    return travelTimeMatrixParameters;
+  }
+
   @Override
   public VectorTileConfig vectorTileConfig() {
     return vectorTileConfig;
@@ -1,7 +1,12 @@
 package org.opentripplanner.standalone.server;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.MultiGauge;
 import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import io.micrometer.core.instrument.binder.jvm.ClassLoaderMetrics;
 import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
@@ -15,53 +20,134 @@ import io.micrometer.core.instrument.binder.logging.LogbackMetrics;
 import io.micrometer.core.instrument.binder.system.FileDescriptorMetrics;
 import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
 import io.micrometer.core.instrument.binder.system.UptimeMetrics;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.opentripplanner.ext.flex.flexpathcalculator.FlexPathCache;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.NearbyStopsCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.transit.service.TransitModel;
 
 /**
  * This class is responsible for wiring up various metrics to micrometer, which we use for
  * performance logging, through the Actuator API.
+ * <p>
+ * The metrics of the JVM are bound once, when the server is started. The metrics of the caches and
+ * the thread pools of a graph are bound when the graph is used to serve requests, and removed when
+ * the graph is replaced by a reloaded graph. The registry keeps the first meter registered with a
+ * name, so the meters of the old graph must be removed before the meters of the new graph are
+ * bound.
  */
+@Singleton
 public class MetricsLogging {
 
+  private final MeterRegistry registry;
+  private final TransitModel transitModel;
+  private final RaptorConfig<TripSchedule> raptorConfig;
+  private final DataImportIssueSummary issueSummary;
+  private final NearbyStopsCache nearbyStopsCache;
+  private final FlexPathCache flexPathCache;
+
+  /**
+   * The meters of the graph, see {@link #bindGraphMetrics()}. The meters are added to the registry
+   * through this registry, so they can be found and removed.
+   */
+  private final CompositeMeterRegistry graphMeters = new CompositeMeterRegistry();
+
   @Inject
   public MetricsLogging(
     TransitModel transitModel,
     RaptorConfig<TripSchedule> raptorConfig,
-    DataImportIssueSummary issueSummary
+    DataImportIssueSummary issueSummary,
+    NearbyStopsCache nearbyStopsCache,
+    FlexPathCache flexPathCache
   ) {
-    new ClassLoaderMetrics().bindTo(Metrics.globalRegistry);
-    new FileDescriptorMetrics().bindTo(Metrics.globalRegistry);
-    new JvmCompilationMetrics().bindTo(Metrics.globalRegistry);
-    new JvmGcMetrics().bindTo(Metrics.globalRegistry);
-    new JvmHeapPressureMetrics().bindTo(Metrics.globalRegistry);
-    new JvmInfoMetrics().bindTo(Metrics.globalRegistry);
-    new JvmMemoryMetrics().bindTo(Metrics.globalRegistry);
-    new JvmThreadMetrics().bindTo(Metrics.globalRegistry);
-    new LogbackMetrics().bindTo(Metrics.globalRegistry);
-    new ProcessorMetrics().bindTo(Metrics.globalRegistry);
-    new UptimeMetrics().bindTo(Metrics.globalRegistry);
+    this(
+      Metrics.globalRegistry,
+      transitModel,
+      raptorConfig,
+      issueSummary,
+      nearbyStopsCache,
+      flexPathCache
+    );
+  }
+
+  MetricsLogging(
+    MeterRegistry registry,
+    TransitModel transitModel,
+    RaptorConfig<TripSchedule> raptorConfig,
+    DataImportIssueSummary issueSummary,
+    NearbyStopsCache nearbyStopsCache,
+    FlexPathCache flexPathCache
+  ) {
+    this.registry = registry;
+    this.transitModel = transitModel;
+    this.raptorConfig = raptorConfig;
+    this.issueSummary = issueSummary;
+    this.nearbyStopsCache = nearbyStopsCache;
+    this.flexPathCache = flexPathCache;
+    this.graphMeters.add(registry);
+  }
+
+  /**
+   * Bind the metrics of the JVM, call this once when the server is started.
+   */
+  public void bindJvmMetrics() {
+    new ClassLoaderMetrics().bindTo(registry);
+    new FileDescriptorMetrics().bindTo(registry);
+    new JvmCompilationMetrics().bindTo(registry);
+    new JvmGcMetrics().bindTo(registry);
+    new JvmHeapPressureMetrics().bindTo(registry);
+    new JvmInfoMetrics().bindTo(registry);
+    new JvmMemoryMetrics().bindTo(registry);
+    new JvmThreadMetrics().bindTo(registry);
+    new LogbackMetrics().bindTo(registry);
+    new ProcessorMetrics().bindTo(registry);
+    new UptimeMetrics().bindTo(registry);
+
+    new ExecutorServiceMetrics(
+      ForkJoinPool.commonPool(),
+      "commonPool",
+      List.of(Tag.of("pool", "commonPool"))
+    )
+      .bindTo(registry);
+  }
 
+  /**
+   * Bind the metrics of the caches and the thread pools of the graph, and the graph build issues.
+   * Call this when the graph is used to serve requests, after the updaters are started.
+   */
+  public void bindGraphMetrics() {
     if (transitModel.getTransitLayer() != null) {
       new GuavaCacheMetrics(
         transitModel.getTransitLayer().getTransferCache().getTransferCache(),
         "raptorTransfersCache",
         List.of(Tag.of("cache", "raptorTransfers"))
       )
-        .bindTo(Metrics.globalRegistry);
+        .bindTo(graphMeters);
+    }
+    if (nearbyStopsCache.getCache() != null) {
+      new GuavaCacheMetrics(
+        nearbyStopsCache.getCache(),
+        "nearbyStopsCache",
+        List.of(Tag.of("cache", "nearbyStops"))
+      )
+        .bindTo(graphMeters);
+    }
+    if (flexPathCache.getCache() != null) {
+      new GuavaCacheMetrics(
+        flexPathCache.getCache(),
+        "flexPathCache",
+        List.of(Tag.of("cache", "flexPath"))
+      )
+        .bindTo(graphMeters);
     }
-    new ExecutorServiceMetrics(
-      ForkJoinPool.commonPool(),
-      "commonPool",
-      List.of(Tag.of("pool", "commonPool"))
-    )
-      .bindTo(Metrics.globalRegistry);
 
     if (transitModel.getUpdaterManager() != null) {
       new ExecutorServiceMetrics(
@@ -69,21 +155,21 @@ public class MetricsLogging {
         "pollingGraphUpdaters",
         List.of(Tag.of("pool", "pollingGraphUpdaters"))
       )
-        .bindTo(Metrics.globalRegistry);
+        .bindTo(graphMeters);
 
       new ExecutorServiceMetrics(
         transitModel.getUpdaterManager().getNonPollingUpdaterPool(),
         "nonPollingGraphUpdaters",
         List.of(Tag.of("pool", "nonPollingGraphUpdaters"))
       )
-        .bindTo(Metrics.globalRegistry);
+        .bindTo(graphMeters);
 
       new ExecutorServiceMetrics(
         transitModel.getUpdaterManager().getScheduler(),
         "graphUpdateScheduler",
         List.of(Tag.of("pool", "graphUpdateScheduler"))
       )
-        .bindTo(Metrics.globalRegistry);
+        .bindTo(graphMeters);
     }
 
     if (raptorConfig.isMultiThreaded()) {
@@ -92,16 +178,56 @@ public class MetricsLogging {
         "raptorHeuristics",
         List.of(Tag.of("pool", "raptorHeuristics"))
       )
-        .bindTo(Metrics.globalRegistry);
+        .bindTo(graphMeters);
     }
 
-    final Map<String, Long> issueCount = issueSummary.asMap();
+    bindIssueSummary();
+  }
 
-    var totalIssues = issueCount.values().stream().mapToLong(i -> i).sum();
-    Metrics.globalRegistry.gauge("graph_build_issues_total", totalIssues);
+  /**
+   * The issue summary saved with the graph is deserialized on first access, so it is read when the
+   * gauges are read, not when they are bound. The issue types are not known before the summary is
+   * read, so the gauge of each type is registered the first time the total is read.
+   */
+  private void bindIssueSummary() {
+    var issuesByType = MultiGauge.builder("graph_build_issues").register(graphMeters);
+    var typesRegistered = new AtomicBoolean(false);
 
-    issueCount.forEach((issueType, number) ->
-      Metrics.globalRegistry.gauge("graph_build_issues", List.of(Tag.of("type", issueType)), number)
-    );
+    Gauge
+      .builder(
+        "graph_build_issues_total",
+        issueSummary,
+        summary -> {
+          Map<String, Long> issueCount = summary.asMap();
+          if (typesRegistered.compareAndSet(false, true)) {
+            issuesByType.register(
+              issueCount
+                .keySet()
+                .stream()
+                .<MultiGauge.Row<?>>map(type ->
+                  MultiGauge.Row.of(
+                    Tags.of("type", type),
+                    summary,
+                    s -> s.asMap().getOrDefault(type, 0L)
+                  )
+                )
+                .toList()
+            );
+          }
+          return issueCount.values().stream().mapToLong(i -> i).sum();
+        }
+      )
+      .register(graphMeters);
+  }
+
+  /**
+   * Remove the meters bound by {@link #bindGraphMetrics()}, call this when the graph is replaced.
+   * The meters no longer reference the caches and the thread pools of the graph.
+   */
+  public void removeGraphMetrics() {
+    for (Meter meter : graphMeters.getMeters()) {
+      registry.removeByPreFilterId(meter.getId());
+      graphMeters.remove(meter);
+    }
   }
 }
@@ -20,6 +20,7 @@ import org.opentripplanner.api.common.OTPExceptionMapper;
 import org.opentripplanner.apis.APIEndpoints;
 import org.opentripplanner.ext.restapi.serialization.JSONObjectMapperProvider;
 import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.standalone.api.GraphReloadService;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.slf4j.bridge.SLF4JBridgeHandler;
 
@@ -36,6 +37,8 @@ public class OTPWebApplication extends Application {
   /* This object groups together all the modules for a single running OTP server. */
   private final Supplier<OtpServerRequestContext> contextProvider;
 
+  private final GraphReloadService graphReloadService;
+
   private final List<Class<? extends ContainerResponseFilter>> customFilters;
 
   static {
@@ -48,9 +51,11 @@ public class OTPWebApplication extends Application {
 
   public OTPWebApplication(
     OTPWebApplicationParameters parameters,
-    Supplier<OtpServerRequestContext> contextProvider
+    Supplier<OtpServerRequestContext> contextProvider,
+    GraphReloadService graphReloadService
   ) {
     this.contextProvider = contextProvider;
+    this.graphReloadService = graphReloadService;
     this.customFilters = createCustomFilters(parameters.traceParameters());
   }
 
@@ -113,6 +118,10 @@ public class OTPWebApplication extends Application {
       singletons.add(getBoundPrometheusRegistry());
     }
 
+    if (OTPFeature.APIGraphReload.isOn()) {
+      singletons.add(makeGraphReloadBinder());
+    }
+
     return singletons;
   }
 
@@ -144,6 +153,18 @@ public class OTPWebApplication extends Application {
     };
   }
 
+  /**
+   * Inject the graph reload service into the graph reload endpoint.
+   */
+  private Binder makeGraphReloadBinder() {
+    return new AbstractBinder() {
+      @Override
+      protected void configure() {
+        bind(graphReloadService).to(GraphReloadService.class);
+      }
+    };
+  }
+
   private MetricsApplicationEventListener getMetricsApplicationEventListener() {
     return new MetricsApplicationEventListener(
       Metrics.globalRegistry,
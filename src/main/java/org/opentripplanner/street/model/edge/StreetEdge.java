@@ -10,6 +10,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.locationtech.jts.geom.LineString;
 import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
 import org.opentripplanner.framework.geometry.CompactLineStringUtils;
@@ -20,6 +21,7 @@ import org.opentripplanner.framework.geometry.SplitLineString;
 import org.opentripplanner.framework.i18n.I18NString;
 import org.opentripplanner.framework.lang.BitSetUtils;
 import org.opentripplanner.framework.lang.IntUtils;
+import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
 import org.opentripplanner.routing.linking.DisposableEdgeCollection;
 import org.opentripplanner.routing.linking.LinkingDirection;
@@ -332,6 +334,10 @@ public class StreetEdge
   @Override
   @Nonnull
   public State[] traverse(State s0) {
+    if (canTraverseWithoutEditor(s0)) {
+      return State.ofNullable(traverseWalking(s0));
+    }
+
     final StateEditor editor;
 
     final boolean arriveByRental =
@@ -1115,62 +1121,11 @@ public class StreetEdge
 
     /* Compute turn cost. */
     if (backEdge instanceof StreetEdge backPSE) {
-      TraverseMode backMode = s0.getBackMode();
-      final boolean arriveBy = s0.getRequest().arriveBy();
-
-      // Apply turn restrictions
-      if (
-        arriveBy
-          ? !canTurnOnto(backPSE, s0, backMode)
-          : !backPSE.canTurnOnto(this, s0, traverseMode)
-      ) {
+      double turnDuration = turnDuration(s0, backPSE, traverseMode, speed); // Units are seconds.
+      if (Double.isNaN(turnDuration)) {
         return null;
       }
 
-      double backSpeed = backPSE.calculateSpeed(preferences, backMode, s0.isBackWalkingBike());
-      final double turnDuration; // Units are seconds.
-
-      /*
-       * This is a subtle piece of code. Turn costs are evaluated differently during
-       * forward and reverse traversal. During forward traversal of an edge, the turn
-       * *into* that edge is used, while during reverse traversal, the turn *out of*
-       * the edge is used.
-       *
-       * However, over a set of edges, the turn costs must add up the same (for
-       * general correctness and specifically for reverse optimization). This means
-       * that during reverse traversal, we must also use the speed for the mode of
-       * the backEdge, rather than of the current edge.
-       */
-      if (arriveBy && tov instanceof IntersectionVertex traversedVertex) { // arrive-by search
-        turnDuration =
-          s0
-            .intersectionTraversalCalculator()
-            .computeTraversalDuration(
-              traversedVertex,
-              this,
-              backPSE,
-              backMode,
-              (float) speed,
-              (float) backSpeed
-            );
-      } else if (!arriveBy && fromv instanceof IntersectionVertex traversedVertex) { // depart-after search
-        turnDuration =
-          s0
-            .intersectionTraversalCalculator()
-            .computeTraversalDuration(
-              traversedVertex,
-              backPSE,
-              this,
-              traverseMode,
-              (float) backSpeed,
-              (float) speed
-            );
-      } else {
-        // In case this is a temporary edge not connected to an IntersectionVertex
-        LOG.debug("Not computing turn duration for edge {}", this);
-        turnDuration = 0;
-      }
-
       if (!traverseMode.isInCar()) {
         s1.incrementWalkDistance(turnDuration / 100); // just a tie-breaker
       }
@@ -1316,6 +1271,143 @@ public class StreetEdge
    * Since a Vertex may be arrived at with and without a no-thru restriction, the logic in
    * DominanceFunction#betterOrEqualAndComparable treats the two cases as separate.
    */
+  /**
+   * The duration of the turn from the back edge onto this edge, or {@code NaN} if the turn is not
+   * allowed.
+   */
+  private double turnDuration(
+    State s0,
+    StreetEdge backPSE,
+    TraverseMode traverseMode,
+    double speed
+  ) {
+    TraverseMode backMode = s0.getBackMode();
+    final boolean arriveBy = s0.getRequest().arriveBy();
+
+    // Apply turn restrictions
+    if (
+      arriveBy
+        ? !canTurnOnto(backPSE, s0, backMode)
+        : !backPSE.canTurnOnto(this, s0, traverseMode)
+    ) {
+      return Double.NaN;
+    }
+
+    double backSpeed = backPSE.calculateSpeed(
+      s0.getPreferences(),
+      backMode,
+      s0.isBackWalkingBike()
+    );
+
+    /*
+     * This is a subtle piece of code. Turn costs are evaluated differently during
+     * forward and reverse traversal. During forward traversal of an edge, the turn
+     * *into* that edge is used, while during reverse traversal, the turn *out of*
+     * the edge is used.
+     *
+     * However, over a set of edges, the turn costs must add up the same (for
+     * general correctness and specifically for reverse optimization). This means
+     * that during reverse traversal, we must also use the speed for the mode of
+     * the backEdge, rather than of the current edge.
+     */
+    if (arriveBy && tov instanceof IntersectionVertex traversedVertex) { // arrive-by search
+      return s0
+        .intersectionTraversalCalculator()
+        .computeTraversalDuration(
+          traversedVertex,
+          this,
+          backPSE,
+          backMode,
+          (float) speed,
+          (float) backSpeed
+        );
+    } else if (!arriveBy && fromv instanceof IntersectionVertex traversedVertex) { // depart-after search
+      return s0
+        .intersectionTraversalCalculator()
+        .computeTraversalDuration(
+          traversedVertex,
+          backPSE,
+          this,
+          traverseMode,
+          (float) backSpeed,
+          (float) speed
+        );
+    } else {
+      // In case this is a temporary edge not connected to an IntersectionVertex
+      LOG.debug("Not computing turn duration for edge {}", this);
+      return 0;
+    }
+  }
+
+  /**
+   * Walk-only searches create most of their states by walking along street edges. After the
+   * first edge the {@link org.opentripplanner.street.search.state.StateData} of these states does
+   * not change, so the new state can be created directly, see {@link #traverseWalking(State)}.
+   * The other cases, like entering a no-through-traffic area, use a {@link StateEditor}.
+   */
+  private boolean canTraverseWithoutEditor(State s0) {
+    return (
+      s0.getRequest().mode() == StreetMode.WALK &&
+      s0.currentMode() == TraverseMode.WALK &&
+      s0.getBackMode() == TraverseMode.WALK &&
+      !s0.isBackWalkingBike() &&
+      !s0.hasEnteredNoThruTrafficArea() &&
+      !isWalkNoThruTraffic()
+    );
+  }
+
+  /**
+   * Traverse the edge on foot, this gives the same state as {@link #doTraverse} for the cases
+   * accepted by {@link #canTraverseWithoutEditor(State)}, without allocating a
+   * {@link StateEditor}.
+   */
+  @Nullable
+  private State traverseWalking(State s0) {
+    if (!canTraverse(TraverseMode.WALK)) {
+      return null;
+    }
+    Edge backEdge = s0.getBackEdge();
+    if (backEdge != null && (this.isReverseOf(backEdge) || backEdge.isReverseOf(this))) {
+      return null;
+    }
+
+    final RoutingPreferences preferences = s0.getPreferences();
+    double speed = calculateSpeed(preferences, TraverseMode.WALK, false);
+    var traversalCosts = walkingTraversalCosts(
+      preferences,
+      TraverseMode.WALK,
+      speed,
+      false,
+      s0.getRequest().wheelchair()
+    );
+
+    int time = (int) Math.ceil(traversalCosts.time());
+    double weight = traversalCosts.weight();
+    double walkDistance = s0.getWalkDistance();
+
+    if (backEdge instanceof StreetEdge backPSE) {
+      double turnDuration = turnDuration(s0, backPSE, TraverseMode.WALK, speed);
+      if (Double.isNaN(turnDuration)) {
+        return null;
+      }
+      walkDistance += turnDuration / 100;
+      time += (int) Math.ceil(turnDuration);
+      weight += preferences.street().turnReluctance() * turnDuration;
+    }
+    walkDistance += getDistanceWithElevation();
+
+    if (costExtension != null) {
+      weight += costExtension.calculateExtraCost(s0, length_mm, TraverseMode.WALK);
+    }
+
+    if (!Double.isFinite(weight) || weight < 0) {
+      // Let the state editor report the invalid weight
+      var editor = doTraverse(s0, TraverseMode.WALK, false);
+      return editor == null ? null : editor.makeState();
+    }
+    return s0.createWalkingState(this, time, weight, walkDistance);
+  }
+
   private boolean isTraversalBlockedByNoThruTraffic(
     TraverseMode traverseMode,
     Edge backEdge,
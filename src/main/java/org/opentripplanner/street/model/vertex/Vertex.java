@@ -37,6 +37,8 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
   private transient Edge[] outgoing = new Edge[0];
   private RentalRestrictionExtension rentalRestrictions = RentalRestrictionExtension.NO_RESTRICTION;
 
+  private int index = NO_INDEX;
+
   /* CONSTRUCTORS */
 
   protected Vertex(double x, double y) {
@@ -61,6 +63,19 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
     return sb.toString();
   }
 
+  @Override
+  public int getIndex() {
+    return index;
+  }
+
+  /**
+   * The index is assigned to all vertices in the graph by {@link
+   * org.opentripplanner.routing.graph.Graph#index}, do not use this method anywhere else.
+   */
+  public void setIndex(int index) {
+    this.index = index;
+  }
+
   public void initEdgeLists() {
     this.outgoing = new Edge[0];
     this.incoming = new Edge[0];
@@ -1,31 +1,54 @@
 package org.opentripplanner.street.search;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opentripplanner.astar.AStarBuilder;
+import org.opentripplanner.astar.model.GraphPath;
 import org.opentripplanner.astar.spi.DominanceFunction;
 import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
 import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
+import org.opentripplanner.framework.time.DateUtils;
 import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.api.request.preference.StreetPreferences;
 import org.opentripplanner.routing.api.request.request.StreetRequest;
 import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.FreeEdge;
 import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.ch.ContractionHierarchy;
+import org.opentripplanner.street.search.ch.ContractionHierarchySearch;
+import org.opentripplanner.street.search.compact.CompactStreetGraph;
+import org.opentripplanner.street.search.compact.CompactStreetSearch;
 import org.opentripplanner.street.search.intersection_model.IntersectionTraversalCalculator;
 import org.opentripplanner.street.search.request.StreetSearchRequest;
 import org.opentripplanner.street.search.request.StreetSearchRequestMapper;
 import org.opentripplanner.street.search.state.State;
 import org.opentripplanner.street.search.strategy.DominanceFunctions;
 import org.opentripplanner.street.search.strategy.EuclideanRemainingWeightHeuristic;
+import org.opentripplanner.street.search.strategy.LandmarkRemainingWeightHeuristic;
 
 public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, StreetSearchBuilder> {
 
+  /**
+   * The fast searches store the edge distances as single precision numbers, so the lower bound
+   * they compute may differ slightly from the weight computed by the street edges.
+   */
+  private static final double MAX_LOWER_BOUND_ROUNDING_ERROR = 1e-6;
+
   private RouteRequest routeRequest;
   private StreetRequest streetRequest = new StreetRequest();
   private IntersectionTraversalCalculator intersectionTraversalCalculator;
   private DataOverlayContext dataOverlayContext;
+  private CompactStreetGraph compactStreetGraph;
+  private Duration compactSearchMaxDuration;
+  private ContractionHierarchy contractionHierarchy;
+  private Duration contractionHierarchyMaxDuration;
 
   public static StreetSearchBuilder of() {
     return new StreetSearchBuilder();
@@ -65,6 +88,57 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
     return this;
   }
 
+  /**
+   * Use the compact street graph to find the path for one-to-one walk searches. The path found is
+   * traversed using the street edges, if this fails or the path may not be optimal the regular
+   * search is used.
+   *
+   * @param maxDuration paths longer than this are not returned, this should be the same as the
+   *                    duration used by the skip edge strategy.
+   */
+  public StreetSearchBuilder setCompactStreetGraph(
+    @Nullable CompactStreetGraph compactStreetGraph,
+    Duration maxDuration
+  ) {
+    this.compactStreetGraph = compactStreetGraph;
+    this.compactSearchMaxDuration = maxDuration;
+    return this;
+  }
+
+  /**
+   * Use the contraction hierarchy to find the fastest path for one-to-one car searches. The path
+   * found is traversed using the street edges, if this fails or the path may not be optimal the
+   * other searches are used.
+   *
+   * @param maxDuration paths longer than this are not returned, this should be the same as the
+   *                    duration used by the skip edge strategy.
+   */
+  public StreetSearchBuilder setContractionHierarchy(
+    @Nullable ContractionHierarchy contractionHierarchy,
+    Duration maxDuration
+  ) {
+    this.contractionHierarchy = contractionHierarchy;
+    this.contractionHierarchyMaxDuration = maxDuration;
+    return this;
+  }
+
+  @Override
+  public List<GraphPath<State, Edge, Vertex>> getPathsToTarget() {
+    if (contractionHierarchy != null) {
+      var paths = findPathsInContractionHierarchy();
+      if (paths != null) {
+        return paths;
+      }
+    }
+    if (compactStreetGraph != null) {
+      var paths = findPathsInCompactGraph();
+      if (paths != null) {
+        return paths;
+      }
+    }
+    return super.getPathsToTarget();
+  }
+
   @Nonnull
   @Override
   protected Duration streetRoutingTimeout() {
@@ -72,11 +146,11 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
   }
 
   @Override
-  protected Collection<State> createInitialStates(Set<Vertex> originVertices) {
+  protected Collection<State> createInitialStates(Set<Vertex> originVertices, boolean arriveBy) {
     StreetSearchRequest streetSearchRequest = StreetSearchRequestMapper
       .map(routeRequest)
       .withMode(streetRequest.mode())
-      .withArriveBy(arriveBy())
+      .withArriveBy(arriveBy)
       .build();
 
     return State.getInitialStates(originVertices, streetSearchRequest);
@@ -115,6 +189,13 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
         arriveBy,
         routeRequest.preferences()
       );
+    } else if (heuristic instanceof LandmarkRemainingWeightHeuristic landmarkHeuristic) {
+      landmarkHeuristic.initialize(
+        streetRequest.mode(),
+        destination,
+        arriveBy,
+        routeRequest.preferences()
+      );
     } else {
       throw new IllegalArgumentException("Unknown heuristic type: " + heuristic);
     }
@@ -124,4 +205,172 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
   protected DominanceFunction<State> createDefaultDominanceFunction() {
     return new DominanceFunctions.Pareto();
   }
+
+  /**
+   * Return the path found in the compact graph, or {@code null} if the search is not supported by
+   * the compact graph, the path is not valid when traversing the street edges or the path may not
+   * be optimal. The weight in the compact graph is a lower bound, so the path is optimal if the
+   * weight is the same when the street edges are traversed. This is not the case if the path has
+   * turn costs or uses edges not modeled by the compact search.
+   */
+  @Nullable
+  private List<GraphPath<State, Edge, Vertex>> findPathsInCompactGraph() {
+    if (
+      streetRequest.mode() != StreetMode.WALK ||
+      routeRequest.wheelchair() ||
+      dataOverlayContext != null ||
+      isCustomized()
+    ) {
+      return null;
+    }
+    var origin = arriveBy() ? toVertices() : fromVertices();
+    var destination = arriveBy() ? fromVertices() : toVertices();
+    if (origin == null || destination == null || origin.size() != 1 || destination.size() != 1) {
+      return null;
+    }
+    long maxDurationSeconds = compactSearchMaxDuration.toSeconds();
+    var search = CompactStreetSearch.of(
+      compactStreetGraph,
+      TraverseMode.WALK,
+      routeRequest.preferences(),
+      arriveBy(),
+      maxDurationSeconds
+    );
+    if (search == null) {
+      return null;
+    }
+    Vertex destinationVertex = destination.iterator().next();
+    var edges = search.findPath(
+      origin.iterator().next(),
+      destinationVertex,
+      DateUtils.absoluteTimeout(streetRoutingTimeout())
+    );
+    if (edges == null) {
+      return null;
+    }
+    var paths = traversePath(origin, destinationVertex, edges, maxDurationSeconds);
+    if (paths == null || !isLowerBound(paths.get(0), search.pathWeight())) {
+      return null;
+    }
+    return paths;
+  }
+
+  /**
+   * Return the path found in the contraction hierarchy, or {@code null} if the search is not
+   * supported by the hierarchy, the path is not valid when traversing the street edges or the path
+   * may not be optimal. The hierarchy does not include the turn costs, the data overlay costs or
+   * the wheelchair accessibility, and is only built for cars. The fastest path is therefore only
+   * used if it has no turn costs, its weight is then the lowest possible weight.
+   */
+  @Nullable
+  private List<GraphPath<State, Edge, Vertex>> findPathsInContractionHierarchy() {
+    if (
+      streetRequest.mode() != StreetMode.CAR ||
+      routeRequest.wheelchair() ||
+      dataOverlayContext != null ||
+      isCustomized()
+    ) {
+      return null;
+    }
+    var origin = arriveBy() ? toVertices() : fromVertices();
+    var destination = arriveBy() ? fromVertices() : toVertices();
+    if (origin == null || destination == null || origin.size() != 1 || destination.size() != 1) {
+      return null;
+    }
+    long maxDurationSeconds = contractionHierarchyMaxDuration.toSeconds();
+    Vertex originVertex = origin.iterator().next();
+    Vertex destinationVertex = destination.iterator().next();
+    var search = new ContractionHierarchySearch(contractionHierarchy, maxDurationSeconds);
+
+    // The hierarchy is searched in the driving direction, the path is traversed in search order
+    var edges = arriveBy()
+      ? search.findPath(destinationVertex, originVertex)
+      : search.findPath(originVertex, destinationVertex);
+    if (edges == null) {
+      return null;
+    }
+    if (arriveBy()) {
+      Collections.reverse(edges);
+    }
+    var paths = traversePath(origin, destinationVertex, edges, maxDurationSeconds);
+    if (paths == null) {
+      return null;
+    }
+    // The weight of a car path is at least the duration at the speed limit times the reluctance,
+    // plus the weight of the free edges every path from the origin to the destination must use
+    double minWeight =
+      search.pathDuration() *
+      routeRequest.preferences().car().reluctance() +
+      numberOfRequiredFreeEdges(originVertex, destinationVertex);
+    if (!isLowerBound(paths.get(0), minWeight)) {
+      return null;
+    }
+    return paths;
+  }
+
+  /**
+   * The number of free edges every path from the origin to the destination must traverse. This is
+   * the case for the temporary vertices of the request, which are linked to the street network
+   * using free edges only.
+   */
+  private int numberOfRequiredFreeEdges(Vertex origin, Vertex destination) {
+    var originEdges = arriveBy() ? origin.getIncoming() : origin.getOutgoing();
+    var destinationEdges = arriveBy() ? destination.getOutgoing() : destination.getIncoming();
+    boolean originFree =
+      !originEdges.isEmpty() && originEdges.stream().allMatch(FreeEdge.class::isInstance);
+    boolean destinationFree =
+      !destinationEdges.isEmpty() && destinationEdges.stream().allMatch(FreeEdge.class::isInstance);
+    if (originFree && destinationFree) {
+      // A free edge directly from the origin to the destination is both the first and last edge
+      boolean direct = originEdges
+        .stream()
+        .anyMatch(e -> (arriveBy() ? e.getFromVertex() : e.getToVertex()) == destination);
+      return direct ? 1 : 2;
+    }
+    return (originFree ? 1 : 0) + (destinationFree ? 1 : 0);
+  }
+
+
+  /**
+   * Create the states by traversing the edges of a path found by one of the fast searches, in the
+   * order of the search. Returns {@code null} if the path is not valid.
+   */
+  @Nullable
+  private List<GraphPath<State, Edge, Vertex>> traversePath(
+    Set<Vertex> origin,
+    Vertex destinationVertex,
+    List<Edge> edges,
+    long maxDurationSeconds
+  ) {
+    var initialStates = createInitialStates(origin, arriveBy());
+    if (initialStates.size() != 1) {
+      return null;
+    }
+    prepareInitialStates(initialStates);
+
+    State state = initialStates.iterator().next();
+    for (Edge edge : edges) {
+      State[] next = edge.traverse(state);
+      if (next.length != 1) {
+        return null;
+      }
+      state = next[0];
+    }
+    if (
+      state.getVertex() != destinationVertex ||
+      !state.isFinal() ||
+      state.getElapsedTimeSeconds() > maxDurationSeconds
+    ) {
+      return null;
+    }
+    return new ArrayList<>(List.of(new GraphPath<>(state)));
+  }
+
+  /**
+   * Check that the weight of the path is the same as the lower bound computed by one of the fast
+   * searches, allowing only for the rounding errors of the single precision numbers used by them.
+   */
+  private static boolean isLowerBound(GraphPath<State, Edge, Vertex> path, double lowerBound) {
+    return path.getWeight() <= lowerBound * (1 + MAX_LOWER_BOUND_ROUNDING_ERROR);
+  }
 }
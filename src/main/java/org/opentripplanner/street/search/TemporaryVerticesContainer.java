@@ -72,6 +72,11 @@ public class TemporaryVerticesContainer implements AutoCloseable {
     this.tempEdges.forEach(DisposableEdgeCollection::disposeEdges);
   }
 
+  /** The graph the temporary vertices are linked into. */
+  public Graph getGraph() {
+    return graph;
+  }
+
   public Set<Vertex> getFromVertices() {
     return fromVertices;
   }
@@ -0,0 +1,192 @@
+package org.opentripplanner.street.search.ch;
+
+import java.io.Serializable;
+import java.util.Collection;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * A contraction hierarchy of the car network, used to find the fastest path for direct car
+ * searches. The vertices of the car network are the nodes of the hierarchy. The nodes are
+ * contracted one at a time, when a node is contracted, shortcut edges are added between its
+ * neighbors to keep the fastest paths between them. The hierarchy contains all the street edges
+ * and the shortcuts, each edge leads either up in the hierarchy, to a node contracted later, or
+ * down. The fastest path between two nodes is found by a bidirectional search, which only follows
+ * the edges leading up, see {@link ContractionHierarchySearch}.
+ * <p>
+ * The cost of an edge is the time it takes to drive it at the speed limit, turn costs and turn
+ * restrictions are not included. The nodes are indexed by {@link Vertex#getIndex()}, so the
+ * hierarchy can be serialized with the graph. Edges added after the hierarchy is built are only
+ * used to reach the nodes from temporary vertices.
+ * <p>
+ * THIS CLASS IS IMMUTABLE AND THREAD-SAFE.
+ */
+public class ContractionHierarchy implements Serializable {
+
+  static final int NO_NODE = -1;
+
+  /** The node of each vertex, indexed by the vertex index, or {@link #NO_NODE}. */
+  private final int[] nodeByVertexIndex;
+  private final int numberOfNodes;
+
+  /** The edges leading up from node n are {@code upEdges[upStart[n]..upStart[n + 1]]}. */
+  private final int[] upStart;
+  private final int[] upEdges;
+
+  /** The edges leading down into node n are {@code downEdges[downStart[n]..downStart[n + 1]]}. */
+  private final int[] downStart;
+  private final int[] downEdges;
+
+  private final int[] edgeFrom;
+  private final int[] edgeTo;
+  private final float[] edgeDuration;
+
+  /** The street edge of each edge, or {@code null} if the edge is a shortcut. */
+  private final Edge[] streetEdges;
+
+  /** The two edges replaced by each shortcut, from the first node to the contracted node and on. */
+  private final int[] shortcutFirst;
+  private final int[] shortcutSecond;
+
+  ContractionHierarchy(
+    int[] nodeByVertexIndex,
+    int numberOfNodes,
+    int[] upStart,
+    int[] upEdges,
+    int[] downStart,
+    int[] downEdges,
+    int[] edgeFrom,
+    int[] edgeTo,
+    float[] edgeDuration,
+    Edge[] streetEdges,
+    int[] shortcutFirst,
+    int[] shortcutSecond
+  ) {
+    this.nodeByVertexIndex = nodeByVertexIndex;
+    this.numberOfNodes = numberOfNodes;
+    this.upStart = upStart;
+    this.upEdges = upEdges;
+    this.downStart = downStart;
+    this.downEdges = downEdges;
+    this.edgeFrom = edgeFrom;
+    this.edgeTo = edgeTo;
+    this.edgeDuration = edgeDuration;
+    this.streetEdges = streetEdges;
+    this.shortcutFirst = shortcutFirst;
+    this.shortcutSecond = shortcutSecond;
+  }
+
+  /**
+   * Build the hierarchy for the car network of the given vertices. The vertices must be indexed,
+   * see {@link Vertex#getIndex()}.
+   */
+  public static ContractionHierarchy of(Collection<Vertex> vertices) {
+    return new ContractionHierarchyBuilder(vertices).build();
+  }
+
+  /**
+   * Return true if the edge is part of the car network. The cost of the edge is
+   * {@link #duration(StreetEdge)}.
+   */
+  static boolean isCarEdge(Edge edge) {
+    return (
+      edge instanceof StreetEdge streetEdge &&
+      streetEdge.getPermission().allows(StreetTraversalPermission.CAR) &&
+      streetEdge.getCarSpeed() > 0
+    );
+  }
+
+  /** The time it takes to drive the edge at the speed limit. */
+  static double duration(StreetEdge edge) {
+    return edge.getDistanceMeters() / edge.getCarSpeed();
+  }
+
+  public int numberOfNodes() {
+    return numberOfNodes;
+  }
+
+  public int numberOfEdges() {
+    return edgeFrom.length;
+  }
+
+  /** The number of edges which are shortcuts. */
+  public int numberOfShortcuts() {
+    int n = 0;
+    for (Edge edge : streetEdges) {
+      if (edge == null) {
+        ++n;
+      }
+    }
+    return n;
+  }
+
+  /** The node of the given vertex, or {@link #NO_NODE} if the vertex is not part of the network. */
+  int node(Vertex vertex) {
+    int index = vertex.getIndex();
+    return index >= 0 && index < nodeByVertexIndex.length ? nodeByVertexIndex[index] : NO_NODE;
+  }
+
+  int firstUpEdge(int node) {
+    return upStart[node];
+  }
+
+  int endUpEdge(int node) {
+    return upStart[node + 1];
+  }
+
+  int upEdge(int i) {
+    return upEdges[i];
+  }
+
+  int firstDownEdge(int node) {
+    return downStart[node];
+  }
+
+  int endDownEdge(int node) {
+    return downStart[node + 1];
+  }
+
+  int downEdge(int i) {
+    return downEdges[i];
+  }
+
+  int edgeFrom(int edge) {
+    return edgeFrom[edge];
+  }
+
+  int edgeTo(int edge) {
+    return edgeTo[edge];
+  }
+
+  double edgeDuration(int edge) {
+    return edgeDuration[edge];
+  }
+
+  /** The street edge, or {@code null} if the edge is a shortcut. */
+  @Nullable
+  Edge streetEdge(int edge) {
+    return streetEdges[edge];
+  }
+
+  int shortcutFirst(int edge) {
+    return shortcutFirst[edge];
+  }
+
+  int shortcutSecond(int edge) {
+    return shortcutSecond[edge];
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(ContractionHierarchy.class)
+      .addNum("nodes", numberOfNodes)
+      .addNum("edges", edgeFrom.length)
+      .addNum("shortcuts", numberOfShortcuts())
+      .toString();
+  }
+}
@@ -0,0 +1,355 @@
+package org.opentripplanner.street.search.ch;
+
+import gnu.trove.list.array.TIntArrayList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * Contract the nodes of the car network in the order of their priority. The priority of a node is
+ * twice the number of shortcuts needed to contract it minus the number of edges removed, plus the
+ * number of edges to neighbors already contracted, which spreads the contraction evenly over the
+ * network. The priorities are updated lazily: when the node with the lowest priority is taken
+ * from the queue, its priority is computed again and it is put back if it is no longer the lowest.
+ * <p>
+ * A shortcut {@code u -> w} is only needed if there is no other path from {@code u} to {@code w}
+ * which is as fast as {@code u -> v -> w}. These paths are found by a witness search, which is
+ * limited to {@link #MAX_WITNESS_SEARCH_NODES} nodes. If no witness is found the shortcut is
+ * added, even if it is not needed, so the limit only affects the size of the hierarchy. A smaller
+ * limit is used when computing the priorities, since this is done much more often.
+ */
+class ContractionHierarchyBuilder {
+
+  private static final int MAX_WITNESS_SEARCH_NODES = 500;
+  private static final int MAX_PRIORITY_WITNESS_SEARCH_NODES = 50;
+
+  private final int[] nodeByVertexIndex;
+  private final int numberOfNodes;
+
+  private int numberOfEdges = 0;
+  private int[] edgeFrom = new int[1024];
+  private int[] edgeTo = new int[1024];
+  private double[] edgeDuration = new double[1024];
+  private int[] shortcutFirst = new int[1024];
+  private int[] shortcutSecond = new int[1024];
+  private final List<Edge> streetEdges = new ArrayList<>();
+
+  /** The edges between the nodes not contracted yet. */
+  private final TIntArrayList[] outgoing;
+  private final TIntArrayList[] incoming;
+
+  private final int[] contractedNeighbors;
+  private final int[] rank;
+
+  // The state of the witness search, the durations are reset using the list of visited nodes
+  private final double[] witnessDuration;
+  private final TIntArrayList witnessVisited = new TIntArrayList();
+  private final NodeQueue witnessQueue = new NodeQueue();
+
+  ContractionHierarchyBuilder(Collection<Vertex> vertices) {
+    int maxIndex = -1;
+    for (Vertex v : vertices) {
+      maxIndex = Math.max(maxIndex, v.getIndex());
+    }
+    this.nodeByVertexIndex = new int[maxIndex + 1];
+    Arrays.fill(nodeByVertexIndex, ContractionHierarchy.NO_NODE);
+
+    int n = 0;
+    for (Vertex v : vertices) {
+      if (v.getIndex() >= 0 && hasCarEdge(v)) {
+        nodeByVertexIndex[v.getIndex()] = n++;
+      }
+    }
+    this.numberOfNodes = n;
+    this.outgoing = new TIntArrayList[n];
+    this.incoming = new TIntArrayList[n];
+    for (int i = 0; i < n; ++i) {
+      outgoing[i] = new TIntArrayList(4);
+      incoming[i] = new TIntArrayList(4);
+    }
+    this.contractedNeighbors = new int[n];
+    this.rank = new int[n];
+    this.witnessDuration = new double[n];
+    Arrays.fill(witnessDuration, Double.POSITIVE_INFINITY);
+
+    for (Vertex v : vertices) {
+      int from = node(v);
+      if (from == ContractionHierarchy.NO_NODE) {
+        continue;
+      }
+      for (Edge edge : v.getOutgoing()) {
+        int to = node(edge.getToVertex());
+        if (
+          to != ContractionHierarchy.NO_NODE &&
+          to != from &&
+          ContractionHierarchy.isCarEdge(edge)
+        ) {
+          addStreetEdge(from, to, (StreetEdge) edge);
+        }
+      }
+    }
+  }
+
+  ContractionHierarchy build() {
+    var queue = new NodeQueue();
+    for (int v = 0; v < numberOfNodes; ++v) {
+      queue.insert(v, priority(v));
+    }
+    int nextRank = 0;
+    while (!queue.isEmpty()) {
+      int v = queue.extractMin();
+      double priority = priority(v);
+      if (!queue.isEmpty() && priority > queue.minKey()) {
+        queue.insert(v, priority);
+        continue;
+      }
+      contract(v);
+      rank[v] = nextRank++;
+    }
+    return createHierarchy();
+  }
+
+  private int node(Vertex v) {
+    int index = v.getIndex();
+    return index >= 0 && index < nodeByVertexIndex.length
+      ? nodeByVertexIndex[index]
+      : ContractionHierarchy.NO_NODE;
+  }
+
+  private static boolean hasCarEdge(Vertex v) {
+    for (Edge edge : v.getOutgoing()) {
+      if (ContractionHierarchy.isCarEdge(edge)) {
+        return true;
+      }
+    }
+    for (Edge edge : v.getIncoming()) {
+      if (ContractionHierarchy.isCarEdge(edge)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Add the street edge, or replace a slower parallel edge. */
+  private void addStreetEdge(int from, int to, StreetEdge streetEdge) {
+    double duration = ContractionHierarchy.duration(streetEdge);
+    var out = outgoing[from];
+    for (int i = 0; i < out.size(); ++i) {
+      int e = out.getQuick(i);
+      if (edgeTo[e] == to) {
+        if (duration < edgeDuration[e]) {
+          edgeDuration[e] = duration;
+          streetEdges.set(e, streetEdge);
+        }
+        return;
+      }
+    }
+    addEdge(from, to, duration, streetEdge, -1, -1);
+  }
+
+  /** Add the shortcut, or replace a slower edge between the same nodes. */
+  private void addShortcut(int from, int to, double duration, int first, int second) {
+    var out = outgoing[from];
+    for (int i = 0; i < out.size(); ++i) {
+      int e = out.getQuick(i);
+      if (edgeTo[e] == to) {
+        if (duration >= edgeDuration[e]) {
+          return;
+        }
+        edgeDuration[e] = duration;
+        shortcutFirst[e] = first;
+        shortcutSecond[e] = second;
+        streetEdges.set(e, null);
+        return;
+      }
+    }
+    addEdge(from, to, duration, null, first, second);
+  }
+
+  private void addEdge(int from, int to, double duration, Edge streetEdge, int first, int second) {
+    if (numberOfEdges == edgeFrom.length) {
+      int size = numberOfEdges * 2;
+      edgeFrom = Arrays.copyOf(edgeFrom, size);
+      edgeTo = Arrays.copyOf(edgeTo, size);
+      edgeDuration = Arrays.copyOf(edgeDuration, size);
+      shortcutFirst = Arrays.copyOf(shortcutFirst, size);
+      shortcutSecond = Arrays.copyOf(shortcutSecond, size);
+    }
+    int e = numberOfEdges++;
+    edgeFrom[e] = from;
+    edgeTo[e] = to;
+    edgeDuration[e] = duration;
+    shortcutFirst[e] = first;
+    shortcutSecond[e] = second;
+    streetEdges.add(streetEdge);
+    outgoing[from].add(e);
+    incoming[to].add(e);
+  }
+
+  private double priority(int v) {
+    int shortcuts = processShortcuts(v, false);
+    int removed = incoming[v].size() + outgoing[v].size();
+    return 2.0 * (shortcuts - removed) + contractedNeighbors[v];
+  }
+
+  private void contract(int v) {
+    processShortcuts(v, true);
+
+    // Remove the node from the lists of its neighbors
+    for (int i = 0; i < incoming[v].size(); ++i) {
+      int u = edgeFrom[incoming[v].getQuick(i)];
+      removeEdgesTo(outgoing[u], edgeTo, v);
+      ++contractedNeighbors[u];
+    }
+    for (int i = 0; i < outgoing[v].size(); ++i) {
+      int w = edgeTo[outgoing[v].getQuick(i)];
+      removeEdgesTo(incoming[w], edgeFrom, v);
+      ++contractedNeighbors[w];
+    }
+  }
+
+  private static void removeEdgesTo(TIntArrayList edges, int[] endpoint, int v) {
+    for (int i = edges.size() - 1; i >= 0; --i) {
+      if (endpoint[edges.getQuick(i)] == v) {
+        edges.removeAt(i);
+      }
+    }
+  }
+
+  /**
+   * Find the shortcuts needed to contract the node and add them if {@code add} is true. Returns
+   * the number of shortcuts.
+   */
+  private int processShortcuts(int v, boolean add) {
+    int shortcuts = 0;
+    var in = incoming[v];
+    var out = outgoing[v];
+    if (in.isEmpty() || out.isEmpty()) {
+      return 0;
+    }
+    int maxSettled = add ? MAX_WITNESS_SEARCH_NODES : MAX_PRIORITY_WITNESS_SEARCH_NODES;
+    double maxOut = 0;
+    for (int j = 0; j < out.size(); ++j) {
+      maxOut = Math.max(maxOut, edgeDuration[out.getQuick(j)]);
+    }
+    for (int i = 0; i < in.size(); ++i) {
+      int e1 = in.getQuick(i);
+      int u = edgeFrom[e1];
+      witnessSearch(u, v, edgeDuration[e1] + maxOut, maxSettled);
+      for (int j = 0; j < out.size(); ++j) {
+        int e2 = out.getQuick(j);
+        int w = edgeTo[e2];
+        if (w == u) {
+          continue;
+        }
+        double duration = edgeDuration[e1] + edgeDuration[e2];
+        if (witnessDuration[w] <= duration) {
+          continue;
+        }
+        ++shortcuts;
+        if (add) {
+          addShortcut(u, w, duration, e1, e2);
+        }
+      }
+      resetWitnessSearch();
+    }
+    return shortcuts;
+  }
+
+  /** Find the fastest paths from the node, not passing the node being contracted. */
+  private void witnessSearch(int source, int excluded, double maxDuration, int maxSettled) {
+    witnessDuration[source] = 0;
+    witnessVisited.add(source);
+    witnessQueue.insert(source, 0);
+    int settled = 0;
+    while (!witnessQueue.isEmpty() && settled < maxSettled) {
+      double duration = witnessQueue.minKey();
+      int u = witnessQueue.extractMin();
+      if (duration > witnessDuration[u]) {
+        continue;
+      }
+      if (duration > maxDuration) {
+        break;
+      }
+      ++settled;
+      var out = outgoing[u];
+      for (int i = 0; i < out.size(); ++i) {
+        int e = out.getQuick(i);
+        int w = edgeTo[e];
+        if (w == excluded) {
+          continue;
+        }
+        double next = duration + edgeDuration[e];
+        if (next < witnessDuration[w]) {
+          if (witnessDuration[w] == Double.POSITIVE_INFINITY) {
+            witnessVisited.add(w);
+          }
+          witnessDuration[w] = next;
+          witnessQueue.insert(w, next);
+        }
+      }
+    }
+    witnessQueue.clear();
+  }
+
+  private void resetWitnessSearch() {
+    for (int i = 0; i < witnessVisited.size(); ++i) {
+      witnessDuration[witnessVisited.getQuick(i)] = Double.POSITIVE_INFINITY;
+    }
+    witnessVisited.resetQuick();
+  }
+
+  /**
+   * Split the edges in the edges leading up from a node, and the edges leading down into a node.
+   */
+  private ContractionHierarchy createHierarchy() {
+    int[] upStart = new int[numberOfNodes + 1];
+    int[] downStart = new int[numberOfNodes + 1];
+    for (int e = 0; e < numberOfEdges; ++e) {
+      if (isUp(e)) {
+        ++upStart[edgeFrom[e] + 1];
+      } else {
+        ++downStart[edgeTo[e] + 1];
+      }
+    }
+    for (int v = 0; v < numberOfNodes; ++v) {
+      upStart[v + 1] += upStart[v];
+      downStart[v + 1] += downStart[v];
+    }
+    int[] upEdges = new int[upStart[numberOfNodes]];
+    int[] downEdges = new int[downStart[numberOfNodes]];
+    int[] upNext = Arrays.copyOf(upStart, numberOfNodes);
+    int[] downNext = Arrays.copyOf(downStart, numberOfNodes);
+    float[] duration = new float[numberOfEdges];
+    for (int e = 0; e < numberOfEdges; ++e) {
+      if (isUp(e)) {
+        upEdges[upNext[edgeFrom[e]]++] = e;
+      } else {
+        downEdges[downNext[edgeTo[e]]++] = e;
+      }
+      duration[e] = (float) edgeDuration[e];
+    }
+    return new ContractionHierarchy(
+      nodeByVertexIndex,
+      numberOfNodes,
+      upStart,
+      upEdges,
+      downStart,
+      downEdges,
+      Arrays.copyOf(edgeFrom, numberOfEdges),
+      Arrays.copyOf(edgeTo, numberOfEdges),
+      duration,
+      streetEdges.toArray(new Edge[0]),
+      Arrays.copyOf(shortcutFirst, numberOfEdges),
+      Arrays.copyOf(shortcutSecond, numberOfEdges)
+    );
+  }
+
+  private boolean isUp(int edge) {
+    return rank[edgeFrom[edge]] < rank[edgeTo[edge]];
+  }
+}
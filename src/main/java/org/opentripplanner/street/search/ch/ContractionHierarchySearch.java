@@ -0,0 +1,293 @@
+package org.opentripplanner.street.search.ch;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TIntDoubleMap;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntDoubleHashMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import javax.annotation.Nullable;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.FreeEdge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * Find the fastest car path between two vertices using a {@link ContractionHierarchy}. A forward
+ * search from the origin and a backward search from the destination both follow the edges leading
+ * up in the hierarchy, the fastest path goes through the node where the two searches meet. The
+ * shortcuts of the path are then replaced by the street edges they stand for.
+ * <p>
+ * The origin and destination are often temporary vertices, connected to the network by temporary
+ * edges. These are traversed using the {@link Vertex} and {@link Edge} objects, until a node of
+ * the hierarchy is reached. Like the hierarchy, the search does not include turn costs and turn
+ * restrictions, the caller is responsible for traversing the returned edges to create the states
+ * and validate the path.
+ * <p>
+ * An instance should only be used for one search, it is not thread-safe.
+ */
+public class ContractionHierarchySearch {
+
+  private static final int NO_EDGE = -1;
+
+  /** The maximum number of vertices visited to reach the hierarchy from the origin/destination. */
+  private static final int MAX_VERTICES_TO_HIERARCHY = 100;
+
+  private final ContractionHierarchy hierarchy;
+  private final double maxDurationSeconds;
+
+  private final TIntDoubleMap forwardDurations = new TIntDoubleHashMap();
+  private final TIntIntMap forwardEdges = new TIntIntHashMap();
+  private final TIntDoubleMap backwardDurations = new TIntDoubleHashMap();
+  private final TIntIntMap backwardEdges = new TIntIntHashMap();
+
+  /** The path from the origin to each node where the forward search starts. */
+  private final TIntObjectMap<Label> accessLabels = new TIntObjectHashMap<>();
+
+  /** The path from each node where the backward search starts to the destination. */
+  private final TIntObjectMap<Label> egressLabels = new TIntObjectHashMap<>();
+
+  private double pathDuration = Double.NaN;
+
+  public ContractionHierarchySearch(ContractionHierarchy hierarchy, double maxDurationSeconds) {
+    this.hierarchy = hierarchy;
+    this.maxDurationSeconds = maxDurationSeconds;
+  }
+
+  /**
+   * Find the fastest path from the origin to the destination, not longer than the max duration.
+   *
+   * @return the edges of the path in the order they are driven, or {@code null} if no path is
+   * found.
+   */
+  @Nullable
+  public List<Edge> findPath(Vertex origin, Vertex destination) {
+    Label direct = connect(origin, destination, false, accessLabels);
+    connect(destination, origin, true, egressLabels);
+
+    double best = direct == null || direct.duration() > maxDurationSeconds
+      ? Double.POSITIVE_INFINITY
+      : direct.duration();
+    int meetingNode = ContractionHierarchy.NO_NODE;
+
+    var forwardQueue = new NodeQueue();
+    var backwardQueue = new NodeQueue();
+    start(accessLabels, forwardDurations, forwardEdges, forwardQueue);
+    start(egressLabels, backwardDurations, backwardEdges, backwardQueue);
+
+    while (!forwardQueue.isEmpty() || !backwardQueue.isEmpty()) {
+      boolean forward =
+        backwardQueue.isEmpty() ||
+        (!forwardQueue.isEmpty() && forwardQueue.minKey() <= backwardQueue.minKey());
+      var queue = forward ? forwardQueue : backwardQueue;
+      double duration = queue.minKey();
+      if (duration >= best) {
+        queue.clear();
+        continue;
+      }
+      int node = queue.extractMin();
+      var durations = forward ? forwardDurations : backwardDurations;
+      if (duration > durations.get(node)) {
+        continue;
+      }
+      var other = forward ? backwardDurations : forwardDurations;
+      if (other.containsKey(node)) {
+        double total = duration + other.get(node);
+        if (total < best && total <= maxDurationSeconds) {
+          best = total;
+          meetingNode = node;
+        }
+      }
+      if (forward) {
+        for (int i = hierarchy.firstUpEdge(node); i < hierarchy.endUpEdge(node); ++i) {
+          int e = hierarchy.upEdge(i);
+          relax(e, hierarchy.edgeTo(e), duration, forwardDurations, forwardEdges, forwardQueue);
+        }
+      } else {
+        for (int i = hierarchy.firstDownEdge(node); i < hierarchy.endDownEdge(node); ++i) {
+          int e = hierarchy.downEdge(i);
+          int from = hierarchy.edgeFrom(e);
+          relax(e, from, duration, backwardDurations, backwardEdges, backwardQueue);
+        }
+      }
+    }
+
+    if (best == Double.POSITIVE_INFINITY) {
+      return null;
+    }
+    pathDuration = best;
+    return meetingNode == ContractionHierarchy.NO_NODE
+      ? accessEdges(direct)
+      : createPath(meetingNode);
+  }
+
+  /**
+   * The duration of the path found, driving at the speed limit without turn costs. This is a
+   * lower bound of the duration of all paths between the origin and the destination.
+   */
+  public double pathDuration() {
+    return pathDuration;
+  }
+
+  private static void start(
+    TIntObjectMap<Label> labels,
+    TIntDoubleMap durations,
+    TIntIntMap edges,
+    NodeQueue queue
+  ) {
+    labels.forEachEntry((node, label) -> {
+      durations.put(node, label.duration());
+      edges.put(node, NO_EDGE);
+      queue.insert(node, label.duration());
+      return true;
+    });
+  }
+
+  private void relax(
+    int edge,
+    int node,
+    double duration,
+    TIntDoubleMap durations,
+    TIntIntMap edges,
+    NodeQueue queue
+  ) {
+    double next = duration + hierarchy.edgeDuration(edge);
+    if (next > maxDurationSeconds) {
+      return;
+    }
+    if (!durations.containsKey(node) || next < durations.get(node)) {
+      durations.put(node, next);
+      edges.put(node, edge);
+      queue.insert(node, next);
+    }
+  }
+
+  /**
+   * Find the fastest paths from the vertex to the nodes of the hierarchy closest to it, using the
+   * street and free edges which can be used by car. The backward search follows the edges in
+   * reverse. Returns the path to the other vertex if it is found before reaching the hierarchy.
+   */
+  @Nullable
+  private Label connect(
+    Vertex vertex,
+    Vertex otherVertex,
+    boolean backward,
+    TIntObjectMap<Label> nodeLabels
+  ) {
+    Map<Vertex, Label> labels = new IdentityHashMap<>();
+    var queue = new PriorityQueue<Label>(Comparator.comparingDouble(Label::duration));
+    Label start = new Label(vertex, 0, null, null);
+    labels.put(vertex, start);
+    queue.add(start);
+    Label direct = null;
+
+    while (!queue.isEmpty()) {
+      Label label = queue.poll();
+      if (labels.get(label.vertex()) != label) {
+        continue;
+      }
+      if (label.vertex() == otherVertex) {
+        direct = label;
+      }
+      int node = hierarchy.node(label.vertex());
+      if (node != ContractionHierarchy.NO_NODE) {
+        nodeLabels.put(node, label);
+        continue;
+      }
+      for (Edge edge : backward ? label.vertex().getIncoming() : label.vertex().getOutgoing()) {
+        double duration = duration(edge);
+        if (Double.isNaN(duration)) {
+          continue;
+        }
+        Vertex next = backward ? edge.getFromVertex() : edge.getToVertex();
+        Label existing = labels.get(next);
+        if (existing != null && existing.duration() <= label.duration() + duration) {
+          continue;
+        }
+        if (existing == null && labels.size() >= MAX_VERTICES_TO_HIERARCHY) {
+          continue;
+        }
+        Label nextLabel = new Label(next, label.duration() + duration, edge, label);
+        labels.put(next, nextLabel);
+        queue.add(nextLabel);
+      }
+    }
+    return direct;
+  }
+
+  /** The duration of an edge used to reach the hierarchy, or {@code NaN} if it can not be used. */
+  private static double duration(Edge edge) {
+    if (edge instanceof FreeEdge) {
+      return 0;
+    }
+    if (ContractionHierarchy.isCarEdge(edge)) {
+      return ContractionHierarchy.duration((StreetEdge) edge);
+    }
+    return Double.NaN;
+  }
+
+  private List<Edge> createPath(int meetingNode) {
+    // The nodes of the forward search, from the meeting node back to the origin
+    TIntArrayList forwardPath = new TIntArrayList();
+    int node = meetingNode;
+    int e;
+    while ((e = forwardEdges.get(node)) != NO_EDGE) {
+      forwardPath.add(e);
+      node = hierarchy.edgeFrom(e);
+    }
+    List<Edge> path = accessEdges(accessLabels.get(node));
+    for (int i = forwardPath.size() - 1; i >= 0; --i) {
+      unpack(forwardPath.getQuick(i), path);
+    }
+
+    node = meetingNode;
+    while ((e = backwardEdges.get(node)) != NO_EDGE) {
+      unpack(e, path);
+      node = hierarchy.edgeTo(e);
+    }
+    for (Label label = egressLabels.get(node); label.edge() != null; label = label.previous()) {
+      path.add(label.edge());
+    }
+    return path;
+  }
+
+  /** The edges of the path from the origin to the vertex of the label. */
+  private static List<Edge> accessEdges(Label label) {
+    List<Edge> edges = new ArrayList<>();
+    for (Label it = label; it.edge() != null; it = it.previous()) {
+      edges.add(it.edge());
+    }
+    Collections.reverse(edges);
+    return edges;
+  }
+
+  /** Add the street edges of an edge of the hierarchy to the path. */
+  private void unpack(int edge, List<Edge> path) {
+    TIntArrayList stack = new TIntArrayList();
+    stack.add(edge);
+    while (!stack.isEmpty()) {
+      int e = stack.removeAt(stack.size() - 1);
+      Edge streetEdge = hierarchy.streetEdge(e);
+      if (streetEdge != null) {
+        path.add(streetEdge);
+      } else {
+        stack.add(hierarchy.shortcutSecond(e));
+        stack.add(hierarchy.shortcutFirst(e));
+      }
+    }
+  }
+
+  /**
+   * A path between the origin or destination and a vertex. In the backward search the edge leads
+   * from the vertex towards the destination.
+   */
+  private record Label(Vertex vertex, double duration, Edge edge, Label previous) {}
+}
@@ -0,0 +1,70 @@
+package org.opentripplanner.street.search.ch;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of node ids, without decrease-key. A node may be inserted more than once, the
+ * caller skips nodes already settled with a lower cost.
+ */
+class NodeQueue {
+
+  private int[] nodes = new int[64];
+  private double[] keys = new double[64];
+  private int size = 0;
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  void clear() {
+    size = 0;
+  }
+
+  double minKey() {
+    return keys[0];
+  }
+
+  void insert(int node, double key) {
+    if (size == nodes.length) {
+      nodes = Arrays.copyOf(nodes, size * 2);
+      keys = Arrays.copyOf(keys, size * 2);
+    }
+    int i = size++;
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (keys[parent] <= key) {
+        break;
+      }
+      nodes[i] = nodes[parent];
+      keys[i] = keys[parent];
+      i = parent;
+    }
+    nodes[i] = node;
+    keys[i] = key;
+  }
+
+  int extractMin() {
+    int min = nodes[0];
+    int lastNode = nodes[--size];
+    double lastKey = keys[size];
+    int i = 0;
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= size) {
+        break;
+      }
+      if (child + 1 < size && keys[child + 1] < keys[child]) {
+        ++child;
+      }
+      if (keys[child] >= lastKey) {
+        break;
+      }
+      nodes[i] = nodes[child];
+      keys[i] = keys[child];
+      i = child;
+    }
+    nodes[i] = lastNode;
+    keys[i] = lastKey;
+    return min;
+  }
+}
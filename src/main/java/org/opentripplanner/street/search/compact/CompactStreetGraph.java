@@ -0,0 +1,417 @@
+package org.opentripplanner.street.search.compact;
+
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Collection;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.FreeEdge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.BarrierVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+/**
+ * An immutable, array based copy of the topology of the street graph, in the compressed sparse row
+ * (CSR) format. The vertices and the edges are numbered from zero, and the properties of the
+ * street edges used to compute the cost of walking, cycling and driving are stored in primitive
+ * columns indexed by the edge number. This makes traversing the graph cache-friendly, compared to
+ * following the references between the {@link Vertex} and {@link Edge} objects.
+ * <p>
+ * The outgoing edges are numbered by their from-vertex, so the outgoing edges of vertex {@code v}
+ * are the edges in the range {@code [firstOutgoingEdge(v), endOutgoingEdge(v))}. The incoming
+ * edges are listed in a separate index array.
+ * <p>
+ * Only {@link StreetEdge}s and {@link FreeEdge}s are traversable in the compact graph, all other
+ * edges are included in the topology, but have no permissions. The graph is a snapshot, edges
+ * added or removed after it is created are not included. The {@link CompactStreetSearch} detects
+ * this by comparing the vertex degree.
+ * <p>
+ * The columns are {@link java.nio.Buffer}s, they are either arrays on the heap, or mapped from a
+ * file written when the graph is saved, see {@link CompactStreetGraphFile}. Only the vertex and
+ * edge objects, and the index of the vertices, are always kept on the heap.
+ * <p>
+ * THIS CLASS IS IMMUTABLE AND THREAD-SAFE.
+ */
+public class CompactStreetGraph {
+
+  private static final byte OTHER_EDGE = 0;
+  private static final byte FREE_EDGE = 1;
+  private static final byte STREET_EDGE = 2;
+
+  private static final int NOT_FOUND = -1;
+
+  private static final TraverseMode[] NO_THRU_TRAFFIC_MODES = {
+    TraverseMode.WALK,
+    TraverseMode.BICYCLE,
+    TraverseMode.CAR,
+  };
+
+  private final Vertex[] vertices;
+  private final TObjectIntMap<Vertex> vertexIndex;
+  private final Edge[] edges;
+
+  final FloatBuffer lat;
+  final FloatBuffer lon;
+
+  /** The outgoing edges of vertex v are {@code [outgoingStart[v], outgoingStart[v + 1])} */
+  final IntBuffer outgoingStart;
+
+  /** The incoming edges of vertex v are {@code incomingEdges[incomingStart[v]..]} */
+  final IntBuffer incomingStart;
+  final IntBuffer incomingEdges;
+
+  final IntBuffer fromVertex;
+  final IntBuffer toVertex;
+  final ByteBuffer edgeType;
+  final ByteBuffer permission;
+  final ByteBuffer noThruTraffic;
+  final ByteBuffer stairs;
+  final FloatBuffer distance;
+  final FloatBuffer effectiveWalkDistance;
+  final FloatBuffer effectiveWalkSafetyDistance;
+  final FloatBuffer effectiveBikeDistance;
+  final FloatBuffer effectiveBikeSafetyDistance;
+  final FloatBuffer carSpeed;
+
+  final float maxCarSpeed;
+
+  /**
+   * Create the graph from columns which are already computed, the columns are in the same order as
+   * the fields. This is used by the {@link CompactStreetGraphFile} to create a graph where the
+   * columns are mapped from a file.
+   */
+  CompactStreetGraph(
+    Vertex[] vertices,
+    Edge[] edges,
+    FloatBuffer lat,
+    FloatBuffer lon,
+    IntBuffer outgoingStart,
+    IntBuffer incomingStart,
+    IntBuffer incomingEdges,
+    IntBuffer fromVertex,
+    IntBuffer toVertex,
+    ByteBuffer edgeType,
+    ByteBuffer permission,
+    ByteBuffer noThruTraffic,
+    ByteBuffer stairs,
+    FloatBuffer distance,
+    FloatBuffer effectiveWalkDistance,
+    FloatBuffer effectiveWalkSafetyDistance,
+    FloatBuffer effectiveBikeDistance,
+    FloatBuffer effectiveBikeSafetyDistance,
+    FloatBuffer carSpeed,
+    float maxCarSpeed
+  ) {
+    this.vertices = vertices;
+    this.vertexIndex = new TObjectIntHashMap<>(vertices.length, 0.5f, NOT_FOUND);
+    for (int v = 0; v < vertices.length; ++v) {
+      vertexIndex.put(vertices[v], v);
+    }
+    this.edges = edges;
+    this.lat = lat;
+    this.lon = lon;
+    this.outgoingStart = outgoingStart;
+    this.incomingStart = incomingStart;
+    this.incomingEdges = incomingEdges;
+    this.fromVertex = fromVertex;
+    this.toVertex = toVertex;
+    this.edgeType = edgeType;
+    this.permission = permission;
+    this.noThruTraffic = noThruTraffic;
+    this.stairs = stairs;
+    this.distance = distance;
+    this.effectiveWalkDistance = effectiveWalkDistance;
+    this.effectiveWalkSafetyDistance = effectiveWalkSafetyDistance;
+    this.effectiveBikeDistance = effectiveBikeDistance;
+    this.effectiveBikeSafetyDistance = effectiveBikeSafetyDistance;
+    this.carSpeed = carSpeed;
+    this.maxCarSpeed = maxCarSpeed;
+  }
+
+  private static CompactStreetGraph create(Vertex[] vertices) {
+    int nVertices = vertices.length;
+    TObjectIntMap<Vertex> vertexIndex = new TObjectIntHashMap<>(nVertices, 0.5f, NOT_FOUND);
+    float[] lat = new float[nVertices];
+    float[] lon = new float[nVertices];
+    int[] outgoingStart = new int[nVertices + 1];
+    int[] incomingStart = new int[nVertices + 1];
+
+    int nEdges = 0;
+    for (int v = 0; v < nVertices; ++v) {
+      vertexIndex.put(vertices[v], v);
+      lat[v] = (float) vertices[v].getLat();
+      lon[v] = (float) vertices[v].getLon();
+      outgoingStart[v] = nEdges;
+      nEdges += vertices[v].getDegreeOut();
+    }
+    outgoingStart[nVertices] = nEdges;
+
+    Edge[] edges = new Edge[nEdges];
+    int[] fromVertex = new int[nEdges];
+    int[] toVertex = new int[nEdges];
+    byte[] edgeType = new byte[nEdges];
+    byte[] permission = new byte[nEdges];
+    byte[] noThruTraffic = new byte[nEdges];
+    byte[] stairs = new byte[nEdges];
+    float[] distance = new float[nEdges];
+    float[] effectiveWalkDistance = new float[nEdges];
+    float[] effectiveWalkSafetyDistance = new float[nEdges];
+    float[] effectiveBikeDistance = new float[nEdges];
+    float[] effectiveBikeSafetyDistance = new float[nEdges];
+    float[] carSpeed = new float[nEdges];
+
+    float maxCarSpeed = 0f;
+    int[] incomingCount = new int[nVertices];
+    int e = 0;
+    for (int v = 0; v < nVertices; ++v) {
+      for (Edge edge : vertices[v].getOutgoing()) {
+        int to = vertexIndex.get(edge.getToVertex());
+        edges[e] = edge;
+        fromVertex[e] = v;
+        toVertex[e] = to;
+        if (to != NOT_FOUND) {
+          ++incomingCount[to];
+        }
+        if (edge instanceof StreetEdge streetEdge) {
+          edgeType[e] = STREET_EDGE;
+          permission[e] = (byte) permission(streetEdge).code;
+          noThruTraffic[e] = noThruTraffic(streetEdge);
+          stairs[e] = (byte) (streetEdge.isStairs() ? 1 : 0);
+          distance[e] = (float) streetEdge.getDistanceMeters();
+          effectiveWalkDistance[e] = (float) streetEdge.getEffectiveWalkDistance();
+          effectiveWalkSafetyDistance[e] = (float) streetEdge.getEffectiveWalkSafetyDistance();
+          effectiveBikeDistance[e] = (float) streetEdge.getEffectiveBikeDistance();
+          effectiveBikeSafetyDistance[e] = (float) streetEdge.getEffectiveBicycleSafetyDistance();
+          carSpeed[e] = streetEdge.getCarSpeed();
+          maxCarSpeed = Math.max(maxCarSpeed, carSpeed[e]);
+        } else if (edge instanceof FreeEdge) {
+          edgeType[e] = FREE_EDGE;
+          permission[e] = (byte) StreetTraversalPermission.ALL.code;
+        } else {
+          edgeType[e] = OTHER_EDGE;
+          permission[e] = (byte) StreetTraversalPermission.NONE.code;
+        }
+        ++e;
+      }
+    }
+
+    int nIncoming = 0;
+    for (int v = 0; v < nVertices; ++v) {
+      incomingStart[v] = nIncoming;
+      nIncoming += incomingCount[v];
+    }
+    incomingStart[nVertices] = nIncoming;
+
+    int[] incomingEdges = new int[nIncoming];
+    int[] next = new int[nVertices];
+    for (int i = 0; i < nEdges; ++i) {
+      int to = toVertex[i];
+      if (to != NOT_FOUND) {
+        incomingEdges[incomingStart[to] + next[to]] = i;
+        ++next[to];
+      }
+    }
+
+    return new CompactStreetGraph(
+      vertices,
+      edges,
+      FloatBuffer.wrap(lat),
+      FloatBuffer.wrap(lon),
+      IntBuffer.wrap(outgoingStart),
+      IntBuffer.wrap(incomingStart),
+      IntBuffer.wrap(incomingEdges),
+      IntBuffer.wrap(fromVertex),
+      IntBuffer.wrap(toVertex),
+      ByteBuffer.wrap(edgeType),
+      ByteBuffer.wrap(permission),
+      ByteBuffer.wrap(noThruTraffic),
+      ByteBuffer.wrap(stairs),
+      FloatBuffer.wrap(distance),
+      FloatBuffer.wrap(effectiveWalkDistance),
+      FloatBuffer.wrap(effectiveWalkSafetyDistance),
+      FloatBuffer.wrap(effectiveBikeDistance),
+      FloatBuffer.wrap(effectiveBikeSafetyDistance),
+      FloatBuffer.wrap(carSpeed),
+      maxCarSpeed
+    );
+  }
+
+  /**
+   * Create a compact copy of the street graph with the given vertices. Edges to vertices not in
+   * the collection are not traversable in the compact graph.
+   */
+  public static CompactStreetGraph of(Collection<Vertex> vertices) {
+    return create(vertices.toArray(Vertex[]::new));
+  }
+
+  public int numberOfVertices() {
+    return vertices.length;
+  }
+
+  public int numberOfEdges() {
+    return edges.length;
+  }
+
+  /**
+   * Return the index of the given vertex or {@code -1} if the vertex is not part of the compact
+   * graph, this is the case for temporary vertices.
+   */
+  public int vertexIndex(Vertex vertex) {
+    return vertexIndex.get(vertex);
+  }
+
+  public Vertex vertex(int vertex) {
+    return vertices[vertex];
+  }
+
+  public float lat(int vertex) {
+    return lat.get(vertex);
+  }
+
+  public float lon(int vertex) {
+    return lon.get(vertex);
+  }
+
+  public int firstOutgoingEdge(int vertex) {
+    return outgoingStart.get(vertex);
+  }
+
+  public int endOutgoingEdge(int vertex) {
+    return outgoingStart.get(vertex + 1);
+  }
+
+  public int firstIncoming(int vertex) {
+    return incomingStart.get(vertex);
+  }
+
+  public int endIncoming(int vertex) {
+    return incomingStart.get(vertex + 1);
+  }
+
+  /**
+   * The edge index of the incoming edge at position {@code i}, the positions of the incoming
+   * edges of a vertex are in the range {@code [firstIncoming(v), endIncoming(v))}.
+   */
+  public int incomingEdge(int i) {
+    return incomingEdges.get(i);
+  }
+
+  public Edge edge(int edge) {
+    return edges[edge];
+  }
+
+  public int fromVertex(int edge) {
+    return fromVertex.get(edge);
+  }
+
+  /**
+   * The to-vertex of the edge, or {@code -1} if the vertex is not part of the compact graph.
+   */
+  public int toVertex(int edge) {
+    return toVertex.get(edge);
+  }
+
+  public boolean isStreetEdge(int edge) {
+    return edgeType.get(edge) == STREET_EDGE;
+  }
+
+  public boolean isFreeEdge(int edge) {
+    return edgeType.get(edge) == FREE_EDGE;
+  }
+
+  /**
+   * Return {@code true} if the given mode is allowed on the edge, the permissions of barriers at
+   * the start and end of the edge are included.
+   */
+  public boolean allows(int edge, TraverseMode mode) {
+    return StreetTraversalPermission.get(permission.get(edge)).allows(mode);
+  }
+
+  /**
+   * Same as {@link StreetEdge#isNoThruTraffic(TraverseMode)}.
+   */
+  public boolean isNoThruTraffic(int edge, TraverseMode mode) {
+    return (noThruTraffic.get(edge) & noThruTrafficBit(mode)) != 0;
+  }
+
+  public boolean isStairs(int edge) {
+    return stairs.get(edge) != 0;
+  }
+
+  public float distance(int edge) {
+    return distance.get(edge);
+  }
+
+  public float effectiveWalkDistance(int edge) {
+    return effectiveWalkDistance.get(edge);
+  }
+
+  public float effectiveWalkSafetyDistance(int edge) {
+    return effectiveWalkSafetyDistance.get(edge);
+  }
+
+  public float effectiveBikeDistance(int edge) {
+    return effectiveBikeDistance.get(edge);
+  }
+
+  public float effectiveBikeSafetyDistance(int edge) {
+    return effectiveBikeSafetyDistance.get(edge);
+  }
+
+  public float carSpeed(int edge) {
+    return carSpeed.get(edge);
+  }
+
+  /**
+   * The maximum car speed of all street edges, in meters per second.
+   */
+  public float maxCarSpeed() {
+    return maxCarSpeed;
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(CompactStreetGraph.class)
+      .addNum("vertices", vertices.length)
+      .addNum("edges", edges.length)
+      .toString();
+  }
+
+  /**
+   * Same as {@link StreetEdge#canTraverse(TraverseMode)}, but for all modes.
+   */
+  static StreetTraversalPermission permission(StreetEdge edge) {
+    var permission = edge.getPermission();
+    if (edge.getFromVertex() instanceof BarrierVertex barrier) {
+      permission = permission.intersection(barrier.getBarrierPermissions());
+    }
+    if (edge.getToVertex() instanceof BarrierVertex barrier) {
+      permission = permission.intersection(barrier.getBarrierPermissions());
+    }
+    return permission;
+  }
+
+  private static byte noThruTraffic(StreetEdge edge) {
+    int bits = 0;
+    for (var mode : NO_THRU_TRAFFIC_MODES) {
+      if (edge.isNoThruTraffic(mode)) {
+        bits |= noThruTrafficBit(mode);
+      }
+    }
+    return (byte) bits;
+  }
+
+  private static int noThruTrafficBit(TraverseMode mode) {
+    return switch (mode) {
+      case WALK -> 1;
+      case BICYCLE, SCOOTER -> 2;
+      case CAR, FLEX -> 4;
+    };
+  }
+}
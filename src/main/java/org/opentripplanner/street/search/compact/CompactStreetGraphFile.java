@@ -0,0 +1,374 @@
+package org.opentripplanner.street.search.compact;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.zip.CRC32C;
+import javax.annotation.Nullable;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.FreeEdge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * Write the columns of a {@link CompactStreetGraph} to a file of flat little-endian arrays, and
+ * map them back into memory with a {@link MappedByteBuffer}. The file is written next to the
+ * graph file when the graph is saved. When the server starts, the columns are mapped instead of
+ * computed from the street edges, and they are kept off the heap.
+ * <p>
+ * The vertex and edge objects are still loaded from the serialized graph. The file contains the
+ * index of each vertex, see {@link Vertex#getIndex()}, and the edges are stored in the order of
+ * the outgoing edges of the vertices. The graph file keeps the order of the outgoing edges. The
+ * file is only valid for the graph it is written with. The header contains an id of the graph
+ * file, and a checksum of the columns, both are checked when the file is mapped. The topology of
+ * the graph and the distance of the street edges are also checked.
+ * <p>
+ * The file starts with a header, followed by the columns in the order of the fields of the
+ * {@link CompactStreetGraph}. Each column starts at a multiple of 8 bytes.
+ */
+public class CompactStreetGraphFile {
+
+  /** "OTPCSG" followed by the format version. */
+  private static final long MAGIC = 0x4F545043534703L;
+
+  private static final String FILE_SUFFIX = ".streets";
+
+  /** The maximum length of the graph id in bytes, the id is padded with zeros. */
+  static final int GRAPH_ID_SIZE = 32;
+
+  private static final int HEADER_SIZE = 72;
+
+  /** The position of the checksum in the header. */
+  private static final int CHECKSUM_POSITION = HEADER_SIZE - Long.BYTES;
+
+  /** The size of the mapped buffers used to compute the checksum. */
+  private static final int CHECKSUM_BLOCK_SIZE = 1 << 30;
+
+  private static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+  private CompactStreetGraphFile() {}
+
+  /**
+   * The path of the compact street graph file belonging to the given graph file.
+   */
+  public static Path pathOf(Path graphFile) {
+    return graphFile.resolveSibling(graphFile.getFileName() + FILE_SUFFIX);
+  }
+
+  /**
+   * @param graphId the id of the graph file the compact street graph is written with, the file is
+   *                only mapped for a graph with the same id. At most {@link #GRAPH_ID_SIZE} bytes.
+   */
+  public static void write(CompactStreetGraph graph, Path path, String graphId)
+    throws IOException {
+    int nVertices = graph.numberOfVertices();
+    int[] vertexIndexes = new int[nVertices];
+    for (int v = 0; v < nVertices; ++v) {
+      vertexIndexes[v] = graph.vertex(v).getIndex();
+    }
+
+    try (
+      var channel = FileChannel.open(
+        path,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING,
+        StandardOpenOption.WRITE
+      )
+    ) {
+      var header = ByteBuffer.allocate(HEADER_SIZE).order(BYTE_ORDER);
+      header.putLong(MAGIC);
+      header.put(graphIdBytes(graphId));
+      header.putInt(nVertices);
+      header.putInt(graph.numberOfEdges());
+      header.putInt(graph.incomingEdges.capacity());
+      header.putFloat(graph.maxCarSpeed);
+
+      // The header is written last, when the checksum of the columns is known
+      channel.position(HEADER_SIZE);
+      var writer = new ColumnWriter(channel);
+
+      writer.write(IntBuffer.wrap(vertexIndexes));
+      writer.write(graph.lat);
+      writer.write(graph.lon);
+      writer.write(graph.outgoingStart);
+      writer.write(graph.incomingStart);
+      writer.write(graph.incomingEdges);
+      writer.write(graph.fromVertex);
+      writer.write(graph.toVertex);
+      writer.write(graph.edgeType);
+      writer.write(graph.permission);
+      writer.write(graph.noThruTraffic);
+      writer.write(graph.stairs);
+      writer.write(graph.distance);
+      writer.write(graph.effectiveWalkDistance);
+      writer.write(graph.effectiveWalkSafetyDistance);
+      writer.write(graph.effectiveBikeDistance);
+      writer.write(graph.effectiveBikeSafetyDistance);
+      writer.write(graph.carSpeed);
+
+      header.putLong(CHECKSUM_POSITION, writer.checksum.getValue());
+      header.clear();
+      while (header.hasRemaining()) {
+        channel.write(header, header.position());
+      }
+    }
+  }
+
+  /**
+   * Map the columns of the file into memory, and create a compact street graph for the given
+   * vertices.
+   *
+   * @param graphId the id of the graph file the vertices are loaded from, see
+   *                {@link #write(CompactStreetGraph, Path, String)}
+   * @return {@code null} if the file is not written for the graph the vertices belong to, or the
+   * checksum of the columns is not correct.
+   */
+  @Nullable
+  public static CompactStreetGraph map(Path path, Collection<Vertex> vertices, String graphId)
+    throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      var header = ByteBuffer.allocate(HEADER_SIZE).order(BYTE_ORDER);
+      while (header.hasRemaining()) {
+        if (channel.read(header) < 0) {
+          return null;
+        }
+      }
+      header.flip();
+      if (header.getLong() != MAGIC) {
+        return null;
+      }
+      var fileGraphId = new byte[GRAPH_ID_SIZE];
+      header.get(fileGraphId);
+      if (!Arrays.equals(fileGraphId, graphIdBytes(graphId))) {
+        return null;
+      }
+      int nVertices = header.getInt();
+      int nEdges = header.getInt();
+      int nIncoming = header.getInt();
+      float maxCarSpeed = header.getFloat();
+      long checksum = header.getLong(CHECKSUM_POSITION);
+
+      if (nVertices != vertices.size() || checksum(channel) != checksum) {
+        return null;
+      }
+
+      var reader = new ColumnReader(channel);
+      IntBuffer vertexIndexes = reader.ints(nVertices);
+      var graphVertices = verticesByIndex(vertices, vertexIndexes);
+      if (graphVertices == null) {
+        return null;
+      }
+      FloatBuffer lat = reader.floats(nVertices);
+      FloatBuffer lon = reader.floats(nVertices);
+      IntBuffer outgoingStart = reader.ints(nVertices + 1);
+      var edges = edges(graphVertices, outgoingStart, nEdges);
+      if (edges == null) {
+        return null;
+      }
+
+      var graph = new CompactStreetGraph(
+        graphVertices,
+        edges,
+        lat,
+        lon,
+        outgoingStart,
+        reader.ints(nVertices + 1),
+        reader.ints(nIncoming),
+        reader.ints(nEdges),
+        reader.ints(nEdges),
+        reader.bytes(nEdges),
+        reader.bytes(nEdges),
+        reader.bytes(nEdges),
+        reader.bytes(nEdges),
+        reader.floats(nEdges),
+        reader.floats(nEdges),
+        reader.floats(nEdges),
+        reader.floats(nEdges),
+        reader.floats(nEdges),
+        reader.floats(nEdges),
+        maxCarSpeed
+      );
+      return hasSameTopology(graph) ? graph : null;
+    }
+  }
+
+  /**
+   * The vertices in the order of the compact graph, or {@code null} if a vertex is not found.
+   */
+  @Nullable
+  private static Vertex[] verticesByIndex(Collection<Vertex> vertices, IntBuffer vertexIndexes) {
+    int maxIndex = -1;
+    for (Vertex v : vertices) {
+      if (v.getIndex() == Vertex.NO_INDEX) {
+        return null;
+      }
+      maxIndex = Math.max(maxIndex, v.getIndex());
+    }
+    var byIndex = new Vertex[maxIndex + 1];
+    for (Vertex v : vertices) {
+      byIndex[v.getIndex()] = v;
+    }
+    var result = new Vertex[vertexIndexes.capacity()];
+    for (int v = 0; v < result.length; ++v) {
+      int index = vertexIndexes.get(v);
+      if (index < 0 || index >= byIndex.length || byIndex[index] == null) {
+        return null;
+      }
+      result[v] = byIndex[index];
+    }
+    return result;
+  }
+
+  /**
+   * The outgoing edges of the vertices, or {@code null} if the number of edges of a vertex is not
+   * the same as in the file.
+   */
+  @Nullable
+  private static Edge[] edges(Vertex[] vertices, IntBuffer outgoingStart, int nEdges) {
+    var edges = new Edge[nEdges];
+    for (int v = 0; v < vertices.length; ++v) {
+      var outgoing = vertices[v].getOutgoing();
+      int first = outgoingStart.get(v);
+      if (outgoing.size() != outgoingStart.get(v + 1) - first) {
+        return null;
+      }
+      int e = first;
+      for (Edge edge : outgoing) {
+        edges[e++] = edge;
+      }
+    }
+    return edges;
+  }
+
+  /** The graph id padded with zeros. */
+  private static byte[] graphIdBytes(String graphId) {
+    var bytes = graphId.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > GRAPH_ID_SIZE) {
+      throw new IllegalArgumentException("The graph id is too long: " + graphId);
+    }
+    return Arrays.copyOf(bytes, GRAPH_ID_SIZE);
+  }
+
+  /** The checksum of the columns, everything after the header. */
+  private static long checksum(FileChannel channel) throws IOException {
+    var checksum = new CRC32C();
+    long size = channel.size();
+    for (long position = HEADER_SIZE; position < size; position += CHECKSUM_BLOCK_SIZE) {
+      long blockSize = Math.min(CHECKSUM_BLOCK_SIZE, size - position);
+      checksum.update(channel.map(FileChannel.MapMode.READ_ONLY, position, blockSize));
+    }
+    return checksum.getValue();
+  }
+
+  /**
+   * Check that each edge in the file is the same as the edge of the graph at the same position.
+   * The edges are matched by the order of the outgoing edges of the vertices, which is kept when
+   * the graph is saved and loaded. The distance of the street edges is also compared, so the values
+   * of two edges between the same vertices are not swapped if the order is not the same.
+   */
+  private static boolean hasSameTopology(CompactStreetGraph graph) {
+    for (int e = 0; e < graph.numberOfEdges(); ++e) {
+      var edge = graph.edge(e);
+      if (
+        graph.toVertex(e) != graph.vertexIndex(edge.getToVertex()) ||
+        graph.isStreetEdge(e) != edge instanceof StreetEdge ||
+        graph.isFreeEdge(e) != edge instanceof FreeEdge
+      ) {
+        return false;
+      }
+      if (
+        edge instanceof StreetEdge streetEdge &&
+        graph.distance(e) != (float) streetEdge.getDistanceMeters()
+      ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int padding(long size) {
+    return (int) ((8 - size % 8) % 8);
+  }
+
+  /**
+   * Write the columns to the file, and compute the checksum of the bytes written.
+   */
+  private static class ColumnWriter {
+
+    private final FileChannel channel;
+    private final CRC32C checksum = new CRC32C();
+
+    private ColumnWriter(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    void write(IntBuffer column) throws IOException {
+      var bytes = ByteBuffer.allocate(column.capacity() * Integer.BYTES).order(BYTE_ORDER);
+      bytes.asIntBuffer().put(column.duplicate().clear());
+      write(bytes);
+    }
+
+    void write(FloatBuffer column) throws IOException {
+      var bytes = ByteBuffer.allocate(column.capacity() * Float.BYTES).order(BYTE_ORDER);
+      bytes.asFloatBuffer().put(column.duplicate().clear());
+      write(bytes);
+    }
+
+    /** Write the bytes, and pad the column to a multiple of 8 bytes. */
+    void write(ByteBuffer column) throws IOException {
+      write(column.duplicate().clear(), channel, checksum);
+      write(ByteBuffer.allocate(padding(column.capacity())), channel, checksum);
+    }
+
+    private static void write(ByteBuffer bytes, FileChannel channel, CRC32C checksum)
+      throws IOException {
+      checksum.update(bytes.duplicate());
+      while (bytes.hasRemaining()) {
+        channel.write(bytes);
+      }
+    }
+  }
+
+  /**
+   * Map the columns of the file one by one, a single mapped buffer is limited to 2 GB.
+   */
+  private static class ColumnReader {
+
+    private final FileChannel channel;
+    private long position = HEADER_SIZE;
+
+    private ColumnReader(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    IntBuffer ints(int size) throws IOException {
+      return map((long) size * Integer.BYTES).asIntBuffer();
+    }
+
+    FloatBuffer floats(int size) throws IOException {
+      return map((long) size * Float.BYTES).asFloatBuffer();
+    }
+
+    ByteBuffer bytes(int size) throws IOException {
+      return map(size);
+    }
+
+    private ByteBuffer map(long size) throws IOException {
+      if (position + size > channel.size()) {
+        throw new IOException("The compact street graph file is truncated.");
+      }
+      var buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(BYTE_ORDER);
+      position += size + padding(size);
+      return buffer;
+    }
+  }
+}
@@ -0,0 +1,470 @@
+package org.opentripplanner.street.search.compact;
+
+import gnu.trove.map.TIntDoubleMap;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.map.hash.TIntDoubleHashMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.FreeEdge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+/**
+ * A one-to-one search for walking on the {@link CompactStreetGraph}. The search only uses
+ * primitive arrays and maps, no {@code State} objects are created. The cost of a street edge is
+ * the same as the walking cost in {@link StreetEdge}, without the turn costs. Other edges, like
+ * the links to transit stops and elevators, are traversed at no cost. The weight of a path is
+ * therefore a lower bound of the weight of the same path in the regular search.
+ * <p>
+ * This makes it possible to prove that the path found is optimal: if the weight of the path,
+ * when traversed using the street edges, is the same as the {@link #pathWeight()}, no other path
+ * can have a lower weight. The caller is responsible for traversing the returned edges and doing
+ * this check, and for falling back to the regular search if it fails.
+ * <p>
+ * The labels are settled in the order of their weight, without a heuristic for the remaining
+ * weight. A heuristic based on the distance to the destination is not a lower bound, the edges
+ * not modeled by the search may cover any distance at no cost. With such a heuristic the path
+ * found could have a higher weight than another path, and the check above would prove nothing.
+ * <p>
+ * Vertices and edges not part of the compact graph, like the temporary vertices and edges created
+ * for the origin and destination, are traversed using the {@link Vertex} and {@link Edge} objects.
+ * The same is done for a vertex where the number of edges differs from the compact graph.
+ * <p>
+ * Like in the regular search, a vertex reached after entering a no-thru-traffic area is not
+ * compared with the same vertex reached without entering it. The search therefore uses labels,
+ * the node id shifted one bit to the left, with the lowest bit set if a no-thru-traffic area is
+ * entered.
+ * <p>
+ * An instance should only be used for one search, it is not thread-safe.
+ */
+public class CompactStreetSearch {
+
+  private static final int NOT_FOUND = -1;
+  private static final int TIMEOUT_CHECK_INTERVAL = 1000;
+  private static final double FREE_EDGE_WEIGHT = 1.0;
+
+  private final CompactStreetGraph graph;
+  private final TraverseMode mode;
+  private final boolean arriveBy;
+  private final double maxDurationSeconds;
+
+  private final double speed;
+  private final double reluctance;
+  private final double stairsReluctance;
+  private final double stairsTimeFactor;
+  private final double walkSafetyFactor;
+
+  /** Vertices not in the compact graph get the node id {@code numberOfVertices + index} */
+  private final List<Vertex> extraVertices = new ArrayList<>();
+  private final Map<Vertex, Integer> extraVertexIds = new IdentityHashMap<>();
+
+  /** Edges traversed using the edge objects get the edge id {@code numberOfEdges + index} */
+  private final List<Edge> extraEdges = new ArrayList<>();
+
+  private final TIntDoubleMap weights = new TIntDoubleHashMap();
+  private final TIntDoubleMap durations = new TIntDoubleHashMap();
+  private final TIntIntMap parentEdges = new TIntIntHashMap();
+  private final TIntIntMap parentLabels = new TIntIntHashMap();
+  private final TIntSet settled = new TIntHashSet();
+  private final LabelQueue queue = new LabelQueue();
+
+  /** The cost of the last edge computed, set by the {@code edgeCost} methods */
+  private double edgeTime;
+  private double edgeWeight;
+
+  /** The weight of the path found, or {@code NaN} if no path is found */
+  private double pathWeight = Double.NaN;
+
+  private CompactStreetSearch(
+    CompactStreetGraph graph,
+    TraverseMode mode,
+    RoutingPreferences preferences,
+    boolean arriveBy,
+    double maxDurationSeconds
+  ) {
+    this.graph = graph;
+    this.mode = mode;
+    this.arriveBy = arriveBy;
+    this.maxDurationSeconds = maxDurationSeconds;
+    this.speed = preferences.walk().speed();
+    this.reluctance = preferences.walk().reluctance();
+    this.stairsReluctance = preferences.walk().stairsReluctance();
+    this.stairsTimeFactor = preferences.walk().stairsTimeFactor();
+    this.walkSafetyFactor = preferences.walk().safetyFactor();
+  }
+
+  /**
+   * Return a new search or {@code null} if the mode is not supported by the compact search. Only
+   * walking is supported, the cost model for cycling and driving includes switching to walking
+   * the bike and turn restrictions, the weight of a path in the compact graph would not be a lower
+   * bound.
+   *
+   * @param arriveBy if {@code true} the search is done backwards, from the destination to the
+   *                 origin.
+   * @param maxDurationSeconds paths with a longer duration are not explored.
+   */
+  @Nullable
+  public static CompactStreetSearch of(
+    CompactStreetGraph graph,
+    TraverseMode mode,
+    RoutingPreferences preferences,
+    boolean arriveBy,
+    double maxDurationSeconds
+  ) {
+    if (mode != TraverseMode.WALK) {
+      return null;
+    }
+    return new CompactStreetSearch(graph, mode, preferences, arriveBy, maxDurationSeconds);
+  }
+
+  /**
+   * Find the path with the lowest weight from the origin to the destination. If the search is
+   * arrive-by, the origin is the vertex the search starts from, this is the destination of the
+   * trip.
+   *
+   * @param abortTime the search is aborted if it is not finished at this time, in epoch millis.
+   * @return the edges of the path in the order of the search, or {@code null} if no path is found
+   * or the search timed out.
+   */
+  @Nullable
+  public List<Edge> findPath(Vertex origin, Vertex destination, long abortTime) {
+    int originLabel = label(nodeId(origin), false);
+    int destinationNode = nodeId(destination);
+
+    weights.put(originLabel, 0);
+    durations.put(originLabel, 0);
+    queue.insert(originLabel, 0);
+
+    int nSettled = 0;
+    while (!queue.isEmpty()) {
+      int label = queue.extractMin();
+      if (!settled.add(label)) {
+        continue;
+      }
+      int u = node(label);
+      if (u == destinationNode) {
+        pathWeight = weights.get(label);
+        return path(originLabel, label);
+      }
+      if (++nSettled % TIMEOUT_CHECK_INTERVAL == 0 && System.currentTimeMillis() > abortTime) {
+        return null;
+      }
+      var current = new Label(
+        label,
+        weights.get(label),
+        durations.get(label),
+        hasEnteredNoThruTrafficArea(label),
+        label != originLabel && isThruTrafficStreetEdge(parentEdges.get(label))
+      );
+      Vertex vertex = vertex(u);
+
+      if (u < graph.numberOfVertices() && isCompact(u, vertex)) {
+        expandCompact(current);
+      } else {
+        expandObjects(current, vertex);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The weight of the path returned by {@link #findPath(Vertex, Vertex, long)} in the compact
+   * graph, this is a lower bound of the weight of the path in the regular search. Returns
+   * {@code NaN} if no path is found.
+   */
+  public double pathWeight() {
+    return pathWeight;
+  }
+
+  /**
+   * The edges of a vertex may change after the compact graph is created, when temporary edges are
+   * added to link the origin and destination to the street network.
+   */
+  private boolean isCompact(int v, Vertex vertex) {
+    return arriveBy
+      ? vertex.getDegreeIn() == graph.endIncoming(v) - graph.firstIncoming(v)
+      : vertex.getDegreeOut() == graph.endOutgoingEdge(v) - graph.firstOutgoingEdge(v);
+  }
+
+  private void expandCompact(Label current) {
+    int u = node(current.label);
+    int first = arriveBy ? graph.firstIncoming(u) : graph.firstOutgoingEdge(u);
+    int end = arriveBy ? graph.endIncoming(u) : graph.endOutgoingEdge(u);
+
+    for (int i = first; i < end; ++i) {
+      int e = arriveBy ? graph.incomingEdge(i) : i;
+      if (!edgeCost(e)) {
+        continue;
+      }
+      int next = arriveBy ? graph.fromVertex(e) : graph.toVertex(e);
+      if (next == NOT_FOUND) {
+        Edge edge = graph.edge(e);
+        next = nodeId(arriveBy ? edge.getFromVertex() : edge.getToVertex());
+      }
+      boolean streetEdge = graph.isStreetEdge(e);
+      relax(current, e, next, streetEdge, streetEdge && graph.isNoThruTraffic(e, mode));
+    }
+  }
+
+  private void expandObjects(Label current, Vertex vertex) {
+    Collection<Edge> edges = arriveBy ? vertex.getIncoming() : vertex.getOutgoing();
+    for (Edge edge : edges) {
+      if (!edgeCost(edge)) {
+        continue;
+      }
+      int e = graph.numberOfEdges() + extraEdges.size();
+      extraEdges.add(edge);
+      int next = nodeId(arriveBy ? edge.getFromVertex() : edge.getToVertex());
+      boolean streetEdge = edge instanceof StreetEdge;
+      boolean noThruTraffic = streetEdge && ((StreetEdge) edge).isNoThruTraffic(mode);
+      relax(current, e, next, streetEdge, noThruTraffic);
+    }
+  }
+
+  /**
+   * Add the next label to the queue, if the path to it is better than the best path found so far.
+   * The edge cost must be computed before calling this.
+   */
+  private void relax(
+    Label current,
+    int edge,
+    int next,
+    boolean streetEdge,
+    boolean noThruTraffic
+  ) {
+    // Same as in StreetEdge, a no-thru-traffic area can be entered, but not exited
+    boolean entered = current.enteredNoThruTrafficArea;
+    if (noThruTraffic) {
+      entered |= current.backEdgeIsThruTraffic;
+    } else if (streetEdge && entered) {
+      return;
+    }
+    int nextLabel = label(next, entered);
+    if (settled.contains(nextLabel)) {
+      return;
+    }
+    double nextDuration = current.duration + edgeTime;
+    if (nextDuration > maxDurationSeconds) {
+      return;
+    }
+    double nextWeight = current.weight + edgeWeight;
+    if (weights.containsKey(nextLabel) && weights.get(nextLabel) <= nextWeight) {
+      return;
+    }
+    weights.put(nextLabel, nextWeight);
+    durations.put(nextLabel, nextDuration);
+    parentEdges.put(nextLabel, edge);
+    parentLabels.put(nextLabel, current.label);
+    queue.insert(nextLabel, nextWeight);
+  }
+
+  private boolean isThruTrafficStreetEdge(int e) {
+    if (e < graph.numberOfEdges()) {
+      return graph.isStreetEdge(e) && !graph.isNoThruTraffic(e, mode);
+    }
+    return (
+      extraEdges.get(e - graph.numberOfEdges()) instanceof StreetEdge streetEdge &&
+      !streetEdge.isNoThruTraffic(mode)
+    );
+  }
+
+  private boolean edgeCost(int e) {
+    if (graph.isFreeEdge(e)) {
+      return freeEdgeCost();
+    }
+    if (!graph.isStreetEdge(e)) {
+      return otherEdgeCost();
+    }
+    if (!graph.allows(e, mode)) {
+      return false;
+    }
+    return streetEdgeCost(
+      graph.isStairs(e),
+      graph.effectiveWalkDistance(e),
+      walkWeightDistance(graph.effectiveWalkDistance(e), graph.effectiveWalkSafetyDistance(e))
+    );
+  }
+
+  private boolean edgeCost(Edge edge) {
+    if (edge instanceof FreeEdge) {
+      return freeEdgeCost();
+    }
+    if (!(edge instanceof StreetEdge e)) {
+      return otherEdgeCost();
+    }
+    if (!CompactStreetGraph.permission(e).allows(mode)) {
+      return false;
+    }
+    return streetEdgeCost(
+      e.isStairs(),
+      e.getEffectiveWalkDistance(),
+      walkWeightDistance(e.getEffectiveWalkDistance(), e.getEffectiveWalkSafetyDistance())
+    );
+  }
+
+  private boolean freeEdgeCost() {
+    edgeTime = 0;
+    edgeWeight = FREE_EDGE_WEIGHT;
+    return true;
+  }
+
+  /**
+   * The cost of the edges not modeled by the compact search is not known, they are traversed at
+   * no cost to keep the weight of a path a lower bound. A path using one of these edges is
+   * rejected by the caller, unless the edges happen to have no cost in the regular search.
+   */
+  private boolean otherEdgeCost() {
+    edgeTime = 0;
+    edgeWeight = 0;
+    return true;
+  }
+
+  /**
+   * Same as the walking cost computed in {@link StreetEdge}, without turn costs.
+   *
+   * @param timeDistance the distance used to compute the duration
+   * @param weightDistance the distance used to compute the weight
+   */
+  private boolean streetEdgeCost(boolean stairs, double timeDistance, double weightDistance) {
+    double s = stairs ? speed / stairsTimeFactor : speed;
+    edgeTime = timeDistance / s;
+    edgeWeight = (weightDistance / s) * (stairs ? stairsReluctance : reluctance);
+    return true;
+  }
+
+  private double walkWeightDistance(double effectiveWalkDistance, double effectiveSafetyDistance) {
+    return (
+      effectiveSafetyDistance * walkSafetyFactor + effectiveWalkDistance * (1 - walkSafetyFactor)
+    );
+  }
+
+  private List<Edge> path(int originLabel, int destinationLabel) {
+    var path = new LinkedList<Edge>();
+    int label = destinationLabel;
+    while (label != originLabel) {
+      int e = parentEdges.get(label);
+      path.addFirst(
+        e < graph.numberOfEdges() ? graph.edge(e) : extraEdges.get(e - graph.numberOfEdges())
+      );
+      label = parentLabels.get(label);
+    }
+    return path;
+  }
+
+  private int nodeId(Vertex vertex) {
+    int v = graph.vertexIndex(vertex);
+    if (v != NOT_FOUND) {
+      return v;
+    }
+    Integer id = extraVertexIds.get(vertex);
+    if (id == null) {
+      id = graph.numberOfVertices() + extraVertices.size();
+      extraVertices.add(vertex);
+      extraVertexIds.put(vertex, id);
+    }
+    return id;
+  }
+
+  private Vertex vertex(int node) {
+    return node < graph.numberOfVertices()
+      ? graph.vertex(node)
+      : extraVertices.get(node - graph.numberOfVertices());
+  }
+
+  private static int label(int node, boolean enteredNoThruTrafficArea) {
+    return (node << 1) | (enteredNoThruTrafficArea ? 1 : 0);
+  }
+
+  private static int node(int label) {
+    return label >>> 1;
+  }
+
+  private static boolean hasEnteredNoThruTrafficArea(int label) {
+    return (label & 1) != 0;
+  }
+
+  /**
+   * The state of a settled label, used when the edges of the label are expanded.
+   *
+   * @param backEdgeIsThruTraffic {@code true} if the label is reached with a street edge open for
+   *                              thru traffic.
+   */
+  private record Label(
+    int label,
+    double weight,
+    double duration,
+    boolean enteredNoThruTrafficArea,
+    boolean backEdgeIsThruTraffic
+  ) {}
+
+  /**
+   * A binary min-heap of labels, without decrease-key. A label may be inserted more than once,
+   * the caller skips labels already settled.
+   */
+  private static class LabelQueue {
+
+    private int[] labels = new int[64];
+    private double[] keys = new double[64];
+    private int size = 0;
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    void insert(int label, double key) {
+      if (size == labels.length) {
+        labels = Arrays.copyOf(labels, size * 2);
+        keys = Arrays.copyOf(keys, size * 2);
+      }
+      int i = size++;
+      while (i > 0) {
+        int parent = (i - 1) >>> 1;
+        if (keys[parent] <= key) {
+          break;
+        }
+        labels[i] = labels[parent];
+        keys[i] = keys[parent];
+        i = parent;
+      }
+      labels[i] = label;
+      keys[i] = key;
+    }
+
+    int extractMin() {
+      int min = labels[0];
+      int lastLabel = labels[--size];
+      double lastKey = keys[size];
+      int i = 0;
+      while (true) {
+        int child = 2 * i + 1;
+        if (child >= size) {
+          break;
+        }
+        if (child + 1 < size && keys[child + 1] < keys[child]) {
+          ++child;
+        }
+        if (keys[child] >= lastKey) {
+          break;
+        }
+        labels[i] = labels[child];
+        keys[i] = keys[child];
+        i = child;
+      }
+      labels[i] = lastLabel;
+      keys[i] = lastKey;
+      return min;
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package org.opentripplanner.street.search.landmark;
+
+import java.io.Serializable;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+/**
+ * Lower bounds of the cost of traveling from each vertex to a small set of landmark vertices, and
+ * from the landmarks to each vertex, for one traverse mode. The rows of the table are indexed by
+ * {@link Vertex#getIndex()}.
+ * <p>
+ * To keep the table compact, each value is stored as an unsigned 16-bit number of units, rounded
+ * down. The size of the unit is chosen for each landmark, so the largest value fits. The cost
+ * between two vertices is therefore at least {@code (difference - 1) * unit}, where the difference
+ * is taken between two values of the same landmark.
+ * <p>
+ * THIS CLASS IS IMMUTABLE AND THREAD-SAFE.
+ */
+public class LandmarkTable implements Serializable {
+
+  /** The value stored if the vertex can not be reached from, or can not reach, the landmark. */
+  public static final int UNREACHABLE = Character.MAX_VALUE;
+
+  private final TraverseMode mode;
+  private final int[] landmarks;
+  private final double[] units;
+  private final int numberOfVertices;
+
+  /** The cost from landmark {@code l} to vertex {@code v} is stored at {@code v * L + l}. */
+  private final char[] fromLandmark;
+
+  /** The cost from vertex {@code v} to landmark {@code l} is stored at {@code v * L + l}. */
+  private final char[] toLandmark;
+
+  LandmarkTable(
+    TraverseMode mode,
+    int[] landmarks,
+    double[] units,
+    int numberOfVertices,
+    char[] fromLandmark,
+    char[] toLandmark
+  ) {
+    this.mode = mode;
+    this.landmarks = landmarks;
+    this.units = units;
+    this.numberOfVertices = numberOfVertices;
+    this.fromLandmark = fromLandmark;
+    this.toLandmark = toLandmark;
+  }
+
+  /**
+   * The mode used to compute the costs. The costs are the duration in seconds for
+   * {@link TraverseMode#CAR}, and the distance in meters for {@link TraverseMode#BICYCLE}.
+   */
+  public TraverseMode mode() {
+    return mode;
+  }
+
+  public int numberOfLandmarks() {
+    return landmarks.length;
+  }
+
+  /** The vertex index of the given landmark. */
+  public int landmark(int landmark) {
+    return landmarks[landmark];
+  }
+
+  /** The cost represented by one unit in the values of the given landmark. */
+  public double unit(int landmark) {
+    return units[landmark];
+  }
+
+  /**
+   * Return true if the table has values for the vertex with the given index. This is not the case
+   * for temporary vertices, and vertices added after the table is computed.
+   */
+  public boolean contains(int vertexIndex) {
+    return vertexIndex >= 0 && vertexIndex < numberOfVertices;
+  }
+
+  /** The cost from the landmark to the vertex in units, or {@link #UNREACHABLE}. */
+  public int fromLandmark(int vertexIndex, int landmark) {
+    return fromLandmark[vertexIndex * landmarks.length + landmark];
+  }
+
+  /** The cost from the vertex to the landmark in units, or {@link #UNREACHABLE}. */
+  public int toLandmark(int vertexIndex, int landmark) {
+    return toLandmark[vertexIndex * landmarks.length + landmark];
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(LandmarkTable.class)
+      .addEnum("mode", mode)
+      .addNum("landmarks", landmarks.length)
+      .addNum("vertices", numberOfVertices)
+      .toString();
+  }
+}
@@ -0,0 +1,360 @@
+package org.opentripplanner.street.search.landmark;
+
+import java.util.Arrays;
+import java.util.Collection;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+/**
+ * Select the landmarks and compute the {@link LandmarkTable} for one traverse mode.
+ * <p>
+ * The cost of a street edge is a lower bound of the cost of traversing it with the given mode: the
+ * length divided by the speed limit for cars, and the shortest of the distances used by the
+ * different bicycle optimization types for bicycles. Bicycles may also be walked on pedestrian
+ * streets. All other edges are included with zero cost, this makes the bound weaker, but it
+ * ensures that the bound is never higher than the real cost.
+ * <p>
+ * The landmarks are selected with the "farthest" strategy: the first landmark is the vertex
+ * farthest away from a start vertex, and each following landmark is the vertex with the highest
+ * minimum round-trip cost to the landmarks already selected. Landmarks at the edge of the graph
+ * give the best bounds.
+ */
+class LandmarkTableBuilder {
+
+  /** The number of start vertices tried, the one reaching most vertices is used. */
+  private static final int N_START_VERTICES = 3;
+
+  private final TraverseMode mode;
+  private final int nVertices;
+
+  /** The outgoing edges of vertex v are {@code [outgoingStart[v], outgoingStart[v + 1])} */
+  private final int[] outgoingStart;
+  private final int[] outgoingTo;
+  private final double[] outgoingCost;
+
+  /** The incoming edges of vertex v are {@code [incomingStart[v], incomingStart[v + 1])} */
+  private final int[] incomingStart;
+  private final int[] incomingFrom;
+  private final double[] incomingCost;
+
+  private final VertexQueue queue = new VertexQueue();
+
+  LandmarkTableBuilder(Collection<Vertex> vertices, TraverseMode mode) {
+    this.mode = mode;
+
+    int maxIndex = -1;
+    for (Vertex v : vertices) {
+      if (v.getIndex() == Vertex.NO_INDEX) {
+        throw new IllegalArgumentException("The vertices must be indexed: " + v);
+      }
+      maxIndex = Math.max(maxIndex, v.getIndex());
+    }
+    this.nVertices = maxIndex + 1;
+
+    // Count the edges which can be used by the mode, and the edges of each vertex
+    int[] outgoingCount = new int[nVertices];
+    int[] incomingCount = new int[nVertices];
+    int nEdges = 0;
+    for (Vertex v : vertices) {
+      for (Edge edge : v.getOutgoing()) {
+        if (isIncluded(edge)) {
+          ++outgoingCount[v.getIndex()];
+          ++incomingCount[edge.getToVertex().getIndex()];
+          ++nEdges;
+        }
+      }
+    }
+    this.outgoingStart = startPositions(outgoingCount);
+    this.incomingStart = startPositions(incomingCount);
+    this.outgoingTo = new int[nEdges];
+    this.outgoingCost = new double[nEdges];
+    this.incomingFrom = new int[nEdges];
+    this.incomingCost = new double[nEdges];
+
+    int[] nextOutgoing = Arrays.copyOf(outgoingStart, nVertices);
+    int[] nextIncoming = Arrays.copyOf(incomingStart, nVertices);
+    for (Vertex v : vertices) {
+      for (Edge edge : v.getOutgoing()) {
+        if (isIncluded(edge)) {
+          int from = v.getIndex();
+          int to = edge.getToVertex().getIndex();
+          double cost = cost(edge);
+          outgoingTo[nextOutgoing[from]] = to;
+          outgoingCost[nextOutgoing[from]++] = cost;
+          incomingFrom[nextIncoming[to]] = from;
+          incomingCost[nextIncoming[to]++] = cost;
+        }
+      }
+    }
+  }
+
+  LandmarkTable build(int nLandmarks) {
+    int[] landmarks = new int[nLandmarks];
+    double[] units = new double[nLandmarks];
+    char[] fromLandmark = new char[nVertices * nLandmarks];
+    char[] toLandmark = new char[nVertices * nLandmarks];
+    Arrays.fill(fromLandmark, (char) LandmarkTable.UNREACHABLE);
+    Arrays.fill(toLandmark, (char) LandmarkTable.UNREACHABLE);
+
+    int firstLandmark = selectFirstLandmark();
+    if (firstLandmark < 0) {
+      return new LandmarkTable(
+        mode,
+        new int[0],
+        new double[0],
+        nVertices,
+        new char[0],
+        new char[0]
+      );
+    }
+
+    // The minimum round-trip cost to the landmarks selected so far, negative if the vertex is not
+    // reachable from the first landmark
+    double[] minRoundTrip = new double[nVertices];
+    double[] from = new double[nVertices];
+    double[] to = new double[nVertices];
+
+    int landmark = firstLandmark;
+    for (int l = 0; l < nLandmarks; ++l) {
+      landmarks[l] = landmark;
+      search(landmark, true, from);
+      search(landmark, false, to);
+
+      double max = 0;
+      for (int v = 0; v < nVertices; ++v) {
+        if (from[v] != Double.POSITIVE_INFINITY) {
+          max = Math.max(max, from[v]);
+        }
+        if (to[v] != Double.POSITIVE_INFINITY) {
+          max = Math.max(max, to[v]);
+        }
+      }
+      units[l] = max > 0 ? max / (LandmarkTable.UNREACHABLE - 1) : 1.0;
+      for (int v = 0; v < nVertices; ++v) {
+        fromLandmark[v * nLandmarks + l] = quantize(from[v], units[l]);
+        toLandmark[v * nLandmarks + l] = quantize(to[v], units[l]);
+      }
+
+      if (l == nLandmarks - 1) {
+        break;
+      }
+
+      // Select the next landmark
+      int next = -1;
+      for (int v = 0; v < nVertices; ++v) {
+        double roundTrip = from[v] + to[v];
+        if (l == 0) {
+          minRoundTrip[v] = roundTrip == Double.POSITIVE_INFINITY ? -1 : roundTrip;
+        } else if (minRoundTrip[v] >= 0) {
+          minRoundTrip[v] = Math.min(minRoundTrip[v], roundTrip);
+        }
+        if (minRoundTrip[v] > 0 && (next < 0 || minRoundTrip[v] > minRoundTrip[next])) {
+          next = v;
+        }
+      }
+      if (next < 0) {
+        // All vertices reachable are already landmarks
+        landmarks = Arrays.copyOf(landmarks, l + 1);
+        units = Arrays.copyOf(units, l + 1);
+        fromLandmark = select(fromLandmark, nLandmarks, l + 1);
+        toLandmark = select(toLandmark, nLandmarks, l + 1);
+        break;
+      }
+      landmark = next;
+    }
+    return new LandmarkTable(mode, landmarks, units, nVertices, fromLandmark, toLandmark);
+  }
+
+  /**
+   * Run a search from a few vertices, and return the vertex farthest away from the start vertex
+   * which reaches most vertices. Most vertices are in the same strongly connected component, so
+   * this avoids selecting landmarks in a small island. Returns -1 if the mode can not use any
+   * edges.
+   */
+  private int selectFirstLandmark() {
+    double[] cost = new double[nVertices];
+    int best = -1;
+    int bestReached = 0;
+    for (int i = 0; i < N_START_VERTICES; ++i) {
+      int start = firstVertexWithEdges((int) ((long) nVertices * i / N_START_VERTICES));
+      if (start < 0) {
+        continue;
+      }
+      search(start, true, cost);
+      int reached = 0;
+      int farthest = start;
+      for (int v = 0; v < nVertices; ++v) {
+        if (cost[v] != Double.POSITIVE_INFINITY) {
+          ++reached;
+          if (cost[v] > cost[farthest]) {
+            farthest = v;
+          }
+        }
+      }
+      if (reached > bestReached) {
+        best = farthest;
+        bestReached = reached;
+      }
+    }
+    return best;
+  }
+
+  private int firstVertexWithEdges(int from) {
+    for (int i = 0; i < nVertices; ++i) {
+      int v = (from + i) % nVertices;
+      if (outgoingStart[v] < outgoingStart[v + 1]) {
+        return v;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Compute the cost from the given vertex to all other vertices, or to the given vertex from all
+   * other vertices if {@code forward} is false.
+   */
+  private void search(int origin, boolean forward, double[] cost) {
+    int[] start = forward ? outgoingStart : incomingStart;
+    int[] adjacent = forward ? outgoingTo : incomingFrom;
+    double[] edgeCost = forward ? outgoingCost : incomingCost;
+
+    Arrays.fill(cost, Double.POSITIVE_INFINITY);
+    cost[origin] = 0;
+    queue.insert(origin, 0);
+
+    while (!queue.isEmpty()) {
+      double c = queue.minKey();
+      int v = queue.extractMin();
+      if (c > cost[v]) {
+        continue;
+      }
+      for (int i = start[v]; i < start[v + 1]; ++i) {
+        int u = adjacent[i];
+        double uc = c + edgeCost[i];
+        if (uc < cost[u]) {
+          cost[u] = uc;
+          queue.insert(u, uc);
+        }
+      }
+    }
+  }
+
+  private boolean isIncluded(Edge edge) {
+    Vertex to = edge.getToVertex();
+    if (to.getIndex() == Vertex.NO_INDEX || to.getIndex() >= nVertices) {
+      return false;
+    }
+    if (edge instanceof StreetEdge streetEdge) {
+      var permission = streetEdge.getPermission();
+      return (
+        permission.allows(mode) ||
+        (mode == TraverseMode.BICYCLE && permission.allows(TraverseMode.WALK))
+      );
+    }
+    return true;
+  }
+
+  private double cost(Edge edge) {
+    if (!(edge instanceof StreetEdge streetEdge)) {
+      return 0;
+    }
+    if (mode == TraverseMode.CAR) {
+      return streetEdge.getDistanceMeters() / streetEdge.getCarSpeed();
+    }
+    double distance = streetEdge.getDistanceMeters();
+    distance = Math.min(distance, streetEdge.getEffectiveBikeDistance());
+    distance = Math.min(distance, streetEdge.getEffectiveBicycleSafetyDistance());
+    distance = Math.min(distance, streetEdge.getEffectiveBikeDistanceForWorkCost());
+    return distance;
+  }
+
+  private static int[] startPositions(int[] count) {
+    int[] start = new int[count.length + 1];
+    for (int v = 0; v < count.length; ++v) {
+      start[v + 1] = start[v] + count[v];
+    }
+    return start;
+  }
+
+  private static char quantize(double cost, double unit) {
+    if (cost == Double.POSITIVE_INFINITY) {
+      return (char) LandmarkTable.UNREACHABLE;
+    }
+    return (char) Math.min(LandmarkTable.UNREACHABLE - 1, (int) (cost / unit));
+  }
+
+  /** Keep the values of the first {@code n} landmarks. */
+  private static char[] select(char[] values, int nLandmarks, int n) {
+    int nRows = values.length / nLandmarks;
+    char[] result = new char[nRows * n];
+    for (int v = 0; v < nRows; ++v) {
+      System.arraycopy(values, v * nLandmarks, result, v * n, n);
+    }
+    return result;
+  }
+
+  /**
+   * A binary min-heap of vertices, without decrease-key. A vertex may be inserted more than once,
+   * the caller skips vertices already settled with a lower cost.
+   */
+  private static class VertexQueue {
+
+    private int[] vertices = new int[64];
+    private double[] keys = new double[64];
+    private int size = 0;
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    double minKey() {
+      return keys[0];
+    }
+
+    void insert(int vertex, double key) {
+      if (size == vertices.length) {
+        vertices = Arrays.copyOf(vertices, size * 2);
+        keys = Arrays.copyOf(keys, size * 2);
+      }
+      int i = size++;
+      while (i > 0) {
+        int parent = (i - 1) >>> 1;
+        if (keys[parent] <= key) {
+          break;
+        }
+        vertices[i] = vertices[parent];
+        keys[i] = keys[parent];
+        i = parent;
+      }
+      vertices[i] = vertex;
+      keys[i] = key;
+    }
+
+    int extractMin() {
+      int min = vertices[0];
+      int lastVertex = vertices[--size];
+      double lastKey = keys[size];
+      int i = 0;
+      while (true) {
+        int child = 2 * i + 1;
+        if (child >= size) {
+          break;
+        }
+        if (child + 1 < size && keys[child + 1] < keys[child]) {
+          ++child;
+        }
+        if (keys[child] >= lastKey) {
+          break;
+        }
+        vertices[i] = vertices[child];
+        keys[i] = keys[child];
+        i = child;
+      }
+      vertices[i] = lastVertex;
+      keys[i] = lastKey;
+      return min;
+    }
+  }
+}
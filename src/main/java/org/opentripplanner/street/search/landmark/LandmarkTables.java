@@ -0,0 +1,56 @@
+package org.opentripplanner.street.search.landmark;
+
+import java.io.Serializable;
+import java.util.Collection;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+/**
+ * The landmark tables of the street graph, used to compute a lower bound of the remaining cost of
+ * car and bicycle searches with the ALT (A*, landmarks and triangle inequality) algorithm. The
+ * tables are computed when the graph is built and serialized with the graph.
+ * <p>
+ * THIS CLASS IS IMMUTABLE AND THREAD-SAFE.
+ */
+public class LandmarkTables implements Serializable {
+
+  private final LandmarkTable car;
+  private final LandmarkTable bicycle;
+
+  private LandmarkTables(LandmarkTable car, LandmarkTable bicycle) {
+    this.car = car;
+    this.bicycle = bicycle;
+  }
+
+  /**
+   * Select the landmarks and compute the tables for the given vertices. The vertices must be
+   * indexed, see {@link Vertex#getIndex()}.
+   */
+  public static LandmarkTables of(Collection<Vertex> vertices, int numberOfLandmarks) {
+    return new LandmarkTables(
+      new LandmarkTableBuilder(vertices, TraverseMode.CAR).build(numberOfLandmarks),
+      new LandmarkTableBuilder(vertices, TraverseMode.BICYCLE).build(numberOfLandmarks)
+    );
+  }
+
+  /** The table for the given mode, or {@code null} if there is no table for the mode. */
+  @Nullable
+  public LandmarkTable table(TraverseMode mode) {
+    return switch (mode) {
+      case CAR -> car;
+      case BICYCLE -> bicycle;
+      default -> null;
+    };
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(LandmarkTables.class)
+      .addObj("car", car)
+      .addObj("bicycle", bicycle)
+      .toString();
+  }
+}
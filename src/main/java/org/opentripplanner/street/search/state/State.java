@@ -164,6 +164,32 @@ public class State implements AStarState<State, Edge, Vertex>, Cloneable {
     return new StateEditor(this, e);
   }
 
+  /**
+   * Create the state after walking along the edge, without a {@link StateEditor}. The new state
+   * shares the {@link StateData} with this state, so this should only be used when traversing the
+   * edge does not change it, like when walking on from a state which arrived on foot. The caller is
+   * responsible for checking that the edge can be traversed.
+   *
+   * @param seconds      the time it takes to traverse the edge, not negative
+   * @param weight       the weight of traversing the edge, not negative
+   * @param walkDistance the total walk distance of the new state
+   */
+  public State createWalkingState(Edge edge, int seconds, double weight, double walkDistance) {
+    State child = clone();
+    child.backState = this;
+    child.backEdge = edge;
+    if (request.arriveBy()) {
+      child.vertex = edge.getFromVertex();
+      child.time -= seconds;
+    } else {
+      child.vertex = edge.getToVertex();
+      child.time += seconds;
+    }
+    child.weight += weight;
+    child.walkDistance = walkDistance;
+    return child;
+  }
+
   /*
    * FIELD ACCESSOR METHODS States are immutable, so they have only get methods. The corresponding
    * set methods are in StateEditor.
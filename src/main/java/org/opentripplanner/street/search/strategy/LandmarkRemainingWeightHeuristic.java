@@ -0,0 +1,211 @@
+package org.opentripplanner.street.search.strategy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.routing.core.VehicleRoutingOptimizeType;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.landmark.LandmarkTable;
+import org.opentripplanner.street.search.landmark.LandmarkTables;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * A remaining weight heuristic using the landmark tables computed when the graph is built (ALT).
+ * By the triangle inequality, the cost from a vertex {@code v} to the destination {@code t} is at
+ * least {@code d(L, t) - d(L, v)} and {@code d(v, L) - d(t, L)} for every landmark {@code L}. The
+ * highest of these bounds is usually much closer to the real cost than the euclidean distance,
+ * for example when the destination is on the other side of a river or a fjord.
+ * <p>
+ * The tables are only used for car and bicycle searches, other modes use the
+ * {@link EuclideanRemainingWeightHeuristic}. The euclidean estimate is also used for the vertices
+ * which are not in the tables, like temporary vertices, and the highest of the two estimates is
+ * returned. The bounds in the tables are multiplied by the lowest reluctance of the mode, since
+ * the weight of a street edge is its duration multiplied by a reluctance.
+ */
+public class LandmarkRemainingWeightHeuristic implements RemainingWeightHeuristic<State> {
+
+  /**
+   * The maximum number of vertices visited to find the vertices in the tables closest to the
+   * destination, when the destination is a temporary vertex.
+   */
+  private static final int MAX_VERTICES_TO_TABLE = 100;
+
+  private final LandmarkTables tables;
+  private final EuclideanRemainingWeightHeuristic euclidean;
+
+  /** The table used by the current search, or {@code null} if the tables can not be used. */
+  @Nullable
+  private LandmarkTable table;
+
+  /** The lowest weight of one unit of cost in the table, seconds for cars and meters for bikes. */
+  private double weightPerUnit;
+
+  private boolean arriveBy;
+
+  /**
+   * The values of the destination, for each landmark. For a depart-after search this is the
+   * lowest cost from the landmark and the highest cost to the landmark of the vertices next to
+   * the destination. For an arrive-by search it is the other way around.
+   */
+  private int[] destinationFromLandmark;
+  private int[] destinationToLandmark;
+
+  public LandmarkRemainingWeightHeuristic(LandmarkTables tables, Float maxCarSpeed) {
+    this.tables = tables;
+    this.euclidean = new EuclideanRemainingWeightHeuristic(maxCarSpeed);
+  }
+
+  public void initialize(
+    StreetMode streetMode,
+    Set<Vertex> toVertices,
+    boolean arriveBy,
+    RoutingPreferences preferences
+  ) {
+    euclidean.initialize(streetMode, toVertices, arriveBy, preferences);
+    this.arriveBy = arriveBy;
+    this.table = null;
+
+    LandmarkTable table = selectTable(streetMode, preferences);
+    if (table == null || table.numberOfLandmarks() == 0) {
+      return;
+    }
+    List<Vertex> destinations = findVerticesInTable(table, toVertices, arriveBy);
+    if (destinations.isEmpty()) {
+      return;
+    }
+
+    int n = table.numberOfLandmarks();
+    destinationFromLandmark = new int[n];
+    destinationToLandmark = new int[n];
+    // The destination is reached through one of the vertices, so the bounds must hold for all
+    Arrays.fill(destinationFromLandmark, arriveBy ? 0 : LandmarkTable.UNREACHABLE);
+    Arrays.fill(destinationToLandmark, arriveBy ? LandmarkTable.UNREACHABLE : 0);
+    for (Vertex v : destinations) {
+      for (int l = 0; l < n; ++l) {
+        int from = table.fromLandmark(v.getIndex(), l);
+        int to = table.toLandmark(v.getIndex(), l);
+        if (arriveBy) {
+          destinationFromLandmark[l] = Math.max(destinationFromLandmark[l], from);
+          destinationToLandmark[l] = Math.min(destinationToLandmark[l], to);
+        } else {
+          destinationFromLandmark[l] = Math.min(destinationFromLandmark[l], from);
+          destinationToLandmark[l] = Math.max(destinationToLandmark[l], to);
+        }
+      }
+    }
+    this.weightPerUnit = weightPerUnit(table.mode(), preferences);
+    this.table = table;
+  }
+
+  @Override
+  public double estimateRemainingWeight(State s) {
+    double estimate = euclidean.estimateRemainingWeight(s);
+    if (table == null) {
+      return estimate;
+    }
+    int v = s.getVertex().getIndex();
+    if (!table.contains(v)) {
+      return estimate;
+    }
+
+    double bound = 0;
+    for (int l = 0; l < destinationFromLandmark.length; ++l) {
+      int from = table.fromLandmark(v, l);
+      int to = table.toLandmark(v, l);
+      int difference;
+      if (arriveBy) {
+        // The remaining cost is the cost from the destination to v
+        difference =
+          Math.max(
+            difference(from, destinationFromLandmark[l]),
+            difference(destinationToLandmark[l], to)
+          );
+      } else {
+        difference =
+          Math.max(
+            difference(destinationFromLandmark[l], from),
+            difference(to, destinationToLandmark[l])
+          );
+      }
+      // The values are rounded down, so the difference may be one unit too high
+      if (difference > 1) {
+        bound = Math.max(bound, (difference - 1) * table.unit(l));
+      }
+    }
+    return Math.max(estimate, bound * weightPerUnit);
+  }
+
+  /**
+   * The weight of a street edge is the duration multiplied by a reluctance, use the lowest
+   * reluctance and the highest speed the mode can have on a street.
+   */
+  private static double weightPerUnit(TraverseMode mode, RoutingPreferences preferences) {
+    if (mode == TraverseMode.CAR) {
+      return preferences.car().reluctance();
+    }
+    var bike = preferences.bike();
+    double reluctance = Math.min(bike.reluctance(), bike.walking().reluctance());
+    reluctance = Math.min(reluctance, preferences.walk().stairsReluctance());
+    return reluctance / Math.max(bike.speed(), bike.walking().speed());
+  }
+
+  /** Return {@code a - b}, or zero if one of the values is unknown. */
+  private static int difference(int a, int b) {
+    return a == LandmarkTable.UNREACHABLE || b == LandmarkTable.UNREACHABLE ? 0 : a - b;
+  }
+
+  @Nullable
+  private LandmarkTable selectTable(StreetMode streetMode, RoutingPreferences preferences) {
+    return switch (streetMode) {
+      case CAR -> tables.table(TraverseMode.CAR);
+      // The weight of the safest streets is lower than the distance, see StreetEdge
+      case BIKE -> preferences.bike().optimizeType() == VehicleRoutingOptimizeType.SAFEST_STREETS
+        ? null
+        : tables.table(TraverseMode.BICYCLE);
+      default -> null;
+    };
+  }
+
+  /**
+   * Find the vertices in the table closest to the destination. The destination is often a
+   * temporary vertex, which is connected to the vertices of the street it is on. For a
+   * depart-after search these are the vertices the destination can be reached from, and for an
+   * arrive-by search the vertices which can be reached from the destination. Returns an empty list
+   * if there are too many vertices between the destination and the table.
+   */
+  private static List<Vertex> findVerticesInTable(
+    LandmarkTable table,
+    Set<Vertex> destinations,
+    boolean arriveBy
+  ) {
+    List<Vertex> result = new ArrayList<>();
+    Set<Vertex> visited = new HashSet<>(destinations);
+    ArrayDeque<Vertex> queue = new ArrayDeque<>(destinations);
+    while (!queue.isEmpty()) {
+      Vertex v = queue.poll();
+      if (table.contains(v.getIndex())) {
+        result.add(v);
+        continue;
+      }
+      for (Edge edge : arriveBy ? v.getOutgoing() : v.getIncoming()) {
+        Vertex next = arriveBy ? edge.getToVertex() : edge.getFromVertex();
+        if (visited.add(next)) {
+          if (visited.size() > MAX_VERTICES_TO_TABLE) {
+            return List.of();
+          }
+          queue.add(next);
+        }
+      }
+    }
+    return result;
+  }
+}
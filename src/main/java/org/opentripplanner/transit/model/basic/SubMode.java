@@ -85,13 +85,40 @@ public record SubMode(String name, int index) implements Serializable {
     return List.copyOf(ALL.values());
   }
 
+  /**
+   * Add the sub-modes of a deserialized graph to the cache. If a graph is loaded while the server
+   * is running, the sub-modes already in the cache must have the same index in the loaded graph.
+   *
+   * @throws IllegalStateException if a sub-mode has another index than the cached sub-mode
+   */
   public static void deserializeSubModeCache(Collection<SubMode> subModes) {
+    validateSubModeCache(subModes);
     int maxIndex = 0;
     for (SubMode it : subModes) {
       ALL.put(it.name(), it);
       maxIndex = Math.max(maxIndex, it.index);
     }
-    COUNTER.set(maxIndex + 1);
+    COUNTER.accumulateAndGet(maxIndex + 1, Math::max);
+  }
+
+  /**
+   * Check that the sub-modes of a deserialized graph can be added to the cache, without changing
+   * the cache.
+   *
+   * @throws IllegalStateException if a sub-mode has another index than the cached sub-mode
+   */
+  public static void validateSubModeCache(Collection<SubMode> subModes) {
+    for (SubMode it : subModes) {
+      var cached = ALL.get(it.name());
+      boolean conflict = cached == null
+        ? ALL.values().stream().anyMatch(c -> c.index == it.index)
+        : cached.index != it.index;
+      if (conflict) {
+        throw new IllegalStateException(
+          "The index of the sub-mode '" + it.name + "' does not match the sub-modes in use."
+        );
+      }
+    }
   }
 
   /**
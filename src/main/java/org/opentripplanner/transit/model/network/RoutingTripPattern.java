@@ -146,9 +146,11 @@ public class RoutingTripPattern implements DefaultTripPattern, Serializable {
   }
 
   /**
-   * Use this ONLY when deserializing the graph. Sets the counter value to the highest recorded value
+   * Use this ONLY when deserializing the graph. Sets the counter value to the highest recorded value.
+   * The counter is never decreased, so the patterns created by the updaters of a graph loaded while
+   * the server is running do not get the index of a pattern in the graph in use.
    */
   public static void initIndexCounter(int indexCounter) {
-    INDEX_COUNTER.set(indexCounter);
+    INDEX_COUNTER.accumulateAndGet(indexCounter, Math::max);
   }
 }
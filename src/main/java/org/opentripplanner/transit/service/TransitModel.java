@@ -34,6 +34,7 @@ import org.opentripplanner.model.calendar.CalendarService;
 import org.opentripplanner.model.calendar.CalendarServiceData;
 import org.opentripplanner.model.calendar.impl.CalendarServiceImpl;
 import org.opentripplanner.model.transfer.DefaultTransferService;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.PrecomputedTransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.TransitLayerUpdater;
 import org.opentripplanner.routing.impl.DelegatingTransitAlertServiceImpl;
@@ -121,6 +122,14 @@ public class TransitModel implements Serializable {
    */
   private final transient ConcurrentPublished<TransitLayer> realtimeTransitLayer = new ConcurrentPublished<>();
 
+  /**
+   * The parts of the TransitLayer computed when the graph is built, if enabled in the build config.
+   * This is saved with the graph, but not as part of the TransitModel, see
+   * {@link org.opentripplanner.routing.graph.SerializedGraphObject}.
+   */
+  @Nullable
+  private transient PrecomputedTransitLayer precomputedTransitLayer;
+
   private final transient Deduplicator deduplicator;
 
   private final CalendarServiceData calendarServiceData = new CalendarServiceData();
@@ -196,6 +205,15 @@ public class TransitModel implements Serializable {
     this.transitLayer = transitLayer;
   }
 
+  @Nullable
+  public PrecomputedTransitLayer getPrecomputedTransitLayer() {
+    return precomputedTransitLayer;
+  }
+
+  public void setPrecomputedTransitLayer(@Nullable PrecomputedTransitLayer precomputedTransitLayer) {
+    this.precomputedTransitLayer = precomputedTransitLayer;
+  }
+
   /** Data model for Raptor routing, with realtime updates applied (if any). */
   public TransitLayer getRealtimeTransitLayer() {
     return realtimeTransitLayer.get();
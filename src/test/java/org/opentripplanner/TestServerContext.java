@@ -7,7 +7,9 @@ import java.util.List;
 import org.opentripplanner.ext.emissions.DefaultEmissionsService;
 import org.opentripplanner.ext.emissions.EmissionsDataModel;
 import org.opentripplanner.ext.emissions.EmissionsService;
+import org.opentripplanner.ext.flex.flexpathcalculator.FlexPathCache;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.NearbyStopsCache;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleService;
 import org.opentripplanner.service.realtimevehicles.internal.DefaultRealtimeVehicleService;
@@ -52,9 +54,12 @@ public class TestServerContext {
       createVehicleRentalService(),
       createEmissionsService(),
       routerConfig.flexParameters(),
+      routerConfig.travelTimeMatrixParameters(),
       List.of(),
       null,
       createStreetLimitationParametersService(),
+      NearbyStopsCache.of(routerConfig.transitTuningConfig()),
+      FlexPathCache.of(routerConfig.flexParameters()),
       null,
       null
     );
@@ -31,6 +31,7 @@ import org.opentripplanner._support.time.ZoneIds;
 import org.opentripplanner.apis.transmodel.TransmodelRequestContext;
 import org.opentripplanner.ext.emissions.DefaultEmissionsService;
 import org.opentripplanner.ext.emissions.EmissionsDataModel;
+import org.opentripplanner.ext.flex.flexpathcalculator.FlexPathCache;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.model.calendar.CalendarServiceData;
 import org.opentripplanner.model.plan.Itinerary;
@@ -39,6 +40,7 @@ import org.opentripplanner.model.plan.Place;
 import org.opentripplanner.model.plan.PlanTestConstants;
 import org.opentripplanner.model.plan.ScheduledTransitLeg;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.NearbyStopsCache;
 import org.opentripplanner.routing.api.request.PassThroughPoint;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
@@ -142,9 +144,12 @@ public class TripRequestMapperTest implements PlanTestConstants {
           new DefaultVehicleRentalService(),
           new DefaultEmissionsService(new EmissionsDataModel()),
           RouterConfig.DEFAULT.flexParameters(),
+          RouterConfig.DEFAULT.travelTimeMatrixParameters(),
           List.of(),
           null,
           new DefaultStreetLimitationParametersService(new StreetLimitationParameters()),
+          NearbyStopsCache.of(RouterConfig.DEFAULT.transitTuningConfig()),
+          FlexPathCache.of(RouterConfig.DEFAULT.flexParameters()),
           null,
           null
         ),
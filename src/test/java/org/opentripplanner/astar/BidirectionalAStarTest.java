@@ -0,0 +1,234 @@
+package org.opentripplanner.astar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.opentripplanner.astar.model.BinHeap;
+import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.TurnRestriction;
+import org.opentripplanner.street.model.TurnRestrictionType;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.TraverseModeSet;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.DominanceFunctions;
+import org.opentripplanner.street.search.strategy.EuclideanRemainingWeightHeuristic;
+
+class BidirectionalAStarTest {
+
+  private static final int GRID_SIZE = 12;
+  private static final double STEP_DEGREES = 0.001;
+
+  private final StreetVertex[][] grid = new StreetVertex[GRID_SIZE][GRID_SIZE];
+  private final StreetVertex isolated = StreetModelForTest.intersectionVertex("X", 59.0, 10.0);
+
+  /**
+   * A grid where the intersections are moved randomly, so the streets have different lengths.
+   * Every third street is a one-way street for cars.
+   */
+  BidirectionalAStarTest() {
+    var random = new Random(42);
+    for (int row = 0; row < GRID_SIZE; ++row) {
+      for (int col = 0; col < GRID_SIZE; ++col) {
+        var v = StreetModelForTest.intersectionVertex(
+          "V" + row + "_" + col,
+          60.0 + (row + random.nextDouble() * 0.5) * STEP_DEGREES,
+          10.0 + (col + random.nextDouble() * 0.5) * STEP_DEGREES
+        );
+        grid[row][col] = v;
+        if (row > 0) {
+          street(grid[row - 1][col], v, col % 3 == 0);
+        }
+        if (col > 0) {
+          street(grid[row][col - 1], v, row % 3 == 0);
+        }
+      }
+    }
+  }
+
+  static Stream<Arguments> testCases() {
+    return Stream
+      .of(StreetMode.WALK, StreetMode.CAR)
+      .flatMap(mode -> Stream.of(Arguments.of(mode, false), Arguments.of(mode, true)));
+  }
+
+  @ParameterizedTest(name = "{0} arriveBy={1}")
+  @MethodSource("testCases")
+  void sameResultAsUnidirectionalSearch(StreetMode mode, boolean arriveBy) {
+    var request = new RouteRequest();
+    request.setArriveBy(arriveBy);
+
+    int[][] origins = { { 0, 0 }, { 3, 7 }, { 11, 2 }, { 5, 5 } };
+    int[][] destinations = { { 11, 11 }, { 9, 0 }, { 0, 10 }, { 5, 6 } };
+
+    for (int i = 0; i < origins.length; ++i) {
+      var from = grid[origins[i][0]][origins[i][1]];
+      var to = grid[destinations[i][0]][destinations[i][1]];
+
+      var expected = search(request, mode, from, to, false);
+      var bidirectional = search(request, mode, from, to, true);
+
+      assertEquals(1, expected.size());
+      assertEquals(1, bidirectional.size());
+      assertSimilarPath(expected.get(0), bidirectional.get(0), arriveBy);
+    }
+  }
+
+  @ParameterizedTest(name = "{0} arriveBy={1}")
+  @MethodSource("testCases")
+  void trivialHeuristics(StreetMode mode, boolean arriveBy) {
+    var request = new RouteRequest();
+    request.setArriveBy(arriveBy);
+    var from = grid[1][2];
+    var to = grid[10][8];
+
+    var expected = search(request, mode, from, to, false);
+    var bidirectional = StreetSearchBuilder
+      .of()
+      .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setBidirectional(RemainingWeightHeuristic.TRIVIAL)
+      .setRequest(request)
+      .setStreetRequest(new StreetRequest(mode))
+      .setFrom(from)
+      .setTo(to)
+      .getPathsToTarget();
+
+    assertSimilarPath(expected.get(0), bidirectional.get(0), arriveBy);
+  }
+
+  @ParameterizedTest(name = "{0} arriveBy={1}")
+  @MethodSource("testCases")
+  void noPath(StreetMode mode, boolean arriveBy) {
+    var request = new RouteRequest();
+    request.setArriveBy(arriveBy);
+
+    assertTrue(search(request, mode, grid[0][0], isolated, true).isEmpty());
+  }
+
+  /**
+   * The shortest path A - M - B turns at M, which is not allowed for cars. The two searches meet
+   * at M, but the meeting point must be ignored, so the path A - C - B is found without falling
+   * back to a regular search.
+   */
+  @Test
+  void turnRestrictionAtTheMeetingPoint() {
+    var a = StreetModelForTest.intersectionVertex("A", 60.0, 10.0);
+    var m = StreetModelForTest.intersectionVertex("M", 60.0, 10.001);
+    var b = StreetModelForTest.intersectionVertex("B", 60.001, 10.001);
+    var c = StreetModelForTest.intersectionVertex("C", 60.0015, 10.0);
+    var am = StreetModelForTest.streetEdge(a, m);
+    var mb = StreetModelForTest.streetEdge(m, b);
+    var ac = StreetModelForTest.streetEdge(a, c);
+    var cb = StreetModelForTest.streetEdge(c, b);
+    am.addTurnRestriction(
+      new TurnRestriction(
+        am,
+        mb,
+        TurnRestrictionType.NO_TURN,
+        new TraverseModeSet(TraverseMode.CAR),
+        null
+      )
+    );
+
+    var search = new BidirectionalAStar<State, Edge, Vertex>(
+      RemainingWeightHeuristic.TRIVIAL,
+      RemainingWeightHeuristic.TRIVIAL,
+      null,
+      false,
+      new DominanceFunctions.MinimumWeight(),
+      new BinHeap<>(10),
+      new BinHeap<>(10),
+      Duration.ofSeconds(10),
+      initialStates(a, false),
+      initialStates(b, true)
+    );
+
+    var paths = search.getPathsToTarget();
+    assertNotNull(paths);
+    assertEquals(List.of(ac, cb), paths.get(0).edges);
+  }
+
+  /**
+   * The time of each edge is rounded, so the paths may differ a little.
+   */
+  private static void assertSimilarPath(
+    GraphPath<State, Edge, Vertex> expected,
+    GraphPath<State, Edge, Vertex> actual,
+    boolean arriveBy
+  ) {
+    assertSame(expected.states.getFirst().getVertex(), actual.states.getFirst().getVertex());
+    assertSame(expected.states.getLast().getVertex(), actual.states.getLast().getVertex());
+    assertEquals(expected.getWeight(), actual.getWeight(), expected.getWeight() * 0.03);
+    // Both paths start at the requested time for a depart-at search, and end at the requested
+    // time for an arrive-by search
+    if (arriveBy) {
+      assertEquals(expected.states.getLast().getTime(), actual.states.getLast().getTime());
+    } else {
+      assertEquals(expected.states.getFirst().getTime(), actual.states.getFirst().getTime());
+    }
+  }
+
+  private static List<GraphPath<State, Edge, Vertex>> search(
+    RouteRequest request,
+    StreetMode mode,
+    Vertex from,
+    Vertex to,
+    boolean bidirectional
+  ) {
+    var builder = StreetSearchBuilder
+      .of()
+      .setHeuristic(new EuclideanRemainingWeightHeuristic())
+      .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setRequest(request)
+      .setStreetRequest(new StreetRequest(mode))
+      .setFrom(from)
+      .setTo(to);
+    if (bidirectional) {
+      builder.setBidirectional(new EuclideanRemainingWeightHeuristic());
+    }
+    return builder.getPathsToTarget();
+  }
+
+  private static List<State> initialStates(Vertex vertex, boolean arriveBy) {
+    var request = StreetSearchRequest
+      .of()
+      .withMode(StreetMode.CAR)
+      .withArriveBy(arriveBy)
+      .build();
+    return List.copyOf(State.getInitialStates(Set.of(vertex), request));
+  }
+
+  private static void street(StreetVertex a, StreetVertex b, boolean oneWayForCars) {
+    double length = a.getCoordinate().distance(b.getCoordinate()) * 111_000;
+    StreetModelForTest.streetEdge(a, b, length, StreetTraversalPermission.ALL);
+    StreetModelForTest.streetEdge(
+      b,
+      a,
+      length,
+      oneWayForCars
+        ? StreetTraversalPermission.PEDESTRIAN_AND_BICYCLE
+        : StreetTraversalPermission.ALL
+    );
+  }
+}
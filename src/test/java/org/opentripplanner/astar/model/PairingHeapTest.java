@@ -0,0 +1,51 @@
+package org.opentripplanner.astar.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class PairingHeapTest {
+
+  @Test
+  void extractInPriorityOrder() {
+    var subject = new PairingHeap<Double>();
+    var expected = new PriorityQueue<Double>();
+    var random = new Random(42);
+
+    for (int i = 0; i < 10_000; ++i) {
+      double p = random.nextDouble() * 1000;
+      subject.insert(p, p);
+      expected.add(p);
+      if (i % 3 == 0) {
+        assertEquals(expected.peek(), subject.peek_min_key());
+        assertEquals(expected.poll(), subject.extract_min());
+      }
+    }
+    assertEquals(expected.size(), subject.size());
+    while (!expected.isEmpty()) {
+      assertEquals(expected.poll(), subject.extract_min());
+    }
+    assertTrue(subject.empty());
+    assertNull(subject.extract_min());
+    assertThrows(IllegalStateException.class, subject::peek_min_key);
+  }
+
+  @Test
+  void reset() {
+    var subject = new PairingHeap<String>();
+    subject.insert("A", 10);
+    subject.insert("B", 20);
+
+    subject.reset();
+    assertTrue(subject.empty());
+    assertEquals(0, subject.size());
+
+    subject.insert("C", 5);
+    assertEquals("C", subject.extract_min());
+  }
+}
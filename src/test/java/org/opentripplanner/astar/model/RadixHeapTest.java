@@ -0,0 +1,72 @@
+package org.opentripplanner.astar.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class RadixHeapTest {
+
+  @Test
+  void extractInPriorityOrder() {
+    var subject = new RadixHeap<Double>();
+    var expected = new PriorityQueue<Double>();
+    var random = new Random(42);
+
+    // Insert elements with a priority higher than the last extracted, like the A* search
+    double min = 0;
+    for (int i = 0; i < 10_000; ++i) {
+      for (int j = 0; j < 3; ++j) {
+        double p = min + random.nextDouble() * 100;
+        subject.insert(p, p);
+        expected.add(p);
+      }
+      assertEquals(expected.peek(), subject.peek_min_key());
+      min = subject.extract_min();
+      assertEquals(expected.poll(), min);
+      assertEquals(expected.size(), subject.size());
+    }
+    while (!expected.isEmpty()) {
+      assertEquals(expected.poll(), subject.extract_min());
+    }
+    assertTrue(subject.empty());
+    assertNull(subject.extract_min());
+    assertThrows(IllegalStateException.class, subject::peek_min_key);
+  }
+
+  @Test
+  void priorityLowerThanLastMinimumIsRaised() {
+    var subject = new RadixHeap<String>();
+    subject.insert("A", 10);
+    subject.insert("B", 20);
+    assertEquals("A", subject.extract_min());
+
+    subject.insert("C", 5);
+    subject.insert("D", -1);
+    assertEquals(10.0, subject.peek_min_key());
+    subject.extract_min();
+    subject.extract_min();
+    assertEquals("B", subject.extract_min());
+  }
+
+  @Test
+  void reset() {
+    var subject = new RadixHeap<String>();
+    subject.insert("A", 10);
+    subject.insert("B", 20);
+    subject.extract_min();
+
+    subject.reset();
+    assertTrue(subject.empty());
+
+    // The last minimum is reset, so a lower priority is accepted again
+    subject.insert("C", 5);
+    subject.insert("D", 1);
+    assertEquals(1.0, subject.peek_min_key());
+    assertEquals("D", subject.extract_min());
+  }
+}
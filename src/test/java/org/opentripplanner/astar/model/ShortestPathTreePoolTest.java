@@ -0,0 +1,58 @@
+package org.opentripplanner.astar.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.DominanceFunctions;
+
+class ShortestPathTreePoolTest {
+
+  private final StreetVertex A = intersectionVertex("A", 60.0, 10.0);
+  private final State stateA = new State(A, StreetSearchRequest.of().build());
+
+  {
+    A.setIndex(3);
+  }
+
+  private final ShortestPathTreePool<State, Edge, Vertex> subject = new ShortestPathTreePool<>(
+    10,
+    1
+  );
+
+  @Test
+  void releasedTreeIsReusedEmpty() {
+    var tree = subject.borrow(new DominanceFunctions.MinimumWeight());
+    tree.add(stateA);
+    subject.release(tree);
+
+    var reused = subject.borrow(new DominanceFunctions.MinimumWeight());
+    assertSame(tree, reused);
+    assertNull(reused.getState(A));
+    assertEquals(0, reused.getVertexCount());
+  }
+
+  @Test
+  void treesAreNotSharedWhileBorrowed() {
+    var first = subject.borrow(new DominanceFunctions.MinimumWeight());
+    var second = subject.borrow(new DominanceFunctions.MinimumWeight());
+    assertNotSame(first, second);
+  }
+
+  @Test
+  void poolIsBounded() {
+    var first = subject.borrow(new DominanceFunctions.MinimumWeight());
+    var second = subject.borrow(new DominanceFunctions.MinimumWeight());
+    subject.release(first);
+    subject.release(second);
+    assertEquals(1, subject.size());
+  }
+}
@@ -0,0 +1,145 @@
+package org.opentripplanner.astar.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.astar.spi.DominanceFunction;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.DominanceFunctions;
+
+class ShortestPathTreeTest {
+
+  private static final DominanceFunction<State> NEVER_COMPARABLE = (a, b) -> false;
+
+  private final StreetVertex A = intersectionVertex("A", 60.0, 10.0);
+  private final StreetVertex B = intersectionVertex("B", 60.001, 10.0);
+  private final StreetVertex NOT_INDEXED = intersectionVertex("X", 60.002, 10.0);
+
+  private final State stateA = new State(A, StreetSearchRequest.of().build());
+  private final State shortAB = traverse(stateA, B, 100);
+  private final State longAB = traverse(stateA, B, 200);
+  private final State stateX = traverse(stateA, NOT_INDEXED, 100);
+
+  {
+    A.setIndex(0);
+    B.setIndex(5);
+  }
+
+  @Test
+  void betterStateReplacesState() {
+    var subject = arrayBacked(new DominanceFunctions.MinimumWeight(), 10);
+
+    assertTrue(subject.add(longAB));
+    assertTrue(subject.add(shortAB));
+
+    assertEquals(List.of(shortAB), subject.getStates(B));
+    assertSame(shortAB, subject.getState(B));
+    assertTrue(subject.visit(shortAB));
+    assertFalse(subject.visit(longAB));
+  }
+
+  @Test
+  void dominatedStateIsRejected() {
+    var subject = arrayBacked(new DominanceFunctions.MinimumWeight(), 10);
+
+    assertTrue(subject.add(shortAB));
+    assertFalse(subject.add(longAB));
+
+    assertEquals(List.of(shortAB), subject.getStates(B));
+  }
+
+  @Test
+  void coDominantStatesAreKept() {
+    var subject = arrayBacked(NEVER_COMPARABLE, 10);
+
+    assertTrue(subject.add(longAB));
+    assertTrue(subject.add(shortAB));
+
+    assertEquals(List.of(longAB, shortAB), subject.getStates(B));
+    assertSame(shortAB, subject.getState(B));
+    assertTrue(subject.visit(longAB));
+    assertTrue(subject.visit(shortAB));
+    assertEquals(2, subject.getAllStates().size());
+    assertEquals(1, subject.getVertexCount());
+  }
+
+  @Test
+  void verticesWithoutIndexAreStoredInMap() {
+    // The initial capacity is smaller than the index of B, so the array must grow
+    var subject = arrayBacked(new DominanceFunctions.MinimumWeight(), 2);
+
+    subject.add(stateA);
+    subject.add(shortAB);
+    subject.add(stateX);
+
+    assertEquals(List.of(stateX), subject.getStates(NOT_INDEXED));
+    assertEquals(List.of(shortAB), subject.getStates(B));
+    assertEquals(3, subject.getVertexCount());
+    assertEquals(Set.of(A, B, NOT_INDEXED), Set.copyOf(subject.getVertices()));
+    assertTrue(subject.visit(stateX));
+  }
+
+  @Test
+  void reset() {
+    var subject = arrayBacked(new DominanceFunctions.MinimumWeight(), 10);
+    subject.add(shortAB);
+    subject.add(stateX);
+    subject.setAborted();
+
+    subject.reset();
+
+    assertNull(subject.getStates(B));
+    assertNull(subject.getStates(NOT_INDEXED));
+    assertEquals(0, subject.getVertexCount());
+    assertTrue(subject.getAllStates().isEmpty());
+
+    assertTrue(subject.add(longAB));
+    assertEquals(List.of(longAB), subject.getStates(B));
+  }
+
+  @Test
+  void mapBackedTree() {
+    var subject = new ShortestPathTree<State, Edge, Vertex>(NEVER_COMPARABLE);
+
+    subject.add(stateA);
+    subject.add(longAB);
+    subject.add(shortAB);
+
+    assertEquals(List.of(longAB, shortAB), subject.getStates(B));
+    assertEquals(Set.of(A, B), subject.getVertices());
+    assertTrue(subject.visit(stateA));
+
+    subject.reset();
+    assertEquals(0, subject.getVertexCount());
+  }
+
+  private static ShortestPathTree<State, Edge, Vertex> arrayBacked(
+    DominanceFunction<State> dominanceFunction,
+    int initialCapacity
+  ) {
+    return ShortestPathTree.arrayBacked(dominanceFunction, initialCapacity);
+  }
+
+  private static State traverse(State state, StreetVertex to, int length) {
+    var edge = streetEdge(
+      (StreetVertex) state.getVertex(),
+      to,
+      length,
+      StreetTraversalPermission.ALL
+    );
+    return edge.traverse(state)[0];
+  }
+}
@@ -1,9 +1,12 @@
 package org.opentripplanner.graph_builder.issue.api;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.jupiter.api.Test;
 import org.opentripplanner.framework.collection.ListUtils;
 
@@ -29,4 +32,19 @@ class DataImportIssueSummaryTest {
 
     assertEquals(Map.of(ISSUE_2.getType(), 1l, ISSUE_1.getType(), 6l), combined.asMap());
   }
+
+  @Test
+  void lazy() {
+    var loaded = new AtomicBoolean(false);
+    var summary = DataImportIssueSummary.lazy(() -> {
+      loaded.set(true);
+      return new DataImportIssueSummary(ISSUES);
+    });
+    assertFalse(loaded.get());
+
+    var combined = DataImportIssueSummary.combine(summary, new DataImportIssueSummary(ISSUES));
+
+    assertTrue(loaded.get());
+    assertEquals(Map.of(ISSUE_1.getType(), 6l), combined.asMap());
+  }
 }
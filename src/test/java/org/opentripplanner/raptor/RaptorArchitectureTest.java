@@ -38,6 +38,7 @@ public class RaptorArchitectureTest {
   private static final Package RR_MC_CONFIGURE = RR_MULTI_CRITERIA.subPackage("configure");
   private static final Package RR_STANDARD = RANGE_RAPTOR.subPackage("standard");
   private static final Package RR_STD_CONFIGURE = RR_STANDARD.subPackage("configure");
+  private static final Package RR_STD_HEURISTICS = RR_STANDARD.subPackage("heuristics");
   private static final Package RR_CONTEXT = RANGE_RAPTOR.subPackage("context");
 
   /**
@@ -214,8 +215,10 @@ public class RaptorArchitectureTest {
         RANGE_RAPTOR,
         RR_INTERNAL_API,
         RR_TRANSIT,
+        RR_SUPPORT,
         RR_CONTEXT,
         RR_STD_CONFIGURE,
+        RR_STD_HEURISTICS,
         RR_MC_CONFIGURE,
         FRAMEWORK_UTILS
       )
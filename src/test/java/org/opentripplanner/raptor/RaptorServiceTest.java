@@ -0,0 +1,92 @@
+package org.opentripplanner.raptor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.time.DurationUtils;
+import org.opentripplanner.framework.time.TimeUtils;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+
+class RaptorServiceTest implements RaptorTestConstants {
+
+  private final TestTransitData data = new TestTransitData();
+  private final RaptorService<TestTripSchedule> subject = new RaptorService<>(
+    RaptorConfig.defaultConfigForTest()
+  );
+
+  RaptorServiceTest() {
+    data.withRoute(
+      route(pattern("R1", STOP_A, STOP_B, STOP_C))
+        .withTimetable(schedule("00:10 00:20 00:30").repeat(3, 600))
+    );
+  }
+
+  @Test
+  void routeStopArrivalsForEachIteration() {
+    Map<String, String> travelTimes = new LinkedHashMap<>();
+
+    subject.routeStopArrivals(
+      request(RaptorProfile.BEST_TIME, Duration.ofMinutes(15)),
+      data,
+      (departureTime, arrivals) ->
+        travelTimes.put(
+          TimeUtils.timeToStrCompact(departureTime),
+          DurationUtils.durationToStr(arrivals.bestArrivalTime(STOP_C) - departureTime)
+        )
+    );
+
+    // The iterations are performed from the end of the search-window, the arrivals at the
+    // destination is the best arrival for any departure after the iteration departure-time.
+    assertEquals(
+      "{0:14=26m, 0:13=27m, 0:12=28m, 0:11=29m, 0:10=30m, 0:09=21m, 0:08=22m, 0:07=23m, " +
+      "0:06=24m, 0:05=25m, 0:04=26m, 0:03=27m, 0:02=28m, 0:01=29m, 0:00=30m}",
+      travelTimes.toString()
+    );
+  }
+
+  @Test
+  void routeStopArrivalsSupportsOnlyForwardSearchWithoutHeuristics() {
+    assertThrows(
+      IllegalArgumentException.class,
+      () ->
+        subject.routeStopArrivals(
+          request(RaptorProfile.MULTI_CRITERIA, Duration.ofMinutes(15)),
+          data,
+          (t, a) -> {}
+        )
+    );
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> subject.routeStopArrivals(request(RaptorProfile.BEST_TIME, null), data, (t, a) -> {})
+    );
+  }
+
+  private static RaptorRequest<TestTripSchedule> request(
+    RaptorProfile profile,
+    Duration searchWindow
+  ) {
+    var builder = new RaptorRequestBuilder<TestTripSchedule>();
+    builder
+      .profile(profile)
+      .searchParams()
+      .earliestDepartureTime(T00_00)
+      .searchWindow(searchWindow)
+      .addAccessPaths(TestAccessEgress.walk(STOP_A, D1m))
+      .allowEmptyEgressPaths(true);
+    return builder.build();
+  }
+}
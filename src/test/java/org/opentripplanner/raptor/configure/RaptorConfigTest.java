@@ -0,0 +1,169 @@
+package org.opentripplanner.raptor.configure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTransfer.transfer;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.api.PathUtils;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.debug.RaptorTimers;
+import org.opentripplanner.raptor.api.request.Optimization;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+
+class RaptorConfigTest implements RaptorTestConstants {
+
+  private final TestTransitData data = new TestTransitData();
+  private final List<Long> bytesReused = new ArrayList<>();
+
+  RaptorConfigTest() {
+    data
+      .withRoute(
+        route(pattern("R1", STOP_A, STOP_B, STOP_C))
+          .withTimetable(schedule("00:02 00:10 00:20").repeat(6, 300))
+      )
+      .withRoute(
+        route(pattern("R2", STOP_C, STOP_D, STOP_E))
+          .withTimetable(schedule("00:22 00:30 00:40").repeat(6, 240))
+      )
+      .withRoute(
+        route(pattern("R3", STOP_B, STOP_F))
+          .withTimetable(schedule("00:12 00:25").repeat(6, 600))
+      )
+      .withTransfer(STOP_F, transfer(STOP_E, D2m));
+  }
+
+  @Test
+  void reuseWorkerStateBetweenRequests() {
+    var expected = PathUtils.pathsToString(
+      new RaptorService<>(config(false)).route(request(), data)
+    );
+
+    var service = new RaptorService<>(config(true));
+    var first = PathUtils.pathsToString(service.route(request(), data));
+    var second = PathUtils.pathsToString(service.route(request(), data));
+
+    assertTrue(expected.lines().count() > 1, expected);
+    assertEquals(expected, first);
+    assertEquals(expected, second);
+
+    assertEquals(2, bytesReused.size());
+    assertEquals(0L, bytesReused.get(0));
+    assertTrue(bytesReused.get(1) > 0L, bytesReused.toString());
+  }
+
+  @Test
+  void workerStateIsNotReusedIfDisabled() {
+    var service = new RaptorService<>(config(false));
+    service.route(request(), data);
+    service.route(request(), data);
+    assertEquals(List.of(), bytesReused);
+  }
+
+  @Test
+  void workerStateIsDroppedIfTheRequestFails() {
+    var config = config(true);
+    var timers = timers();
+
+    config.withWorkerStateArena(
+      timers,
+      () -> config.createHeuristicSearch(data, heuristicRequest()).route()
+    );
+    assertThrows(
+      IllegalStateException.class,
+      () ->
+        config.withWorkerStateArena(
+          timers,
+          () -> {
+            config.createHeuristicSearch(data, heuristicRequest()).route();
+            throw new IllegalStateException();
+          }
+        )
+    );
+    // The arrays leased by the failed request are dropped, so nothing is reused
+    config.withWorkerStateArena(
+      timers,
+      () -> config.createHeuristicSearch(data, heuristicRequest()).route()
+    );
+    assertEquals(List.of(0L, 0L), bytesReused);
+  }
+
+  private RaptorConfig<TestTripSchedule> config(boolean reuseWorkerState) {
+    return new RaptorConfig<>(
+      new RaptorTuningParameters() {
+        @Override
+        public boolean reuseWorkerState() {
+          return reuseWorkerState;
+        }
+      }
+    );
+  }
+
+  private RaptorRequest<TestTripSchedule> request() {
+    var builder = new RaptorRequestBuilder<TestTripSchedule>();
+    builder
+      .profile(RaptorProfile.MULTI_CRITERIA)
+      .enableOptimization(Optimization.PARETO_CHECK_AGAINST_DESTINATION)
+      .performanceTimers(timers())
+      .searchParams()
+      .earliestDepartureTime(T00_00)
+      .latestArrivalTime(T01_00)
+      .searchWindow(Duration.ofMinutes(30))
+      .timetable(true)
+      .addAccessPaths(TestAccessEgress.walk(STOP_A, D1m))
+      .addEgressPaths(TestAccessEgress.walk(STOP_E, D1m));
+    return builder.build();
+  }
+
+  private RaptorRequest<TestTripSchedule> heuristicRequest() {
+    var builder = request()
+      .mutate()
+      .clearOptimizations()
+      .profile(RaptorProfile.MIN_TRAVEL_DURATION);
+    builder.searchParams().searchOneIterationOnly();
+    return builder.build();
+  }
+
+  private RaptorTimers timers() {
+    return new RaptorTimers() {
+      @Override
+      public void route(Runnable body) {
+        body.run();
+      }
+
+      @Override
+      public void findTransitForRound(Runnable body) {
+        body.run();
+      }
+
+      @Override
+      public void findTransfersForRound(Runnable body) {
+        body.run();
+      }
+
+      @Override
+      public void workerStateBytesReused(long bytes) {
+        bytesReused.add(bytes);
+      }
+
+      @Override
+      public RaptorTimers withNamePrefix(String namePrefix) {
+        return this;
+      }
+    };
+  }
+}
@@ -0,0 +1,224 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTransfer.transfer;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.api.PathUtils;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.RaptorTransfer;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.raptor.api.view.PatternRideView;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.McStopArrival;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.McStopArrivalFactory;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.c1.StopArrivalFactoryC1;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.ride.c1.PatternRideC1;
+
+class CompactStopArrivalParetoSetTest implements RaptorTestConstants {
+
+  private static final int ANY = 3;
+  private static final int GRID_SIZE = 4;
+  private static final RaptorTripSchedule ANY_TRIP = TestTripSchedule
+    .schedule("10:00 10:30")
+    .build();
+
+  private final CountingStopArrivalFactory factory = new CountingStopArrivalFactory();
+  private final McStopArrivalCandidates<RaptorTripSchedule> candidates = new McStopArrivalCandidates<>(
+    factory
+  );
+  private final McStopArrival<RaptorTripSchedule> access = factory.createAccessStopArrival(
+    T00_00,
+    TestAccessEgress.walk(STOP_A, D1m)
+  );
+
+  @Test
+  void onlyCreateAcceptedStopArrivals() {
+    var subject = newStopArrivalSet();
+    var ride = new PatternRideC1<>(access, STOP_A, ANY, ANY, ANY, ANY, ANY, ANY_TRIP);
+
+    // Accepted
+    candidates.addTransit(ride, STOP_B, T00_10, 1000);
+    // Rejected, arrive later and same cost
+    candidates.addTransit(ride, STOP_B, T00_30, 1000);
+    // Rejected, arrive later with a higher cost
+    candidates.addTransfer(access, transfer(STOP_B, D5m), T00_10 + D1m);
+    // Accepted, lower cost
+    candidates.addTransit(ride, STOP_B, T00_30, 500);
+
+    factory.count.set(0);
+    assertTrue(subject.add(candidates, 0, a -> false));
+    assertFalse(subject.add(candidates, 1, a -> false));
+    assertFalse(subject.add(candidates, 2, a -> false));
+    assertTrue(subject.add(candidates, 3, a -> false));
+
+    assertEquals(2, factory.count.get());
+    assertEquals(2, subject.size());
+    assertEquals(2, subject.stream().filter(McStopArrival::arrivedOnBoard).count());
+  }
+
+  @Test
+  void rejectFilter() {
+    var subject = newStopArrivalSet();
+    candidates.addTransfer(access, transfer(STOP_B, D5m), T00_10);
+
+    assertFalse(subject.add(candidates, 0, a -> true));
+    assertTrue(subject.isEmpty());
+
+    assertTrue(subject.add(candidates, 0, a -> false));
+    assertEquals(1, subject.size());
+  }
+
+  @Test
+  void markerFollowsElementsWhenDominatedElementsAreRemoved() {
+    var subject = newStopArrivalSet();
+    var ride = new PatternRideC1<>(access, STOP_A, ANY, ANY, ANY, ANY, ANY, ANY_TRIP);
+
+    candidates.addTransit(ride, STOP_B, T00_10, 2000);
+    candidates.addTransit(ride, STOP_B, T00_30, 1000);
+    candidates.addTransit(ride, STOP_B, T00_10, 1500);
+    subject.add(candidates, 0, a -> false);
+    subject.markAtEndOfSet();
+    subject.add(candidates, 1, a -> false);
+    assertTrue(subject.hasElementsAfterMarker());
+
+    // Dominates the first element, the element after the marker is moved in front of it
+    subject.add(candidates, 2, a -> false);
+
+    var it = subject.elementsAfterMarker().iterator();
+    assertEquals(1000, it.next().c1());
+    assertEquals(1500, it.next().c1());
+    assertFalse(it.hasNext());
+  }
+
+  @Test
+  void compactStopArrivalsReturnSameResultAsStopArrivalParetoSet() {
+    var data = new TestTransitData();
+    int n = GRID_SIZE;
+    for (int i = 0; i < n; ++i) {
+      var row = new int[n];
+      var col = new int[n];
+      for (int j = 0; j < n; ++j) {
+        row[j] = stop(i, j);
+        col[j] = stop(j, i);
+      }
+      data.withRoute(
+        route(pattern("R" + i, row))
+          .withTimetable(schedule().times(times(n, i * 60, 150)).repeat(8, 600))
+      );
+      data.withRoute(
+        route(pattern("C" + i, col))
+          .withTimetable(schedule().times(times(n, i * 90, 120)).repeat(8, 450))
+      );
+      // Walk diagonally to the next row
+      for (int j = 0; j + 1 < n && i + 1 < n; ++j) {
+        data.withTransfer(stop(i, j), transfer(stop(i + 1, j + 1), D2m));
+      }
+    }
+
+    var request = new RaptorRequestBuilder<TestTripSchedule>();
+    request
+      .profile(RaptorProfile.MULTI_CRITERIA)
+      .searchParams()
+      .earliestDepartureTime(T00_00)
+      .searchWindow(Duration.ofMinutes(40))
+      .timetable(true)
+      .addAccessPaths(TestAccessEgress.walk(stop(0, 0), D1m))
+      .addAccessPaths(TestAccessEgress.walk(stop(0, 1), D5m))
+      .addEgressPaths(TestAccessEgress.walk(stop(n - 1, n - 1), D1m))
+      .addEgressPaths(TestAccessEgress.walk(stop(n - 2, n - 1), D5m));
+
+    var expected = PathUtils.pathsToString(search(false, request, data));
+    var result = PathUtils.pathsToString(search(true, request, data));
+
+    assertTrue(expected.lines().count() > 3, expected);
+    assertEquals(expected, result);
+  }
+
+  private static CompactStopArrivalParetoSet<RaptorTripSchedule> newStopArrivalSet() {
+    return CompactStopArrivalParetoSet.createStopArrivalSet(false, null);
+  }
+
+  private static Collection<RaptorPath<TestTripSchedule>> search(
+    boolean compact,
+    RaptorRequestBuilder<TestTripSchedule> request,
+    TestTransitData data
+  ) {
+    var config = new RaptorConfig<TestTripSchedule>(
+      new RaptorTuningParameters() {
+        @Override
+        public boolean compactStopArrivals() {
+          return compact;
+        }
+      }
+    );
+    return new RaptorService<>(config).route(request.build(), data).paths();
+  }
+
+  /** The grid stops start at index 1 */
+  private static int stop(int row, int col) {
+    return 1 + row * GRID_SIZE + col;
+  }
+
+  private static int[] times(int nStops, int offset, int hopDuration) {
+    var times = new int[nStops];
+    for (int i = 0; i < nStops; ++i) {
+      times[i] = T00_00 + offset + i * hopDuration;
+    }
+    return times;
+  }
+
+  private static class CountingStopArrivalFactory
+    implements McStopArrivalFactory<RaptorTripSchedule> {
+
+    private final McStopArrivalFactory<RaptorTripSchedule> delegate = new StopArrivalFactoryC1<>();
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public McStopArrival<RaptorTripSchedule> createAccessStopArrival(
+      int departureTime,
+      RaptorAccessEgress accessPath
+    ) {
+      count.incrementAndGet();
+      return delegate.createAccessStopArrival(departureTime, accessPath);
+    }
+
+    @Override
+    public McStopArrival<RaptorTripSchedule> createTransitStopArrival(
+      PatternRideView<RaptorTripSchedule, McStopArrival<RaptorTripSchedule>> ride,
+      int alightStop,
+      int stopArrivalTime,
+      int c1
+    ) {
+      count.incrementAndGet();
+      return delegate.createTransitStopArrival(ride, alightStop, stopArrivalTime, c1);
+    }
+
+    @Override
+    public McStopArrival<RaptorTripSchedule> createTransferStopArrival(
+      McStopArrival<RaptorTripSchedule> previous,
+      RaptorTransfer transfer,
+      int arrivalTime
+    ) {
+      count.incrementAndGet();
+      return delegate.createTransferStopArrival(previous, transfer, arrivalTime);
+    }
+  }
+}
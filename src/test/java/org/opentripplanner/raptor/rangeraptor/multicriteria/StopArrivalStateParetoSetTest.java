@@ -7,7 +7,6 @@ import static org.opentripplanner.raptor.rangeraptor.multicriteria.StopArrivalPa
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Stream;
-import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -85,6 +84,45 @@ public class StopArrivalStateParetoSetTest {
           null,
           null
         )
+      ),
+      Arguments.of(
+        "Compact Stop Arrival - regular",
+        CompactStopArrivalParetoSet.createStopArrivalSet(false, null)
+      ),
+      Arguments.of(
+        "Compact Stop Arrival - w/egress",
+        CompactStopArrivalParetoSet.createEgressStopArrivalSet(List.of(), null, null)
+      )
+    );
+  }
+
+  private static Stream<Arguments> regularStopArrivalSetTestCases() {
+    return Stream.of(
+      Arguments.of(
+        "Stop Arrival",
+        createStopArrivalSet(COMPARATOR_FACTORY.compareArrivalTimeRoundAndCost(), null)
+      ),
+      Arguments.of(
+        "Compact Stop Arrival",
+        CompactStopArrivalParetoSet.createStopArrivalSet(false, null)
+      )
+    );
+  }
+
+  private static Stream<Arguments> egressStopArrivalSetTestCases() {
+    return Stream.of(
+      Arguments.of(
+        "Stop Arrival",
+        createEgressStopArrivalSet(
+          COMPARATOR_FACTORY.compareArrivalTimeRoundCostAndOnBoardArrival(),
+          List.of(),
+          null,
+          null
+        )
+      ),
+      Arguments.of(
+        "Compact Stop Arrival",
+        CompactStopArrivalParetoSet.createEgressStopArrivalSet(List.of(), null, null)
       )
     );
   }
@@ -93,7 +131,7 @@ public class StopArrivalStateParetoSetTest {
   @MethodSource("testCases")
   public void addOneElementToSet(
     String testCaseName,
-    StopArrivalParetoSet<RaptorTripSchedule> subject
+    StopArrivalSet<RaptorTripSchedule> subject
   ) {
     subject.add(newAccessStopState(STOP_1, 10, ANY));
     assertStopsInSet(subject, STOP_1);
@@ -103,7 +141,7 @@ public class StopArrivalStateParetoSetTest {
   @MethodSource("testCases")
   public void testTimeDominance(
     String testCaseName,
-    StopArrivalParetoSet<RaptorTripSchedule> subject
+    StopArrivalSet<RaptorTripSchedule> subject
   ) {
     subject.add(newAccessStopState(STOP_1, 10, ANY));
     subject.add(newAccessStopState(STOP_2, 9, ANY));
@@ -116,7 +154,7 @@ public class StopArrivalStateParetoSetTest {
   @MethodSource("testCases")
   public void testRoundDominance(
     String testCaseName,
-    StopArrivalParetoSet<RaptorTripSchedule> subject
+    StopArrivalSet<RaptorTripSchedule> subject
   ) {
     subject.add(newTransferStopState(ROUND_1, STOP_1, 10, ANY));
     subject.add(newTransferStopState(ROUND_2, STOP_2, 10, ANY));
@@ -127,7 +165,7 @@ public class StopArrivalStateParetoSetTest {
   @MethodSource("testCases")
   public void testCostDominance(
     String testCaseName,
-    StopArrivalParetoSet<RaptorTripSchedule> subject
+    StopArrivalSet<RaptorTripSchedule> subject
   ) {
     subject.add(newTransferStopState(ROUND_1, STOP_1, ANY, 20));
     subject.add(newTransferStopState(ROUND_1, STOP_2, ANY, 10));
@@ -138,7 +176,7 @@ public class StopArrivalStateParetoSetTest {
   @MethodSource("testCases")
   public void testRoundAndTimeDominance(
     String testCaseName,
-    StopArrivalParetoSet<RaptorTripSchedule> subject
+    StopArrivalSet<RaptorTripSchedule> subject
   ) {
     subject.add(newTransferStopState(ROUND_1, STOP_1, 10, ANY));
     subject.add(newTransferStopState(ROUND_1, STOP_2, 8, ANY));
@@ -167,9 +205,12 @@ public class StopArrivalStateParetoSetTest {
    * state (2-phase transfer calculation), not by the pareto-set. Using the pareto-set for this
    * would cause unnecessary exploration in the following round.
    */
-  @Test
-  public void testTransitAndTransferDoesNotAffectDominance() {
-    var subject = createStopArrivalSet(COMPARATOR_FACTORY.compareArrivalTimeRoundAndCost(), null);
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("regularStopArrivalSetTestCases")
+  public void testTransitAndTransferDoesNotAffectDominance(
+    String testCaseName,
+    StopArrivalSet<RaptorTripSchedule> subject
+  ) {
     subject.add(newAccessStopState(STOP_1, 20, ANY));
     subject.add(newTransitStopState(ROUND_1, STOP_2, 10, ANY));
     subject.add(newTransferStopState(ROUND_1, STOP_4, 8, ANY));
@@ -182,14 +223,12 @@ public class StopArrivalStateParetoSetTest {
    *
    * @see #testTransitAndTransferDoesNotAffectDominance
    */
-  @Test
-  public void testTransitAndTransferDoesAffectDominanceForStopArrivalsWithEgress() {
-    var subject = createEgressStopArrivalSet(
-      COMPARATOR_FACTORY.compareArrivalTimeRoundCostAndOnBoardArrival(),
-      List.of(),
-      null,
-      null
-    );
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("egressStopArrivalSetTestCases")
+  public void testTransitAndTransferDoesAffectDominanceForStopArrivalsWithEgress(
+    String testCaseName,
+    StopArrivalSet<RaptorTripSchedule> subject
+  ) {
     subject.add(newAccessStopState(STOP_1, 20, ANY));
     subject.add(newTransitStopState(ROUND_1, STOP_2, 10, ANY));
     subject.add(newTransferStopState(ROUND_1, STOP_4, 8, ANY));
@@ -242,7 +281,7 @@ public class StopArrivalStateParetoSetTest {
   }
 
   private void assertStopsInSet(
-    StopArrivalParetoSet<RaptorTripSchedule> subject,
+    StopArrivalSet<RaptorTripSchedule> subject,
     int... expStopIndexes
   ) {
     int[] result = subject.stream().mapToInt(McStopArrival::stop).sorted().toArray();
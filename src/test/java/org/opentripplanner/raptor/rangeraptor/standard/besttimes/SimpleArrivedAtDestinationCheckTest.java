@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.opentripplanner.raptor._data.transit.TestTripSchedule;
 import org.opentripplanner.raptor.rangeraptor.lifecycle.LifeCycleEventPublisher;
 import org.opentripplanner.raptor.rangeraptor.lifecycle.LifeCycleSubscriptions;
+import org.opentripplanner.raptor.rangeraptor.support.WorkerStateArena;
 import org.opentripplanner.raptor.rangeraptor.transit.ForwardTransitCalculator;
 
 class SimpleArrivedAtDestinationCheckTest {
@@ -20,7 +21,9 @@ class SimpleArrivedAtDestinationCheckTest {
     var bestTimes = new BestTimes(
       3,
       new ForwardTransitCalculator<TestTripSchedule>(),
-      lifeCycleSubscriptions
+      lifeCycleSubscriptions,
+      WorkerStateArena.ALLOCATE,
+      WorkerStateArena.ALLOCATE
     );
     var subject = new SimpleArrivedAtDestinationCheck(bestTimes, new int[] { 1 }, new int[] { 2 });
     var lifeCycle = new LifeCycleEventPublisher(lifeCycleSubscriptions);
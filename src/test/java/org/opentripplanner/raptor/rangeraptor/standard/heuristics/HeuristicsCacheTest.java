@@ -0,0 +1,85 @@
+package org.opentripplanner.raptor.rangeraptor.standard.heuristics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerResult;
+import org.opentripplanner.raptor.rangeraptor.internalapi.SingleCriteriaStopArrivals;
+import org.opentripplanner.raptor.rangeraptor.support.IntArraySingleCriteriaArrivals;
+
+class HeuristicsCacheTest {
+
+  private static final int N_STOPS = 3;
+  private static final int UNREACHED = 999;
+
+  private final HeuristicsCache subject = new HeuristicsCache(2);
+
+  @Test
+  void copyStopArrivals() {
+    int[] times = { 100, UNREACHED, 300 };
+    var arrivals = subject.put("A", N_STOPS, result(times));
+
+    // The worker state may be reused after the search, the cached arrivals must not change
+    times[0] = 0;
+    times[1] = 200;
+
+    assertSame(arrivals, subject.get("A"));
+    assertEquals(100, arrivals.bestOverallArrivals().value(0));
+    assertFalse(arrivals.bestOverallArrivals().isReached(1));
+    assertTrue(arrivals.bestTransitArrivals().isReached(2));
+    assertEquals(300, arrivals.bestNumberOfTransfers().value(2));
+  }
+
+  @Test
+  void removeLeastRecentlyUsedEntry() {
+    subject.put("A", N_STOPS, result(new int[N_STOPS]));
+    subject.put("B", N_STOPS, result(new int[N_STOPS]));
+    assertNotNull(subject.get("A"));
+
+    subject.put("C", N_STOPS, result(new int[N_STOPS]));
+
+    assertEquals(2, subject.size());
+    assertNotNull(subject.get("A"));
+    assertNull(subject.get("B"));
+    assertNotNull(subject.get("C"));
+  }
+
+  private static RaptorWorkerResult<TestTripSchedule> result(int[] values) {
+    var arrivals = new IntArraySingleCriteriaArrivals(UNREACHED, values);
+    return new RaptorWorkerResult<>() {
+      @Override
+      public Collection<RaptorPath<TestTripSchedule>> extractPaths() {
+        return List.of();
+      }
+
+      @Override
+      public SingleCriteriaStopArrivals extractBestOverallArrivals() {
+        return arrivals;
+      }
+
+      @Override
+      public SingleCriteriaStopArrivals extractBestTransitArrivals() {
+        return arrivals;
+      }
+
+      @Override
+      public SingleCriteriaStopArrivals extractBestNumberOfTransfers() {
+        return arrivals;
+      }
+
+      @Override
+      public boolean isDestinationReached() {
+        return true;
+      }
+    };
+  }
+}
@@ -0,0 +1,108 @@
+package org.opentripplanner.raptor.rangeraptor.support;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class WorkerStateArenaTest {
+
+  private static final int N_STOPS = 100;
+  private static final int UNREACHED = -1;
+
+  private final WorkerStateArena subject = WorkerStateArena.create();
+
+  @Test
+  void reuseArraysReleasedByPreviousRequest() {
+    subject.open();
+    var ints = subject.intArray(N_STOPS, UNREACHED);
+    var bitSet = subject.bitSet(N_STOPS);
+    var objects = subject.objectArray(String.class, N_STOPS);
+    ints[7] = 7;
+    bitSet.set(7);
+    objects[7] = "7";
+    // Nothing is reused in the first request
+    assertEquals(0, subject.release());
+
+    subject.open();
+    var ints2 = subject.intArray(N_STOPS, UNREACHED);
+    var bitSet2 = subject.bitSet(N_STOPS);
+    var objects2 = subject.objectArray(String.class, N_STOPS);
+
+    assertSame(ints, ints2);
+    assertSame(bitSet, bitSet2);
+    assertSame(objects, objects2);
+
+    // The state is reset
+    assertEquals(UNREACHED, ints2[7]);
+    assertTrue(bitSet2.isEmpty());
+    assertNull(objects2[7]);
+
+    // 100 ints, 2 longs and 100 references
+    assertEquals(400 + 16 + 400, subject.release());
+  }
+
+  @Test
+  void arraysLeasedInTheSameRequestAreNotShared() {
+    subject.open();
+    var a = subject.intArray(N_STOPS, UNREACHED);
+    subject.release();
+
+    subject.open();
+    var b = subject.intArray(N_STOPS, UNREACHED);
+    var c = subject.intArray(N_STOPS, UNREACHED);
+    assertSame(a, b);
+    assertNotSame(b, c);
+    assertEquals(400, subject.release());
+  }
+
+  @Test
+  void dropArraysWithAnotherSize() {
+    subject.open();
+    var a = subject.intArray(N_STOPS, UNREACHED);
+    subject.release();
+
+    subject.open();
+    var b = subject.intArray(N_STOPS + 1, UNREACHED);
+    assertNotSame(a, b);
+    assertEquals(0, subject.release());
+  }
+
+  @Test
+  void closeDropsLeasedArrays() {
+    subject.open();
+    var a = subject.intArray(N_STOPS, UNREACHED);
+    subject.close();
+
+    subject.open();
+    assertNotSame(a, subject.intArray(N_STOPS, UNREACHED));
+    assertEquals(0, subject.release());
+  }
+
+  @Test
+  void arraysAreNotReusedIfTheArenaIsClosed() {
+    var a = subject.intArray(N_STOPS, UNREACHED);
+    subject.open();
+    subject.release();
+    assertNotSame(a, subject.intArray(N_STOPS, UNREACHED));
+  }
+
+  @Test
+  void allocate() {
+    var a = WorkerStateArena.ALLOCATE.intArray(3, UNREACHED);
+    var b = WorkerStateArena.ALLOCATE.intArray(3, UNREACHED);
+    assertNotSame(a, b);
+    assertArrayEquals(new int[] { UNREACHED, UNREACHED, UNREACHED }, a);
+  }
+
+  @Test
+  void openTwiceFails() {
+    subject.open();
+    assertThrows(IllegalStateException.class, subject::open);
+  }
+}
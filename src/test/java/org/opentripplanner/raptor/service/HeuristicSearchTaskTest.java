@@ -0,0 +1,162 @@
+package org.opentripplanner.raptor.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTransfer.transfer;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+import static org.opentripplanner.raptor.api.model.SearchDirection.REVERSE;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.api.PathUtils;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.Optimization;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
+import org.opentripplanner.raptor.spi.IntIterator;
+
+class HeuristicSearchTaskTest implements RaptorTestConstants {
+
+  private static final int UNREACHED = -1;
+
+  private final CountingTransitData data = new CountingTransitData();
+
+  HeuristicSearchTaskTest() {
+    data
+      .withRoute(
+        route(pattern("R1", STOP_A, STOP_B, STOP_C))
+          .withTimetable(schedule("00:02 00:10 00:20").repeat(6, 300))
+      )
+      .withRoute(
+        route(pattern("R2", STOP_C, STOP_D, STOP_E))
+          .withTimetable(schedule("00:22 00:30 00:40").repeat(6, 240))
+      )
+      .withRoute(
+        route(pattern("R3", STOP_B, STOP_F))
+          .withTimetable(schedule("00:12 00:25").repeat(6, 600))
+      )
+      // The destination can not be reached from stop G
+      .withRoute(route(pattern("R4", STOP_G, STOP_H)).withTimetable(schedule("00:05 00:15")))
+      .withTransfer(STOP_F, transfer(STOP_E, D2m));
+  }
+
+  @Test
+  void reverseHeuristicsAreSharedByRequestsFromOtherOrigins() {
+    var config = config(10);
+
+    var expected = reverseHeuristics(config(10), STOP_B);
+
+    reverseHeuristics(config, STOP_A);
+    int nRouteLookups = data.nRouteLookups;
+    var result = reverseHeuristics(config, STOP_B);
+
+    // The search is not performed, the result is cached
+    assertEquals(nRouteLookups, data.nRouteLookups);
+    assertArrayEquals(
+      expected.bestTravelDurationToIntArray(UNREACHED),
+      result.bestTravelDurationToIntArray(UNREACHED)
+    );
+    assertArrayEquals(
+      expected.bestNumOfTransfersToIntArray(UNREACHED),
+      result.bestNumOfTransfersToIntArray(UNREACHED)
+    );
+    assertEquals(
+      expected.bestOverallJourneyTravelDuration(),
+      result.bestOverallJourneyTravelDuration()
+    );
+    assertEquals(
+      expected.minWaitTimeForJourneysReachingDestination(),
+      result.minWaitTimeForJourneysReachingDestination()
+    );
+  }
+
+  @Test
+  void reverseHeuristicsAreNotCachedIfDisabled() {
+    var config = config(0);
+    reverseHeuristics(config, STOP_A);
+    int nRouteLookups = data.nRouteLookups;
+    reverseHeuristics(config, STOP_A);
+    assertTrue(data.nRouteLookups > nRouteLookups);
+  }
+
+  @Test
+  void destinationIsNotReachedFromOriginWithoutTransit() {
+    var config = config(10);
+    reverseHeuristics(config, STOP_A);
+    assertThrows(DestinationNotReachedException.class, () -> reverseHeuristics(config, STOP_G));
+  }
+
+  @Test
+  void routeWithCachedHeuristicsReturnSamePaths() {
+    for (int origin : new int[] { STOP_A, STOP_B }) {
+      var expected = PathUtils.pathsToString(
+        new RaptorService<>(config(0)).route(request(origin), data)
+      );
+      var service = new RaptorService<>(config(10));
+      service.route(request(STOP_A), data);
+      var result = PathUtils.pathsToString(service.route(request(origin), data));
+
+      assertTrue(expected.lines().count() > 0, expected);
+      assertEquals(expected, result);
+    }
+  }
+
+  private Heuristics reverseHeuristics(RaptorConfig<TestTripSchedule> config, int origin) {
+    var request = request(origin).mutate().searchParams().latestArrivalTime(T01_00).build();
+    var task = new HeuristicSearchTask<>(REVERSE, "Reverse", config, data);
+    task.withRequest(request).forceRun();
+    return task.result();
+  }
+
+  private static RaptorConfig<TestTripSchedule> config(int heuristicsCacheMaxSize) {
+    return new RaptorConfig<>(
+      new RaptorTuningParameters() {
+        @Override
+        public int heuristicsCacheMaxSize() {
+          return heuristicsCacheMaxSize;
+        }
+      }
+    );
+  }
+
+  private static RaptorRequest<TestTripSchedule> request(int origin) {
+    var builder = new RaptorRequestBuilder<TestTripSchedule>();
+    builder
+      .profile(RaptorProfile.MULTI_CRITERIA)
+      .enableOptimization(Optimization.PARETO_CHECK_AGAINST_DESTINATION)
+      .searchParams()
+      .earliestDepartureTime(T00_00)
+      .searchWindow(Duration.ofMinutes(30))
+      .addAccessPaths(TestAccessEgress.walk(origin, D1m))
+      .addEgressPaths(TestAccessEgress.walk(STOP_E, D1m));
+    return builder.build();
+  }
+
+  private static class CountingTransitData extends TestTransitData {
+
+    private int nRouteLookups = 0;
+
+    @Override
+    public IntIterator routeIndexIterator(IntIterator stops) {
+      ++nRouteLookups;
+      return super.routeIndexIterator(stops);
+    }
+
+    @Override
+    public Object heuristicsCacheKey() {
+      return "TestTransitData";
+    }
+  }
+}
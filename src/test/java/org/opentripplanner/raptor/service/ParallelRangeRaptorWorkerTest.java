@@ -0,0 +1,154 @@
+package org.opentripplanner.raptor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.api.PathUtils;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.api.request.Optimization;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+
+class ParallelRangeRaptorWorkerTest implements RaptorTestConstants {
+
+  private static final int STEP = 60;
+
+  @Test
+  void split() {
+    var requests = ParallelRangeRaptorWorker.split(request(T00_00, 40 * STEP), 3, STEP);
+
+    assertEquals(3, requests.size());
+    assertSlice(T00_00, 13 * STEP, requests.get(0));
+    assertSlice(T00_00 + 13 * STEP, 13 * STEP, requests.get(1));
+    assertSlice(T00_00 + 26 * STEP, 14 * STEP, requests.get(2));
+  }
+
+  @Test
+  void splitSearchWindowWhichIsNotAMultipleOfTheIterationStep() {
+    // The iterations are at 00:00:30, 00:01:30 ... 00:19:30, the same as without the split
+    var requests = ParallelRangeRaptorWorker.split(request(T00_00, 20 * STEP + 30), 2, STEP);
+
+    assertEquals(2, requests.size());
+    assertSlice(T00_00 + 30, 10 * STEP, requests.get(0));
+    assertSlice(T00_00 + 30 + 10 * STEP, 10 * STEP, requests.get(1));
+  }
+
+  @Test
+  void doNotSplitIntoSlicesWithTooFewIterations() {
+    var request = request(T00_00, 19 * STEP);
+    assertSame(request, ParallelRangeRaptorWorker.split(request, 4, STEP).get(0));
+    assertEquals(1, ParallelRangeRaptorWorker.split(request, 4, STEP).size());
+
+    var requests = ParallelRangeRaptorWorker.split(request(T00_00, 39 * STEP), 4, STEP);
+    assertEquals(3, requests.size());
+  }
+
+  @Test
+  void doNotSplitReverseSearch() {
+    var builder = requestBuilder(T00_00, 60 * STEP);
+    builder.searchDirection(SearchDirection.REVERSE).searchParams().latestArrivalTime(T01_00);
+    var request = builder.build();
+
+    assertEquals(List.of(request), ParallelRangeRaptorWorker.split(request, 4, STEP));
+  }
+
+  @Test
+  void doNotSplitIfAccessHasTimePenalty() {
+    var builder = requestBuilder(T00_00, 60 * STEP);
+    builder
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(STOP_C, D1m).withTimePenalty(D1m));
+    var request = builder.build();
+
+    assertEquals(List.of(request), ParallelRangeRaptorWorker.split(request, 4, STEP));
+  }
+
+  @Test
+  void parallelSearchReturnSameResultAsSequentialSearch() {
+    var data = new TestTransitData();
+    var trips = new TestTripSchedule.Builder[12];
+    for (int i = 0; i < trips.length; ++i) {
+      trips[i] = schedule("00:05 00:15 00:25").shiftTimes(i * 10 * 60);
+    }
+    data.withRoute(route(pattern("R1", STOP_B, STOP_C, STOP_D)).withTimetable(trips));
+    data.withRoute(
+      route(pattern("R2", STOP_B, STOP_D))
+        .withTimetable(
+          schedule("00:12 00:27"),
+          schedule("00:42 00:57"),
+          schedule("01:12 01:27"),
+          schedule("01:42 01:57")
+        )
+    );
+    var request = requestBuilder(T00_00, 100 * STEP).enableOptimization(Optimization.PARALLEL);
+    // Keep one path for each departure
+    request.searchParams().timetable(true);
+
+    var sequentialConfig = RaptorConfig.<TestTripSchedule>defaultConfigForTest();
+    var parallelConfig = new RaptorConfig<TestTripSchedule>(
+      new RaptorTuningParameters() {
+        @Override
+        public int searchThreadPoolSize() {
+          return 2;
+        }
+
+        @Override
+        public int searchWindowSlices() {
+          return 4;
+        }
+      }
+    );
+    try {
+      var expected = PathUtils.pathsToString(
+        new RaptorService<>(sequentialConfig).route(request.build(), data)
+      );
+      var result = PathUtils.pathsToString(
+        new RaptorService<>(parallelConfig).route(request.build(), data)
+      );
+
+      assertTrue(expected.lines().count() > 4, expected);
+      assertEquals(expected, result);
+    } finally {
+      parallelConfig.shutdown();
+    }
+  }
+
+  private static void assertSlice(int edt, int searchWindow, RaptorRequest<?> request) {
+    assertEquals(edt, request.searchParams().earliestDepartureTime());
+    assertEquals(searchWindow, request.searchParams().searchWindowInSeconds());
+  }
+
+  private static RaptorRequest<TestTripSchedule> request(int edt, int searchWindow) {
+    return requestBuilder(edt, searchWindow).build();
+  }
+
+  private static RaptorRequestBuilder<TestTripSchedule> requestBuilder(
+    int edt,
+    int searchWindow
+  ) {
+    var builder = new RaptorRequestBuilder<TestTripSchedule>();
+    builder
+      .profile(RaptorProfile.MULTI_CRITERIA)
+      .searchParams()
+      .earliestDepartureTime(edt)
+      .searchWindow(Duration.ofSeconds(searchWindow))
+      .addAccessPaths(TestAccessEgress.walk(STOP_B, D30s))
+      .addEgressPaths(TestAccessEgress.walk(STOP_D, D20s));
+    return builder;
+  }
+}
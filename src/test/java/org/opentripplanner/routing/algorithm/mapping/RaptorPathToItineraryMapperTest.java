@@ -238,6 +238,7 @@ public class RaptorPathToItineraryMapperTest {
       null,
       null,
       null,
+      null,
       null
     );
   }
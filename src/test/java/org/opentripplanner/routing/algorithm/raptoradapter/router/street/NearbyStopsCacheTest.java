@@ -0,0 +1,195 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+class NearbyStopsCacheTest {
+
+  private static final Duration DURATION_LIMIT = Duration.ofMinutes(20);
+  private static final int MAX_STOP_COUNT = 100;
+  private static final double LAT = 59.9;
+  private static final double LON = 10.7;
+
+  private final NearbyStopsCache subject = new NearbyStopsCache(10, Duration.ofMinutes(10));
+  private int searches = 0;
+
+  @Test
+  void requestsFromTheSameCellShareTheResult() {
+    find(request(LAT, LON), StreetMode.WALK, 0);
+    find(request(LAT + NearbyStopsCache.CELL_SIZE_DEGREES / 4, LON), StreetMode.WALK, 0);
+    assertEquals(1, searches);
+
+    find(request(LAT + NearbyStopsCache.CELL_SIZE_DEGREES, LON), StreetMode.WALK, 0);
+    assertEquals(2, searches);
+  }
+
+  @Test
+  void accessAndEgressAreCachedSeparately() {
+    var request = request(LAT, LON);
+    find(request, StreetMode.WALK, AccessEgressType.ACCESS, 0);
+    find(request, StreetMode.WALK, AccessEgressType.EGRESS, 0);
+    assertEquals(2, searches);
+  }
+
+  @Test
+  void streetModeAndPreferencesArePartOfTheKey() {
+    find(request(LAT, LON), StreetMode.WALK, 0);
+    find(request(LAT, LON), StreetMode.BIKE, 0);
+    assertEquals(2, searches);
+
+    var slowWalk = request(LAT, LON);
+    slowWalk.withPreferences(p -> p.withWalk(w -> w.withSpeed(0.8)));
+    find(slowWalk, StreetMode.WALK, 0);
+    assertEquals(3, searches);
+  }
+
+  @Test
+  void realtimeEdgeChangesInvalidateTheResult() {
+    find(request(LAT, LON), StreetMode.WALK, 0);
+    find(request(LAT, LON), StreetMode.WALK, 1);
+    find(request(LAT, LON), StreetMode.WALK, 1);
+    assertEquals(2, searches);
+  }
+
+  @Test
+  void rentalAndStopLocationsAreNotCached() {
+    find(request(LAT, LON), StreetMode.BIKE_RENTAL, 0);
+    find(request(LAT, LON), StreetMode.BIKE_RENTAL, 0);
+    assertEquals(2, searches);
+
+    var fromStop = new RouteRequest();
+    fromStop.setFrom(new GenericLocation(null, new FeedScopedId("F", "S1"), LAT, LON));
+    find(fromStop, StreetMode.WALK, 0);
+    find(fromStop, StreetMode.WALK, 0);
+    assertEquals(4, searches);
+  }
+
+  @Test
+  void resultsAreWeighedByPathSize() {
+    var edge = StreetModelForTest.streetEdge(StreetModelForTest.V1, StreetModelForTest.V2);
+    var stop = TransitModelForTest.of().stop("S1").build();
+    var stops = List.of(
+      new NearbyStop(stop, 100, Collections.<Edge>nCopies(2, edge), null),
+      new NearbyStop(stop, 100, null, null)
+    );
+    assertEquals(5, NearbyStopsCache.size(null, stops));
+
+    // A result larger than the cache is not kept
+    List<NearbyStop> longPath = List.of(
+      new NearbyStop(stop, 100, Collections.<Edge>nCopies(20, edge), null)
+    );
+    for (int i = 0; i < 2; ++i) {
+      subject.findNearbyStops(
+        request(LAT, LON),
+        StreetMode.WALK,
+        AccessEgressType.ACCESS,
+        DURATION_LIMIT,
+        MAX_STOP_COUNT,
+        0,
+        () -> {
+          ++searches;
+          return longPath;
+        }
+      );
+    }
+    assertEquals(2, searches);
+  }
+
+  @Test
+  void disabledCache() {
+    var disabled = new NearbyStopsCache(0, Duration.ofMinutes(10));
+    assertNull(disabled.getCache());
+
+    for (int i = 0; i < 2; ++i) {
+      disabled.findNearbyStops(
+        request(LAT, LON),
+        StreetMode.WALK,
+        AccessEgressType.ACCESS,
+        DURATION_LIMIT,
+        MAX_STOP_COUNT,
+        0,
+        this::search
+      );
+    }
+    assertEquals(2, searches);
+  }
+
+  @Test
+  void searchExceptionsAreNotWrapped() {
+    assertThrows(
+      OTPRequestTimeoutException.class,
+      () ->
+        subject.findNearbyStops(
+          request(LAT, LON),
+          StreetMode.WALK,
+          AccessEgressType.ACCESS,
+          DURATION_LIMIT,
+          MAX_STOP_COUNT,
+          0,
+          () -> {
+            throw new OTPRequestTimeoutException();
+          }
+        )
+    );
+  }
+
+  @Test
+  void hitsAndMissesAreRecorded() {
+    find(request(LAT, LON), StreetMode.WALK, 0);
+    find(request(LAT, LON), StreetMode.WALK, 0);
+    find(request(LAT, LON), StreetMode.WALK, 0);
+
+    var stats = subject.getCache().stats();
+    assertEquals(2, stats.hitCount());
+    assertEquals(1, stats.missCount());
+  }
+
+  private void find(RouteRequest request, StreetMode mode, long realTimeEdgeVersion) {
+    find(request, mode, AccessEgressType.ACCESS, realTimeEdgeVersion);
+  }
+
+  private void find(
+    RouteRequest request,
+    StreetMode mode,
+    AccessEgressType type,
+    long realTimeEdgeVersion
+  ) {
+    subject.findNearbyStops(
+      request,
+      mode,
+      type,
+      DURATION_LIMIT,
+      MAX_STOP_COUNT,
+      realTimeEdgeVersion,
+      this::search
+    );
+  }
+
+  private Collection<NearbyStop> search() {
+    ++searches;
+    return List.of();
+  }
+
+  private static RouteRequest request(double lat, double lon) {
+    var request = new RouteRequest();
+    request.setFrom(new GenericLocation(lat, lon));
+    request.setTo(new GenericLocation(lat, lon));
+    return request;
+  }
+}
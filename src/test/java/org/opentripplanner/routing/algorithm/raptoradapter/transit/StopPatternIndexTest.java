@@ -0,0 +1,173 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.model.StopTime;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.network.RoutingTripPattern;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.site.RegularStop;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+import org.opentripplanner.transit.model.timetable.TripTimesFactory;
+
+class StopPatternIndexTest {
+
+  private static final TransitModelForTest TEST_MODEL = TransitModelForTest.of();
+  private static final LocalDate DATE = LocalDate.of(2024, 1, 1);
+
+  private static final RegularStop STOP_A = TEST_MODEL.stop("A").build();
+  private static final RegularStop STOP_B = TEST_MODEL.stop("B").build();
+  private static final RegularStop STOP_C = TEST_MODEL.stop("C").build();
+
+  private static final RoutingTripPattern PATTERN_1 = pattern("P1", STOP_A, STOP_B);
+  private static final RoutingTripPattern PATTERN_2 = pattern("P2", STOP_B, STOP_C);
+  private static final RoutingTripPattern PATTERN_3 = pattern("P3", STOP_C, STOP_A);
+
+  @Test
+  void create() {
+    var subject = StopPatternIndex.create(
+      List.of(
+        List.of(forDate(PATTERN_1, DATE)),
+        List.of(forDate(PATTERN_1, DATE.plusDays(1)), forDate(PATTERN_2, DATE.plusDays(1)))
+      )
+    );
+
+    // A pattern running on more than one date is only added once
+    assertArrayEquals(patterns(PATTERN_1), subject.patternsForStop(STOP_A.getIndex()));
+    assertArrayEquals(patterns(PATTERN_1, PATTERN_2), subject.patternsForStop(STOP_B.getIndex()));
+    assertArrayEquals(patterns(PATTERN_2), subject.patternsForStop(STOP_C.getIndex()));
+    assertTrue(subject.contains(PATTERN_1.patternIndex()));
+    assertFalse(subject.contains(PATTERN_3.patternIndex()));
+  }
+
+  @Test
+  void stopNotVisitedByAnyPattern() {
+    var subject = StopPatternIndex.create(List.of(List.of(forDate(PATTERN_1, DATE))));
+
+    assertArrayEquals(new int[0], subject.patternsForStop(STOP_C.getIndex()));
+    assertArrayEquals(new int[0], subject.patternsForStop(STOP_C.getIndex() + 1000));
+  }
+
+  @Test
+  void withPatterns() {
+    var original = StopPatternIndex.create(List.of(List.of(forDate(PATTERN_1, DATE))));
+
+    // No new patterns, the index is unchanged
+    assertSame(original, original.withPatterns(List.of(forDate(PATTERN_1, DATE.plusDays(1)))));
+
+    var subject = original.withPatterns(
+      List.of(forDate(PATTERN_1, DATE), forDate(PATTERN_3, DATE))
+    );
+
+    assertArrayEquals(patterns(PATTERN_1, PATTERN_3), subject.patternsForStop(STOP_A.getIndex()));
+    assertArrayEquals(patterns(PATTERN_3), subject.patternsForStop(STOP_C.getIndex()));
+    // Stops not visited by the new patterns share the array with the original
+    assertSame(
+      original.patternsForStop(STOP_B.getIndex()),
+      subject.patternsForStop(STOP_B.getIndex())
+    );
+
+    // The original index is not changed
+    assertArrayEquals(patterns(PATTERN_1), original.patternsForStop(STOP_A.getIndex()));
+    assertFalse(original.contains(PATTERN_3.patternIndex()));
+  }
+
+  @Test
+  void transitLayerPatchIndexWhenPatternsAreReplaced() {
+    var scheduled = new TransitLayer(
+      Map.of(DATE, List.of(forDate(PATTERN_1, DATE))),
+      null,
+      null,
+      null,
+      null,
+      null,
+      null,
+      null,
+      null,
+      null
+    );
+    var realtime = new TransitLayer(scheduled);
+    assertSame(scheduled.getStopPatternIndex(), realtime.getStopPatternIndex());
+
+    realtime.replaceTripPatternsForDate(
+      DATE,
+      List.of(forDate(PATTERN_1, DATE), forDate(PATTERN_2, DATE))
+    );
+
+    assertTrue(realtime.getStopPatternIndex().contains(PATTERN_2.patternIndex()));
+    assertFalse(scheduled.getStopPatternIndex().contains(PATTERN_2.patternIndex()));
+  }
+
+  @Test
+  void transitLayerRebuildIndexWhenManyPatternsAreReplaced() {
+    var realtime = new TransitLayer(
+      new TransitLayer(
+        Map.of(DATE, List.of(forDate(PATTERN_1, DATE))),
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null
+      )
+    );
+
+    // Each update replaces the pattern added by the previous update
+    RoutingTripPattern first = null;
+    for (int i = 0; i <= StopPatternIndex.MIN_ADDED_PATTERNS_BEFORE_REBUILD; i++) {
+      var added = pattern("U" + i, STOP_A, STOP_C);
+      first = first == null ? added : first;
+      realtime.replaceTripPatternsForDate(
+        DATE,
+        List.of(forDate(PATTERN_1, DATE), forDate(added, DATE))
+      );
+    }
+
+    var index = realtime.getStopPatternIndex();
+    assertFalse(index.isRebuildNeeded());
+    assertFalse(index.contains(first.patternIndex()));
+    assertTrue(index.contains(PATTERN_1.patternIndex()));
+    assertEquals(2, index.patternsForStop(STOP_A.getIndex()).length);
+  }
+
+  private static int[] patterns(RoutingTripPattern... patterns) {
+    int[] result = new int[patterns.length];
+    for (int i = 0; i < patterns.length; i++) {
+      result[i] = patterns[i].patternIndex();
+    }
+    return result;
+  }
+
+  private static TripPatternForDate forDate(RoutingTripPattern pattern, LocalDate date) {
+    return new TripPatternForDate(pattern, List.of(tripTimes()), List.of(), date);
+  }
+
+  private static TripTimes tripTimes() {
+    return TripTimesFactory.tripTimes(
+      TransitModelForTest.trip("1").build(),
+      List.of(new StopTime()),
+      new Deduplicator()
+    );
+  }
+
+  private static RoutingTripPattern pattern(String id, RegularStop... stops) {
+    return TripPattern
+      .of(TransitModelForTest.id(id))
+      .withRoute(TransitModelForTest.route("R" + id).build())
+      .withStopPattern(TransitModelForTest.stopPattern(stops))
+      .build()
+      .getRoutingTripPattern();
+  }
+}
@@ -66,6 +66,7 @@ class TransitLayerTest {
       null,
       null,
       null,
+      null,
       null
     );
     var runningOnDate = transitLayer.getTripPatternsRunningOnDateCopy(date);
@@ -96,6 +97,7 @@ class TransitLayerTest {
       null,
       null,
       null,
+      null,
       null
     );
     var runningOnDate = transitLayer.getTripPatternsForRunningDate(date);
@@ -125,6 +127,7 @@ class TransitLayerTest {
       null,
       null,
       null,
+      null,
       null
     );
     var startingOnDate = transitLayer.getTripPatternsOnServiceDateCopy(date);
@@ -154,6 +157,7 @@ class TransitLayerTest {
       null,
       null,
       null,
+      null,
       null
     );
     var startingOnDate = transitLayer.getTripPatternsOnServiceDateCopy(serviceDate);
@@ -188,6 +192,7 @@ class TransitLayerTest {
       null,
       null,
       null,
+      null,
       null
     );
     var startingOnDate = transitLayer.getTripPatternsOnServiceDateCopy(firstRunningDate);
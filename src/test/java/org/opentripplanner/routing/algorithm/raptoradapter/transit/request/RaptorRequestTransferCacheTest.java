@@ -0,0 +1,101 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static java.time.Duration.ofMillis;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.RaptorTransferIndex;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.Transfer;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache.StreetRelevantOptions;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.graph.kryosupport.KryoBuilder;
+
+class RaptorRequestTransferCacheTest {
+
+  private final List<List<Transfer>> transfersByStopIndex = List.of(
+    List.of(new Transfer(1, 100)),
+    List.of(new Transfer(0, 100))
+  );
+  private final RouteRequest request = new RouteRequest();
+  private final RouteRequest slowWalk = request.clone();
+
+  {
+    slowWalk.withPreferences(p -> p.withWalk(w -> w.withSpeed(0.5)));
+  }
+
+  private final RouteRequest longTimeout = request.clone();
+  /** Differs from the long timeout request in milliseconds, which are not shown in the log. */
+  private final RouteRequest almostLongTimeout = request.clone();
+
+  {
+    longTimeout.withPreferences(p -> p.withStreet(s -> s.withRoutingTimeout(ofMillis(7_000))));
+    almostLongTimeout.withPreferences(p ->
+      p.withStreet(s -> s.withRoutingTimeout(ofMillis(7_500)))
+    );
+  }
+
+  @Test
+  void usePrecomputedTransferIndexesForEqualRequests() {
+    var precomputed = precomputedIndexes(request);
+    var index = precomputed.values().iterator().next();
+
+    var subject = new RaptorRequestTransferCache(10, precomputed);
+    subject.put(transfersByStopIndex, request);
+
+    assertSame(index, subject.get(transfersByStopIndex, request));
+    assertNotSame(index, subject.get(transfersByStopIndex, slowWalk));
+  }
+
+  @Test
+  void precomputedTransferIndexesAreOnlyUsedForEqualParameters() {
+    var precomputed = precomputedIndexes(longTimeout);
+    var index = precomputed.values().iterator().next();
+
+    var subject = new RaptorRequestTransferCache(10, precomputed);
+
+    assertNotSame(index, subject.get(transfersByStopIndex, almostLongTimeout));
+    assertSame(index, subject.get(transfersByStopIndex, longTimeout));
+  }
+
+  @Test
+  void transferIndexesByRequest() {
+    var subject = new RaptorRequestTransferCache(10);
+    subject.put(transfersByStopIndex, request);
+    subject.put(transfersByStopIndex, slowWalk);
+
+    var result = subject.transferIndexesByRequest();
+
+    assertEquals(2, result.size());
+    assertSame(
+      subject.get(transfersByStopIndex, request),
+      result.get(RaptorRequestTransferCache.transferRequestKey(request))
+    );
+  }
+
+  /**
+   * Create the transfer indexes of the request, and serialize and deserialize them like when they
+   * are saved with the graph.
+   */
+  @SuppressWarnings("unchecked")
+  private Map<StreetRelevantOptions, RaptorTransferIndex> precomputedIndexes(
+    RouteRequest request
+  ) {
+    var cache = new RaptorRequestTransferCache(10);
+    cache.put(transfersByStopIndex, request);
+
+    var bytes = new ByteArrayOutputStream();
+    try (var output = new Output(bytes)) {
+      KryoBuilder.create().writeClassAndObject(output, cache.transferIndexesByRequest());
+    }
+    try (var input = new Input(bytes.toByteArray())) {
+      return (Map<StreetRelevantOptions, RaptorTransferIndex>) KryoBuilder.create().readClassAndObject(input);
+    }
+  }
+}
@@ -1,6 +1,8 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.opentripplanner.transit.model._data.TransitModelForTest.id;
 
 import java.time.LocalDate;
@@ -85,6 +87,13 @@ public class RaptorRoutingRequestTransitDataCreatorTest {
     assertEquals(-82800, ((TripScheduleWithOffset) r3.getTripSchedule(0)).getSecondsOffset());
     assertEquals(0, ((TripScheduleWithOffset) r3.getTripSchedule(1)).getSecondsOffset());
     assertEquals(86400, ((TripScheduleWithOffset) r3.getTripSchedule(2)).getSecondsOffset());
+
+    // The times are stored by stop position, then by trip, with the day offset applied
+    assertArrayEquals(new int[] { -82800, 0, 86400, -75600, 7200, 93600 }, r3.departureTimes());
+    assertEquals(7200, r3.getTripSchedule(1).departure(1));
+
+    // The trip schedules are reused
+    assertSame(r3.getTripSchedule(1), r3.getTripSchedule(1));
   }
 
   private static TripPatternForDates findTripPatternForDate(
@@ -0,0 +1,136 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.time.ServiceDateUtils;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
+import org.opentripplanner.routing.api.request.preference.WheelchairPreferences;
+import org.opentripplanner.routing.api.request.request.filter.AllowAllTransitFilter;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+class TripPatternForDatesCacheTest {
+
+  private static final LocalDate DATE = LocalDate.of(2024, 2, 1);
+  private static final ZonedDateTime TIME_ZERO = ServiceDateUtils.asStartOfService(
+    DATE,
+    ZoneId.of("Europe/Oslo")
+  );
+
+  private final AtomicInteger factoryCalls = new AtomicInteger();
+  private final TripPatternForDatesCache subject = new TripPatternForDatesCache(10);
+
+  @Test
+  void shareEntryForEqualRequests() {
+    var transitLayer = transitLayer();
+
+    var first = get(transitLayer, 1, 1, filter(false));
+    var second = get(transitLayer, 1, 1, filter(false));
+
+    assertSame(first, second);
+    assertEquals(1, factoryCalls.get());
+    assertEquals(1, subject.size());
+  }
+
+  @Test
+  void createNewEntryIfSearchDaysOrFilterDiffer() {
+    var transitLayer = transitLayer();
+
+    get(transitLayer, 1, 1, filter(false));
+    get(transitLayer, 0, 1, filter(false));
+    get(transitLayer, 1, 1, filter(true));
+
+    assertEquals(3, factoryCalls.get());
+    assertEquals(3, subject.size());
+  }
+
+  @Test
+  void createNewEntryIfDateIsReplaced() {
+    var transitLayer = transitLayer();
+    var first = get(transitLayer, 1, 1, filter(false));
+
+    // Update a date outside the search-day range, the entry is still valid
+    var realtimeLayer = new TransitLayer(transitLayer);
+    realtimeLayer.replaceTripPatternsForDate(DATE.plusDays(2), new ArrayList<>());
+    assertSame(first, get(realtimeLayer, 1, 1, filter(false)));
+    assertEquals(1, factoryCalls.get());
+
+    // Update a date inside the search-day range
+    realtimeLayer.replaceTripPatternsForDate(DATE.minusDays(1), new ArrayList<>());
+    assertNotSame(first, get(realtimeLayer, 1, 1, filter(false)));
+    assertEquals(2, factoryCalls.get());
+
+    // The scheduled transit layer still use the original entry
+    assertSame(first, get(transitLayer, 1, 1, filter(false)));
+    assertEquals(2, factoryCalls.get());
+  }
+
+  @Test
+  void invalidate() {
+    var transitLayer = transitLayer();
+    get(transitLayer, 0, 0, filter(false));
+    get(transitLayer, 1, 1, filter(false));
+
+    subject.invalidate(List.of(DATE.plusDays(3)));
+    assertEquals(2, subject.size());
+
+    subject.invalidate(List.of(DATE.plusDays(1)));
+    assertEquals(1, subject.size());
+
+    subject.invalidate(List.of(DATE));
+    assertEquals(0, subject.size());
+  }
+
+  private ActiveTripPatterns get(
+    TransitLayer transitLayer,
+    int pastDays,
+    int futureDays,
+    TransitDataProviderFilter filter
+  ) {
+    return subject.get(
+      transitLayer,
+      TIME_ZERO,
+      pastDays,
+      futureDays,
+      filter,
+      () -> {
+        factoryCalls.incrementAndGet();
+        return new ActiveTripPatterns(new ArrayList<>());
+      }
+    );
+  }
+
+  /**
+   * A new filter instance is created for each call, the cache relies on filter equality.
+   */
+  private static TransitDataProviderFilter filter(boolean requireBikesAllowed) {
+    return new RouteRequestTransitDataProviderFilter(
+      requireBikesAllowed,
+      false,
+      WheelchairPreferences.DEFAULT,
+      false,
+      false,
+      Set.<FeedScopedId>of(),
+      List.of(AllowAllTransitFilter.of())
+    );
+  }
+
+  private TransitLayer transitLayer() {
+    var patternsForDate = new HashMap<LocalDate, List<TripPatternForDate>>();
+    for (int i = -3; i <= 3; i++) {
+      patternsForDate.put(DATE.plusDays(i), new ArrayList<>());
+    }
+    return new TransitLayer(patternsForDate, null, null, null, null, null, subject, null, null, null);
+  }
+}
@@ -0,0 +1,160 @@
+package org.opentripplanner.routing.framework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.routing.framework.RoutingPhaseExecutor.phase;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.routing.api.response.RoutingError;
+import org.opentripplanner.routing.api.response.RoutingErrorCode;
+import org.opentripplanner.routing.error.RoutingValidationException;
+
+class RoutingPhaseExecutorTest {
+
+  private final ExecutorService threadPool = Executors.newCachedThreadPool();
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final RoutingPhaseExecutor subject = new RoutingPhaseExecutor(
+    threadPool,
+    registry,
+    List.of()
+  );
+
+  @AfterEach
+  void shutdown() {
+    threadPool.shutdownNow();
+  }
+
+  @Test
+  void runAllPhasesAndRecordQueueingTime() {
+    Set<String> done = ConcurrentHashMap.newKeySet();
+
+    subject.runAll(
+      phase("access", () -> done.add("access")),
+      phase("egress", () -> done.add("egress"))
+    );
+
+    assertEquals(Set.of("access", "egress"), done);
+    for (String name : done) {
+      var timer = registry
+        .find(RoutingPhaseExecutor.ROUTING_PHASE_QUEUE)
+        .tag(RoutingPhaseExecutor.PHASE_TAG, name)
+        .timer();
+      assertNotNull(timer, name);
+      assertEquals(1, timer.count());
+    }
+  }
+
+  @Test
+  void validationErrorsAreNotWrapped() {
+    var error = new RoutingValidationException(
+      List.of(new RoutingError(RoutingErrorCode.LOCATION_NOT_FOUND, null))
+    );
+
+    var thrown = assertThrows(
+      RoutingValidationException.class,
+      () ->
+        subject.runAll(
+          phase("ok", () -> {}),
+          phase(
+            "fails",
+            () -> {
+              throw error;
+            }
+          )
+        )
+    );
+    assertSame(error, thrown);
+  }
+
+  @Test
+  void failingPhaseCancelsTheOtherPhases() throws InterruptedException {
+    var started = new CountDownLatch(1);
+    var interrupted = new CountDownLatch(1);
+
+    assertThrows(
+      IllegalStateException.class,
+      () ->
+        subject.runAll(
+          phase("slow", () -> waitForInterrupt(started, interrupted)),
+          phase(
+            "fails",
+            () -> {
+              // A phase which is not started yet is cancelled without running
+              awaitQuietly(started);
+              throw new IllegalStateException();
+            }
+          )
+        )
+    );
+    assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void timeoutCancelsAllPhases() throws InterruptedException {
+    var started = new CountDownLatch(2);
+    var interrupted = new CountDownLatch(2);
+    var caller = Thread.currentThread();
+    threadPool.submit(() -> {
+      awaitQuietly(started);
+      caller.interrupt();
+    });
+
+    try {
+      assertThrows(
+        OTPRequestTimeoutException.class,
+        () ->
+          subject.runAll(
+            phase("a", () -> waitForInterrupt(started, interrupted)),
+            phase("b", () -> waitForInterrupt(started, interrupted))
+          )
+      );
+    } finally {
+      // Clear the interrupt flag set by the "timeout"
+      assertTrue(Thread.interrupted());
+    }
+    assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+  }
+
+  /** A phase which never completes, it waits until it is interrupted. */
+  private static void waitForInterrupt(CountDownLatch started, CountDownLatch interrupted) {
+    started.countDown();
+    try {
+      while (true) {
+        sleep(10);
+        OTPRequestTimeoutException.checkForTimeout();
+      }
+    } catch (OTPRequestTimeoutException e) {
+      interrupted.countDown();
+      throw e;
+    }
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
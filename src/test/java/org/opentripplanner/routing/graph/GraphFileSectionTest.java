@@ -0,0 +1,79 @@
+package org.opentripplanner.routing.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.application.OtpAppException;
+
+class GraphFileSectionTest {
+
+  private static final List<Integer> LARGE = IntStream.range(0, 1_000_000).boxed().toList();
+
+  @Test
+  void writeAndReadSections() throws IOException {
+    var bytes = write(List.of(1, 2, 3));
+    var input = new DataInputStream(new ByteArrayInputStream(bytes));
+
+    var sections = GraphFileSection.readAll(input);
+
+    assertEquals(List.of("a", "b"), sections.stream().map(GraphFileSection::name).toList());
+    assertEquals("A", sections.get(0).deserialize());
+    assertEquals(Map.of("b", 2), sections.get(1).deserialize());
+    assertEquals(List.of(1, 2, 3), GraphFileSection.readStreamed(input, "streamed"));
+  }
+
+  @Test
+  void streamedSectionLargerThanOneChunk() throws IOException {
+    var input = new DataInputStream(new ByteArrayInputStream(write(LARGE)));
+    GraphFileSection.readAll(input);
+
+    assertEquals(LARGE, GraphFileSection.readStreamed(input, "streamed"));
+  }
+
+  @Test
+  void corruptSection() throws IOException {
+    var bytes = write(null);
+    // The last byte of section "b"
+    bytes[bytes.length - 1] ^= 1;
+
+    var sections = GraphFileSection.readAll(new DataInputStream(new ByteArrayInputStream(bytes)));
+
+    assertEquals("A", sections.get(0).deserialize());
+    assertThrows(OtpAppException.class, () -> sections.get(1).deserialize());
+  }
+
+  @Test
+  void corruptStreamedSection() throws IOException {
+    var bytes = write(LARGE);
+    bytes[bytes.length / 2] ^= 1;
+    var input = new DataInputStream(new ByteArrayInputStream(bytes));
+    GraphFileSection.readAll(input);
+
+    assertThrows(OtpAppException.class, () -> GraphFileSection.readStreamed(input, "streamed"));
+  }
+
+  private static byte[] write(@Nullable List<Integer> streamed) throws IOException {
+    var bytes = new ByteArrayOutputStream();
+    var output = new DataOutputStream(bytes);
+    var sections = new ArrayList<GraphFileSection>();
+    sections.add(GraphFileSection.serialize("a", "A"));
+    sections.add(GraphFileSection.serialize("b", Map.of("b", 2)));
+    GraphFileSection.writeAll(output, sections);
+    if (streamed != null) {
+      GraphFileSection.writeStreamed(output, "streamed", new ArrayList<>(streamed));
+    }
+    output.close();
+    return bytes.toByteArray();
+  }
+}
@@ -0,0 +1,145 @@
+package org.opentripplanner.routing.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.opentripplanner.datastore.api.FileType;
+import org.opentripplanner.datastore.file.FileDataSource;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
+import org.opentripplanner.service.worldenvelope.internal.DefaultWorldEnvelopeRepository;
+import org.opentripplanner.standalone.config.BuildConfig;
+import org.opentripplanner.standalone.config.RouterConfig;
+import org.opentripplanner.street.model.StreetLimitationParameters;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.basic.TransitMode;
+import org.opentripplanner.transit.model.network.RoutingTripPattern;
+import org.opentripplanner.transit.service.TransitModel;
+
+class SerializedGraphObjectTest {
+
+  private static final int N_EDGES = 20;
+
+  private final Graph graph = new Graph();
+  private final TransitModel transitModel = new TransitModel();
+  private final StreetVertex A = intersectionVertex("A", 60.0, 10.0);
+
+  @TempDir
+  Path dir;
+
+  SerializedGraphObjectTest() {
+    graph.addVertex(A);
+    for (int i = 0; i < N_EDGES; ++i) {
+      var v = intersectionVertex("V" + i, 60.001, 10.0 + i * 0.001);
+      graph.addVertex(v);
+      var permission = i % 2 == 0
+        ? StreetTraversalPermission.PEDESTRIAN
+        : StreetTraversalPermission.BICYCLE_AND_CAR;
+      streetEdge(A, v, 100 + i, permission);
+      streetEdge(v, A, 100 + i, permission);
+    }
+  }
+
+  @Test
+  void outgoingEdgesKeepTheirOrder() {
+    var loaded = saveAndLoad();
+
+    var vertex = loaded.graph.getVertex(A.getLabel());
+    assertNotNull(vertex);
+    assertEquals(distances(A.getOutgoing()), distances(vertex.getOutgoing()));
+  }
+
+  @Test
+  void compactStreetGraphIsMappedForTheLoadedGraph() {
+    OTPFeature.CompactStreetGraph.testOn(() -> {
+      var loaded = saveAndLoad();
+      assertTrue(Files.exists(dir.resolve("graph.obj.streets")));
+
+      var subject = loaded.graph.getCompactStreetGraph();
+      assertNotNull(subject);
+      assertEquals(2 * N_EDGES, subject.numberOfEdges());
+      for (int e = 0; e < subject.numberOfEdges(); ++e) {
+        var edge = (StreetEdge) subject.edge(e);
+        assertSame(edge.getFromVertex(), subject.vertex(subject.fromVertex(e)));
+        assertSame(edge.getToVertex(), subject.vertex(subject.toVertex(e)));
+        assertEquals((float) edge.getDistanceMeters(), subject.distance(e));
+        for (TraverseMode mode : List.of(TraverseMode.WALK, TraverseMode.CAR)) {
+          assertEquals(edge.getPermission().allows(mode), subject.allows(e, mode));
+        }
+      }
+    });
+  }
+
+  @Test
+  void loadingRaisesTheTripPatternIndexCounter() throws ReflectiveOperationException {
+    var pattern = TransitModelForTest.of().pattern(TransitMode.BUS).build();
+    transitModel.addTripPattern(pattern.getId(), pattern);
+    var file = save();
+
+    // Like a server started with a graph with fewer trip patterns than the loaded graph
+    var counter = indexCounter();
+    int value = counter.getAndSet(0);
+    try {
+      var loaded = SerializedGraphObject.loadWithoutStaticState(
+        new FileDataSource(file, FileType.GRAPH)
+      );
+      assertNotNull(loaded);
+      assertFalse(loaded.transitModel.getAllTripPatterns().isEmpty());
+      for (var p : loaded.transitModel.getAllTripPatterns()) {
+        assertTrue(p.getRoutingTripPattern().patternIndex() < RoutingTripPattern.indexCounter());
+      }
+    } finally {
+      counter.accumulateAndGet(value, Math::max);
+    }
+  }
+
+  private SerializedGraphObject saveAndLoad() {
+    return SerializedGraphObject.load(save());
+  }
+
+  private File save() {
+    var file = dir.resolve("graph.obj").toFile();
+    new SerializedGraphObject(
+      graph,
+      transitModel,
+      new DefaultWorldEnvelopeRepository(),
+      BuildConfig.DEFAULT,
+      RouterConfig.DEFAULT,
+      DataImportIssueSummary.empty(),
+      null,
+      null,
+      new StreetLimitationParameters()
+    )
+      .save(new FileDataSource(file, FileType.GRAPH));
+    return file;
+  }
+
+  /** The counter is shared by all graphs, set it like in a server started with another graph. */
+  private static AtomicInteger indexCounter() throws ReflectiveOperationException {
+    var field = RoutingTripPattern.class.getDeclaredField("INDEX_COUNTER");
+    field.setAccessible(true);
+    return (AtomicInteger) field.get(null);
+  }
+
+  private static List<Double> distances(Collection<Edge> edges) {
+    return edges.stream().map(Edge::getDistanceMeters).toList();
+  }
+}
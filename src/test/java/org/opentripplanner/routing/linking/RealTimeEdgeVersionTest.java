@@ -0,0 +1,97 @@
+package org.opentripplanner.routing.linking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.service.vehiclerental.model.TestVehicleRentalStationBuilder;
+import org.opentripplanner.service.vehiclerental.street.StreetVehicleRentalLink;
+import org.opentripplanner.service.vehiclerental.street.VehicleRentalPlaceVertex;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.TraverseModeSet;
+import org.opentripplanner.transit.service.StopModel;
+
+class RealTimeEdgeVersionTest {
+
+  private static final double LAT = 60.0;
+  private static final double LON = 10.0;
+
+  private final Graph graph = new Graph();
+
+  @BeforeEach
+  void setUp() {
+    var a = StreetModelForTest.intersectionVertex("A", LAT, LON);
+    var b = StreetModelForTest.intersectionVertex("B", LAT, LON + 0.001);
+    graph.addVertex(a);
+    graph.addVertex(b);
+    StreetModelForTest.streetEdge(a, b);
+    StreetModelForTest.streetEdge(b, a);
+    graph.index(new StopModel());
+  }
+
+  @Test
+  void vehicleRentalLinksDoNotChangeTheVersion() {
+    var station = TestVehicleRentalStationBuilder
+      .of()
+      .withCoordinates(LAT + 0.00005, LON + 0.0005)
+      .build();
+    var rentalVertex = new VehicleRentalPlaceVertex(station);
+    graph.addVertex(rentalVertex);
+
+    var tempEdges = graph
+      .getLinker()
+      .linkVertexForRealTime(
+        rentalVertex,
+        new TraverseModeSet(TraverseMode.WALK),
+        LinkingDirection.BOTH_WAYS,
+        (vertex, streetVertex) ->
+          List.of(
+            StreetVehicleRentalLink.createStreetVehicleRentalLink(
+              (VehicleRentalPlaceVertex) vertex,
+              streetVertex
+            ),
+            StreetVehicleRentalLink.createStreetVehicleRentalLink(
+              streetVertex,
+              (VehicleRentalPlaceVertex) vertex
+            )
+          )
+      );
+    assertFalse(rentalVertex.getOutgoing().isEmpty());
+    assertEquals(0, version());
+
+    tempEdges.disposeEdges();
+    assertEquals(0, version());
+  }
+
+  @Test
+  void otherLinksChangeTheVersion() {
+    var vertex = StreetModelForTest.intersectionVertex("C", LAT + 0.00005, LON + 0.0005);
+    graph.addVertex(vertex);
+
+    var tempEdges = graph
+      .getLinker()
+      .linkVertexForRealTime(
+        vertex,
+        new TraverseModeSet(TraverseMode.WALK),
+        LinkingDirection.BOTH_WAYS,
+        (v, streetVertex) ->
+          List.of(
+            StreetModelForTest.streetEdge((StreetVertex) v, streetVertex),
+            StreetModelForTest.streetEdge(streetVertex, (StreetVertex) v)
+          )
+      );
+    assertEquals(1, version());
+
+    tempEdges.disposeEdges();
+    assertEquals(2, version());
+  }
+
+  private long version() {
+    return graph.getStreetIndex().getRealTimeEdgeVersion();
+  }
+}
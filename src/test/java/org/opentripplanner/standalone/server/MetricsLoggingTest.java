@@ -0,0 +1,100 @@
+package org.opentripplanner.standalone.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.ext.flex.flexpathcalculator.FlexPathCache;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssue;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.NearbyStopsCache;
+import org.opentripplanner.transit.service.TransitModel;
+
+class MetricsLoggingTest {
+
+  private final MeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void graphMetricsAreReplacedWhenTheGraphIsReloaded() {
+    var oldCache = new NearbyStopsCache(10, Duration.ofMinutes(1));
+    var newCache = new NearbyStopsCache(10, Duration.ofMinutes(1));
+    var oldGraph = metricsLogging(oldCache);
+    var newGraph = metricsLogging(newCache);
+
+    oldGraph.bindGraphMetrics();
+    miss(oldCache);
+    assertEquals(1.0, nearbyStopsCacheMisses());
+
+    oldGraph.removeGraphMetrics();
+    assertNull(registry.find("cache.gets").tag("cache", "nearbyStopsCache").functionCounter());
+
+    newGraph.bindGraphMetrics();
+    assertEquals(0.0, nearbyStopsCacheMisses());
+    miss(newCache);
+    miss(newCache);
+    assertEquals(2.0, nearbyStopsCacheMisses());
+  }
+
+  @Test
+  void issueSummaryIsNotReadWhenTheMetricsAreBound() {
+    var issue = new DataImportIssue() {
+      @Override
+      public String getMessage() {
+        return "Issue";
+      }
+    };
+    var loads = new AtomicInteger();
+    var issueSummary = DataImportIssueSummary.lazy(() -> {
+      loads.incrementAndGet();
+      return new DataImportIssueSummary(List.of(issue, issue));
+    });
+    var subject = metricsLogging(issueSummary, new NearbyStopsCache(10, Duration.ofMinutes(1)));
+
+    subject.bindGraphMetrics();
+    assertEquals(0, loads.get());
+
+    assertEquals(2.0, registry.get("graph_build_issues_total").gauge().value());
+    assertTrue(loads.get() > 0);
+    assertEquals(
+      2.0,
+      registry.get("graph_build_issues").tag("type", issue.getType()).gauge().value()
+    );
+  }
+
+  private MetricsLogging metricsLogging(NearbyStopsCache nearbyStopsCache) {
+    return metricsLogging(DataImportIssueSummary.empty(), nearbyStopsCache);
+  }
+
+  private MetricsLogging metricsLogging(
+    DataImportIssueSummary issueSummary,
+    NearbyStopsCache nearbyStopsCache
+  ) {
+    return new MetricsLogging(
+      registry,
+      new TransitModel(),
+      RaptorConfig.defaultConfigForTest(),
+      issueSummary,
+      nearbyStopsCache,
+      new FlexPathCache(10)
+    );
+  }
+
+  private double nearbyStopsCacheMisses() {
+    return registry
+      .get("cache.gets")
+      .tags("cache", "nearbyStopsCache", "result", "miss")
+      .functionCounter()
+      .count();
+  }
+
+  private static void miss(NearbyStopsCache cache) {
+    cache.getCache().getIfPresent(new Object());
+  }
+}
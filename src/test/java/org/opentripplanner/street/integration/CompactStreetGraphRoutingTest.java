@@ -0,0 +1,120 @@
+package org.opentripplanner.street.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.locationtech.jts.geom.Coordinate;
+import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.TestOtpModel;
+import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.impl.GraphPathFinder;
+import org.opentripplanner.street.model.StreetConstants;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TemporaryVerticesContainer;
+import org.opentripplanner.street.search.compact.CompactStreetGraph;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.test.support.ResourceLoader;
+
+/**
+ * The direct street search should find the same path with and without the compact street graph.
+ */
+class CompactStreetGraphRoutingTest {
+
+  private static final Instant DATE_TIME = Instant.parse("2024-05-02T10:00:00Z");
+
+  private static final Graph HERRENBERG = herrenbergGraph();
+
+  static Stream<Arguments> herrenbergTestCases() {
+    var mozartStr = new GenericLocation(48.59713, 8.86107);
+    var fritzLeharStr = new GenericLocation(48.59696, 8.85806);
+    var schiessmauer = new GenericLocation(48.59737, 8.86350);
+    var zeppelinStr = new GenericLocation(48.59972, 8.86239);
+    return Stream
+      .of(StreetMode.WALK, StreetMode.BIKE, StreetMode.CAR)
+      .flatMap(mode ->
+        Stream.of(
+          Arguments.of(mode, false, mozartStr, fritzLeharStr),
+          Arguments.of(mode, true, fritzLeharStr, mozartStr),
+          Arguments.of(mode, false, schiessmauer, zeppelinStr),
+          Arguments.of(mode, true, zeppelinStr, schiessmauer)
+        )
+      );
+  }
+
+  @ParameterizedTest
+  @MethodSource("herrenbergTestCases")
+  void sameResultAsRegularSearch(
+    StreetMode mode,
+    boolean arriveBy,
+    GenericLocation from,
+    GenericLocation to
+  ) {
+    var compactGraph = CompactStreetGraph.of(HERRENBERG.getVertices());
+
+    var expected = route(mode, arriveBy, from, to, null);
+    var result = route(mode, arriveBy, from, to, compactGraph);
+
+    assertEquals(1, result.size());
+    assertEquals(coordinates(expected.get(0)), coordinates(result.get(0)));
+    assertEquals(expected.get(0).getDuration(), result.get(0).getDuration());
+    assertEquals(expected.get(0).getWeight(), result.get(0).getWeight(), 0.001);
+  }
+
+  private static List<GraphPath<State, Edge, Vertex>> route(
+    StreetMode mode,
+    boolean arriveBy,
+    GenericLocation from,
+    GenericLocation to,
+    CompactStreetGraph compactGraph
+  ) {
+    var request = new RouteRequest();
+    request.setDateTime(DATE_TIME);
+    request.setArriveBy(arriveBy);
+    request.setFrom(from);
+    request.setTo(to);
+    request.journey().direct().setMode(mode);
+
+    try (var vertices = new TemporaryVerticesContainer(HERRENBERG, request, mode, mode)) {
+      var finder = new GraphPathFinder(
+        null,
+        null,
+        StreetConstants.DEFAULT_MAX_CAR_SPEED,
+        compactGraph,
+        null,
+        null,
+        null
+      );
+      var paths = finder.graphPathFinderEntryPoint(request, vertices);
+      assertNotNull(paths);
+      return paths;
+    }
+  }
+
+  /**
+   * The temporary vertices are not the same in the two searches, so the paths are compared by
+   * the coordinates of the vertices.
+   */
+  private static List<Coordinate> coordinates(GraphPath<State, Edge, Vertex> path) {
+    return path.states.stream().map(it -> it.getVertex().getCoordinate()).toList();
+  }
+
+  private static Graph herrenbergGraph() {
+    TestOtpModel model = ConstantsForTests.buildOsmGraph(
+      ResourceLoader.of(CompactStreetGraphRoutingTest.class).file("herrenberg-minimal.osm.pbf")
+    );
+    model.transitModel().index();
+    model.graph().index(model.transitModel().getStopModel());
+    return model.graph();
+  }
+}
@@ -5,14 +5,19 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
 import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
 import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdgeBuilder;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.LineString;
@@ -284,6 +289,49 @@ public class StreetEdgeTest {
     assertNotNull(e0.traverse(e1.traverse(state)[0])[0]);
   }
 
+  /**
+   * Walk-only searches create the states without a state editor, the result should be the same as
+   * for walking in other searches.
+   */
+  @ParameterizedTest
+  @ValueSource(booleans = { false, true })
+  public void testWalkOnlyTraversal(boolean arriveBy) {
+    StreetVertex v3 = intersectionVertex("maple_3rd", 1.0, 1.0);
+    var edges = List.of(
+      streetEdge(v0, v1, 50.0, StreetTraversalPermission.ALL),
+      streetEdge(v1, v2, 18.4, StreetTraversalPermission.ALL),
+      streetEdge(v2, v3, 30.0, StreetTraversalPermission.ALL)
+    );
+
+    var walkOnly = walk(edges, StreetMode.WALK, arriveBy);
+    var withEditor = walk(edges, StreetMode.FLEXIBLE, arriveBy);
+
+    for (int i = 0; i < walkOnly.size(); ++i) {
+      var expected = withEditor.get(i);
+      var actual = walkOnly.get(i);
+      assertSame(expected.getVertex(), actual.getVertex());
+      assertSame(expected.getBackEdge(), actual.getBackEdge());
+      assertEquals(expected.getTimeSeconds(), actual.getTimeSeconds());
+      assertEquals(expected.getWeight(), actual.getWeight());
+      assertEquals(expected.getWalkDistance(), actual.getWalkDistance());
+      assertEquals(expected.getBackMode(), actual.getBackMode());
+    }
+    // After the first edge the states share the state data
+    assertSame(walkOnly.get(1).stateData, walkOnly.get(3).stateData);
+  }
+
+  private List<State> walk(List<StreetEdge> edges, StreetMode mode, boolean arriveBy) {
+    var request = StreetSearchRequest.copyOf(proto).withMode(mode).withArriveBy(arriveBy).build();
+    var path = arriveBy ? edges.reversed() : edges;
+    var start = arriveBy ? path.getFirst().getToVertex() : path.getFirst().getFromVertex();
+    List<State> states = new ArrayList<>();
+    states.add(new State(start, Instant.EPOCH, StateData.getBaseCaseStateData(request), request));
+    for (StreetEdge edge : path) {
+      states.add(edge.traverse(states.getLast())[0]);
+    }
+    return states;
+  }
+
   @Test
   public void testElevationProfile() {
     var elevationProfile = new PackedCoordinateSequence.Double(
@@ -0,0 +1,258 @@
+package org.opentripplanner.street.search.ch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+import org.opentripplanner.street.search.intersection_model.ConstantIntersectionTraversalCalculator;
+import org.opentripplanner.street.search.intersection_model.IntersectionTraversalCalculator;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.DominanceFunctions;
+
+class ContractionHierarchyTest {
+
+  private static final int GRID_SIZE = 12;
+  private static final double STEP_DEGREES = 0.001;
+  private static final double STEP_METERS = 111.0;
+  private static final double MAX_DURATION = 3600;
+
+  private final List<Vertex> vertices = new ArrayList<>();
+  private final StreetVertex[][] grid = new StreetVertex[GRID_SIZE][GRID_SIZE];
+  private final ContractionHierarchy hierarchy;
+
+  /**
+   * A grid with random car speeds, where some of the streets are one-way and some can not be used
+   * by car.
+   */
+  ContractionHierarchyTest() {
+    var random = new Random(42);
+    for (int row = 0; row < GRID_SIZE; ++row) {
+      for (int col = 0; col < GRID_SIZE; ++col) {
+        var v = StreetModelForTest.intersectionVertex(
+          "V" + row + "_" + col,
+          60.0 + row * STEP_DEGREES,
+          10.0 + col * STEP_DEGREES
+        );
+        v.setIndex(vertices.size());
+        vertices.add(v);
+        grid[row][col] = v;
+        if (row > 0) {
+          randomStreet(random, grid[row - 1][col], v);
+        }
+        if (col > 0) {
+          randomStreet(random, grid[row][col - 1], v);
+        }
+      }
+    }
+    hierarchy = ContractionHierarchy.of(vertices);
+  }
+
+  @Test
+  void hierarchyContainsTheCarNetwork() {
+    assertEquals(GRID_SIZE * GRID_SIZE, hierarchy.numberOfNodes());
+    assertTrue(hierarchy.numberOfShortcuts() > 0);
+    assertTrue(hierarchy.numberOfEdges() > hierarchy.numberOfShortcuts());
+  }
+
+  @Test
+  void findFastestPaths() {
+    for (Vertex from : vertices) {
+      var expected = fastestDurations(from);
+      for (Vertex to : vertices) {
+        var edges = new ContractionHierarchySearch(hierarchy, MAX_DURATION).findPath(from, to);
+        if (!expected.containsKey(to)) {
+          assertNull(edges, from + " -> " + to);
+          continue;
+        }
+        assertNotNull(edges, from + " -> " + to);
+        assertEquals(expected.get(to), duration(from, to, edges), 0.01, from + " -> " + to);
+      }
+    }
+  }
+
+  @Test
+  void maxDuration() {
+    var from = grid[0][0];
+    var to = grid[GRID_SIZE - 1][GRID_SIZE - 1];
+    double duration = fastestDurations(from).get(to);
+
+    assertNotNull(new ContractionHierarchySearch(hierarchy, duration + 1).findPath(from, to));
+    assertNull(new ContractionHierarchySearch(hierarchy, duration - 1).findPath(from, to));
+  }
+
+  @Test
+  void temporaryOriginAndDestination() {
+    var from = StreetModelForTest.intersectionVertex("From", 60.0005, 10.0);
+    street(grid[0][0], from, 10);
+    street(from, grid[1][0], 10);
+    var to = StreetModelForTest.intersectionVertex("To", 60.011, 10.0115);
+    street(grid[GRID_SIZE - 1][GRID_SIZE - 2], to, 10);
+    street(to, grid[GRID_SIZE - 1][GRID_SIZE - 1], 10);
+
+    var edges = new ContractionHierarchySearch(hierarchy, MAX_DURATION).findPath(from, to);
+
+    assertNotNull(edges);
+    assertEquals(fastestDurations(from).get(to), duration(from, to, edges), 0.01);
+  }
+
+  @Test
+  void originAndDestinationOnTheSameStreet() {
+    var from = StreetModelForTest.intersectionVertex("From", 60.0003, 10.0);
+    var to = StreetModelForTest.intersectionVertex("To", 60.0006, 10.0);
+    street(grid[0][0], from, 10);
+    street(from, to, 10);
+    street(to, grid[1][0], 10);
+
+    var edges = new ContractionHierarchySearch(hierarchy, MAX_DURATION).findPath(from, to);
+
+    assertNotNull(edges);
+    assertEquals(1, edges.size());
+    assertSame(from, edges.get(0).getFromVertex());
+    assertSame(to, edges.get(0).getToVertex());
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = { false, true })
+  void streetSearchWithoutTurnCosts(boolean arriveBy) {
+    var from = grid[1][2];
+    var to = grid[GRID_SIZE - 2][GRID_SIZE - 1];
+    var noTurnCosts = new ConstantIntersectionTraversalCalculator(0);
+
+    var expected = search(from, to, arriveBy, null, noTurnCosts);
+    var actual = search(from, to, arriveBy, hierarchy, noTurnCosts);
+
+    assertSame(from, actual.states.getFirst().getVertex());
+    assertSame(to, actual.states.getLast().getVertex());
+    assertEquals(expected.getWeight(), actual.getWeight(), 0.01);
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = { false, true })
+  void streetSearchWithTurnCosts(boolean arriveBy) {
+    var from = grid[1][2];
+    var to = grid[GRID_SIZE - 2][GRID_SIZE - 1];
+
+    var expected = search(from, to, arriveBy, null, null);
+    var actual = search(from, to, arriveBy, hierarchy, null);
+
+    // The fastest path is only used if it has the lowest possible weight
+    assertSame(from, actual.states.getFirst().getVertex());
+    assertSame(to, actual.states.getLast().getVertex());
+    assertEquals(expected.getWeight(), actual.getWeight(), 0.01);
+  }
+
+  private static GraphPath<State, Edge, Vertex> search(
+    Vertex from,
+    Vertex to,
+    boolean arriveBy,
+    ContractionHierarchy hierarchy,
+    IntersectionTraversalCalculator calculator
+  ) {
+    var request = new RouteRequest();
+    request.setArriveBy(arriveBy);
+    var paths = StreetSearchBuilder
+      .of()
+      .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setRequest(request)
+      .setStreetRequest(new StreetRequest(StreetMode.CAR))
+      .setIntersectionTraversalCalculator(calculator)
+      .setContractionHierarchy(hierarchy, Duration.ofHours(1))
+      .setFrom(from)
+      .setTo(to)
+      .getPathsToTarget();
+    assertEquals(1, paths.size());
+    return paths.get(0);
+  }
+
+  /** The duration of the path, after checking that the edges are connected. */
+  private static double duration(Vertex from, Vertex to, List<Edge> edges) {
+    Vertex v = from;
+    double duration = 0;
+    for (Edge edge : edges) {
+      assertSame(v, edge.getFromVertex());
+      duration += ContractionHierarchy.duration((StreetEdge) edge);
+      v = edge.getToVertex();
+    }
+    assertSame(to, v);
+    return duration;
+  }
+
+  /** The durations of the fastest paths from the vertex, found by a plain Dijkstra search. */
+  private static Map<Vertex, Double> fastestDurations(Vertex from) {
+    Map<Vertex, Double> durations = new HashMap<>();
+    var queue = new PriorityQueue<Map.Entry<Vertex, Double>>(
+      Comparator.comparingDouble(Map.Entry::getValue)
+    );
+    durations.put(from, 0.0);
+    queue.add(Map.entry(from, 0.0));
+    while (!queue.isEmpty()) {
+      var entry = queue.poll();
+      if (entry.getValue() > durations.get(entry.getKey())) {
+        continue;
+      }
+      for (Edge edge : entry.getKey().getOutgoing()) {
+        if (!ContractionHierarchy.isCarEdge(edge)) {
+          continue;
+        }
+        double next = entry.getValue() + ContractionHierarchy.duration((StreetEdge) edge);
+        var to = edge.getToVertex();
+        if (next <= MAX_DURATION && next < durations.getOrDefault(to, Double.MAX_VALUE)) {
+          durations.put(to, next);
+          queue.add(Map.entry(to, next));
+        }
+      }
+    }
+    return durations;
+  }
+
+  private static void randomStreet(Random random, StreetVertex a, StreetVertex b) {
+    float speed = 5 + random.nextInt(26);
+    double p = random.nextDouble();
+    var permission = p < 0.1 ? StreetTraversalPermission.PEDESTRIAN : StreetTraversalPermission.ALL;
+    street(a, b, STEP_METERS, permission, speed);
+    if (p < 0.1 || p > 0.3) {
+      street(b, a, STEP_METERS, permission, speed);
+    }
+  }
+
+  private static void street(StreetVertex a, StreetVertex b, double length) {
+    street(a, b, length, StreetTraversalPermission.ALL, 10);
+  }
+
+  private static void street(
+    StreetVertex a,
+    StreetVertex b,
+    double length,
+    StreetTraversalPermission permission,
+    float speed
+  ) {
+    StreetModelForTest
+      .streetEdgeBuilder(a, b, length, permission)
+      .withCarSpeed(speed)
+      .buildAndConnect();
+  }
+}
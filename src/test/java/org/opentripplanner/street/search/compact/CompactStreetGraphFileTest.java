@@ -0,0 +1,153 @@
+package org.opentripplanner.street.search.compact;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.FreeEdge;
+import org.opentripplanner.street.model.vertex.BarrierVertex;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+class CompactStreetGraphFileTest {
+
+  private static final String GRAPH_ID = "0000161;1700000000000";
+
+  private final StreetVertex A = intersectionVertex("A", 60.0, 10.0);
+  private final StreetVertex B = intersectionVertex("B", 60.001, 10.0);
+  private final StreetVertex C = intersectionVertex("C", 60.001, 10.001);
+  private final BarrierVertex D = new BarrierVertex(10.002, 60.001, 0);
+  private final List<Vertex> vertices = List.of(A, B, C, D);
+
+  @TempDir
+  Path dir;
+
+  CompactStreetGraphFileTest() {
+    streetEdge(A, B, 100, StreetTraversalPermission.ALL);
+    streetEdge(B, A, 100, StreetTraversalPermission.ALL);
+    streetEdge(B, C, 120, StreetTraversalPermission.PEDESTRIAN);
+    streetEdge(C, D, 50, StreetTraversalPermission.BICYCLE_AND_CAR);
+    FreeEdge.createFreeEdge(C, A);
+    for (int i = 0; i < vertices.size(); ++i) {
+      // Not the same order as the vertices of the compact graph
+      vertices.get(i).setIndex(vertices.size() - 1 - i);
+    }
+  }
+
+  @Test
+  void pathOf() {
+    assertEquals(
+      Path.of("data", "graph.obj.streets"),
+      CompactStreetGraphFile.pathOf(Path.of("data", "graph.obj"))
+    );
+  }
+
+  @Test
+  void writeAndMap() throws IOException {
+    var expected = CompactStreetGraph.of(vertices);
+    var path = dir.resolve("graph.obj.streets");
+
+    CompactStreetGraphFile.write(expected, path, GRAPH_ID);
+    var subject = CompactStreetGraphFile.map(path, vertices, GRAPH_ID);
+
+    assertNotNull(subject);
+    assertEquals(expected.numberOfVertices(), subject.numberOfVertices());
+    assertEquals(expected.numberOfEdges(), subject.numberOfEdges());
+    assertEquals(expected.maxCarSpeed(), subject.maxCarSpeed());
+
+    for (int v = 0; v < expected.numberOfVertices(); ++v) {
+      assertSame(expected.vertex(v), subject.vertex(v));
+      assertEquals(expected.lat(v), subject.lat(v));
+      assertEquals(expected.lon(v), subject.lon(v));
+      assertEquals(expected.firstOutgoingEdge(v), subject.firstOutgoingEdge(v));
+      assertEquals(expected.endOutgoingEdge(v), subject.endOutgoingEdge(v));
+      assertEquals(expected.firstIncoming(v), subject.firstIncoming(v));
+      assertEquals(expected.endIncoming(v), subject.endIncoming(v));
+      for (int i = expected.firstIncoming(v); i < expected.endIncoming(v); ++i) {
+        assertEquals(expected.incomingEdge(i), subject.incomingEdge(i));
+      }
+    }
+    for (int e = 0; e < expected.numberOfEdges(); ++e) {
+      assertSame(expected.edge(e), subject.edge(e));
+      assertEquals(expected.fromVertex(e), subject.fromVertex(e));
+      assertEquals(expected.toVertex(e), subject.toVertex(e));
+      assertEquals(expected.isStreetEdge(e), subject.isStreetEdge(e));
+      assertEquals(expected.isFreeEdge(e), subject.isFreeEdge(e));
+      assertEquals(expected.isStairs(e), subject.isStairs(e));
+      for (TraverseMode mode : TraverseMode.values()) {
+        assertEquals(expected.allows(e, mode), subject.allows(e, mode));
+        assertEquals(expected.isNoThruTraffic(e, mode), subject.isNoThruTraffic(e, mode));
+      }
+      assertEquals(expected.distance(e), subject.distance(e));
+      assertEquals(expected.effectiveWalkDistance(e), subject.effectiveWalkDistance(e));
+      assertEquals(expected.effectiveWalkSafetyDistance(e), subject.effectiveWalkSafetyDistance(e));
+      assertEquals(expected.effectiveBikeDistance(e), subject.effectiveBikeDistance(e));
+      assertEquals(expected.effectiveBikeSafetyDistance(e), subject.effectiveBikeSafetyDistance(e));
+      assertEquals(expected.carSpeed(e), subject.carSpeed(e));
+    }
+  }
+
+  @Test
+  void notMappedIfTheGraphIsChanged() throws IOException {
+    var path = dir.resolve("graph.obj.streets");
+    CompactStreetGraphFile.write(CompactStreetGraph.of(vertices), path, GRAPH_ID);
+
+    streetEdge(D, C, 50, StreetTraversalPermission.BICYCLE_AND_CAR);
+
+    assertNull(CompactStreetGraphFile.map(path, vertices, GRAPH_ID));
+    assertNull(CompactStreetGraphFile.map(path, List.of(A, B, C), GRAPH_ID));
+  }
+
+  @Test
+  void notMappedIfTheOutgoingEdgesAreReordered() throws IOException {
+    var path = dir.resolve("graph.obj.streets");
+    var first = streetEdge(A, C, 150, StreetTraversalPermission.PEDESTRIAN);
+    streetEdge(A, C, 160, StreetTraversalPermission.CAR);
+    CompactStreetGraphFile.write(CompactStreetGraph.of(vertices), path, GRAPH_ID);
+
+    A.removeOutgoing(first);
+    A.addOutgoing(first);
+
+    assertNull(CompactStreetGraphFile.map(path, vertices, GRAPH_ID));
+  }
+
+  @Test
+  void notMappedForAnotherGraphFile() throws IOException {
+    var path = dir.resolve("graph.obj.streets");
+    CompactStreetGraphFile.write(CompactStreetGraph.of(vertices), path, GRAPH_ID);
+
+    assertNull(CompactStreetGraphFile.map(path, vertices, "0000161;1700000000001"));
+  }
+
+  @Test
+  void notMappedIfTheChecksumIsWrong() throws IOException {
+    var path = dir.resolve("graph.obj.streets");
+    CompactStreetGraphFile.write(CompactStreetGraph.of(vertices), path, GRAPH_ID);
+
+    // Change the last byte of the columns
+    byte[] bytes = Files.readAllBytes(path);
+    bytes[bytes.length - 1] ^= 1;
+    Files.write(path, bytes);
+
+    assertNull(CompactStreetGraphFile.map(path, vertices, GRAPH_ID));
+  }
+
+  @Test
+  void notMappedIfNotACompactStreetGraphFile() throws IOException {
+    var path = dir.resolve("graph.obj.streets");
+    Files.write(path, new byte[128]);
+
+    assertNull(CompactStreetGraphFile.map(path, vertices, GRAPH_ID));
+  }
+}
@@ -0,0 +1,103 @@
+package org.opentripplanner.street.search.compact;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.FreeEdge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.BarrierVertex;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+class CompactStreetGraphTest {
+
+  private final StreetVertex A = intersectionVertex("A", 60.0, 10.0);
+  private final StreetVertex B = intersectionVertex("B", 60.001, 10.0);
+  private final StreetVertex C = intersectionVertex("C", 60.001, 10.001);
+  private final BarrierVertex BARRIER = new BarrierVertex(10.002, 60.001, 0);
+  private final StreetVertex NOT_INCLUDED = intersectionVertex("X", 60.002, 10.002);
+
+  @Test
+  void topology() {
+    StreetEdge ab = streetEdge(A, B);
+    StreetEdge ba = streetEdge(B, A);
+    StreetEdge bc = streetEdge(B, C, 120, StreetTraversalPermission.PEDESTRIAN);
+    FreeEdge ca = FreeEdge.createFreeEdge(C, A);
+    StreetEdge cx = streetEdge(C, NOT_INCLUDED);
+
+    var subject = CompactStreetGraph.of(List.of(A, B, C));
+
+    assertEquals(3, subject.numberOfVertices());
+    assertEquals(5, subject.numberOfEdges());
+
+    int a = subject.vertexIndex(A);
+    int b = subject.vertexIndex(B);
+    int c = subject.vertexIndex(C);
+    assertSame(B, subject.vertex(b));
+    assertEquals(-1, subject.vertexIndex(NOT_INCLUDED));
+    assertEquals(60.001f, subject.lat(b));
+
+    // Outgoing edges are numbered by the from-vertex
+    assertEquals(2, subject.endOutgoingEdge(b) - subject.firstOutgoingEdge(b));
+    int e = subject.firstOutgoingEdge(b);
+    assertSame(ba, subject.edge(e));
+    assertSame(bc, subject.edge(e + 1));
+    assertEquals(b, subject.fromVertex(e + 1));
+    assertEquals(c, subject.toVertex(e + 1));
+
+    // The to-vertex of edges leaving the compact graph is not found
+    int cxIndex = subject.firstOutgoingEdge(c) + 1;
+    assertSame(cx, subject.edge(cxIndex));
+    assertEquals(-1, subject.toVertex(cxIndex));
+
+    // Incoming edges
+    assertEquals(2, subject.endIncoming(a) - subject.firstIncoming(a));
+    assertSame(ba, subject.edge(subject.incomingEdge(subject.firstIncoming(a))));
+    assertSame(ca, subject.edge(subject.incomingEdge(subject.firstIncoming(a) + 1)));
+    assertSame(ab, subject.edge(subject.incomingEdge(subject.firstIncoming(b))));
+  }
+
+  @Test
+  void edgeColumns() {
+    streetEdge(A, B, 100, StreetTraversalPermission.ALL);
+    streetEdge(B, C, 120, StreetTraversalPermission.PEDESTRIAN);
+    FreeEdge.createFreeEdge(C, A);
+
+    var subject = CompactStreetGraph.of(List.of(A, B, C));
+    int ab = subject.firstOutgoingEdge(subject.vertexIndex(A));
+    int bc = subject.firstOutgoingEdge(subject.vertexIndex(B));
+    int ca = subject.firstOutgoingEdge(subject.vertexIndex(C));
+
+    assertTrue(subject.isStreetEdge(ab));
+    assertEquals(100f, subject.distance(ab));
+    assertEquals(120f, subject.effectiveWalkDistance(bc));
+    assertTrue(subject.allows(ab, TraverseMode.CAR));
+    assertTrue(subject.allows(bc, TraverseMode.WALK));
+    assertFalse(subject.allows(bc, TraverseMode.BICYCLE));
+
+    assertTrue(subject.isFreeEdge(ca));
+    assertFalse(subject.isStreetEdge(ca));
+    assertTrue(subject.allows(ca, TraverseMode.CAR));
+  }
+
+  @Test
+  void barrierPermissionsAreIncluded() {
+    BARRIER.setBarrierPermissions(StreetTraversalPermission.PEDESTRIAN);
+    streetEdge(C, BARRIER);
+    streetEdge(BARRIER, C);
+
+    var subject = CompactStreetGraph.of(List.of(C, BARRIER));
+
+    for (int e = 0; e < subject.numberOfEdges(); ++e) {
+      assertTrue(subject.allows(e, TraverseMode.WALK));
+      assertFalse(subject.allows(e, TraverseMode.CAR));
+    }
+  }
+}
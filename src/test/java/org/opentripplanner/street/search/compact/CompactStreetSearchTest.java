@@ -0,0 +1,153 @@
+package org.opentripplanner.street.search.compact;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.routing.graph.SimpleConcreteEdge;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+class CompactStreetSearchTest {
+
+  private static final RoutingPreferences PREFERENCES = new RoutingPreferences();
+  private static final double MAX_DURATION = 3600;
+
+  private final StreetVertex A = intersectionVertex("A", 60.0, 10.0);
+  private final StreetVertex B = intersectionVertex("B", 60.001, 10.0);
+  private final StreetVertex C = intersectionVertex("C", 60.001, 10.001);
+
+  // A - B - C is only open for pedestrians, A - C is only open for cars
+  private final StreetEdge AB = streetEdge(A, B, 110, StreetTraversalPermission.PEDESTRIAN);
+  private final StreetEdge BC = streetEdge(B, C, 60, StreetTraversalPermission.PEDESTRIAN);
+  private final StreetEdge AC = streetEdge(A, C, 130, StreetTraversalPermission.CAR);
+
+  @Test
+  void walk() {
+    var graph = CompactStreetGraph.of(List.of(A, B, C));
+    var subject = search(graph, TraverseMode.WALK, false);
+
+    assertEquals(List.of(AB, BC), subject.findPath(A, C, Long.MAX_VALUE));
+  }
+
+  @Test
+  void pathWeight() {
+    var graph = CompactStreetGraph.of(List.of(A, B, C));
+    var subject = search(graph, TraverseMode.WALK, false);
+    subject.findPath(A, C, Long.MAX_VALUE);
+
+    var walk = PREFERENCES.walk();
+    assertEquals(170 / walk.speed() * walk.reluctance(), subject.pathWeight(), 0.001);
+  }
+
+  @Test
+  void otherEdgesAreTraversedAtNoCost() {
+    var elevator = SimpleConcreteEdge.createSimpleConcreteEdge(A, C);
+    var graph = CompactStreetGraph.of(List.of(A, B, C));
+    var subject = search(graph, TraverseMode.WALK, false);
+
+    assertEquals(List.of(elevator), subject.findPath(A, C, Long.MAX_VALUE));
+    assertEquals(0.0, subject.pathWeight());
+  }
+
+  @Test
+  void otherEdgesCoveringADistanceAreNotSkipped() {
+    var origin = intersectionVertex("O", 60.0, 10.0);
+    var destination = intersectionVertex("T", 60.01, 10.0);
+    var x = intersectionVertex("X", 59.9999, 10.0);
+    var y = intersectionVertex("Y", 60.0099, 10.0);
+    streetEdge(origin, destination, 1112, StreetTraversalPermission.PEDESTRIAN);
+    var ox = streetEdge(origin, x, 11, StreetTraversalPermission.PEDESTRIAN);
+    var xy = SimpleConcreteEdge.createSimpleConcreteEdge(x, y);
+    var yt = streetEdge(y, destination, 11, StreetTraversalPermission.PEDESTRIAN);
+    var graph = CompactStreetGraph.of(List.of(origin, destination, x, y));
+    var subject = search(graph, TraverseMode.WALK, false);
+
+    // The path is away from the destination, until the other edge is used
+    assertEquals(List.of(ox, xy, yt), subject.findPath(origin, destination, Long.MAX_VALUE));
+  }
+
+  @Test
+  void arriveBy() {
+    var graph = CompactStreetGraph.of(List.of(A, B, C));
+    var subject = search(graph, TraverseMode.WALK, true);
+
+    // The edges are returned in the order of the search
+    assertEquals(List.of(BC, AB), subject.findPath(C, A, Long.MAX_VALUE));
+  }
+
+  @Test
+  void maxDuration() {
+    var graph = CompactStreetGraph.of(List.of(A, B, C));
+    var subject = CompactStreetSearch.of(graph, TraverseMode.WALK, PREFERENCES, false, 60);
+
+    assertNull(subject.findPath(A, C, Long.MAX_VALUE));
+  }
+
+  @Test
+  void edgesAddedAfterTheGraphIsCreated() {
+    var graph = CompactStreetGraph.of(List.of(A, B, C));
+    var origin = intersectionVertex("O", 60.0, 9.999);
+    var destination = intersectionVertex("D", 60.0005, 10.0);
+    var originEdge = streetEdge(origin, A);
+    var destinationEdge = streetEdge(A, destination);
+    var subject = search(graph, TraverseMode.WALK, false);
+
+    assertEquals(
+      List.of(originEdge, destinationEdge),
+      subject.findPath(origin, destination, Long.MAX_VALUE)
+    );
+  }
+
+  @Test
+  void noThruTraffic() {
+    var origin = intersectionVertex("O", 59.999, 10.0);
+    var p = intersectionVertex("P", 60.0005, 10.0005);
+    var originEdge = streetEdge(origin, A);
+    var ap = streetEdge(A, p);
+    var pc = streetEdge(p, C);
+    ap.setWalkNoThruTraffic(true);
+    var graph = CompactStreetGraph.of(List.of(origin, A, B, C, p));
+
+    // Walking thru the no-thru-traffic area is shorter, but not allowed
+    assertEquals(
+      List.of(originEdge, AB, BC),
+      search(graph, TraverseMode.WALK, false).findPath(origin, C, Long.MAX_VALUE)
+    );
+
+    // The area can be entered if it is the destination
+    assertEquals(
+      List.of(originEdge, ap),
+      search(graph, TraverseMode.WALK, false).findPath(origin, p, Long.MAX_VALUE)
+    );
+
+    // Starting from inside the area is allowed
+    assertEquals(
+      List.of(pc),
+      search(graph, TraverseMode.WALK, false).findPath(p, C, Long.MAX_VALUE)
+    );
+  }
+
+  @Test
+  void unsupportedModes() {
+    var graph = CompactStreetGraph.of(List.of(A, B, C));
+
+    assertNull(search(graph, TraverseMode.BICYCLE, false));
+    assertNull(search(graph, TraverseMode.CAR, false));
+    assertNull(search(graph, TraverseMode.SCOOTER, false));
+  }
+
+  private static CompactStreetSearch search(
+    CompactStreetGraph graph,
+    TraverseMode mode,
+    boolean arriveBy
+  ) {
+    return CompactStreetSearch.of(graph, mode, PREFERENCES, arriveBy, MAX_DURATION);
+  }
+}
@@ -0,0 +1,206 @@
+package org.opentripplanner.street.search.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
+import org.opentripplanner.astar.spi.TraverseVisitor;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+import org.opentripplanner.street.search.landmark.LandmarkTables;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+
+class LandmarkRemainingWeightHeuristicTest {
+
+  private static final int GRID_SIZE = 10;
+  private static final int RIVER = 5;
+  private static final double STEP_DEGREES = 0.001;
+
+  private final StreetVertex[][] grid = new StreetVertex[GRID_SIZE][GRID_SIZE];
+  private final LandmarkTables tables;
+
+  /**
+   * A grid with a river between column 4 and 5, the only bridge is in the first row.
+   */
+  LandmarkRemainingWeightHeuristicTest() {
+    List<Vertex> vertices = new ArrayList<>();
+    for (int row = 0; row < GRID_SIZE; ++row) {
+      for (int col = 0; col < GRID_SIZE; ++col) {
+        var v = StreetModelForTest.intersectionVertex(
+          "V" + row + "_" + col,
+          60.0 + row * STEP_DEGREES,
+          10.0 + col * STEP_DEGREES
+        );
+        v.setIndex(vertices.size());
+        vertices.add(v);
+        grid[row][col] = v;
+        if (row > 0) {
+          street(grid[row - 1][col], v);
+        }
+        if (col > 0 && (col != RIVER || row == 0)) {
+          street(grid[row][col - 1], v);
+        }
+      }
+    }
+    tables = LandmarkTables.of(vertices, 4);
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = StreetMode.class, names = { "CAR", "BIKE" })
+  void estimateIsNotHigherThanTheWeight(StreetMode mode) {
+    var target = grid[GRID_SIZE - 1][GRID_SIZE - 1];
+    var departAt = heuristic(mode, target, false);
+    var arriveBy = heuristic(mode, target, true);
+
+    for (StreetVertex[] row : grid) {
+      for (StreetVertex v : row) {
+        if (v == target) {
+          continue;
+        }
+        var state = new State(v, StreetSearchRequest.of().withMode(mode).build());
+        assertTrue(departAt.estimateRemainingWeight(state) <= weight(mode, v, target));
+        assertTrue(arriveBy.estimateRemainingWeight(state) <= weight(mode, target, v));
+      }
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = StreetMode.class, names = { "CAR", "BIKE" })
+  void estimateIsHigherThanEuclideanEstimateAcrossTheRiver(StreetMode mode) {
+    var from = grid[GRID_SIZE - 1][RIVER - 1];
+    var to = grid[GRID_SIZE - 1][RIVER];
+    var state = new State(from, StreetSearchRequest.of().withMode(mode).build());
+
+    var euclidean = new EuclideanRemainingWeightHeuristic();
+    euclidean.initialize(mode, Set.of(to), false, new RouteRequest().preferences());
+
+    double estimate = heuristic(mode, to, false).estimateRemainingWeight(state);
+    assertTrue(estimate > 10 * euclidean.estimateRemainingWeight(state));
+    assertTrue(estimate <= weight(mode, from, to));
+  }
+
+  @Test
+  void visitFewerVertices() {
+    var from = grid[GRID_SIZE - 1][RIVER - 2];
+    var to = grid[GRID_SIZE - 1][RIVER + 1];
+    var euclidean = new VisitCounter();
+    var landmark = new VisitCounter();
+
+    double expected = search(
+      StreetMode.CAR,
+      from,
+      to,
+      new EuclideanRemainingWeightHeuristic(),
+      euclidean
+    );
+    double actual = search(
+      StreetMode.CAR,
+      from,
+      to,
+      new LandmarkRemainingWeightHeuristic(tables, null),
+      landmark
+    );
+
+    assertEquals(expected, actual, 0.01);
+    assertTrue(landmark.visited < euclidean.visited, landmark.visited + " >= " + euclidean.visited);
+  }
+
+  @Test
+  void walkUsesTheEuclideanEstimate() {
+    var from = grid[GRID_SIZE - 1][RIVER - 1];
+    var to = grid[GRID_SIZE - 1][RIVER];
+    var state = new State(from, StreetSearchRequest.of().withMode(StreetMode.WALK).build());
+
+    var euclidean = new EuclideanRemainingWeightHeuristic();
+    euclidean.initialize(StreetMode.WALK, Set.of(to), false, new RouteRequest().preferences());
+
+    assertEquals(
+      euclidean.estimateRemainingWeight(state),
+      heuristic(StreetMode.WALK, to, false).estimateRemainingWeight(state)
+    );
+  }
+
+  @Test
+  void temporaryDestination() {
+    var from = grid[GRID_SIZE - 1][RIVER - 1];
+    var temporary = StreetModelForTest.intersectionVertex("T", 60.0095, 10.0055);
+    street(grid[GRID_SIZE - 1][RIVER], temporary);
+    var state = new State(from, StreetSearchRequest.of().withMode(StreetMode.CAR).build());
+
+    double estimate = heuristic(StreetMode.CAR, temporary, false).estimateRemainingWeight(state);
+    double weight = weight(StreetMode.CAR, from, temporary);
+    assertTrue(estimate > weight / 10);
+    assertTrue(estimate <= weight);
+  }
+
+  private LandmarkRemainingWeightHeuristic heuristic(
+    StreetMode mode,
+    Vertex destination,
+    boolean arriveBy
+  ) {
+    var heuristic = new LandmarkRemainingWeightHeuristic(tables, null);
+    heuristic.initialize(mode, Set.of(destination), arriveBy, new RouteRequest().preferences());
+    return heuristic;
+  }
+
+  private static double weight(StreetMode mode, Vertex from, Vertex to) {
+    return search(mode, from, to, RemainingWeightHeuristic.TRIVIAL, null);
+  }
+
+  private static double search(
+    StreetMode mode,
+    Vertex from,
+    Vertex to,
+    RemainingWeightHeuristic<State> heuristic,
+    VisitCounter visitor
+  ) {
+    var paths = StreetSearchBuilder
+      .of()
+      .setHeuristic(heuristic)
+      .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setTraverseVisitor(visitor)
+      .setRequest(new RouteRequest())
+      .setStreetRequest(new StreetRequest(mode))
+      .setFrom(from)
+      .setTo(to)
+      .getPathsToTarget();
+    assertEquals(1, paths.size());
+    return paths.get(0).getWeight();
+  }
+
+  private static void street(StreetVertex a, StreetVertex b) {
+    double length = a.getCoordinate().distance(b.getCoordinate()) * 111_000;
+    StreetModelForTest.streetEdge(a, b, length, StreetTraversalPermission.ALL);
+    StreetModelForTest.streetEdge(b, a, length, StreetTraversalPermission.ALL);
+  }
+
+  private static class VisitCounter implements TraverseVisitor<State, Edge> {
+
+    private int visited = 0;
+
+    @Override
+    public void visitEdge(Edge edge) {}
+
+    @Override
+    public void visitVertex(State state) {
+      ++visited;
+    }
+
+    @Override
+    public void visitEnqueue() {}
+  }
+}
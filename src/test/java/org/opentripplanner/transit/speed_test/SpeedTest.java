@@ -15,9 +15,12 @@ import java.util.Map;
 import java.util.function.Predicate;
 import org.opentripplanner.TestServerContext;
 import org.opentripplanner.datastore.OtpDataStore;
+import org.opentripplanner.ext.flex.flexpathcalculator.FlexPathCache;
+import org.opentripplanner.ext.traveltimematrix.TravelTimeMatrixParameters;
 import org.opentripplanner.framework.application.OtpAppException;
 import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.NearbyStopsCache;
 import org.opentripplanner.routing.api.response.RoutingResponse;
 import org.opentripplanner.routing.framework.DebugTimingAggregator;
 import org.opentripplanner.routing.graph.Graph;
@@ -118,9 +121,12 @@ public class SpeedTest {
         TestServerContext.createVehicleRentalService(),
         TestServerContext.createEmissionsService(),
         config.flexConfig,
+        TravelTimeMatrixParameters.defaultValues(),
         List.of(),
         null,
         TestServerContext.createStreetLimitationParametersService(),
+        NearbyStopsCache.of(config.transitRoutingParams),
+        FlexPathCache.of(config.flexConfig),
         null,
         null
       );
@@ -275,7 +281,7 @@ public class SpeedTest {
     TransitModel transitModel = serializedGraphObject.transitModel;
     transitModel.index();
     graph.index(transitModel.getStopModel());
-    return new LoadModel(graph, transitModel, serializedGraphObject.buildConfig);
+    return new LoadModel(graph, transitModel, serializedGraphObject.buildConfig());
   }
 
   private void initProfileStatistics() {